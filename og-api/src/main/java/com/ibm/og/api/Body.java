@@ -22,9 +22,9 @@ public interface Body {
   DataType getDataType();
 
   /**
-   * @return the seed that will be used to generate the random data for this body. Note that we use
-   *         Infinite Streams which only generate Streams.REPEAT_LENGTH random bytes and then repeat
-   *         those over and over until we have {@link #getSize()}.
+   * @return the seed that will be used to select the random data for this body. Note that random
+   *         bodies repeat a shared pattern of Streams.PAYLOAD_LENGTH random bytes, starting at an
+   *         offset derived from this seed, until they reach {@link #getSize()}.
    */
   long getRandomSeed();
 
@@ -11,5 +11,18 @@ package com.ibm.og.api;
  * @since 1.0
  */
 public enum DataType {
-  NONE, RANDOM, ZEROES, CUSTOM;
+  NONE, RANDOM, ZEROES, CUSTOM,
+  /**
+   * Random data drawn from a bounded pool of random payloads. Bodies of the same size and payload
+   * have the same content, so their digests can be computed once and cached
+   *
+   * @since 1.7.0
+   */
+  RANDOM_POOL,
+  /**
+   * Data with a configurable compression ratio and dedupe ratio, generated as it is read
+   *
+   * @since 1.7.0
+   */
+  GENERATED;
 }
@@ -0,0 +1,27 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.api;
+
+/**
+ * A collection of timestamps gathered by a client while executing a request. Fields with a
+ * {@code Millis} suffix are wall clock times from {@link System#currentTimeMillis()}; all other
+ * fields are from {@link System#nanoTime()}. A value of zero indicates the event did not occur.
+ * 
+ * @since 1.7.0
+ */
+public class RequestTimestamps {
+  /** the start time planned by an open loop scheduler, which may precede {@code start} */
+  public long intendedStart;
+  public long startMillis;
+  public long start;
+  public long requestContentStart;
+  public long requestContentFinish;
+  public long responseContentStart;
+  public long responseContentFirstBytes;
+  public long responseContentFinish;
+  public long finish;
+  public long finishMillis;
+}
@@ -17,4 +17,11 @@ public interface Response extends Message {
    * @return the status code for this response
    */
   int getStatusCode();
+
+  /**
+   * Gets the timestamps recorded by the client while executing the request for this response
+   * 
+   * @return request timestamps, or null if the client did not record timestamps
+   */
+  RequestTimestamps getRequestTimestamps();
 }
@@ -0,0 +1,136 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.benchmark;
+
+import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_CONTENT_SHA256;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.amazonaws.SignableRequest;
+import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.DataType;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.s3.v4.AWSV4Auth;
+import com.ibm.og.s3.v4.SignableRequestAdapter;
+import com.ibm.og.util.Context;
+
+/**
+ * Measures the cpu time spent signing a small object write with aws v4 authentication, either with
+ * a signer and credentials created per request and signed by the aws sdk, as requests were signed
+ * before, or by {@link AWSV4Auth}, which shares one signer with cached signing keys. Body digests
+ * are cached in both cases, so the score is the cost of signing alone.
+ * <p>
+ * {@link #authVirtualThread()} signs each request on a new virtual thread, as the client does when
+ * its executor is virtual, and {@link #virtualThread()} measures starting and joining a virtual
+ * thread alone, so the difference between them is the cost of signing on a thread which has
+ * signed nothing before. Both require java 21 or later, and are accessed reflectively.
+ *
+ * @since 1.7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AWSV4SigningBenchmark {
+  private static final String EMPTY_SHA256 =
+      "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+  private Request request;
+  private AWSV4Auth auth;
+  private java.lang.reflect.Method startVirtualThread;
+
+  @Setup
+  public void setup() {
+    this.request = new HttpRequest.Builder(Method.PUT,
+        URI.create("http://127.0.0.1:8080/container/0123456789abcdef0123456789abcdef"),
+        Operation.WRITE).withHeader("Date", "Thu, 03 Mar 2016 10:13:20 GMT")
+            .withHeader("x-og-request-id", "1").withBody(Bodies.zeroes(0))
+            .withContext(Context.X_OG_USERNAME, "AKIDEXAMPLE")
+            .withContext(Context.X_OG_PASSWORD, "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY").build();
+    this.auth = new AWSV4Auth(false, 1, DataType.ZEROES);
+    try {
+      this.startVirtualThread = Thread.class.getMethod("startVirtualThread", Runnable.class);
+    } catch (final NoSuchMethodException e) {
+      this.startVirtualThread = null;
+    }
+  }
+
+  @Benchmark
+  public AuthenticatedRequest sdk() {
+    final AWS4Signer signer = new AWS4Signer(false) {
+      @Override
+      protected String calculateContentHash(final SignableRequest<?> signableRequest) {
+        signableRequest.addHeader(X_AMZ_CONTENT_SHA256, "required");
+        return EMPTY_SHA256;
+      }
+    };
+    signer.setServiceName("s3");
+    final AuthenticatedHttpRequest authenticatedRequest =
+        new AuthenticatedHttpRequest(this.request);
+    signer.sign(new SignableRequestAdapter(authenticatedRequest), new BasicAWSCredentials(
+        this.request.getContext().get(Context.X_OG_USERNAME),
+        this.request.getContext().get(Context.X_OG_PASSWORD)));
+    return authenticatedRequest;
+  }
+
+  @Benchmark
+  public AuthenticatedRequest auth() {
+    return this.auth.authenticate(this.request);
+  }
+
+  @Benchmark
+  public void authVirtualThread() throws Exception {
+    runOnVirtualThread(new Runnable() {
+      @Override
+      public void run() {
+        AWSV4SigningBenchmark.this.auth.authenticate(AWSV4SigningBenchmark.this.request);
+      }
+    });
+  }
+
+  @Benchmark
+  public void virtualThread() throws Exception {
+    runOnVirtualThread(new Runnable() {
+      @Override
+      public void run() {}
+    });
+  }
+
+  private void runOnVirtualThread(final Runnable task) throws Exception {
+    if (this.startVirtualThread == null) {
+      throw new UnsupportedOperationException("virtual threads require java 21 or later");
+    }
+    ((Thread) this.startVirtualThread.invoke(null, task)).join();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(AWSV4SigningBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,102 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.io.ByteStreams;
+import com.ibm.og.api.Body;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.util.io.DataGenerator;
+import com.ibm.og.util.io.PayloadInputStream;
+import com.ibm.og.util.io.Streams;
+
+/**
+ * Measures the throughput of writing a random request body to an output stream, either copied
+ * through an intermediate buffer or written in blocks directly from the shared payload. The output
+ * stream discards its input, so the benchmark measures the cost of producing the body alone.
+ * Generated bodies, whose data is produced as it is read, are copied for comparison.
+ *
+ * @since 1.7.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BodyTransferBenchmark {
+  @Param({"1048576", "67108864"})
+  public long size;
+  @Param({"65536", "1048576"})
+  public int blockSize;
+  private static final DataGenerator GENERATOR = new DataGenerator(4096, 2.0, 2.0);
+
+  @Benchmark
+  public long copy(final Blackhole blackhole) throws IOException {
+    final InputStream in = Streams.create(body());
+    return ByteStreams.copy(in, new BlackholeOutputStream(blackhole));
+  }
+
+  @Benchmark
+  public long writeTo(final Blackhole blackhole) throws IOException {
+    final PayloadInputStream in = (PayloadInputStream) Streams.create(body());
+    return in.writeTo(new BlackholeOutputStream(blackhole), this.blockSize);
+  }
+
+  @Benchmark
+  public long generated(final Blackhole blackhole) throws IOException {
+    final InputStream in = Streams.create(Bodies.generated(this.size, GENERATOR));
+    return ByteStreams.copy(in, new BlackholeOutputStream(blackhole));
+  }
+
+  private Body body() {
+    return Bodies.random(this.size);
+  }
+
+  private static class BlackholeOutputStream extends OutputStream {
+    private final Blackhole blackhole;
+
+    BlackholeOutputStream(final Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void write(final int b) {
+      this.blackhole.consume(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      // a socket reads each byte it is handed; touch both ends of the block as a stand in
+      this.blackhole.consume(b[off]);
+      this.blackhole.consume(b[off + len - 1]);
+    }
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(BodyTransferBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,179 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.benchmark;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.og.object.LegacyObjectMetadata;
+import com.ibm.og.object.ObjectMetadata;
+import com.ibm.og.object.ObjectStorage;
+import com.ibm.og.object.RandomAccessConcurrentHashSet;
+import com.ibm.og.object.RandomObjectPopulator;
+
+/**
+ * Compares object checkout throughput of {@link RandomObjectPopulator} with the previous lock based
+ * checkout, for shared reads and for exclusive updates. Run {@link #main(String[])} to measure at
+ * 1, 8, 32 and 128 threads.
+ *
+ * @since 1.7.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectCheckoutBenchmark {
+  private static final int OBJECTS = 100000;
+  private static final int[] THREADS = {1, 8, 32, 128};
+  private File directory;
+  private RandomObjectPopulator populator;
+  private LockedCheckout locked;
+
+  @Setup
+  public void setup() throws Exception {
+    this.directory = Files.createTempDirectory("object-checkout").toFile();
+    this.populator = new RandomObjectPopulator(UUID.randomUUID(), this.directory.getPath(), "id_",
+        Integer.MAX_VALUE, TimeUnit.HOURS.toMillis(1), null, ObjectStorage.HEAP);
+    this.locked = new LockedCheckout();
+    for (int i = 0; i < OBJECTS; i++) {
+      final String name = UUID.randomUUID().toString().replace("-", "") + "0000";
+      final ObjectMetadata object = LegacyObjectMetadata.fromMetadata(name, i, 0, (byte) 0, -1);
+      this.populator.add(object);
+      this.locked.add(object);
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    this.populator.shutdown();
+  }
+
+  @Benchmark
+  public ObjectMetadata lockedRead() {
+    final ObjectMetadata object = this.locked.get();
+    this.locked.getComplete(object);
+    return object;
+  }
+
+  @Benchmark
+  public ObjectMetadata casRead() {
+    final ObjectMetadata object = this.populator.get();
+    this.populator.getComplete(object);
+    return object;
+  }
+
+  @Benchmark
+  public ObjectMetadata lockedUpdate() {
+    final ObjectMetadata object = this.locked.removeForUpdate();
+    this.locked.updateObject(object);
+    return object;
+  }
+
+  @Benchmark
+  public ObjectMetadata casUpdate() {
+    final ObjectMetadata object = this.populator.removeForUpdate();
+    this.populator.updateObject(object);
+    return object;
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    for (final int threads : THREADS) {
+      new Runner(new OptionsBuilder().include(ObjectCheckoutBenchmark.class.getSimpleName())
+          .threads(threads).build()).run();
+    }
+  }
+
+  // the checkout of RandomObjectPopulator prior to per-object atomic state, retained as a baseline
+  static class LockedCheckout {
+    private final RandomAccessConcurrentHashSet<ObjectMetadata> objects =
+        new RandomAccessConcurrentHashSet<ObjectMetadata>();
+    private final ReadWriteLock objectsLock = new ReentrantReadWriteLock(true);
+    private final ReadWriteLock readingLock = new ReentrantReadWriteLock(true);
+    private final SortedMap<String, Integer> currentlyReading =
+        Collections.synchronizedSortedMap(new TreeMap<String, Integer>());
+    private final SortedMap<String, ObjectMetadata> currentlyUpdating =
+        Collections.synchronizedSortedMap(new TreeMap<String, ObjectMetadata>());
+
+    void add(final ObjectMetadata object) {
+      this.objects.put(object);
+    }
+
+    ObjectMetadata get() {
+      this.objectsLock.readLock().lock();
+      final ObjectMetadata id = this.objects.getRandom();
+      int count = 0;
+      this.readingLock.writeLock().lock();
+      if (this.currentlyReading.containsKey(id.getName())) {
+        this.objectsLock.readLock().unlock();
+        count = this.currentlyReading.get(id.getName()).intValue();
+      }
+      this.currentlyReading.put(id.getName(), Integer.valueOf(count + 1));
+      if (count == 0) {
+        this.objectsLock.readLock().unlock();
+      }
+      this.readingLock.writeLock().unlock();
+      return id;
+    }
+
+    void getComplete(final ObjectMetadata id) {
+      this.readingLock.writeLock().lock();
+      final int count = this.currentlyReading.get(id.getName()).intValue();
+      if (count > 1) {
+        this.currentlyReading.put(id.getName(), Integer.valueOf(count - 1));
+      } else {
+        this.currentlyReading.remove(id.getName());
+      }
+      this.readingLock.writeLock().unlock();
+    }
+
+    ObjectMetadata removeForUpdate() {
+      ObjectMetadata id = null;
+      while (id == null) {
+        this.objectsLock.writeLock().lock();
+        id = this.objects.removeRandom();
+        this.objectsLock.writeLock().unlock();
+        this.readingLock.readLock().lock();
+        final boolean unavailable = this.currentlyReading.containsKey(id.getName());
+        this.readingLock.readLock().unlock();
+        if (unavailable) {
+          this.objects.put(id);
+          id = null;
+        }
+      }
+      this.currentlyUpdating.put(id.getName(), id);
+      return id;
+    }
+
+    void updateObject(final ObjectMetadata id) {
+      this.currentlyUpdating.remove(id.getName());
+      this.objects.put(id);
+    }
+  }
+}
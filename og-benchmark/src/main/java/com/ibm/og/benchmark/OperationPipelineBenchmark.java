@@ -0,0 +1,133 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.benchmark;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.http.HttpResponse;
+import com.ibm.og.scheduling.ConcurrentRequestScheduler;
+import com.ibm.og.statistic.Counter;
+import com.ibm.og.statistic.Statistics;
+import com.ibm.og.test.OperationHandler;
+import com.ibm.og.test.OperationPipeline;
+import com.ibm.og.util.Pair;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.lmax.disruptor.FatalExceptionHandler;
+
+/**
+ * Compares completion throughput of the guava {@code EventBus} with {@link OperationPipeline}.
+ * Each invocation delivers one request event and one completion event to statistics, a condition
+ * which reads statistics, and a scheduler, mirroring a single operation in {@code LoadTest}. Run
+ * once per thread count, e.g. {@code -t 1}, {@code -t 4}, {@code -t 16}, to observe how each
+ * approach scales with concurrent client threads.
+ *
+ * @since 1.7.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperationPipelineBenchmark {
+  private Request request;
+  private Pair<Request, Response> operation;
+  private EventBus eventBus;
+  private OperationPipeline pipeline;
+
+  @Setup
+  public void setup() throws Exception {
+    this.request =
+        new HttpRequest.Builder(Method.PUT, new URI("http://127.0.0.1"), Operation.WRITE).build();
+    this.operation =
+        Pair.of(this.request, (Response) new HttpResponse.Builder().withStatusCode(200).build());
+
+    final Statistics eventBusStats = new Statistics();
+    final ConcurrentRequestScheduler eventBusScheduler =
+        new ConcurrentRequestScheduler(1, 0.0, TimeUnit.SECONDS);
+    this.eventBus = new EventBus();
+    this.eventBus.register(eventBusStats);
+    this.eventBus.register(eventBusScheduler);
+    this.eventBus.register(new Object() {
+      @Subscribe
+      public void update(final Pair<Request, Response> operation) {
+        eventBusStats.get(Operation.ALL, Counter.OPERATIONS);
+      }
+    });
+
+    final Statistics stats = new Statistics();
+    final ConcurrentRequestScheduler scheduler =
+        new ConcurrentRequestScheduler(1, 0.0, TimeUnit.SECONDS);
+    this.pipeline =
+        new OperationPipeline(OperationPipeline.DEFAULT_RING_SIZE, new FatalExceptionHandler());
+    this.pipeline.register(OperationPipeline.Stage.STATISTICS, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {
+        stats.update(request);
+      }
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        stats.update(operation);
+      }
+    });
+    this.pipeline.register(OperationPipeline.Stage.CONDITIONS, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        stats.get(Operation.ALL, Counter.OPERATIONS);
+      }
+    });
+    this.pipeline.register(OperationPipeline.Stage.SCHEDULER, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        scheduler.complete(operation);
+      }
+    });
+    this.pipeline.start();
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.pipeline.shutdown();
+  }
+
+  @Benchmark
+  public void eventBus() {
+    this.eventBus.post(this.request);
+    this.eventBus.post(this.operation);
+  }
+
+  @Benchmark
+  public void pipeline() {
+    this.pipeline.publish(this.request);
+    this.pipeline.publish(this.operation);
+  }
+}
@@ -0,0 +1,119 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+import com.ibm.og.supplier.RandomSupplier;
+import com.ibm.og.supplier.Suppliers;
+
+/**
+ * Compares the choice throughput of {@link RandomSupplier}, with fixed and with dynamic weights,
+ * against the previous linear scan over weights read on every call with a shared random. 2 choices
+ * matches a typical container or filesize choice, 14 the operation mix of
+ * {@code SimpleRequestManager}, and 1000 a large weighted container range.
+ *
+ * @since 1.7.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RandomSupplierBenchmark {
+  @Param({"2", "14", "1000"})
+  public int choices;
+  private Supplier<Integer> fixed;
+  private Supplier<Integer> dynamic;
+  private LinearScan linear;
+
+  @Setup
+  public void setup() {
+    final RandomSupplier.Builder<Integer> fixed = Suppliers.random();
+    final RandomSupplier.Builder<Integer> dynamic = Suppliers.random();
+    final List<Supplier<Double>> weights = Lists.newArrayList();
+    final Random random = new Random(0);
+    for (int i = 0; i < this.choices; i++) {
+      final double weight = 1.0 + random.nextInt(100);
+      fixed.withChoice(i, weight);
+      dynamic.withChoice(i, Suppliers.of(weight));
+      weights.add(Suppliers.of(weight));
+    }
+    this.fixed = fixed.build();
+    this.dynamic = dynamic.build();
+    this.linear = new LinearScan(weights);
+  }
+
+  @Benchmark
+  public Integer aliasFixedWeights() {
+    return this.fixed.get();
+  }
+
+  @Benchmark
+  public Integer aliasDynamicWeights() {
+    return this.dynamic.get();
+  }
+
+  @Benchmark
+  public Integer linearScan() {
+    return this.linear.get();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RandomSupplierBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  // the choice of RandomSupplier prior to alias sampling, retained as a baseline
+  static class LinearScan {
+    private final List<Supplier<Double>> weights;
+    private final Random random = new Random();
+
+    LinearScan(final List<Supplier<Double>> weights) {
+      this.weights = weights;
+    }
+
+    Integer get() {
+      final double[] currentWeights = new double[this.weights.size()];
+      double totalWeight = 0.0;
+      for (int i = 0; i < currentWeights.length; i++) {
+        currentWeights[i] = this.weights.get(i).get();
+        totalWeight += currentWeights[i];
+      }
+      final double rnd = this.random.nextDouble() * totalWeight;
+      double previousWeights = 0.0;
+      for (int i = 0; i < currentWeights.length; i++) {
+        if (rnd < previousWeights + currentWeights[i]) {
+          return i;
+        }
+        previousWeights += currentWeights[i];
+      }
+      throw new IllegalStateException("Incorrect weight calculation");
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.ibm.og.api.Body;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.Scheme;
+import com.ibm.og.supplier.RequestSupplier;
+import com.ibm.og.util.Context;
+
+/**
+ * Measures the throughput of {@link RequestSupplier#get()} for a write with a generated object
+ * name, two headers and two query parameters, addressing the container either by path or by
+ * virtual host.
+ *
+ * @since 1.7.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestSupplierBenchmark {
+  @Param({"false", "true"})
+  public boolean virtualHost;
+  private RequestSupplier requests;
+
+  @Setup
+  public void setup() {
+    final AtomicLong ids = new AtomicLong();
+    final Function<Map<String, String>, String> id = new Function<Map<String, String>, String>() {
+      @Override
+      public String apply(final Map<String, String> context) {
+        return String.valueOf(ids.incrementAndGet());
+      }
+    };
+    final Function<Map<String, String>, String> container =
+        new Function<Map<String, String>, String>() {
+          @Override
+          public String apply(final Map<String, String> context) {
+            context.put(Context.X_OG_CONTAINER_NAME, "vault0");
+            return "vault0";
+          }
+        };
+    final Function<Map<String, String>, String> object =
+        new Function<Map<String, String>, String>() {
+          @Override
+          public String apply(final Map<String, String> context) {
+            final String name = "5f8a1c3e9b7d4e2fa6c0" + ids.get();
+            context.put(Context.X_OG_OBJECT_NAME, name);
+            return name;
+          }
+        };
+    final Function<Map<String, String>, Body> body = new Function<Map<String, String>, Body>() {
+      @Override
+      public Body apply(final Map<String, String> context) {
+        return Bodies.random(4096);
+      }
+    };
+    final Map<String, Function<Map<String, String>, String>> headers =
+        ImmutableMap.of("x-og-header-1", constant("value1"), "x-og-header-2", constant("value2"));
+    final Map<String, Function<Map<String, String>, String>> queryParameters =
+        ImmutableMap.of("versioning", constant(null), "prefix", constant("object"));
+    final List<Function<Map<String, String>, String>> context = ImmutableList.of(object);
+
+    this.requests = new RequestSupplier(Operation.WRITE, id, Method.PUT, Scheme.HTTP,
+        constant("127.0.0.1"), 8080, "s3", container, null, object, queryParameters, false,
+        headers, context, null, null, body, this.virtualHost, null, null, false);
+  }
+
+  private static Function<Map<String, String>, String> constant(final String value) {
+    return new Function<Map<String, String>, String>() {
+      @Override
+      public String apply(final Map<String, String> context) {
+        return value;
+      }
+    };
+  }
+
+  @Benchmark
+  public Request get() {
+    return this.requests.get();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RequestSupplierBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,86 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.og.http.Bodies;
+import com.ibm.og.util.io.BufferPool;
+import com.ibm.og.util.io.MonitoringInputStream;
+import com.ibm.og.util.io.Streams;
+
+/**
+ * Measures the cost of draining a response body which is not handed to a response body consumer,
+ * either through a monitoring stream into a buffer allocated per response, or directly into a
+ * pooled buffer of the configured read block size. The body is read from a payload stream, which
+ * copies it into the buffer much as a socket read would. Each operation runs on a single thread, so
+ * the score for a size of 1 GiB is the cpu time spent per GiB drained.
+ *
+ * @since 1.7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseDrainBenchmark {
+  @Param({"65536", "1073741824"})
+  public long size;
+  @Param({"4096", "65536"})
+  public int blockSize;
+  private BufferPool pool;
+
+  @Setup
+  public void setup() {
+    this.pool = new BufferPool(this.blockSize, true, 1);
+  }
+
+  @Benchmark
+  public long monitored() throws IOException {
+    final byte[] buf = new byte[this.blockSize];
+    final InputStream in = new MonitoringInputStream(Streams.create(Bodies.zeroes(this.size)));
+    long totalBytes = 0;
+    int bytesRead;
+    while ((bytesRead = in.read(buf)) > 0) {
+      totalBytes += bytesRead;
+    }
+    return totalBytes;
+  }
+
+  @Benchmark
+  public long pooled() throws IOException {
+    final ByteBuffer buf = this.pool.acquire();
+    try {
+      return Streams.drain(Streams.create(Bodies.zeroes(this.size)), buf.array());
+    } finally {
+      this.pool.release(buf);
+    }
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ResponseDrainBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,140 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.benchmark;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.http.HttpResponse;
+import com.ibm.og.http.HttpUtil;
+import com.ibm.og.statistic.Counter;
+import com.ibm.og.statistic.Statistics;
+import com.ibm.og.util.Pair;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.AtomicLongMap;
+
+/**
+ * Compares completion throughput of {@link Statistics} with the previous {@code AtomicLongMap}
+ * based counter store, with 64 threads updating a single shared instance. Responses carry no
+ * request timestamps, so only counters are measured.
+ *
+ * @since 1.7.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+  private Request request;
+  private Pair<Request, Response> operation;
+  private AtomicLongMapStatistics atomicLongMapStats;
+  private Statistics stats;
+
+  @Setup
+  public void setup() throws Exception {
+    this.request = new HttpRequest.Builder(Method.PUT, new URI("http://127.0.0.1"),
+        Operation.WRITE).withBody(Bodies.zeroes(1024)).build();
+    this.operation =
+        Pair.of(this.request, (Response) new HttpResponse.Builder().withStatusCode(200).build());
+    this.atomicLongMapStats = new AtomicLongMapStatistics();
+    this.stats = new Statistics();
+  }
+
+  @Benchmark
+  public void atomicLongMap() {
+    this.atomicLongMapStats.update(this.request);
+    this.atomicLongMapStats.update(this.operation);
+  }
+
+  @Benchmark
+  public void striped() {
+    this.stats.update(this.request);
+    this.stats.update(this.operation);
+  }
+
+  @Benchmark
+  public long atomicLongMapRead() {
+    return this.atomicLongMapStats.get(Operation.ALL, Counter.OPERATIONS);
+  }
+
+  @Benchmark
+  public long stripedRead() {
+    return this.stats.get(Operation.ALL, Counter.OPERATIONS);
+  }
+
+  // the counter store of Statistics prior to striping, retained as a baseline
+  static class AtomicLongMapStatistics {
+    private final Map<Operation, AtomicLongMap<Counter>> counters;
+    private final Map<Operation, AtomicLongMap<Integer>> scCounters;
+
+    AtomicLongMapStatistics() {
+      this.counters = Maps.newHashMap();
+      this.scCounters = Maps.newHashMap();
+      for (final Operation operation : Operation.values()) {
+        this.counters.put(operation, AtomicLongMap.<Counter>create());
+        this.scCounters.put(operation, AtomicLongMap.<Integer>create());
+      }
+    }
+
+    void update(final Request request) {
+      final Operation operation = request.getOperation();
+      this.counters.get(operation).addAndGet(Counter.ACTIVE_OPERATIONS, 1);
+      this.counters.get(Operation.ALL).addAndGet(Counter.ACTIVE_OPERATIONS, 1);
+    }
+
+    void update(final Pair<Request, Response> result) {
+      final Request request = result.getKey();
+      final Response response = result.getValue();
+      final Operation operation = request.getOperation();
+      this.counters.get(operation).addAndGet(Counter.ACTIVE_OPERATIONS, -1);
+      this.counters.get(Operation.ALL).addAndGet(Counter.ACTIVE_OPERATIONS, -1);
+
+      this.counters.get(operation).addAndGet(Counter.OPERATIONS, 1);
+      final List<Operation> invalidCountOps = Lists.newArrayList();
+      invalidCountOps.add(Operation.MULTIPART_WRITE);
+      invalidCountOps.add(Operation.MULTIPART_WRITE_INITIATE);
+      invalidCountOps.add(Operation.MULTIPART_WRITE_PART);
+      if (!invalidCountOps.contains(operation)) {
+        this.counters.get(Operation.ALL).addAndGet(Counter.OPERATIONS, 1);
+      }
+      if (HttpUtil.SUCCESS_STATUS_CODES.contains(response.getStatusCode())) {
+        final long bytes = request.getBody().getSize();
+        this.counters.get(operation).addAndGet(Counter.BYTES, bytes);
+        this.counters.get(Operation.ALL).addAndGet(Counter.BYTES, bytes);
+      }
+      this.scCounters.get(operation).incrementAndGet(response.getStatusCode());
+      this.scCounters.get(Operation.ALL).incrementAndGet(response.getStatusCode());
+    }
+
+    long get(final Operation operation, final Counter counter) {
+      return this.counters.get(operation).get(counter);
+    }
+  }
+}
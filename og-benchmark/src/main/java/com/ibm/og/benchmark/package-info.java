@@ -0,0 +1,13 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+/**
+ * JMH microbenchmarks for og hot path components. Build with {@code mvn package} and run with
+ * {@code java -jar og-benchmark/target/benchmarks.jar [regexp] [-t threads]}
+ */
+@ParametersAreNonnullByDefault
+package com.ibm.og.benchmark;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,1245 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.Security;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.ConnectionReuseStrategy;
+import org.apache.http.Header;
+import org.apache.http.HeaderIterator;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Client;
+import com.ibm.og.api.DataType;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.Headers;
+import com.ibm.og.http.HttpAuth;
+import com.ibm.og.http.HttpResponse;
+import com.ibm.og.http.NoneAuth;
+import com.ibm.og.http.ResponseBodyConsumer;
+import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
+import com.ibm.og.util.io.BufferPool;
+import com.ibm.og.util.io.Streams;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ForwardingListenableFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+
+/**
+ * A {@code Client} implementation that uses the Apache HttpComponents HttpAsyncClient library as
+ * its backing library for executing http requests. Requests are multiplexed over a small, fixed
+ * number of non-blocking I/O reactor threads rather than occupying a thread per in-flight request,
+ * which allows a single process to sustain a much larger number of concurrent requests than
+ * {@link ApacheClient}.
+ * <p>
+ * Request log entries, request timestamps, throughput throttling and response body consumers
+ * behave as they do for {@link ApacheClient}. Response body consumers are handed a buffered copy of
+ * the response body once it has been received in full.
+ *
+ * @since 1.7.0
+ */
+public class ApacheAsyncClient implements Client, ThreadStatsProvider {
+  private static final Logger _logger = LoggerFactory.getLogger(ApacheAsyncClient.class);
+  private static final Logger _requestLogger = LoggerFactory.getLogger("RequestLogger");
+  // initial capacity of the buffered copy of response bodies handed to a response body consumer
+  private static final int CONSUMED_BODY_SIZE = 4096;
+  private static final long DEFAULT_SELECT_INTERVAL = 1000;
+  private static final long THROTTLED_SELECT_INTERVAL = 10;
+  private final int ioThreads;
+  private final int connectTimeout;
+  private final int soTimeout;
+  private final boolean soReuseAddress;
+  private final int soLinger;
+  private final boolean soKeepAlive;
+  private final boolean tcpNoDelay;
+  private final int soSndBuf;
+  private final int soRcvBuf;
+  private final boolean persistentConnections;
+  private final int maxIdleTime;
+  private final boolean chunkedEncoding;
+  private final boolean expectContinue;
+  private final List<String> protocols;
+  private final List<String> cipherSuites;
+  private final File keyStore;
+  private final String keyStorePassword;
+  private final String keyPassword;
+  private final File trustStore;
+  private final String trustStorePassword;
+  private final boolean trustSelfSignedCertificates;
+  private final int dnsCacheTtl;
+  private final int dnsCacheNegativeTtl;
+  private final HttpAuth authentication;
+  private final String userAgent;
+  private final long writeThroughput;
+  private final long readThroughput;
+  private final int writeBlockSize;
+  private final boolean directWriteBuffers;
+  private final int readBlockSize;
+  private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+  private final BufferPool responseBuffers;
+  private volatile boolean running;
+  private final AtomicInteger abortedRequestsAtShutdown;
+  private final Set<AsyncHttpOperation> operations;
+  private final ScheduledExecutorService scheduler;
+  private final PoolingNHttpClientConnectionManager connectionManager;
+  private final CloseableHttpAsyncClient client;
+  private final Gson gson;
+
+  private ApacheAsyncClient(final Builder builder) {
+    this.ioThreads = builder.ioThreads;
+    this.connectTimeout = builder.connectTimeout;
+    this.soTimeout = builder.soTimeout;
+    this.soReuseAddress = builder.soReuseAddress;
+    this.soLinger = builder.soLinger;
+    this.soKeepAlive = builder.soKeepAlive;
+    this.tcpNoDelay = builder.tcpNoDelay;
+    this.soSndBuf = builder.soSndBuf;
+    this.soRcvBuf = builder.soRcvBuf;
+    this.persistentConnections = builder.persistentConnections;
+    this.maxIdleTime = builder.maxIdleTime;
+    this.chunkedEncoding = builder.chunkedEncoding;
+    this.expectContinue = builder.expectContinue;
+
+    final List<String> protocols = builder.protocols;
+    if (protocols != null) {
+      this.protocols = ImmutableList.copyOf(protocols);
+    } else {
+      this.protocols = null;
+    }
+
+    final List<String> cipherSuites = builder.cipherSuites;
+    if (cipherSuites != null) {
+      this.cipherSuites = ImmutableList.copyOf(cipherSuites);
+    } else {
+      this.cipherSuites = null;
+    }
+
+    final String keyStore = builder.keyStore;
+    if (keyStore != null) {
+      this.keyStore = new File(keyStore);
+      checkArgument(this.keyStore.exists(), "keyStore does not exist [%s]", this.keyStore);
+    } else {
+      this.keyStore = null;
+    }
+    this.keyStorePassword = builder.keyStorePassword;
+    if (this.keyStorePassword != null) {
+      checkArgument(this.keyStore != null,
+          "if keyStorePassword is != null, keyStore must be != null");
+    }
+    this.keyPassword = builder.keyPassword;
+    if (this.keyPassword != null) {
+      checkArgument(this.keyStore != null, "if keyPassword is != null, keyStore must be != null");
+    }
+
+    final String trustStore = builder.trustStore;
+    if (trustStore != null) {
+      this.trustStore = new File(trustStore);
+      checkArgument(this.trustStore.exists(), "trustStore does not exist [%s]", this.trustStore);
+    } else {
+      this.trustStore = null;
+    }
+    this.trustStorePassword = builder.trustStorePassword;
+    if (this.trustStorePassword != null) {
+      checkArgument(this.trustStore != null,
+          "if trustStorePassword is != null, trustStore must be != null");
+    }
+    this.trustSelfSignedCertificates = builder.trustSelfSignedCertificates;
+    this.dnsCacheTtl = builder.dnsCacheTtl;
+    this.dnsCacheNegativeTtl = builder.dnsCacheNegativeTtl;
+    this.authentication = checkNotNull(builder.authentication);
+    this.userAgent = builder.userAgent;
+    this.writeThroughput = builder.writeThroughput;
+    this.readThroughput = builder.readThroughput;
+    this.writeBlockSize = builder.writeBlockSize;
+    this.directWriteBuffers = builder.directWriteBuffers;
+    this.readBlockSize = builder.readBlockSize;
+    this.responseBodyConsumers = ImmutableMap.copyOf(builder.responseBodyConsumers);
+    this.running = true;
+    this.abortedRequestsAtShutdown = new AtomicInteger();
+    this.operations = Sets.newConcurrentHashSet();
+    this.gson = ApacheClient.createRequestLogGson();
+
+    // perform checks on instance fields rather than builder fields
+    checkArgument(this.ioThreads >= 0, "ioThreads must be >= 0 [%s]", this.ioThreads);
+    checkArgument(this.connectTimeout >= 0, "connectTimeout must be >= 0 [%s]",
+        this.connectTimeout);
+    checkArgument(this.soTimeout >= 0, "soTimeout must be >= 0 [%s]", this.soTimeout);
+    checkArgument(this.soLinger >= -1, "soLinger must be >= -1 [%s]", this.soLinger);
+    checkArgument(this.soSndBuf >= 0, "soSndBuf must be >= 0 [%s]", this.soSndBuf);
+    checkArgument(this.soRcvBuf >= 0, "soRcvBuf must be >= 0 [%s]", this.soRcvBuf);
+    checkArgument(this.maxIdleTime > 0, "maxIdleTime must be > 0 [%s]", this.maxIdleTime);
+    checkArgument(this.dnsCacheTtl >= -1, "dnsCacheTtl must be >= -1 [%s]", this.dnsCacheTtl);
+    checkArgument(this.dnsCacheNegativeTtl >= -1, "dnsCacheNegativeTtl must be >= -1 [%s]",
+        this.dnsCacheNegativeTtl);
+    checkArgument(this.writeThroughput >= 0, "writeThroughput must be >= 0 [%s]",
+        this.writeThroughput);
+    checkArgument(this.readThroughput >= 0, "readThroughput must be >= 0 [%s]",
+        this.readThroughput);
+    checkArgument(this.writeBlockSize > 0, "writeBlockSize must be > 0 [%s]",
+        this.writeBlockSize);
+    checkArgument(this.readBlockSize > 0, "readBlockSize must be > 0 [%s]", this.readBlockSize);
+    // i/o reactor threads are long lived and never re-enter a consumer, so each thread reuses the
+    // one buffer it caches
+    this.responseBuffers = new BufferPool(this.readBlockSize, true, ioThreadCount());
+
+    Security.setProperty("networkaddress.cache.ttl", String.valueOf(this.dnsCacheTtl));
+    Security.setProperty("networkaddress.cache.negative.ttl",
+        String.valueOf(this.dnsCacheNegativeTtl));
+
+    final ThreadFactory fac =
+        new ThreadFactoryBuilder().setNameFormat("client-scheduler-%d").setDaemon(true).build();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(fac);
+    this.connectionManager = createConnectionManager();
+    this.client = createClient();
+    this.client.start();
+    scheduleIdleConnectionEviction();
+  }
+
+  private CloseableHttpAsyncClient createClient() {
+    final HttpAsyncClientBuilder builder = HttpAsyncClients.custom();
+    if (this.userAgent != null) {
+      builder.setUserAgent(this.userAgent);
+    }
+
+    // Some authentication implementations add Content-Length or Transfer-Encoding headers as a part
+    // of their authentication algorithm; remove them here so that the default interceptors do not
+    // throw a ProtocolException
+    // @see RequestContent interceptor
+    builder.addInterceptorFirst(new HttpRequestInterceptor() {
+      @Override
+      public void process(final HttpRequest request, final HttpContext context)
+          throws HttpException, IOException {
+        request.removeHeaders(HTTP.TRANSFER_ENCODING);
+        request.removeHeaders(HTTP.CONTENT_LEN);
+      }
+    });
+
+    return builder.setConnectionManager(this.connectionManager)
+        .setConnectionReuseStrategy(createConnectionReuseStrategy())
+        .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE).disableConnectionState()
+        .disableCookieManagement().disableAuthCaching()
+        .setRedirectStrategy(new CustomRedirectStrategy())
+        .setDefaultRequestConfig(createRequestConfig()).build();
+  }
+
+  private PoolingNHttpClientConnectionManager createConnectionManager() {
+    final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat("client-io-%d").build();
+    final DefaultConnectingIOReactor ioReactor;
+    try {
+      ioReactor = new DefaultConnectingIOReactor(createIOReactorConfig(), fac);
+    } catch (final IOReactorException e) {
+      throw new RuntimeException(e);
+    }
+
+    final PoolingNHttpClientConnectionManager manager = new PoolingNHttpClientConnectionManager(
+        ioReactor,
+        RegistryBuilder.<SchemeIOSessionStrategy>create()
+            .register("http", NoopIOSessionStrategy.INSTANCE)
+            .register("https", createSslIOSessionStrategy()).build());
+    manager.setMaxTotal(Integer.MAX_VALUE);
+    manager.setDefaultMaxPerRoute(Integer.MAX_VALUE);
+    return manager;
+  }
+
+  private int ioThreadCount() {
+    return this.ioThreads > 0 ? this.ioThreads : Runtime.getRuntime().availableProcessors();
+  }
+
+  private IOReactorConfig createIOReactorConfig() {
+    final IOReactorConfig.Builder builder = IOReactorConfig.custom()
+        .setIoThreadCount(ioThreadCount()).setConnectTimeout(this.connectTimeout)
+        .setSoTimeout(this.soTimeout).setSoReuseAddress(this.soReuseAddress)
+        .setSoLinger(this.soLinger).setSoKeepAlive(this.soKeepAlive).setTcpNoDelay(this.tcpNoDelay)
+        .setSndBufSize(this.soSndBuf).setRcvBufSize(this.soRcvBuf)
+        .setSelectInterval(selectInterval(this.soTimeout, this.readThroughput));
+    return builder.build();
+  }
+
+  // the interval at which the reactor wakes, in milliseconds
+  static long selectInterval(final int soTimeout, final long readThroughput) {
+    long selectInterval = DEFAULT_SELECT_INTERVAL;
+    if (readThroughput > 0) {
+      // throttled reads leave content buffered in the session; the reactor only revisits buffered
+      // sessions once per select interval, so shorten it to keep read pacing accurate
+      selectInterval = THROTTLED_SELECT_INTERVAL;
+    }
+    if (soTimeout > 0) {
+      // session timeouts are also only checked once per select interval, so keep the interval no
+      // longer than soTimeout or timeouts fire up to a full interval late
+      selectInterval = Math.min(selectInterval, soTimeout);
+    }
+    return selectInterval;
+  }
+
+  private SchemeIOSessionStrategy createSslIOSessionStrategy() {
+    final SSLContext sslContext = createSSLContext();
+    String[] configuredProtocols = null;
+    String[] configuredCipherSuites = null;
+    if (this.protocols != null) {
+      configuredProtocols = Iterables.toArray(this.protocols, String.class);
+    }
+    if (this.cipherSuites != null) {
+      final List<String> supportedCipherSuites =
+          ImmutableList.copyOf(sslContext.getSocketFactory().getSupportedCipherSuites());
+      for (final String cipherSuite : this.cipherSuites) {
+        checkArgument(supportedCipherSuites.contains(cipherSuite), "Unsupported cipher suite [%s]",
+            cipherSuite);
+      }
+
+      configuredCipherSuites = Iterables.toArray(this.cipherSuites, String.class);
+    }
+
+    return new SSLIOSessionStrategy(sslContext, configuredProtocols, configuredCipherSuites,
+        NoopHostnameVerifier.INSTANCE);
+  }
+
+  private SSLContext createSSLContext() {
+    final SSLContextBuilder builder = SSLContextBuilder.create();
+    try {
+      if (this.keyStore != null) {
+        builder.loadKeyMaterial(this.keyStore, this.keyStorePassword.toCharArray(),
+            this.keyPassword.toCharArray());
+      }
+      if (this.trustStore != null) {
+        char[] password = null;
+        if (this.trustStorePassword != null) {
+          password = this.trustStorePassword.toCharArray();
+        }
+        builder.loadTrustMaterial(this.trustStore, password);
+      }
+      if (this.trustSelfSignedCertificates) {
+        builder.loadTrustMaterial(TrustSelfSignedStrategy.INSTANCE);
+      }
+      return builder.build();
+    } catch (final Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private ConnectionReuseStrategy createConnectionReuseStrategy() {
+    return this.persistentConnections ? DefaultConnectionReuseStrategy.INSTANCE
+        : NoConnectionReuseStrategy.INSTANCE;
+  }
+
+  private RequestConfig createRequestConfig() {
+    return RequestConfig.custom().setExpectContinueEnabled(this.expectContinue)
+        .setRedirectsEnabled(true).setRelativeRedirectsAllowed(true)
+        .setConnectTimeout(this.connectTimeout).setSocketTimeout(this.soTimeout)
+        .setConnectionRequestTimeout(0).build();
+  }
+
+  private void scheduleIdleConnectionEviction() {
+    final long period = Math.max(this.maxIdleTime / 10, 10);
+    this.scheduler.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        ApacheAsyncClient.this.connectionManager.closeExpiredConnections();
+        ApacheAsyncClient.this.connectionManager
+            .closeIdleConnections(ApacheAsyncClient.this.maxIdleTime, TimeUnit.MILLISECONDS);
+      }
+    }, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public ListenableFuture<Response> execute(final Request request) {
+    checkNotNull(request);
+    if (!this.running) {
+      // the reactor is stopping or stopped, so the request would never complete
+      return Futures.immediateFailedFuture(
+          new IllegalStateException("client is shutdown [" + request.getUri() + "]"));
+    }
+
+    final AsyncHttpOperation operation = new AsyncHttpOperation(request);
+    operation.start();
+
+    return new ForwardingListenableFuture.SimpleForwardingListenableFuture<Response>(
+        operation.getFuture()) {
+      @Override
+      public boolean cancel(final boolean mayInterruptIfRunning) {
+        operation.cancel();
+        return delegate().cancel(mayInterruptIfRunning);
+      }
+    };
+  }
+
+  private HttpUriRequest createRequest(final AuthenticatedRequest request) {
+    final RequestBuilder builder =
+        RequestBuilder.create(request.getMethod().toString()).setUri(request.getUri());
+
+    for (final Entry<String, String> header : request.headers().entrySet()) {
+      builder.addHeader(header.getKey(), header.getValue());
+    }
+
+    if (DataType.NONE != request.getBody().getDataType()) {
+      final CustomAsyncHttpEntity entity = new CustomAsyncHttpEntity(request,
+          this.writeThroughput, this.scheduler, this.writeBlockSize, this.directWriteBuffers);
+      entity.setChunked(this.chunkedEncoding);
+      builder.setEntity(entity);
+    }
+
+    return builder.build();
+  }
+
+  @Override
+  public ListenableFuture<Boolean> shutdown(final boolean immediate) {
+    final SettableFuture<Boolean> future = SettableFuture.create();
+    final Thread t = new Thread(getShutdownRunnable(future, immediate));
+    t.setName("client-shutdown");
+    this.running = false;
+    t.start();
+    return future;
+  }
+
+  private Runnable getShutdownRunnable(final SettableFuture<Boolean> future,
+      final boolean immediate) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        if (immediate) {
+          closeSockets();
+        }
+
+        shutdownClient();
+        future.set(true);
+      }
+
+      private void closeSockets() {
+        _logger.info("Attempting to close client connection pool");
+        closeClient();
+        _logger.info("Client connection pool is closed");
+        // the reactor is gone, so any exchange which has not yet completed never will
+        for (final AsyncHttpOperation operation : ApacheAsyncClient.this.operations) {
+          operation.failed(null);
+        }
+      }
+
+      private void shutdownClient() {
+        _logger.info("Issuing client shutdown");
+        awaitOperations();
+        closeClient();
+        ApacheAsyncClient.this.scheduler.shutdownNow();
+        _logger.info("Client is shutdown");
+        _logger.info("Number of requests aborted at shutdown [{}]",
+            ApacheAsyncClient.this.abortedRequestsAtShutdown.get());
+      }
+
+      private void awaitOperations() {
+        final Set<AsyncHttpOperation> operations = ApacheAsyncClient.this.operations;
+        synchronized (operations) {
+          while (!operations.isEmpty()) {
+            try {
+              _logger.info("Awaiting completion of {} in-flight requests", operations.size());
+              operations.wait(TimeUnit.SECONDS.toMillis(10));
+            } catch (final InterruptedException e) {
+              _logger.error("Interrupted while waiting for in-flight requests", e);
+            }
+          }
+        }
+      }
+
+      private void closeClient() {
+        try {
+          ApacheAsyncClient.this.client.close();
+        } catch (final IOException e) {
+          _logger.error("Error closing client connection pool", e);
+        }
+      }
+    };
+  }
+
+  private class AsyncHttpOperation implements FutureCallback<Void> {
+    private final Request request;
+    private final RequestTimestamps timestamps;
+    private final HttpResponse.Builder responseBuilder;
+    private final SettableFuture<Response> future;
+    private final AtomicBoolean complete;
+    private HttpUriRequest apacheRequest;
+    private Future<Void> apacheFuture;
+
+    public AsyncHttpOperation(final Request request) {
+      this.request = checkNotNull(request);
+      this.timestamps = new RequestTimestamps();
+      this.responseBuilder = new HttpResponse.Builder();
+      this.future = SettableFuture.create();
+      this.complete = new AtomicBoolean(false);
+    }
+
+    public void start() {
+      this.timestamps.startMillis = System.currentTimeMillis();
+      this.timestamps.start = System.nanoTime();
+      this.timestamps.intendedStart = RequestContext.getLong(this.request.getContext(),
+          Context.X_OG_INTENDED_START, this.timestamps.intendedStart);
+
+      final String requestId = this.request.getContext().get(Context.X_OG_REQUEST_ID);
+      if (requestId != null) {
+        this.responseBuilder.withContext(Context.X_OG_REQUEST_ID, requestId);
+      }
+
+      ApacheAsyncClient.this.operations.add(this);
+      try {
+        final AuthenticatedRequest authenticatedRequest =
+            ApacheAsyncClient.this.authentication.authenticate(this.request);
+        this.apacheRequest = ApacheAsyncClient.this.createRequest(authenticatedRequest);
+        _logger.trace("Sending request {}", this.request);
+        this.apacheFuture = ApacheAsyncClient.this.client.execute(
+            HttpAsyncMethods.create(this.apacheRequest), new AsyncResponseConsumer(this), this);
+      } catch (final RuntimeException e) {
+        // mirror ApacheClient, where a failure to prepare a request fails the returned future
+        if (this.complete.compareAndSet(false, true)) {
+          remove();
+          this.future.setException(e);
+        }
+      }
+    }
+
+    @Override
+    public void completed(final Void result) {
+      setRequestContentTimestamps();
+      complete();
+    }
+
+    @Override
+    public void failed(final Exception e) {
+      if (this.complete.get()) {
+        return;
+      }
+      if (ApacheAsyncClient.this.running) {
+        _logger.error("Exception executing request", e);
+      } else {
+        ApacheAsyncClient.this.abortedRequestsAtShutdown.incrementAndGet();
+      }
+      this.responseBuilder.withStatusCode(599);
+      complete();
+    }
+
+    @Override
+    public void cancelled() {
+      failed(null);
+    }
+
+    public void cancel() {
+      if (this.apacheFuture != null) {
+        this.apacheFuture.cancel(true);
+      }
+    }
+
+    private void setRequestContentTimestamps() {
+      if (this.apacheRequest instanceof HttpEntityEnclosingRequest) {
+        final HttpEntityEnclosingRequest request = (HttpEntityEnclosingRequest) this.apacheRequest;
+        if (request.getEntity() instanceof CustomAsyncHttpEntity) {
+          final CustomAsyncHttpEntity entity = (CustomAsyncHttpEntity) request.getEntity();
+          this.timestamps.requestContentStart = entity.getRequestContentStart();
+          this.timestamps.requestContentFinish = entity.getRequestContentFinish();
+        }
+      }
+    }
+
+    private void complete() {
+      if (!this.complete.compareAndSet(false, true)) {
+        return;
+      }
+      this.timestamps.finish = System.nanoTime();
+      this.timestamps.finishMillis = System.currentTimeMillis();
+      final Response response =
+          this.responseBuilder.withRequestTimestamps(this.timestamps).build();
+      _logger.trace("Received response {}", response);
+
+      // do not log requests with 599 response after client shutdown (known aborted requests)
+      if (ApacheAsyncClient.this.running || response.getStatusCode() != 599) {
+        final RequestLogEntry entry = new RequestLogEntry(this.request, response,
+            ApacheAsyncClient.this.userAgent, this.timestamps);
+        _requestLogger.info(ApacheAsyncClient.this.gson.toJson(entry));
+      }
+      remove();
+      this.future.set(response);
+    }
+
+    private void remove() {
+      final Set<AsyncHttpOperation> operations = ApacheAsyncClient.this.operations;
+      operations.remove(this);
+      if (!ApacheAsyncClient.this.running) {
+        synchronized (operations) {
+          operations.notifyAll();
+        }
+      }
+    }
+
+    public ListenableFuture<Response> getFuture() {
+      return this.future;
+    }
+  }
+
+  private class AsyncResponseConsumer extends AbstractAsyncResponseConsumer<Void> {
+    private final AsyncHttpOperation operation;
+    private final ResponseBodyConsumer consumer;
+    private final AsyncThrottle throttle;
+    private int statusCode;
+    private long totalBytes;
+    private ByteArrayOutputStream body;
+
+    public AsyncResponseConsumer(final AsyncHttpOperation operation) {
+      this.operation = operation;
+      final String consumerId =
+          operation.request.getContext().get(Context.X_OG_RESPONSE_BODY_CONSUMER);
+      this.consumer = ApacheAsyncClient.this.responseBodyConsumers.get(consumerId);
+      final long readThroughput = ApacheAsyncClient.this.readThroughput;
+      this.throttle = readThroughput > 0 ? new AsyncThrottle(readThroughput) : null;
+    }
+
+    @Override
+    protected void onResponseReceived(final org.apache.http.HttpResponse response)
+        throws HttpException, IOException {
+      final HttpResponse.Builder responseBuilder = this.operation.responseBuilder;
+      this.statusCode = response.getStatusLine().getStatusCode();
+      responseBuilder.withStatusCode(this.statusCode);
+      final HeaderIterator headers = response.headerIterator();
+      while (headers.hasNext()) {
+        final Header header = headers.nextHeader();
+        responseBuilder.withHeader(header.getName(), header.getValue());
+      }
+    }
+
+    @Override
+    protected void onEntityEnclosed(final HttpEntity entity, final ContentType contentType)
+        throws IOException {
+      this.operation.timestamps.responseContentStart = System.nanoTime();
+      if (this.consumer != null) {
+        this.body = new ByteArrayOutputStream(CONSUMED_BODY_SIZE);
+      }
+    }
+
+    @Override
+    protected void onContentReceived(final ContentDecoder decoder, final IOControl ioctrl)
+        throws IOException {
+      final RequestTimestamps timestamps = this.operation.timestamps;
+      if (timestamps.responseContentFirstBytes == 0) {
+        timestamps.responseContentFirstBytes = System.nanoTime();
+      }
+
+      final BufferPool pool = ApacheAsyncClient.this.responseBuffers;
+      final ByteBuffer buf = pool.acquire();
+      try {
+        if (this.throttle == null && this.body == null) {
+          drain(decoder, buf);
+        } else {
+          receive(decoder, ioctrl, buf);
+        }
+      } finally {
+        pool.release(buf);
+      }
+    }
+
+    // common case, count the available content without throttling or buffering it
+    private void drain(final ContentDecoder decoder, final ByteBuffer buf) throws IOException {
+      int bytesRead;
+      do {
+        buf.clear();
+        bytesRead = decoder.read(buf);
+        if (bytesRead > 0) {
+          this.totalBytes += bytesRead;
+        }
+      } while (bytesRead > 0 && !decoder.isCompleted());
+    }
+
+    private void receive(final ContentDecoder decoder, final IOControl ioctrl,
+        final ByteBuffer buf) throws IOException {
+      int bytesRead;
+      do {
+        buf.clear();
+        if (this.throttle != null) {
+          final long available = this.throttle.available();
+          if (available == 0) {
+            suspend(ioctrl);
+            return;
+          }
+          buf.limit((int) Math.min(buf.capacity(), available));
+        }
+        bytesRead = decoder.read(buf);
+        if (bytesRead > 0) {
+          this.totalBytes += bytesRead;
+          if (this.throttle != null) {
+            this.throttle.transferred(bytesRead);
+          }
+          if (this.body != null) {
+            this.body.write(buf.array(), 0, bytesRead);
+          }
+        }
+      } while (bytesRead > 0 && !decoder.isCompleted());
+    }
+
+    private void suspend(final IOControl ioctrl) {
+      ioctrl.suspendInput();
+      ApacheAsyncClient.this.scheduler.schedule(new Runnable() {
+        @Override
+        public void run() {
+          ioctrl.requestInput();
+        }
+      }, this.throttle.delay(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected Void buildResult(final HttpContext context) throws Exception {
+      final RequestTimestamps timestamps = this.operation.timestamps;
+      if (timestamps.responseContentStart == 0) {
+        return null;
+      }
+
+      final HttpResponse.Builder responseBuilder = this.operation.responseBuilder;
+      if (this.consumer != null) {
+        final ByteArrayInputStream in = new ByteArrayInputStream(this.body.toByteArray());
+        for (final Map.Entry<String, String> e : this.consumer.consume(this.statusCode, in)
+            .entrySet()) {
+          responseBuilder.withContext(e.getKey(), e.getValue());
+        }
+      } else if (this.totalBytes > 0) {
+        responseBuilder.withBody(Bodies.zeroes(this.totalBytes));
+      }
+      timestamps.responseContentFinish = System.nanoTime();
+      return null;
+    }
+
+    @Override
+    protected void releaseResources() {
+      this.body = null;
+    }
+  }
+
+  @Override
+  public ThreadStats getThreadStats() {
+    return new ThreadStats("nio", ioThreadCount(), null);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ApacheAsyncClient [%n" + "ioThreads=%s,%n" + "connectTimeout=%s,%n"
+        + "soTimeout=%s,%n" + "soReuseAddress=%s,%n" + "soLinger=%s,%n" + "soKeepAlive=%s,%n"
+        + "tcpNoDelay=%s,%n" + "soSndBuf=%s,%n" + "soRcvBuf=%s,%n" + "persistentConnections=%s,%n"
+        + "maxIdleTime=%s,%n" + "chunkedEncoding=%s,%n" + "expectContinue=%s,%n"
+        + "protocols=%s,%n" + "cipherSuites=%s,%n" + "keyStore=%s,%n" + "keyStorePassword=%s,%n"
+        + "keyPassword=%s,%n" + "trustStore=%s,%n" + "trustStorePassword=%s,%n"
+        + "trustSelfSignedCertificates=%s,%n" + "dnsCacheTtl=%s,%n"
+        + "dnsCacheNegativeTtl=%s,%n" + "authentication=%s,%n" + "userAgent=%s,%n"
+        + "writeThroughput=%s,%n" + "readThroughput=%s,%n" + "writeBlockSize=%s,%n"
+        + "directWriteBuffers=%s,%n" + "readBlockSize=%s,%n" + "responseBodyConsumers=%s%n]",
+        this.ioThreads, this.connectTimeout, this.soTimeout, this.soReuseAddress, this.soLinger,
+        this.soKeepAlive, this.tcpNoDelay, this.soSndBuf, this.soRcvBuf,
+        this.persistentConnections, this.maxIdleTime, this.chunkedEncoding, this.expectContinue,
+        this.protocols, this.cipherSuites, this.keyStore, this.keyStorePassword, this.keyPassword,
+        this.trustStore, this.trustStorePassword, this.trustSelfSignedCertificates,
+        this.dnsCacheTtl, this.dnsCacheNegativeTtl, this.authentication, this.userAgent,
+        this.writeThroughput, this.readThroughput, this.writeBlockSize, this.directWriteBuffers,
+        this.readBlockSize, this.responseBodyConsumers);
+  }
+
+  /**
+   * A builder of apache async client instances
+   */
+  public static class Builder {
+    private int ioThreads;
+    private int connectTimeout;
+    private int soTimeout;
+    private boolean soReuseAddress;
+    private int soLinger;
+    private boolean soKeepAlive;
+    private boolean tcpNoDelay;
+    private int soSndBuf;
+    private int soRcvBuf;
+    private boolean persistentConnections;
+    private int maxIdleTime;
+    private boolean chunkedEncoding;
+    private boolean expectContinue;
+    private List<String> protocols;
+    private List<String> cipherSuites;
+    private String keyStore;
+    private String keyStorePassword;
+    private String keyPassword;
+    private String trustStore;
+    private String trustStorePassword;
+    private boolean trustSelfSignedCertificates;
+    private int dnsCacheTtl;
+    private int dnsCacheNegativeTtl;
+    private HttpAuth authentication;
+    private String userAgent;
+    private long writeThroughput;
+    private long readThroughput;
+    private int writeBlockSize;
+    private boolean directWriteBuffers;
+    private int readBlockSize;
+    private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+
+    /**
+     * Constructs a new builder
+     */
+    public Builder() {
+      this.ioThreads = 0;
+      this.connectTimeout = 0;
+      this.soTimeout = 0;
+      this.soReuseAddress = false;
+      this.soLinger = -1;
+      this.soKeepAlive = true;
+      this.tcpNoDelay = true;
+      this.soSndBuf = 0;
+      this.soRcvBuf = 0;
+      this.persistentConnections = true;
+      this.maxIdleTime = 60000;
+      this.chunkedEncoding = false;
+      this.expectContinue = false;
+      this.protocols = null;
+      this.cipherSuites = null;
+      this.keyStore = null;
+      this.keyStorePassword = null;
+      this.keyPassword = null;
+      this.trustStore = null;
+      this.trustStorePassword = null;
+      this.trustSelfSignedCertificates = false;
+      this.dnsCacheTtl = 60;
+      this.dnsCacheNegativeTtl = 10;
+      this.authentication = new NoneAuth();
+      this.writeThroughput = 0;
+      this.readThroughput = 0;
+      this.writeBlockSize = Streams.PAYLOAD_LENGTH;
+      this.directWriteBuffers = false;
+      this.readBlockSize = 4096;
+      this.responseBodyConsumers = Maps.newHashMap();
+    }
+
+    /**
+     * Configures the number of I/O reactor threads. A value of zero uses one thread per available
+     * processor
+     *
+     * @param ioThreads number of I/O reactor threads
+     * @return this builder
+     */
+    public Builder withIoThreads(final int ioThreads) {
+      this.ioThreads = ioThreads;
+      return this;
+    }
+
+    /**
+     * Configures the timeout in milliseconds until a connection is established. A timeout of zero
+     * is interpreted as an infinite timeout
+     *
+     * @param connectTimeout connection open timeout, in milliseconds
+     * @return this builder
+     */
+    public Builder withConnectTimeout(final int connectTimeout) {
+      this.connectTimeout = connectTimeout;
+      return this;
+    }
+
+    /**
+     * Configures the socket {@code SO_TIMEOUT} timeout in milliseconds, the maximum duration
+     * between consecutive packets. A timeout of zero is interpreted as an infinite timeout
+     *
+     * @param soTimeout socket timeout, in milliseconds
+     * @return this builder
+     */
+    public Builder withSoTimeout(final int soTimeout) {
+      this.soTimeout = soTimeout;
+      return this;
+    }
+
+    /**
+     * Configures the {@code SO_REUSEADDR} socket option
+     *
+     * @param soReuseAddress socket reuse flag
+     * @return this builder
+     */
+    public Builder usingSoReuseAddress(final boolean soReuseAddress) {
+      this.soReuseAddress = soReuseAddress;
+      return this;
+    }
+
+    /**
+     * Configures {@code SO_LINGER} in <em>seconds</em>. A linger of zero disables linger, and a
+     * linger of {@code -1} uses the system default.
+     *
+     * @param soLinger linger, in seconds
+     * @return this builder
+     */
+    public Builder withSoLinger(final int soLinger) {
+      this.soLinger = soLinger;
+      return this;
+    }
+
+    /**
+     * Configures the {@code SO_KEEPALIVE} socket option
+     *
+     * @param soKeepAlive keepalive flag
+     * @return this builder
+     */
+    public Builder usingSoKeepAlive(final boolean soKeepAlive) {
+      this.soKeepAlive = soKeepAlive;
+      return this;
+    }
+
+    /**
+     * Configures the {@code TCP_NODELAY} socket option
+     *
+     * @param tcpNoDelay tcp nodelay flag
+     * @return this builder
+     */
+    public Builder usingTcpNoDelay(final boolean tcpNoDelay) {
+      this.tcpNoDelay = tcpNoDelay;
+      return this;
+    }
+
+    /**
+     * Configures the {@code SO_SNDBUF} socket option. A value of zero uses the system default
+     *
+     * @param soSndBuf send buffer size, in bytes
+     * @return this builder
+     */
+    public Builder withSoSndBuf(final int soSndBuf) {
+      this.soSndBuf = soSndBuf;
+      return this;
+    }
+
+    /**
+     * Configures the {@code SO_RCVBUF} socket option. A value of zero uses the system default
+     *
+     * @param soRcvBuf receive buffer size, in bytes
+     * @return this builder
+     */
+    public Builder withSoRcvBuf(final int soRcvBuf) {
+      this.soRcvBuf = soRcvBuf;
+      return this;
+    }
+
+    /**
+     * Configures the use of persistent connections
+     *
+     * @param persistentConnections persistent connection flag
+     * @return this builder
+     */
+    public Builder usingPersistentConnections(final boolean persistentConnections) {
+      this.persistentConnections = persistentConnections;
+      return this;
+    }
+
+    /**
+     * Configures the maximum time a connection can remain idle in the connection pool before it is
+     * closed
+     *
+     * @param maxIdleTime maximum idle time, in milliseconds
+     * @return this builder
+     */
+    public Builder withMaxIdleTime(final int maxIdleTime) {
+      this.maxIdleTime = maxIdleTime;
+      return this;
+    }
+
+    /**
+     * Configures the use of http chunked encoding for request bodies
+     *
+     * @param chunkedEncoding chunked encoding flag
+     * @return this builder
+     */
+    public Builder usingChunkedEncoding(final boolean chunkedEncoding) {
+      this.chunkedEncoding = chunkedEncoding;
+      return this;
+    }
+
+    /**
+     * Configures the use of http 100-continue for PUT and POST requests
+     *
+     * @param expectContinue expect continue flag
+     * @return this builder
+     */
+    public Builder usingExpectContinue(final boolean expectContinue) {
+      this.expectContinue = expectContinue;
+      return this;
+    }
+
+    /**
+     * Configures the TLS protocols to allow
+     *
+     * @param protocols allowed protocols, or {@code null} for the system default
+     * @return this builder
+     */
+    public Builder withProtocols(final List<String> protocols) {
+      this.protocols = protocols;
+      return this;
+    }
+
+    /**
+     * Configures the TLS cipher suites to allow
+     *
+     * @param cipherSuites allowed cipher suites, or {@code null} for the system default
+     * @return this builder
+     */
+    public Builder withCipherSuites(final List<String> cipherSuites) {
+      this.cipherSuites = cipherSuites;
+      return this;
+    }
+
+    /**
+     * Configures the key store used for client authentication
+     *
+     * @param keyStore key store location
+     * @return this builder
+     */
+    public Builder withKeyStore(final String keyStore) {
+      this.keyStore = keyStore;
+      return this;
+    }
+
+    /**
+     * Configures the key store password
+     *
+     * @param keyStorePassword key store password
+     * @return this builder
+     */
+    public Builder withKeyStorePassword(final String keyStorePassword) {
+      this.keyStorePassword = keyStorePassword;
+      return this;
+    }
+
+    /**
+     * Configures the key password
+     *
+     * @param keyPassword key password
+     * @return this builder
+     */
+    public Builder withKeyPassword(final String keyPassword) {
+      this.keyPassword = keyPassword;
+      return this;
+    }
+
+    /**
+     * Configures the trust store used for server certificate verification
+     *
+     * @param trustStore trust store location
+     * @return this builder
+     */
+    public Builder withTrustStore(final String trustStore) {
+      this.trustStore = trustStore;
+      return this;
+    }
+
+    /**
+     * Configures the trust store password
+     *
+     * @param trustStorePassword trust store password
+     * @return this builder
+     */
+    public Builder withTrustStorePassword(final String trustStorePassword) {
+      this.trustStorePassword = trustStorePassword;
+      return this;
+    }
+
+    /**
+     * Configures whether self signed server certificates are trusted
+     *
+     * @param trustSelfSignedCertificates self signed certificate trust flag
+     * @return this builder
+     */
+    public Builder usingTrustSelfSignedCertificates(final boolean trustSelfSignedCertificates) {
+      this.trustSelfSignedCertificates = trustSelfSignedCertificates;
+      return this;
+    }
+
+    /**
+     * Configures the jvm dns cache ttl for successful lookups
+     *
+     * @param dnsCacheTtl cache ttl, in seconds
+     * @return this builder
+     */
+    public Builder withDnsCacheTtl(final int dnsCacheTtl) {
+      this.dnsCacheTtl = dnsCacheTtl;
+      return this;
+    }
+
+    /**
+     * Configures the jvm dns cache ttl for unsuccessful lookups
+     *
+     * @param dnsCacheNegativeTtl cache ttl, in seconds
+     * @return this builder
+     */
+    public Builder withDnsCacheNegativeTtl(final int dnsCacheNegativeTtl) {
+      this.dnsCacheNegativeTtl = dnsCacheNegativeTtl;
+      return this;
+    }
+
+    /**
+     * Configures the authentication method to use for requests
+     *
+     * @param authentication the authentication type to use
+     * @return this builder
+     */
+    public Builder withAuthentication(final HttpAuth authentication) {
+      this.authentication = authentication;
+      return this;
+    }
+
+    /**
+     * Configures the user-agent request header to send with every request
+     *
+     * @param userAgent the user agent string to send
+     * @return this builder
+     */
+    public Builder withUserAgent(final String userAgent) {
+      this.userAgent = userAgent;
+      return this;
+    }
+
+    /**
+     * Configures throughput throttling for PUT and POST requests
+     *
+     * @param bytesPerSecond maximum throughput
+     * @return this builder
+     */
+    public Builder withWriteThroughput(final long bytesPerSecond) {
+      this.writeThroughput = bytesPerSecond;
+      return this;
+    }
+
+    /**
+     * Configures throughput throttling for GET and HEAD requests
+     *
+     * @param bytesPerSecond maximum throughput
+     * @return this builder
+     */
+    public Builder withReadThroughput(final long bytesPerSecond) {
+      this.readThroughput = bytesPerSecond;
+      return this;
+    }
+
+    /**
+     * Configures the maximum number of bytes handed to a connection at once for request bodies.
+     * Bodies of generated data are handed over as views of a shared payload rather than copied,
+     * and their blocks are also limited to {@link Streams#PAYLOAD_LENGTH}
+     *
+     * @param writeBlockSize maximum write block size, in bytes
+     * @return this builder
+     */
+    public Builder withWriteBlockSize(final int writeBlockSize) {
+      this.writeBlockSize = writeBlockSize;
+      return this;
+    }
+
+    /**
+     * Configures whether request bodies of generated data are written from direct copies of the
+     * shared payloads, which connections can write without first copying them to a temporary
+     * direct buffer
+     *
+     * @param directWriteBuffers direct write buffers flag
+     * @return this builder
+     */
+    public Builder usingDirectWriteBuffers(final boolean directWriteBuffers) {
+      this.directWriteBuffers = directWriteBuffers;
+      return this;
+    }
+
+    /**
+     * Configures the maximum number of bytes read from a connection at once for response bodies.
+     * Each i/o reactor thread reuses a single read buffer of this size
+     *
+     * @param readBlockSize maximum read block size, in bytes
+     * @return this builder
+     */
+    public Builder withReadBlockSize(final int readBlockSize) {
+      this.readBlockSize = readBlockSize;
+      return this;
+    }
+
+    /**
+     * Configures a response body consumer to be used to process response bodies for requests
+     * configured with a matching consumerId
+     *
+     * @param consumerId the consumerId for which the provided consumer should be used
+     * @param consumer a response body consumer
+     * @return this builder
+     * @see Headers#X_OG_RESPONSE_BODY_CONSUMER
+     */
+    public Builder withResponseBodyConsumer(final String consumerId,
+        final ResponseBodyConsumer consumer) {
+      this.responseBodyConsumers.put(consumerId, consumer);
+      return this;
+    }
+
+    /**
+     * Constructs a new apache async client instance
+     *
+     * @return an apache async client instance
+     * @throws IllegalArgumentException if ioThreads, connectTimeout, soTimeout, writeThroughput, or
+     *         readThroughput are negative
+     * @throws IllegalArgumentException if soLinger is less than {@code -1}
+     * @throws IllegalArgumentException if maxIdleTime, writeBlockSize or readBlockSize is negative
+     *         or zero
+     */
+    public ApacheAsyncClient build() {
+      return new ApacheAsyncClient(this);
+    }
+  }
+}
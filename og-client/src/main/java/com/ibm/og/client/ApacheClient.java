@@ -13,6 +13,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.security.Security;
 import java.util.Collections;
 import java.util.List;
@@ -28,6 +29,7 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSocketFactory;
 
 import com.ibm.og.http.NoneAuth;
+import com.ibm.og.util.io.BufferPool;
 import com.ibm.og.util.io.MonitoringInputStream;
 import org.apache.http.ConnectionReuseStrategy;
 import org.apache.http.Header;
@@ -71,14 +73,16 @@ import com.ibm.og.api.AuthenticatedRequest;
 import com.ibm.og.api.Client;
 import com.ibm.og.api.DataType;
 import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.api.Response;
-import com.ibm.og.client.RequestLogEntry.RequestTimestamps;
+import com.ibm.og.client.VirtualThreads.PinnedThreadMonitor;
 import com.ibm.og.http.Bodies;
 import com.ibm.og.http.Headers;
 import com.ibm.og.http.HttpAuth;
 import com.ibm.og.http.HttpResponse;
 import com.ibm.og.http.ResponseBodyConsumer;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 import com.ibm.og.util.io.Streams;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -104,9 +108,11 @@ import com.google.gson.stream.JsonWriter;
  * 
  * @since 1.0
  */
-public class ApacheClient implements Client {
+public class ApacheClient implements Client, ThreadStatsProvider {
   private static final Logger _logger = LoggerFactory.getLogger(ApacheClient.class);
   private static final Logger _requestLogger = LoggerFactory.getLogger("RequestLogger");
+  // upper bound on the memory held by idle response buffers which are not cached by a thread
+  private static final int RESPONSE_BUFFER_POOL_BYTES = 64 * 1024 * 1024;
   private final int connectTimeout;
   private final int soTimeout;
   private final boolean soReuseAddress;
@@ -137,9 +143,16 @@ public class ApacheClient implements Client {
   private final String userAgent;
   private final long writeThroughput;
   private final long readThroughput;
+  private final int writeBlockSize;
+  private final int readBlockSize;
   private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+  private final boolean virtualThreads;
+  private final BufferPool responseBuffers;
   private volatile boolean running;
   private final AtomicInteger abortedRequestsAtShutdown;
+  private final AtomicInteger activeWorkers;
+  private final AtomicInteger peakWorkers;
+  private final PinnedThreadMonitor pinnedThreadMonitor;
   private final CloseableHttpClient client;
   private final ListeningExecutorService executorService;
   private final Gson gson;
@@ -213,12 +226,25 @@ public class ApacheClient implements Client {
     this.userAgent = builder.userAgent;
     this.writeThroughput = builder.writeThroughput;
     this.readThroughput = builder.readThroughput;
+    this.writeBlockSize = builder.writeBlockSize;
+    this.readBlockSize = builder.readBlockSize;
     this.responseBodyConsumers = ImmutableMap.copyOf(builder.responseBodyConsumers);
+    this.virtualThreads = builder.virtualThreads;
     this.running = true;
     this.abortedRequestsAtShutdown = new AtomicInteger();
-    final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat("client-%d").build();
-    this.executorService = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(fac));
-    this.gson = createGson();
+    this.activeWorkers = new AtomicInteger();
+    this.peakWorkers = new AtomicInteger();
+    if (this.virtualThreads) {
+      this.executorService =
+          MoreExecutors.listeningDecorator(VirtualThreads.newThreadPerTaskExecutor("client-"));
+      this.pinnedThreadMonitor = new PinnedThreadMonitor();
+      this.pinnedThreadMonitor.start();
+    } else {
+      final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat("client-%d").build();
+      this.executorService = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(fac));
+      this.pinnedThreadMonitor = null;
+    }
+    this.gson = createRequestLogGson();
 
     // perform checks on instance fields rather than builder fields
     checkArgument(this.connectTimeout >= 0, "connectTimeout must be >= 0 [%s]",
@@ -240,6 +266,12 @@ public class ApacheClient implements Client {
         this.writeThroughput);
     checkArgument(this.readThroughput >= 0, "readThroughput must be >= 0 [%s]",
         this.readThroughput);
+    checkArgument(this.writeBlockSize > 0, "writeBlockSize must be > 0 [%s]",
+        this.writeBlockSize);
+    checkArgument(this.readBlockSize > 0, "readBlockSize must be > 0 [%s]", this.readBlockSize);
+    // virtual threads are not reused, so buffers they cache would be lost with them
+    this.responseBuffers = new BufferPool(this.readBlockSize, !this.virtualThreads,
+        Math.max(1, RESPONSE_BUFFER_POOL_BYTES / this.readBlockSize));
 
     Security.setProperty("networkaddress.cache.ttl", String.valueOf(this.dnsCacheTtl));
     Security.setProperty("networkaddress.cache.negative.ttl",
@@ -248,7 +280,8 @@ public class ApacheClient implements Client {
     this.client = createClient();
   }
 
-  private Gson createGson() {
+  // shared with ApacheAsyncClient so that both engines produce identical request log entries
+  static Gson createRequestLogGson() {
     return new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
         .setLongSerializationPolicy(LongSerializationPolicy.STRING)
         .registerTypeAdapter(Double.class, new TypeAdapter<Double>() {
@@ -434,7 +467,8 @@ public class ApacheClient implements Client {
     }
 
     if (DataType.NONE != request.getBody().getDataType()) {
-      final AbstractHttpEntity entity = new CustomHttpEntity(request, this.writeThroughput);
+      final AbstractHttpEntity entity = new CustomHttpEntity(request, this.writeThroughput,
+          this.writeBlockSize);
       // TODO chunk size for chunked encoding is hardcoded to 2048 bytes. Can only be overridden
       // by implementing a custom connection factory
       entity.setChunked(this.chunkedEncoding);
@@ -483,6 +517,9 @@ public class ApacheClient implements Client {
         while (!ApacheClient.this.executorService.isTerminated()) {
           awaitShutdown(1, TimeUnit.HOURS);
         }
+        if (ApacheClient.this.pinnedThreadMonitor != null) {
+          ApacheClient.this.pinnedThreadMonitor.stop();
+        }
         _logger.info("Client is shutdown");
         _logger.info("Number of requests aborted at shutdown [{}]",
             ApacheClient.this.abortedRequestsAtShutdown.get());
@@ -506,19 +543,27 @@ public class ApacheClient implements Client {
     private AuthenticatedRequest authenticatedRequest;
     private HttpUriRequest apacheRequest;
     private final RequestTimestamps timestamps;
-    private final byte[] buf;
 
     public BlockingHttpOperation(final Request request) {
       this.request = checkNotNull(request);
       this.timestamps = new RequestTimestamps();
-      // TODO inject buf size from config
-      this.buf = new byte[4096];
     }
 
     @Override
     public Response call() {
+      ApacheClient.this.workerStarted();
+      try {
+        return execute();
+      } finally {
+        ApacheClient.this.activeWorkers.decrementAndGet();
+      }
+    }
+
+    private Response execute() {
       this.timestamps.startMillis = System.currentTimeMillis();
       this.timestamps.start = System.nanoTime();
+      this.timestamps.intendedStart = RequestContext.getLong(this.request.getContext(),
+          Context.X_OG_INTENDED_START, this.timestamps.intendedStart);
 
       this.authenticatedRequest =
           ApacheClient.this.authentication.authenticate(checkNotNull(this.request));
@@ -541,10 +586,10 @@ public class ApacheClient implements Client {
         }
         responseBuilder.withStatusCode(599);
       }
-      response = responseBuilder.build();
-      _logger.trace("Received response {}", response);
       this.timestamps.finish = System.nanoTime();
       this.timestamps.finishMillis = System.currentTimeMillis();
+      response = responseBuilder.withRequestTimestamps(this.timestamps).build();
+      _logger.trace("Received response {}", response);
 
       // do not log requests with 599 response after client shutdown (known aborted requests)
       if (ApacheClient.this.running || response.getStatusCode() != 599) {
@@ -599,20 +644,25 @@ public class ApacheClient implements Client {
         final org.apache.http.HttpResponse response) throws IOException {
       final HttpEntity entity = response.getEntity();
       if (entity != null) {
-        InputStream entityStream = entity.getContent();
+        final InputStream entityStream = entity.getContent();
         final long readThroughput = ApacheClient.this.readThroughput;
-        if (readThroughput > 0) {
-          entityStream = Streams.throttle(entityStream, readThroughput);
-        }
-
-        final MonitoringInputStream in = new MonitoringInputStream(entityStream);
-
         // TODO clean this up, should always try to set response entity to response size;
         // will InstrumentedInputStream help with this?
         final String consumerId =
             this.request.getContext().get(Context.X_OG_RESPONSE_BODY_CONSUMER);
         final ResponseBodyConsumer consumer =
             ApacheClient.this.responseBodyConsumers.get(consumerId);
+
+        if (consumer == null && readThroughput == 0) {
+          // common case, drain the entity directly rather than through wrapping streams
+          this.timestamps.responseContentStart = System.nanoTime();
+          consumeBytes(responseBuilder, entityStream);
+          this.timestamps.responseContentFinish = System.nanoTime();
+          return;
+        }
+
+        final MonitoringInputStream in = new MonitoringInputStream(
+            readThroughput > 0 ? Streams.throttle(entityStream, readThroughput) : entityStream);
         this.timestamps.responseContentStart = System.nanoTime();
         if (consumer != null) {
           for (final Map.Entry<String, String> e : consumer
@@ -629,10 +679,20 @@ public class ApacheClient implements Client {
 
     private void consumeBytes(final HttpResponse.Builder responseBuilder,
         final InputStream responseContent) throws IOException {
+      final BufferPool pool = ApacheClient.this.responseBuffers;
+      final ByteBuffer buf = pool.acquire();
       long totalBytes = 0;
-      int bytesRead;
-      while ((bytesRead = responseContent.read(this.buf)) > 0) {
-        totalBytes += bytesRead;
+      try {
+        final byte[] b = buf.array();
+        final int bytesRead = responseContent.read(b, 0, b.length);
+        if (this.timestamps.responseContentFirstBytes == 0) {
+          this.timestamps.responseContentFirstBytes = System.nanoTime();
+        }
+        if (bytesRead > 0) {
+          totalBytes = bytesRead + Streams.drain(responseContent, b);
+        }
+      } finally {
+        pool.release(buf);
       }
 
       if (totalBytes > 0) {
@@ -645,6 +705,22 @@ public class ApacheClient implements Client {
     }
   }
 
+  private void workerStarted() {
+    final int active = this.activeWorkers.incrementAndGet();
+    int peak = this.peakWorkers.get();
+    while (active > peak && !this.peakWorkers.compareAndSet(peak, active)) {
+      peak = this.peakWorkers.get();
+    }
+  }
+
+  @Override
+  public ThreadStats getThreadStats() {
+    final Long pinned =
+        this.pinnedThreadMonitor != null ? this.pinnedThreadMonitor.getCount() : null;
+    return new ThreadStats(this.virtualThreads ? "virtual" : "platform", this.peakWorkers.get(),
+        pinned);
+  }
+
   @Override
   public String toString() {
     return String.format(
@@ -657,7 +733,8 @@ public class ApacheClient implements Client {
             + "keyPassword=%s,%n" + "trustStore=%s,%n" + "trustStorePassword=%s,%n"
             + "trustSelfSignedCertificates=%s,%n" + "dnsCacheTtl=%s,%n"
             + "dnsCacheNegativeTtl=%s,%n" + "authentication=%s,%n" + "userAgent=%s,%n"
-            + "writeThroughput=%s,%n" + "readThroughput=%s,%n" + "responseBodyConsumers=%s%n]",
+            + "writeThroughput=%s,%n" + "readThroughput=%s,%n" + "writeBlockSize=%s,%n"
+            + "readBlockSize=%s,%n" + "responseBodyConsumers=%s,%n" + "virtualThreads=%s%n]",
         this.connectTimeout, this.soTimeout, this.soReuseAddress, this.soLinger, this.soKeepAlive,
         this.tcpNoDelay, this.soSndBuf, this.soRcvBuf, this.persistentConnections,
         this.validateAfterInactivity, this.maxIdleTime, this.chunkedEncoding, this.expectContinue,
@@ -665,7 +742,8 @@ public class ApacheClient implements Client {
         this.cipherSuites, this.keyStore, this.keyStorePassword, this.keyPassword, this.trustStore,
         this.trustStorePassword, this.trustSelfSignedCertificates, this.dnsCacheTtl,
         this.dnsCacheNegativeTtl, this.authentication, this.userAgent, this.writeThroughput,
-        this.readThroughput, this.responseBodyConsumers);
+        this.readThroughput, this.writeBlockSize, this.readBlockSize, this.responseBodyConsumers,
+        this.virtualThreads);
   }
 
   /**
@@ -702,7 +780,10 @@ public class ApacheClient implements Client {
     private String userAgent;
     private long writeThroughput;
     private long readThroughput;
+    private int writeBlockSize;
+    private int readBlockSize;
     private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+    private boolean virtualThreads;
 
     /**
      * Constructs a new builder
@@ -737,7 +818,10 @@ public class ApacheClient implements Client {
       this.authentication = new NoneAuth();
       this.writeThroughput = 0;
       this.readThroughput = 0;
+      this.writeBlockSize = Streams.PAYLOAD_LENGTH;
+      this.readBlockSize = 4096;
       this.responseBodyConsumers = Maps.newHashMap();
+      this.virtualThreads = false;
     }
 
     /**
@@ -1079,6 +1163,33 @@ public class ApacheClient implements Client {
       return this;
     }
 
+    /**
+     * Configures the maximum number of bytes written to a connection at once for request bodies
+     * of generated data, which are written directly from a shared payload rather than through a
+     * copy buffer. Blocks are also limited to {@link Streams#PAYLOAD_LENGTH}. Throttled writes
+     * are not affected
+     * 
+     * @param writeBlockSize maximum write block size, in bytes
+     * @return this builder
+     */
+    public Builder withWriteBlockSize(final int writeBlockSize) {
+      this.writeBlockSize = writeBlockSize;
+      return this;
+    }
+
+    /**
+     * Configures the maximum number of bytes read from a connection at once for response bodies
+     * which are not handed to a response body consumer. Read buffers are pooled and reused across
+     * requests
+     * 
+     * @param readBlockSize maximum read block size, in bytes
+     * @return this builder
+     */
+    public Builder withReadBlockSize(final int readBlockSize) {
+      this.readBlockSize = readBlockSize;
+      return this;
+    }
+
     /**
      * Configures a response body consumer to be used to process response bodies for requests
      * configured with a matching consumerId
@@ -1094,6 +1205,18 @@ public class ApacheClient implements Client {
       return this;
     }
 
+    /**
+     * Configures whether requests are executed on virtual threads rather than a cached pool of
+     * platform threads. Virtual threads require java 21 or later
+     * 
+     * @param virtualThreads virtual thread flag
+     * @return this builder
+     */
+    public Builder usingVirtualThreads(final boolean virtualThreads) {
+      this.virtualThreads = virtualThreads;
+      return this;
+    }
+
     /**
      * Constructs a new apache client instance
      * 
@@ -1101,7 +1224,10 @@ public class ApacheClient implements Client {
      * @throws IllegalArgumentException if connectTimeout, soTimeout, writeThroughput, or
      *         readThroughput are negative
      * @throws IllegalArgumentException if soLinger is less than {@code -1}
-     * @throws IllegalArgumentException if waitForContinue is negative or zero
+     * @throws IllegalArgumentException if waitForContinue, writeBlockSize or readBlockSize is
+     *         negative or zero
+     * @throws IllegalArgumentException if virtualThreads is true and the running jvm does not
+     *         support virtual threads
      */
     public ApacheClient build() {
       return new ApacheClient(this);
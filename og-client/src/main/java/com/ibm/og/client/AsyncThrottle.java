@@ -0,0 +1,83 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A non-blocking byte rate throttle for use on I/O reactor threads. Rather than sleeping as
+ * {@code Streams.throttle} does, callers ask how many bytes may be transferred right now and, when
+ * the answer is zero, suspend the channel for {@link #delay(TimeUnit)} before asking again.
+ *
+ * @since 1.7.0
+ */
+class AsyncThrottle {
+  private final long bytesPerSecond;
+  private final long quantum;
+  private long start;
+  private long bytes;
+
+  /**
+   * Constructs a throttle
+   *
+   * @param bytesPerSecond maximum throughput
+   * @throws IllegalArgumentException if bytesPerSecond is negative or zero
+   */
+  public AsyncThrottle(final long bytesPerSecond) {
+    checkArgument(bytesPerSecond > 0, "bytesPerSecond must be > 0 [%s]", bytesPerSecond);
+    this.bytesPerSecond = bytesPerSecond;
+    // wake up at most every ~10ms rather than once per byte for low throughput values
+    this.quantum = Math.max(1, bytesPerSecond / 100);
+  }
+
+  /**
+   * Gets the number of bytes which may be transferred immediately without exceeding the configured
+   * throughput. The first call to this method starts the throttle clock.
+   *
+   * @return permitted bytes, {@code 0} if the caller must wait
+   */
+  public long available() {
+    final long now = System.nanoTime();
+    if (this.start == 0) {
+      this.start = now;
+    }
+    final long permitted = (long) ((now - this.start) * (this.bytesPerSecond / 1e9));
+    final long available = permitted - this.bytes;
+    return available < this.quantum ? 0 : available;
+  }
+
+  /**
+   * Records a transfer of the provided number of bytes
+   *
+   * @param count bytes transferred
+   */
+  public void transferred(final long count) {
+    this.bytes += count;
+  }
+
+  /**
+   * Gets the duration a caller should wait before {@link #available()} returns a positive value
+   *
+   * @param unit the unit of the returned duration
+   * @return wait duration
+   */
+  public long delay(final TimeUnit unit) {
+    final double target = (this.bytes + this.quantum) / (double) this.bytesPerSecond;
+    final long elapsed = System.nanoTime() - this.start;
+    final long delay = Math.max(0, (long) (target * 1e9) - elapsed);
+    return unit.convert(delay, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Resets this throttle so that a retried or redirected transfer is paced from the beginning
+   */
+  public void reset() {
+    this.start = 0;
+    this.bytes = 0;
+  }
+}
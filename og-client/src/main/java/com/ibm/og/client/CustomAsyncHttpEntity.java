@@ -0,0 +1,202 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.util.io.PayloadInputStream;
+import com.google.common.io.ByteStreams;
+
+/**
+ * An http entity which streams its source inputstream to a non-blocking content encoder. Write
+ * throttling suspends channel output rather than blocking the calling I/O reactor thread. Content
+ * from a shared payload is handed to the encoder as views of the payload, without copying it.
+ *
+ * @since 1.7.0
+ */
+public class CustomAsyncHttpEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+  // the largest buffer to copy content through when it is not a shared payload
+  private static final int COPY_BUFFER_SIZE = 8192;
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+  private final AuthenticatedRequest request;
+  private final long writeThroughput;
+  private final ScheduledExecutorService scheduler;
+  private final int blockSize;
+  private final boolean directBuffers;
+  private final AsyncThrottle throttle;
+  private InputStream in;
+  private PayloadInputStream payload;
+  private ByteBuffer copyBuf;
+  private ByteBuffer buf;
+  private boolean eof;
+  private long requestContentStart;
+  private long requestContentFinish;
+
+  /**
+   * Constructs an instance
+   *
+   * @param request the request whose content to produce
+   * @param writeThroughput maximum write throughput in bytes per second, or {@code 0} for
+   *        unlimited
+   * @param scheduler the executor used to resume output after a throttle delay
+   * @param blockSize the maximum number of bytes to hand to the encoder at once
+   * @param directBuffers whether to hand shared payloads to the encoder from direct buffers
+   * @throws IllegalArgumentException if writeThroughput is negative or blockSize is negative or
+   *         zero
+   */
+  public CustomAsyncHttpEntity(final AuthenticatedRequest request, final long writeThroughput,
+      final ScheduledExecutorService scheduler, final int blockSize, final boolean directBuffers) {
+    this.request = checkNotNull(request);
+    checkArgument(writeThroughput >= 0, "writeThroughput must be >= 0 [%s]", writeThroughput);
+    checkArgument(blockSize > 0, "blockSize must be > 0 [%s]", blockSize);
+    this.writeThroughput = writeThroughput;
+    this.scheduler = checkNotNull(scheduler);
+    this.blockSize = blockSize;
+    this.directBuffers = directBuffers;
+    this.throttle = writeThroughput > 0 ? new AsyncThrottle(writeThroughput) : null;
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public long getContentLength() {
+    return this.request.getContentLength();
+  }
+
+  @Override
+  public InputStream getContent() throws IOException, IllegalStateException {
+    final InputStream content = this.request.getContent();
+    content.reset();
+    return content;
+  }
+
+  @Override
+  public void writeTo(final OutputStream outstream) throws IOException {
+    final InputStream content = getContent();
+    ByteStreams.copy(content, outstream);
+    content.close();
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+
+  @Override
+  public void produceContent(final ContentEncoder encoder, final IOControl ioctrl)
+      throws IOException {
+    if (this.in == null) {
+      this.in = getContent();
+      this.payload = this.in instanceof PayloadInputStream ? (PayloadInputStream) this.in : null;
+      this.buf = EMPTY;
+      this.eof = false;
+      this.requestContentStart = System.nanoTime();
+      this.requestContentFinish = 0;
+    }
+
+    if (!this.buf.hasRemaining() && !this.eof) {
+      int limit = this.blockSize;
+      if (this.throttle != null) {
+        final long available = this.throttle.available();
+        if (available == 0) {
+          suspend(ioctrl);
+          return;
+        }
+        limit = (int) Math.min(limit, available);
+      }
+
+      final int bytesRead;
+      if (this.payload != null) {
+        final ByteBuffer block = this.payload.nextBlock(limit, this.directBuffers);
+        bytesRead = block != null ? block.remaining() : -1;
+        if (block != null) {
+          this.buf = block;
+        }
+      } else {
+        if (this.copyBuf == null) {
+          this.copyBuf = ByteBuffer.allocate(Math.min(this.blockSize, COPY_BUFFER_SIZE));
+        }
+        bytesRead = this.in.read(this.copyBuf.array(), 0, Math.min(limit, this.copyBuf.capacity()));
+        if (bytesRead >= 0) {
+          this.copyBuf.position(0);
+          this.copyBuf.limit(bytesRead);
+          this.buf = this.copyBuf;
+        }
+      }
+      if (bytesRead < 0) {
+        this.eof = true;
+      } else if (this.throttle != null) {
+        this.throttle.transferred(bytesRead);
+      }
+    }
+
+    if (this.buf.hasRemaining()) {
+      encoder.write(this.buf);
+    }
+
+    if (this.eof && !this.buf.hasRemaining()) {
+      encoder.complete();
+      this.requestContentFinish = System.nanoTime();
+    }
+  }
+
+  private void suspend(final IOControl ioctrl) {
+    ioctrl.suspendOutput();
+    this.scheduler.schedule(new Runnable() {
+      @Override
+      public void run() {
+        ioctrl.requestOutput();
+      }
+    }, this.throttle.delay(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+  }
+
+  // invoked by the request producer on completion and before a retry or redirect; timestamps are
+  // deliberately retained so they can be read once the exchange is complete
+  @Override
+  public void close() throws IOException {
+    if (this.in != null) {
+      this.in.close();
+    }
+    this.in = null;
+    this.payload = null;
+    this.copyBuf = null;
+    this.buf = null;
+    if (this.throttle != null) {
+      this.throttle.reset();
+    }
+  }
+
+  public long getRequestContentStart() {
+    return this.requestContentStart;
+  }
+
+  public long getRequestContentFinish() {
+    return this.requestContentFinish;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CustomAsyncHttpEntity [body=%s, writeThroughput=%s]",
+        this.request.getBody(), this.writeThroughput);
+  }
+}
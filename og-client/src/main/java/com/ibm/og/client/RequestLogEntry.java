@@ -11,6 +11,7 @@ import java.util.concurrent.TimeUnit;
 
 import com.ibm.og.api.*;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
@@ -100,7 +101,7 @@ public class RequestLogEntry {
     this.requestLength = objectSize;
 
     if (request.getOperation() == Operation.METADATA) {
-      objectSize = Long.parseLong(request.getContext().get(Context.X_OG_OBJECT_SIZE));
+      objectSize = RequestContext.getLong(request.getContext(), Context.X_OG_OBJECT_SIZE);
     }
 
     if (response.getBody().getDataType() != DataType.NONE) {
@@ -117,7 +118,8 @@ public class RequestLogEntry {
     this.stat = new RequestStats(timestamps);
     // On overwrite, log the original size of the object before overwrite
     if(request.getOperation() == Operation.OVERWRITE) {
-      this.originalObjectLength = Long.parseLong(request.getContext().get(Context.X_OG_OBJECT_SIZE));
+      this.originalObjectLength =
+          RequestContext.getLong(request.getContext(), Context.X_OG_OBJECT_SIZE);
     } else {
       this.originalObjectLength = null;
     }
@@ -130,24 +132,13 @@ public class RequestLogEntry {
 
   }
 
-  public static class RequestTimestamps {
-    public long startMillis;
-    public long start;
-    public long requestContentStart;
-    public long requestContentFinish;
-    public long responseContentStart;
-    public long responseContentFirstBytes;
-    public long responseContentFinish;
-    public long finish;
-    public long finishMillis;
-  }
-
   public static class RequestStats {
     final Double requestContent;
     final Double closeLatency;
     final Double ttfb;
     final Double responseContent;
     final Double total;
+    final Double intendedTotal;
 
     public RequestStats(final RequestTimestamps t) {
       this.requestContent = duration(t.requestContentStart, t.requestContentFinish);
@@ -155,6 +146,7 @@ public class RequestLogEntry {
       this.ttfb = duration(t.start, t.responseContentFirstBytes);
       this.responseContent = duration(t.responseContentStart, t.responseContentFinish);
       this.total = duration(t.start, t.finish);
+      this.intendedTotal = duration(t.intendedStart, t.finish);
     }
 
     private Double duration(final long start, final long finish) {
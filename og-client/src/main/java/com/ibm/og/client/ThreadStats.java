@@ -0,0 +1,47 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * A snapshot of client thread usage, suitable for serializing to json
+ * 
+ * @since 1.7.0
+ */
+public class ThreadStats {
+  public final String executor;
+  public final int peakThreadCount;
+  public final int peakWorkerThreadCount;
+  public final Long pinnedThreadCount;
+
+  /**
+   * Constructs an instance. The jvm wide peak platform thread count is sampled at construction
+   * 
+   * @param executor the type of executor used by the client
+   * @param peakWorkerThreadCount the peak number of threads concurrently executing requests
+   * @param pinnedThreadCount the number of times a virtual thread blocked while pinned to its
+   *        carrier thread, or {@code null} if not measured
+   * @throws NullPointerException if executor is null
+   */
+  public ThreadStats(final String executor, final int peakWorkerThreadCount,
+      final Long pinnedThreadCount) {
+    this.executor = checkNotNull(executor);
+    this.peakThreadCount = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+    this.peakWorkerThreadCount = peakWorkerThreadCount;
+    this.pinnedThreadCount = pinnedThreadCount;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "Executor: %s%nPeak Threads: %s%nPeak Worker Threads: %s%nPinned Threads: %s",
+        this.executor, this.peakThreadCount, this.peakWorkerThreadCount,
+        this.pinnedThreadCount != null ? this.pinnedThreadCount : "N/A");
+  }
+}
@@ -0,0 +1,20 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+/**
+ * A client which reports how many threads it used to execute requests
+ * 
+ * @since 1.7.0
+ */
+public interface ThreadStatsProvider {
+  /**
+   * Creates a snapshot of this client's thread usage
+   * 
+   * @return thread usage
+   */
+  ThreadStats getThreadStats();
+}
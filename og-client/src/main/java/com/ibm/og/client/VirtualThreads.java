@@ -0,0 +1,164 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utilities for running client work on virtual threads. Virtual threads and the JFR event stream
+ * used to observe carrier thread pinning are only available on Java 21 and later, while og is
+ * built for older runtimes, so both are accessed reflectively.
+ *
+ * @since 1.7.0
+ */
+final class VirtualThreads {
+  private static final Logger _logger = LoggerFactory.getLogger(VirtualThreads.class);
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private VirtualThreads() {}
+
+  /**
+   * Determines whether the running jvm supports virtual threads
+   *
+   * @return true if virtual threads are supported, false otherwise
+   */
+  public static boolean isSupported() {
+    try {
+      Thread.class.getMethod("ofVirtual");
+      return true;
+    } catch (final NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Creates an executor which starts a new virtual thread for each task
+   *
+   * @param name prefix for the name of created threads
+   * @return a thread per task executor
+   * @throws IllegalArgumentException if the running jvm does not support virtual threads
+   */
+  public static ExecutorService newThreadPerTaskExecutor(final String name) {
+    checkNotNull(name);
+    checkArgument(isSupported(), "virtual threads require java 21 or later [%s]",
+        System.getProperty("java.version"));
+    try {
+      final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name, 0L);
+      final ThreadFactory factory =
+          (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      return (ExecutorService) Executors.class
+          .getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+    } catch (final Exception e) {
+      throw new IllegalStateException("Unable to create virtual thread executor", e);
+    }
+  }
+
+  /**
+   * Counts {@code jdk.VirtualThreadPinned} events, raised whenever a virtual thread blocks while
+   * pinned to its carrier thread, using a JFR event stream
+   */
+  static class PinnedThreadMonitor {
+    private final AtomicLong count;
+    private Object stream;
+
+    public PinnedThreadMonitor() {
+      this.count = new AtomicLong();
+    }
+
+    /**
+     * Starts monitoring. If the JFR event stream is unavailable a warning is logged and
+     * {@link #getCount()} will return {@code null}
+     */
+    public void start() {
+      try {
+        final Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+        final Object stream = streamClass.getConstructor().newInstance();
+        final Object settings =
+            streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+        // report every pinned park rather than only those exceeding the 20ms default
+        final Class<?> durationClass = Class.forName("java.time.Duration");
+        final Object zero = durationClass.getMethod("ofMillis", long.class).invoke(null, 0L);
+        Class.forName("jdk.jfr.EventSettings").getMethod("withThreshold", durationClass)
+            .invoke(settings, zero);
+        final Class<?> consumerClass = Class.forName("java.util.function.Consumer");
+        final Object consumer = Proxy.newProxyInstance(consumerClass.getClassLoader(),
+            new Class<?>[] {consumerClass}, new PinnedEventHandler(this.count));
+        streamClass.getMethod("onEvent", String.class, consumerClass).invoke(stream, PINNED_EVENT,
+            consumer);
+        streamClass.getMethod("startAsync").invoke(stream);
+        this.stream = stream;
+      } catch (final Exception e) {
+        _logger.warn("Unable to monitor virtual thread pinning", e);
+      }
+    }
+
+    /**
+     * Stands in for the {@code java.util.function.Consumer} passed to the event stream, counting
+     * each event it accepts
+     */
+    private static class PinnedEventHandler implements InvocationHandler {
+      private final AtomicLong count;
+
+      public PinnedEventHandler(final AtomicLong count) {
+        this.count = count;
+      }
+
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) {
+        if ("accept".equals(method.getName())) {
+          this.count.incrementAndGet();
+          return null;
+        }
+        if ("equals".equals(method.getName())) {
+          return proxy == args[0];
+        }
+        if ("hashCode".equals(method.getName())) {
+          return System.identityHashCode(proxy);
+        }
+        if ("toString".equals(method.getName())) {
+          return "PinnedEventHandler";
+        }
+        throw new UnsupportedOperationException(method.getName());
+      }
+    }
+
+    /**
+     * Gets the number of pinned events observed so far
+     *
+     * @return pinned event count, or {@code null} if monitoring could not be started
+     */
+    public Long getCount() {
+      return this.stream != null ? this.count.get() : null;
+    }
+
+    /**
+     * Stops monitoring
+     */
+    public void stop() {
+      if (this.stream != null) {
+        try {
+          this.stream.getClass().getMethod("close").invoke(this.stream);
+        } catch (final Exception e) {
+          _logger.warn("Error closing virtual thread pinning monitor", e);
+        }
+      }
+    }
+  }
+}
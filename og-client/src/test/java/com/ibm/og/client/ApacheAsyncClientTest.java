@@ -0,0 +1,459 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.og.http.BasicAuth;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.ResponseBodyConsumer;
+import com.ibm.og.util.Context;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.ibm.og.api.Body;
+import com.ibm.og.api.Client;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.HttpRequest;
+import com.github.tomakehurst.wiremock.client.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class ApacheAsyncClientTest {
+  @ClassRule
+  public static final WireMockClassRule WIREMOCK_RULE = new WireMockClassRule(8080);
+
+  @Rule
+  public WireMockClassRule wireMockRule = WIREMOCK_RULE;
+  private Client client;
+  private URI objectUri;
+  private URI delayUri;
+  private Operation operation;
+
+  @Before()
+  public void before() throws URISyntaxException {
+    this.client = new ApacheAsyncClient.Builder().build();
+    stubFor(any(urlMatching("/container/.*")).willReturn(aResponse().withStatus(200)));
+
+    // read
+    stubFor(get(urlMatching("/container/.*"))
+        .willReturn(aResponse().withStatus(200).withBody(new byte[1000])));
+
+    // 5 second delay
+    stubFor(
+        get(urlEqualTo("/delayed")).willReturn(aResponse().withStatus(200).withFixedDelay(1000)));
+
+    stubFor(any(urlEqualTo("/301"))
+        .willReturn(aResponse().withStatus(301).withHeader("location", "/container/")));
+
+    stubFor(any(urlEqualTo("/302"))
+        .willReturn(aResponse().withStatus(302).withHeader("location", "/container/")));
+
+    stubFor(any(urlEqualTo("/307"))
+        .willReturn(aResponse().withStatus(307).withHeader("location", "/container/")));
+
+    this.objectUri = uri("/container/object");
+    this.delayUri = uri("/delayed");
+    this.operation = Operation.WRITE;
+  }
+
+  private static URI uri(final String path) throws URISyntaxException {
+    return new URI("http://127.0.0.1:8080" + path);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeIoThreads() {
+    new ApacheAsyncClient.Builder().withIoThreads(-1).build();
+  }
+
+  @Test
+  public void zeroIoThreads() {
+    // one reactor thread per processor
+    assertThat(new ApacheAsyncClient.Builder().withIoThreads(0).build().getThreadStats()
+        .peakWorkerThreadCount, is(Runtime.getRuntime().availableProcessors()));
+  }
+
+  @Test
+  public void positiveIoThreads() {
+    assertThat(new ApacheAsyncClient.Builder().withIoThreads(3).build().getThreadStats()
+        .peakWorkerThreadCount, is(3));
+  }
+
+  @Test
+  public void selectInterval() {
+    // the reactor default, when nothing needs it to wake sooner
+    assertThat(ApacheAsyncClient.selectInterval(0, 0), is(1000L));
+    assertThat(ApacheAsyncClient.selectInterval(5000, 0), is(1000L));
+    // timeouts are checked once per interval, so may fire no later than soTimeout
+    assertThat(ApacheAsyncClient.selectInterval(250, 0), is(250L));
+    assertThat(ApacheAsyncClient.selectInterval(1, 0), is(1L));
+    // throttled reads revisit buffered sessions often
+    assertThat(ApacheAsyncClient.selectInterval(0, 1000), is(10L));
+    assertThat(ApacheAsyncClient.selectInterval(5, 1000), is(5L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroReadBlockSize() {
+    new ApacheAsyncClient.Builder().withReadBlockSize(0).build();
+  }
+
+  @Test
+  public void smallReadBlockSize() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withReadBlockSize(7).build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    final Response response = client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getSize(), is(1000L));
+  }
+
+  @DataProvider
+  public static Object[][] provideExecute() {
+    final Body zeroes = Bodies.zeroes(1000);
+    final Body none = Bodies.none();
+    final String content = new String(new byte[1000]);
+
+    return new Object[][] {{Method.PUT, none, "", none}, {Method.PUT, zeroes, content, none},
+        {Method.POST, none, "", none}, {Method.POST, zeroes, content, none},
+        {Method.GET, none, "", zeroes}, {Method.HEAD, none, "", none},
+        {Method.DELETE, none, "", none}};
+  }
+
+  @Test
+  @UseDataProvider("provideExecute")
+  public void execute(final Method method, final Body requestBody, final String requestData,
+      final Body responseBody) throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(method, this.objectUri, this.operation)
+        .withBody(requestBody).build();
+    final Response response = this.client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getDataType(), is(responseBody.getDataType()));
+    assertThat(response.getBody().getSize(), is(responseBody.getSize()));
+
+    verify(requestedFor(method, this.objectUri.getPath()).withRequestBody(equalTo(requestData)));
+  }
+
+  @Test
+  public void requestHeaders() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withHeader("key", "value").build();
+    this.client.execute(request).get();
+    verify(
+        putRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("key", equalTo("value")));
+  }
+
+  @DataProvider
+  public static Object[][] provideEncode() {
+    final String contentLength = "Content-Length";
+    final String transferEncoding = "Transfer-Encoding";
+    return new Object[][] {{false, contentLength, "2048", transferEncoding},
+        {true, transferEncoding, "chunked", contentLength},};
+  }
+
+  @Test
+  @UseDataProvider("provideEncode")
+  public void encode(final boolean chunk, final String key, final String value, final String absent)
+      throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().usingChunkedEncoding(chunk).build();
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(2048)).build();
+    client.execute(request).get();
+    verify(putRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader(key, equalTo(value))
+        .withoutHeader(absent));
+  }
+
+  @Test
+  public void expect100Continue() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().usingExpectContinue(true).build();
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(2048)).build();
+    client.execute(request).get();
+    verify(putRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("Expect",
+        equalTo("100-continue")));
+  }
+
+  @Test
+  public void noExpect100Continue() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().usingExpectContinue(false).build();
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(2048)).build();
+    client.execute(request).get();
+    verify(putRequestedFor(urlEqualTo(this.objectUri.getPath())).withoutHeader("Expect"));
+  }
+
+  @Test
+  public void authentication() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withAuthentication(new BasicAuth()).build();
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_USERNAME, "test").withContext(Context.X_OG_PASSWORD, "test")
+        .build();
+    client.execute(request).get();
+    verify(getRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("Authorization",
+        matching("Basic .*")));
+  }
+
+  @Test
+  public void noAuthentication() throws InterruptedException, ExecutionException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    this.client.execute(request).get();
+    verify(getRequestedFor(urlEqualTo(this.objectUri.getPath())).withoutHeader("Authorization"));
+  }
+
+  @Test
+  public void userAgent() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withUserAgent("testUserAgent").build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    client.execute(request).get();
+    verify(getRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("User-Agent",
+        equalTo("testUserAgent")));
+  }
+
+  @Test
+  public void noUserAgent() throws InterruptedException, ExecutionException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    this.client.execute(request).get();
+    verify(getRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("User-Agent",
+        matching("Apache.*")));
+  }
+
+  @Test
+  public void soTimeoutExceeded() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withSoTimeout(1).build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    final Response response = client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(599));
+  }
+
+  @Test
+  public void requestId() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_REQUEST_ID, "1").build();
+    final Response response = this.client.execute(request).get();
+    assertThat(response.getContext(), hasEntry(Context.X_OG_REQUEST_ID, "1"));
+  }
+
+  @Test
+  public void immediateShutdown() throws InterruptedException, ExecutionException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    this.client.execute(request);
+    final long start = System.nanoTime();
+    this.client.shutdown(true).get();
+    final long duration = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+    // immediate shutdown takes less than 10 seconds
+    assertThat(duration, lessThan(10L));
+  }
+
+  @Test
+  public void gracefulShutdown() throws InterruptedException, ExecutionException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    this.client.execute(request);
+    final long start = System.nanoTime();
+    this.client.shutdown(false).get();
+    final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    // graceful shutdown takes at least request time
+    assertThat(duration, greaterThanOrEqualTo(1000L));
+  }
+
+  @Test
+  public void executeAfterShutdown() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().build();
+    client.shutdown(false).get();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    final ListenableFuture<Response> future = client.execute(request);
+
+    // the future fails at once rather than waiting on a reactor which has stopped
+    assertThat(future.isDone(), is(true));
+    try {
+      future.get();
+      fail("execute after shutdown must fail");
+    } catch (final ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+    }
+  }
+
+  @Test
+  public void concurrentRequestsSingleIoThread() throws InterruptedException, ExecutionException {
+    final int requests = 8;
+    final Client client = new ApacheAsyncClient.Builder().withIoThreads(1).build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    final List<ListenableFuture<Response>> futures = Lists.newArrayList();
+    final long start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      futures.add(client.execute(request));
+    }
+    for (final Response response : Futures.allAsList(futures).get()) {
+      assertThat(response.getStatusCode(), is(200));
+    }
+    final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    // each request is delayed for 1 second by the server, so requests which ran one after
+    // another on the reactor thread would take 8 seconds; all must have been in flight at once
+    assertThat(duration, lessThan(2000L));
+    verify(requests, getRequestedFor(urlEqualTo(this.delayUri.getPath())));
+    client.shutdown(false).get();
+  }
+
+  @DataProvider
+  public static Object[][] provideRedirect() throws URISyntaxException {
+    final URI one = uri("/301");
+    final URI two = uri("/302");
+    final URI three = uri("/307");
+    final Body zeroes = Bodies.zeroes(1000);
+    final Body none = Bodies.none();
+    final String content = new String(new byte[1000]);
+    final Operation write = Operation.WRITE;
+    final Operation read = Operation.READ;
+    final Operation metadata = Operation.METADATA;
+    final Operation overwrite = Operation.OVERWRITE;
+    final Operation delete = Operation.DELETE;
+
+    return new Object[][] {{Method.PUT, one, write, zeroes, content, none, false},
+        {Method.PUT, two, write, zeroes, content, none, false},
+        {Method.PUT, three, write, zeroes, content, none, false},
+
+        {Method.PUT, one, overwrite, zeroes, content, none, true},
+        {Method.PUT, two, overwrite, zeroes, content, none, true},
+        {Method.PUT, three, overwrite, zeroes, content, none, true},
+
+        {Method.POST, one, write, zeroes, content, none, false},
+        {Method.POST, two, write, zeroes, content, none, false},
+        {Method.POST, three, write, zeroes, content, none, false},
+
+        {Method.POST, one, write, zeroes, content, none, true},
+        {Method.POST, two, write, zeroes, content, none, true},
+        {Method.POST, three, write, zeroes, content, none, true},
+
+        {Method.GET, one, read, none, "", zeroes, false},
+        {Method.GET, two, read, none, "", zeroes, false},
+        {Method.GET, three, read, none, "", zeroes, false},
+
+        {Method.HEAD, one, metadata, none, "", none, false},
+        {Method.HEAD, two, metadata, none, "", none, false},
+        {Method.HEAD, three, metadata, none, "", none, false},
+
+        {Method.DELETE, one, delete, none, "", none, false},
+        {Method.DELETE, two, delete, none, "", none, false},
+        {Method.DELETE, three, delete, none, "", none, false},};
+  }
+
+  @Test
+  @UseDataProvider("provideRedirect")
+  public void redirect(final Method method, final URI uri, final Operation operation,
+      final Body requestBody, final String requestData, final Body responseBody,
+      final boolean chunkedEncoding) throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().usingChunkedEncoding(chunkedEncoding).build();
+
+    final HttpRequest.Builder builder =
+        new HttpRequest.Builder(method, uri, operation);
+    builder.withBody(requestBody);
+    builder.withContext(Context.X_OG_OBJECT_SIZE, String.valueOf(requestBody.getSize()));
+    final Request request = builder.build();
+
+    final Response response = client.execute(request).get();
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getDataType(), is(responseBody.getDataType()));
+    assertThat(response.getBody().getSize(), is(responseBody.getSize()));
+
+    verify(requestedFor(method, uri.getPath()).withRequestBody(equalTo(requestData)));
+
+    verify(requestedFor(method, "/container/").withRequestBody(equalTo(requestData)));
+  }
+
+  private RequestPatternBuilder requestedFor(final Method method, final String uri) {
+    return new RequestPatternBuilder(RequestMethod.fromString(method.toString()), urlEqualTo(uri));
+  }
+
+  @Test
+  public void writeThroughput() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withWriteThroughput(1000).build();
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(50)).build();
+    final long timestampStart = System.nanoTime();
+    client.execute(request).get();
+    final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - timestampStart);
+
+    assertThat(duration, greaterThanOrEqualTo(40L));
+  }
+
+  @Test
+  public void readThroughput() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withReadThroughput(20000).build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    final long timestampStart = System.nanoTime();
+    client.execute(request).get();
+    final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - timestampStart);
+
+    assertThat(duration, greaterThanOrEqualTo(40L));
+  }
+
+  @Test
+  public void responseBodyConsumer() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_RESPONSE_BODY_CONSUMER, "consumer").build();
+
+    final Client client =
+        new ApacheAsyncClient.Builder().withResponseBodyConsumer("consumer", new ResponseBodyConsumer() {
+          @Override
+          public Map<String, String> consume(final int statusCode, final InputStream response) {
+            return ImmutableMap.of("key", "value");
+          }
+        }).build();
+
+    final Response response = client.execute(request).get();
+    assertThat(response.getContext(), hasEntry("key", "value"));
+  }
+
+}
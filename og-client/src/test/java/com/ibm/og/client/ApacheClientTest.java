@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.mock;
 
 import java.io.InputStream;
@@ -38,6 +39,7 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
 import com.ibm.og.api.Body;
@@ -62,6 +64,8 @@ public class ApacheClientTest {
 
   @Rule
   public WireMockClassRule wireMockRule = WIREMOCK_RULE;
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
   private Client client;
   private URI objectUri;
   private URI delayUri;
@@ -273,6 +277,22 @@ public class ApacheClientTest {
     new ApacheClient.Builder().withRetryCount(1).build();
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroReadBlockSize() {
+    new ApacheClient.Builder().withReadBlockSize(0).build();
+  }
+
+  @Test
+  public void smallReadBlockSize() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheClient.Builder().withReadBlockSize(7).build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    final Response response = client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getSize(), is(1000L));
+  }
+
   @Test(expected = NullPointerException.class)
   public void nullAuthentication() {
     new ApacheClient.Builder().withAuthentication(null).build();
@@ -559,6 +579,36 @@ public class ApacheClientTest {
     assertThat(response.getContext(), hasEntry("key", "value"));
   }
 
+  @Test
+  public void virtualThreads() throws InterruptedException, ExecutionException {
+    if (!VirtualThreads.isSupported()) {
+      this.thrown.expect(IllegalArgumentException.class);
+    }
+    final ApacheClient client = new ApacheClient.Builder().usingVirtualThreads(true).build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    final Response response = client.execute(request).get();
+    client.shutdown(false).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(client.getThreadStats().executor, is("virtual"));
+    assertThat(client.getThreadStats().peakWorkerThreadCount, is(1));
+  }
+
+  @Test
+  public void platformThreadStats() throws InterruptedException, ExecutionException {
+    final ApacheClient client = new ApacheClient.Builder().build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    client.execute(request).get();
+
+    final ThreadStats stats = client.getThreadStats();
+    assertThat(stats.executor, is("platform"));
+    assertThat(stats.peakWorkerThreadCount, is(1));
+    assertThat(stats.peakThreadCount, greaterThanOrEqualTo(1));
+    assertThat(stats.pinnedThreadCount, nullValue());
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testNullTrustStoreWithTrustStorePassword() {
     new ApacheClient.Builder().withTrustStorePassword("password").build();
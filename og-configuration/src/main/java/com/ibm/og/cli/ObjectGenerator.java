@@ -14,6 +14,8 @@ import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
 import com.ibm.og.json.OGConfig;
 import com.ibm.og.json.type.FilesizeConfigTypeAdapterFactory;
 import com.ibm.og.test.condition.LoadTestResult;
@@ -29,9 +31,14 @@ import com.ibm.og.json.type.SelectionConfigTypeAdapterFactory;
 import com.ibm.og.util.json.type.SizeUnitTypeAdapter;
 import com.ibm.og.util.json.type.TimeUnitTypeAdapter;
 import com.ibm.og.util.json.type.CaseInsensitiveEnumTypeAdapterFactory;
+import com.ibm.og.api.Client;
+import com.ibm.og.client.ThreadStats;
+import com.ibm.og.client.ThreadStatsProvider;
 import com.ibm.og.object.ObjectManager;
+import com.ibm.og.statistic.IntervalReporter;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
+import com.ibm.og.test.SaturationSearch;
 import com.ibm.og.util.SizeUnit;
 import com.ibm.og.util.Version;
 import com.google.common.collect.Sets;
@@ -71,6 +78,9 @@ public class ObjectGenerator {
   private static LoadTest test;
   private static ObjectManager objectManager;
   private static Statistics statistics;
+  private static IntervalReporter intervalReporter;
+  private static SaturationSearch saturationSearch;
+  private static Client client;
   private static OGConfig ogConfig;
 
   private static long timestampStart;
@@ -124,7 +134,8 @@ public class ObjectGenerator {
 
       OGLog4jShutdownCallbackRegistry.setOGShutdownHook((new ShutdownHook(test, shutdownLatch)));
 
-      final LoadTestResult result = run(test, objectManager, statistics, gson);
+      final LoadTestResult result = run(test, objectManager, statistics, intervalReporter,
+          saturationSearch, client, gson);
 
       shutdownLatch.countDown();
 
@@ -180,11 +191,17 @@ public class ObjectGenerator {
     test = injector.getInstance(LoadTest.class);
     objectManager = injector.getInstance(ObjectManager.class);
     statistics = injector.getInstance(Statistics.class);
+    intervalReporter = injector.getInstance(IntervalReporter.class);
+    if (ogConfig.concurrency != null && ogConfig.concurrency.saturation != null) {
+      saturationSearch = injector.getInstance(SaturationSearch.class);
+    }
+    client = injector.getInstance(Client.class);
 
   }
 
   public static LoadTestResult run(final LoadTest test, final ObjectManager objectManager,
-      final Statistics statistics, final Gson gson) {
+      final Statistics statistics, final IntervalReporter intervalReporter,
+      @Nullable final SaturationSearch saturationSearch, final Client client, final Gson gson) {
     _logger.info("{}", test);
     _logger.info("{}", objectManager);
     _consoleLogger.info("Configured.");
@@ -198,9 +215,21 @@ public class ObjectGenerator {
       _consoleLogger.error("Test ended unsuccessfully. See og.log or exception.log for details");
     }
 
+    // the operation pipeline has been drained, so the final interval includes every operation
+    intervalReporter.shutdown();
+    SaturationSearch.Result saturation = null;
+    if (saturationSearch != null) {
+      saturationSearch.shutdown();
+      saturation = saturationSearch.getResult();
+    }
     shutdownObjectManager(objectManager);
 
-    final Summary summary = logSummary(statistics, result.timestampStart, result.timestampFinish, result);
+    ThreadStats threadStats = null;
+    if (client instanceof ThreadStatsProvider) {
+      threadStats = ((ThreadStatsProvider) client).getThreadStats();
+    }
+    final Summary summary = logSummary(statistics, result.timestampStart, result.timestampFinish,
+        result, threadStats, saturation);
 
     logSummaryBanner();
     _consoleLogger.info("{}", summary.getSummaryStats().condensedSummary());
@@ -275,10 +304,12 @@ public class ObjectGenerator {
   }
 
   private static Summary logSummary(final Statistics stats, final long timestampStart, final long timestampFinish,
-                                       final LoadTestResult testResult) {
+                                       final LoadTestResult testResult, final ThreadStats threadStats,
+                                       final SaturationSearch.Result saturation) {
     final Summary summary = new Summary(stats, timestampStart, timestampFinish,
             testResult.success ? Application.TEST_SUCCESS : Application.TEST_ERROR,
-            testResult.success ? ImmutableList.of(Application.TEST_SUCCESS_MSG) : testResult.messages);
+            testResult.success ? ImmutableList.of(Application.TEST_SUCCESS_MSG) : testResult.messages,
+            threadStats, saturation);
     _summaryJsonLogger.info(gson.toJson(summary.getSummaryStats()));
     return summary;
   }
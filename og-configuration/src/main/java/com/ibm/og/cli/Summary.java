@@ -14,15 +14,24 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
+import org.HdrHistogram.Histogram;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import javax.annotation.Nullable;
+
+import com.ibm.og.client.ThreadStats;
 import com.ibm.og.statistic.Counter;
+import com.ibm.og.statistic.Latency;
+import com.ibm.og.statistic.LatencyStats;
 import com.ibm.og.statistic.Statistics;
+import com.ibm.og.test.SaturationSearch;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
 import com.ibm.og.util.SizeUnit;
+import com.ibm.og.util.StageMarker;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 
 /**
@@ -47,11 +56,49 @@ public class Summary {
    */
   public Summary(final Statistics stats, final long timestampStart, final long timestampFinish,
                  final int exitCode, ImmutableList<String> messages) {
+    this(stats, timestampStart, timestampFinish, exitCode, messages, null);
+  }
+
+  /**
+   * Constructs an instance which additionally reports client thread usage
+   * 
+   * @param stats the underlying stats to pull from when creating this instance
+   * @param timestampStart the global test start timestamp, in millis.
+   * @param timestampFinish the global test stop timestamp, in millis
+   * @param threadStats client thread usage, or null if unavailable
+   * @throws NullPointerException if stats is null
+   * @throws IllegalArgumentException if timestampStart is zero or negative, or if timestampEnd is
+   *         less than timestampStart
+   */
+  public Summary(final Statistics stats, final long timestampStart, final long timestampFinish,
+      final int exitCode, final ImmutableList<String> messages,
+      @Nullable final ThreadStats threadStats) {
+    this(stats, timestampStart, timestampFinish, exitCode, messages, threadStats, null);
+  }
+
+  /**
+   * Constructs an instance which additionally reports client thread usage and the outcome of a
+   * saturation search
+   * 
+   * @param stats the underlying stats to pull from when creating this instance
+   * @param timestampStart the global test start timestamp, in millis.
+   * @param timestampFinish the global test stop timestamp, in millis
+   * @param threadStats client thread usage, or null if unavailable
+   * @param saturation the outcome of a saturation search, or null if the test did not search
+   * @throws NullPointerException if stats is null
+   * @throws IllegalArgumentException if timestampStart is zero or negative, or if timestampEnd is
+   *         less than timestampStart
+   */
+  public Summary(final Statistics stats, final long timestampStart, final long timestampFinish,
+      final int exitCode, final ImmutableList<String> messages,
+      @Nullable final ThreadStats threadStats, @Nullable final SaturationSearch.Result saturation) {
     checkNotNull(stats);
     checkArgument(timestampStart >= 0, "timestampStart must be >= 0 [%s]", timestampStart);
     checkArgument(timestampStart <= timestampFinish,
         "timestampStart must be <= timestampFinish [%s, %s]", timestampStart, timestampFinish);
-    this.summaryStats = new SummaryStats(stats, timestampStart, timestampFinish, exitCode, messages);
+    this.summaryStats =
+        new SummaryStats(stats, timestampStart, timestampFinish, exitCode, messages, threadStats,
+            saturation);
   }
 
   static class SummaryStats {
@@ -76,11 +123,15 @@ public class Summary {
     final OperationStats readLegalHold;
     final OperationStats deleteLegalHold;
     final OperationStats extendRetention;
+    final ThreadStats threads;
+    final List<StageMarker> stages;
+    final SaturationSearch.Result saturation;
     final int exitCode;
     final ImmutableList<String> exitMessages;
 
     private SummaryStats(final Statistics stats, final long timestampStart,
-        final long timestampFinish, final int exitCode, final ImmutableList<String> messages) {
+        final long timestampFinish, final int exitCode, final ImmutableList<String> messages,
+        final ThreadStats threads, final SaturationSearch.Result saturation) {
       this.timestampStart = timestampStart;
       this.timestampFinish = timestampFinish;
       this.runtime = ((double) (timestampFinish - timestampStart)) / TimeUnit.SECONDS.toMillis(1);
@@ -102,6 +153,11 @@ public class Summary {
       this.readLegalHold = new OperationStats(stats, Operation.READ_LEGAL_HOLD);
       this.deleteLegalHold = new OperationStats(stats, Operation.DELETE_LEGAL_HOLD);
       this.extendRetention = new OperationStats(stats, Operation.EXTEND_RETENTION);
+      this.threads = threads;
+      final List<StageMarker> stages = stats.stages();
+      // omitted from the summary unless the test followed a load profile
+      this.stages = stages.isEmpty() ? null : stages;
+      this.saturation = saturation;
       this.exitCode = exitCode;
       this.exitMessages = messages;
     }
@@ -176,6 +232,24 @@ public class Summary {
       if (this.extendRetention.operations > 0) {
         sb.append(this.extendRetention).append("\n");
       }
+      if (this.threads != null) {
+        sb.append("[THREADS]").append("\n").append(this.threads).append("\n\n");
+      }
+      if (this.stages != null) {
+        sb.append("[STAGES]").append("\n");
+        for (final StageMarker stage : this.stages) {
+          sb.append(stage.getStage()).append(": ").append(FORMATTER.print(stage.getTimestamp()))
+              .append(" ").append(stage.getDescription()).append("\n");
+        }
+        sb.append("\n");
+      }
+      if (this.saturation != null) {
+        sb.append("[SATURATION]").append("\n");
+        for (final SaturationSearch.Point point : this.saturation.curve) {
+          sb.append(point).append("\n");
+        }
+        sb.append("Operating Point: ").append(this.saturation.operatingPoint).append("\n\n");
+      }
       sb.append("ExitCode: ").append(this.exitCode).append("\n");
       sb.append("ExitMessages:").append(prettyExitMessages());
 
@@ -187,20 +261,30 @@ public class Summary {
       final long operations;
       final long bytes;
       final Map<Integer, Long> statusCodes;
+      final Map<String, LatencyStats> latencies;
 
       private OperationStats(final Statistics stats, final Operation operation) {
         this.operation = operation;
         this.operations = stats.get(operation, Counter.OPERATIONS);
         this.bytes = stats.get(operation, Counter.BYTES);
         this.statusCodes = ImmutableSortedMap.copyOf(stats.statusCodes(operation));
+        final ImmutableMap.Builder<String, LatencyStats> latencies = ImmutableMap.builder();
+        for (final Latency latency : Latency.values()) {
+          final Histogram histogram = stats.latency(operation, latency);
+          if (histogram.getTotalCount() > 0) {
+            latencies.put(latency.toString().toLowerCase(Locale.US), new LatencyStats(histogram));
+          }
+        }
+        this.latencies = latencies.build();
       }
 
       @Override
       public String toString() {
         return String.format(
-            "[%s]%n" + "Operations: %s%n" + "%s%n" + "%s%n" + "%s%n" + "Status Codes:%n%s%n",
+            "[%s]%n" + "Operations: %s%n" + "%s%n" + "%s%n" + "%s%n" + "Status Codes:%n%s%n"
+                + "Latency (ms):%n%s%n",
             this.operation, this.operations, formatBytes(), formatThroughput(), formatOPS(),
-            formatStatusCodes());
+            formatStatusCodes(), formatLatencies());
       }
 
       // determine whether to display byte total in gb, mb, kb or bytes
@@ -241,6 +325,26 @@ public class Summary {
         return s.toString();
       }
 
+      private String formatLatencies() {
+        if (this.latencies.isEmpty()) {
+          return String.format("N/A%n");
+        }
+
+        final StringBuilder s = new StringBuilder(String.format("%-17s", ""));
+        for (final String label : LatencyStats.PERCENTILE_LABELS) {
+          s.append(String.format("%10s", label));
+        }
+        s.append(String.format("%10s%n", "max"));
+        for (final Entry<String, LatencyStats> latency : this.latencies.entrySet()) {
+          s.append(String.format("%-17s", latency.getKey()));
+          for (final String label : LatencyStats.PERCENTILE_LABELS) {
+            s.append(String.format(Locale.US, "%10.2f", latency.getValue().percentiles.get(label)));
+          }
+          s.append(String.format(Locale.US, "%10.2f%n", latency.getValue().max));
+        }
+        return s.toString();
+      }
+
       private Pair<Double, SizeUnit> displaySize(final double bytes) {
         final List<SizeUnit> units = ImmutableList.of(SizeUnit.TERABYTES, SizeUnit.GIGABYTES,
             SizeUnit.MEGABYTES, SizeUnit.KILOBYTES);
@@ -17,12 +17,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nullable;
 import javax.inject.Named;
 
 import com.google.common.base.CharMatcher;
+import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
@@ -36,6 +38,7 @@ import com.google.common.collect.Sets;
 import com.google.common.eventbus.EventBus;
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
+import com.google.common.io.Files;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provider;
 import com.google.inject.Provides;
@@ -53,6 +56,8 @@ import com.ibm.og.api.DataType;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.client.ApacheAsyncClient;
 import com.ibm.og.client.ApacheClient;
 import com.ibm.og.guice.annotation.ContainerCreateHeaders;
 import com.ibm.og.guice.annotation.ContainerCreateHost;
@@ -94,14 +99,21 @@ import com.ibm.og.http.HttpUtil;
 import com.ibm.og.http.IAMTokenAuth;
 import com.ibm.og.http.NoneAuth;
 import com.ibm.og.http.QueryParameters;
+import com.ibm.og.http.RandomPayloadPool;
 import com.ibm.og.http.ResponseBodyConsumer;
 import com.ibm.og.http.Scheme;
+import com.ibm.og.json.AccessConfig;
+import com.ibm.og.json.AccessType;
+import com.ibm.og.json.ArrivalType;
 import com.ibm.og.json.ChoiceConfig;
 import com.ibm.og.json.ClientConfig;
+import com.ibm.og.json.ClientEngine;
+import com.ibm.og.json.ClientExecutor;
 import com.ibm.og.json.ConcurrencyConfig;
 import com.ibm.og.json.ConcurrencyType;
 import com.ibm.og.json.ContainerConfig;
 import com.ibm.og.json.CredentialSource;
+import com.ibm.og.json.DataGeneratorConfig;
 import com.ibm.og.json.FailingConditionsConfig;
 import com.ibm.og.json.FilesizeConfig;
 import com.ibm.og.json.LegalHold;
@@ -110,9 +122,13 @@ import com.ibm.og.json.ObjectConfig;
 import com.ibm.og.json.ObjectManagerConfig;
 import com.ibm.og.json.OperationConfig;
 import com.ibm.og.json.RetentionConfig;
+import com.ibm.og.json.SaturationConfig;
 import com.ibm.og.json.SelectionConfig;
 import com.ibm.og.json.SelectionType;
+import com.ibm.og.json.StageConfig;
+import com.ibm.og.json.StatisticsConfig;
 import com.ibm.og.json.StoppingConditionsConfig;
+import com.ibm.og.json.ThinkTimeConfig;
 import com.ibm.og.object.AbstractObjectNameConsumer;
 import com.ibm.og.object.DeleteObjectConsumer;
 import com.ibm.og.object.DeleteObjectLegalHoldConsumer;
@@ -121,6 +137,7 @@ import com.ibm.og.object.ListObjectNameConsumer;
 import com.ibm.og.object.MetadataObjectNameConsumer;
 import com.ibm.og.object.MultipartWriteObjectNameConsumer;
 import com.ibm.og.object.ObjectManager;
+import com.ibm.og.object.ObjectStorage;
 import com.ibm.og.object.OverwriteObjectNameConsumer;
 import com.ibm.og.object.RandomObjectPopulator;
 import com.ibm.og.object.ReadObjectLegalHoldConsumer;
@@ -133,11 +150,15 @@ import com.ibm.og.s3.MultipartRequestSupplier;
 import com.ibm.og.s3.S3MultipartWriteResponseBodyConsumer;
 import com.ibm.og.s3.v2.AWSV2Auth;
 import com.ibm.og.s3.v4.AWSV4Auth;
+import com.ibm.og.scheduling.AdjustableScheduler;
 import com.ibm.og.scheduling.ConcurrentRequestScheduler;
+import com.ibm.og.scheduling.LoadProfile;
+import com.ibm.og.scheduling.OpenLoopScheduler;
 import com.ibm.og.scheduling.RequestRateScheduler;
 import com.ibm.og.scheduling.Scheduler;
 import com.ibm.og.soh.SOHWriteResponseBodyConsumer;
 import com.ibm.og.statistic.Counter;
+import com.ibm.og.statistic.IntervalReporter;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.supplier.CredentialGetterFunction;
 import com.ibm.og.supplier.DeleteObjectNameFunction;
@@ -153,7 +174,10 @@ import com.ibm.og.supplier.Suppliers;
 import com.ibm.og.supplier.UUIDObjectNameFunction;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.test.LoadTestSubscriberExceptionHandler;
+import com.ibm.og.test.OperationHandler;
+import com.ibm.og.test.OperationPipeline;
 import com.ibm.og.test.RequestManager;
+import com.ibm.og.test.SaturationSearch;
 import com.ibm.og.test.SimpleRequestManager;
 import com.ibm.og.test.condition.ConcurrentRequestCondition;
 import com.ibm.og.test.condition.CounterCondition;
@@ -164,8 +188,13 @@ import com.ibm.og.util.Context;
 import com.ibm.og.util.Distribution;
 import com.ibm.og.util.Distributions;
 import com.ibm.og.util.MoreFunctions;
+import com.ibm.og.util.Pair;
+import com.ibm.og.util.RankDistribution;
+import com.ibm.og.util.RankDistributions;
+import com.ibm.og.util.RequestContext;
 import com.ibm.og.util.SizeUnit;
 import com.ibm.og.util.Version;
+import com.ibm.og.util.io.DataGenerator;
 import com.ibm.og.util.json.type.DistributionType;
 
 /**
@@ -179,6 +208,9 @@ public class OGModule extends AbstractModule {
   private static final String S3_MULTIPART = "s3.multipart";
   private final LoadTestSubscriberExceptionHandler handler;
   private final EventBus eventBus;
+  private final OperationPipeline pipeline;
+  private RandomPayloadPool randomPayloadPool;
+  private DataGenerator dataGenerator;
   final byte[] aesKey = SSECustomerKey();
 
   /**
@@ -191,6 +223,7 @@ public class OGModule extends AbstractModule {
     this.config = checkNotNull(config);
     this.handler = new LoadTestSubscriberExceptionHandler();
     this.eventBus = new EventBus(this.handler);
+    this.pipeline = new OperationPipeline(OperationPipeline.DEFAULT_RING_SIZE, this.handler);
   }
 
   @Override
@@ -288,6 +321,7 @@ public class OGModule extends AbstractModule {
     bind(RequestManager.class).to(SimpleRequestManager.class);
     bind(LoadTest.class).in(Singleton.class);
     bind(EventBus.class).toInstance(this.eventBus);
+    bind(OperationPipeline.class).toInstance(this.pipeline);
     bind(Statistics.class).in(Singleton.class);
     bind(ObjectManager.class).to(RandomObjectPopulator.class).in(Singleton.class);
     bindListener(Matchers.any(), new ProvisionListener() {
@@ -305,13 +339,24 @@ public class OGModule extends AbstractModule {
           // register LoadTest with the event bus' exception handler
           OGModule.this.handler.setLoadTest((LoadTest) instance);
         }
+        // request and completion events are delivered by the operation pipeline rather than the
+        // event bus
+        if (instance instanceof Statistics) {
+          OGModule.this.pipeline.register(OperationPipeline.Stage.STATISTICS,
+              statisticsHandler((Statistics) instance));
+        }
+        if (instance instanceof MultipartRequestSupplier) {
+          OGModule.this.pipeline.register(OperationPipeline.Stage.OBJECTS,
+              multipartHandler((MultipartRequestSupplier) instance));
+        }
       }
     });
   }
 
   @Provides
   @Singleton
-  public List<TestCondition> provideTestConditions(final LoadTest test, final EventBus eventBus,
+  public List<TestCondition> provideTestConditions(final LoadTest test,
+      final OperationPipeline pipeline,
       final Statistics stats, final ConcurrencyConfig concurrency,
       final StoppingConditionsConfig stoppingConditionsConfig,
       final FailingConditionsConfig failingConditionsConfig) {
@@ -391,7 +436,9 @@ public class OGModule extends AbstractModule {
     }
 
     for (final TestCondition condition : conditions) {
-      eventBus.register(condition);
+      if (condition instanceof OperationHandler) {
+        pipeline.register(OperationPipeline.Stage.CONDITIONS, (OperationHandler) condition);
+      }
     }
 
     return conditions;
@@ -935,7 +982,8 @@ public class OGModule extends AbstractModule {
         context.put(Context.X_OG_OBJECT_NAME, objectName);
         context.put(Context.X_OG_SEQUENTIAL_OBJECT_NAME, "true");
         if (operationConfig.legalHold != null) {
-          context.put(Context.X_OG_LEGAL_HOLD_SUFFIX, legalHoldSuffixes.get().toString());
+          RequestContext.putLong(context, Context.X_OG_LEGAL_HOLD_SUFFIX,
+              legalHoldSuffixes.get());
         }
         return objectName;
       }
@@ -966,10 +1014,16 @@ public class OGModule extends AbstractModule {
         "maxSuffix must be greater than or equal to minSuffix");
 
     if (SelectionType.ROUNDROBIN == config.selection) {
+      checkArgument(config.access == null,
+          "object access is not supported with roundrobin selection");
       return Suppliers.cycle(config.minSuffix, config.maxSuffix);
-    } else {
-      return Suppliers.random(config.minSuffix, config.maxSuffix);
     }
+    final RankDistribution access =
+        config.access != null ? createAccessDistribution(config.access) : null;
+    if (access != null) {
+      return Suppliers.random(config.minSuffix, config.maxSuffix, access);
+    }
+    return Suppliers.random(config.minSuffix, config.maxSuffix);
   }
 
   private Supplier<Long> createLegalHoldSuffixes(final ObjectConfig config) {
@@ -983,7 +1037,7 @@ public class OGModule extends AbstractModule {
   @Provides
   @Singleton
   public List<AbstractObjectNameConsumer> provideObjectNameConsumers(
-      final ObjectManager objectManager, final EventBus eventBus) {
+      final ObjectManager objectManager, final OperationPipeline pipeline) {
     final Set<Integer> sc = HttpUtil.SUCCESS_STATUS_CODES;
     final List<AbstractObjectNameConsumer> consumers = Lists.newArrayList();
     consumers.add(new WriteObjectNameConsumer(objectManager, sc));
@@ -1011,7 +1065,7 @@ public class OGModule extends AbstractModule {
     retentionExtensionSc.addAll(ContiguousSet.create(Range.closed(400, 451), DiscreteDomain.integers()));
     consumers.add(new ExtendRetentionObjectNameConsumer(objectManager, legalHoldsSc));
     for (final AbstractObjectNameConsumer consumer : consumers) {
-      eventBus.register(consumer);
+      pipeline.register(OperationPipeline.Stage.OBJECTS, objectNameConsumerHandler(consumer));
     }
     return consumers;
   }
@@ -1501,7 +1555,7 @@ public class OGModule extends AbstractModule {
                   + System.currentTimeMillis() / 1000) <= RetentionConfig.MAX_RETENTION_EXPIRY,
               "The expiry in [%s] seconds duration should be earlier than January 19, 2038 3:14:07 AM",
               expiryTime);
-          input.put(Context.X_OG_OBJECT_RETENTION, String.valueOf(expiryTime));
+          RequestContext.putLong(input, Context.X_OG_OBJECT_RETENTION, expiryTime);
           return expiryTime;
         } else {
           return 0L;
@@ -1536,7 +1590,7 @@ public class OGModule extends AbstractModule {
         checkArgument(retentionConfig.expiry > 0, "Retention extension must be positive");
         long retention;
         try {
-          retention = Long.parseLong(input.get(Context.X_OG_OBJECT_RETENTION));
+          retention = RequestContext.getLong(input, Context.X_OG_OBJECT_RETENTION);
         } catch (NumberFormatException nfe) {
             // this can happen if an object name is generated with given prefix, suffix without
             // being
@@ -1549,8 +1603,8 @@ public class OGModule extends AbstractModule {
                           + System.currentTimeMillis() / 1000) <= RetentionConfig.MAX_RETENTION_EXPIRY,
                   "The expiry in [%s] seconds duration should be earlier than January 19, 2038 3:14:07 AM",
                   retention);
-          input.put(Context.X_OG_OBJECT_RETENTION, String.valueOf(retention));
-          input.put(Context.X_OG_OBJECT_RETENTION_EXT, String.valueOf(extention));
+          RequestContext.putLong(input, Context.X_OG_OBJECT_RETENTION, retention);
+          RequestContext.putLong(input, Context.X_OG_OBJECT_RETENTION_EXT, extention);
           return retention;
       }
     };
@@ -1634,7 +1688,7 @@ public class OGModule extends AbstractModule {
           public String apply(@Nullable Map<String, String> context) {
       // delete legalhold
       if (context.get(Context.X_OG_LEGAL_HOLD_SUFFIX) != null) {
-        int suffix = Integer.parseInt(context.get(Context.X_OG_LEGAL_HOLD_SUFFIX));
+        int suffix = RequestContext.getInt(context, Context.X_OG_LEGAL_HOLD_SUFFIX);
         if (legalHold.legalHoldPrefix != null && !legalHold.legalHoldPrefix.isEmpty()) {
           context.put(Context.X_OG_LEGAL_HOLD_PREFIX, legalHold.legalHoldPrefix);
         } else {
@@ -1642,7 +1696,7 @@ public class OGModule extends AbstractModule {
         }
         String val = context.get(Context.X_OG_LEGAL_HOLD_PREFIX).concat(String.valueOf(suffix));
         context.put(Context.X_OG_LEGAL_HOLD, val);
-        context.put(Context.X_OG_NUM_LEGAL_HOLDS, String.valueOf(suffix));
+        RequestContext.putLong(context, Context.X_OG_NUM_LEGAL_HOLDS, suffix);
         return val;
       } else {
         // add legalhold context
@@ -1653,7 +1707,7 @@ public class OGModule extends AbstractModule {
         }
         String val = context.get(Context.X_OG_LEGAL_HOLD_PREFIX).concat(String.valueOf(1));
         context.put(Context.X_OG_LEGAL_HOLD, val);
-        context.put(Context.X_OG_NUM_LEGAL_HOLDS, String.valueOf(1));
+        RequestContext.putLong(context, Context.X_OG_NUM_LEGAL_HOLDS, 1);
         return val;
       }
     }
@@ -1928,6 +1982,8 @@ public class OGModule extends AbstractModule {
       final Supplier<Distribution> distributionSupplier) {
     final DataType data = checkNotNull(this.config.data);
     checkArgument(DataType.NONE != data, "Unacceptable data [%s]", data);
+    final RandomPayloadPool pool = DataType.RANDOM_POOL == data ? randomPayloadPool() : null;
+    final DataGenerator generator = DataType.GENERATED == data ? dataGenerator() : null;
 
     final Supplier<Body> bodySupplier = new Supplier<Body>() {
       @Override
@@ -1937,6 +1993,10 @@ public class OGModule extends AbstractModule {
         switch (data) {
           case ZEROES:
             return Bodies.zeroes(sample);
+          case RANDOM_POOL:
+            return pool.next(sample);
+          case GENERATED:
+            return Bodies.generated(sample, generator);
           default:
             return Bodies.random(sample);
         }
@@ -1946,19 +2006,42 @@ public class OGModule extends AbstractModule {
     return MoreFunctions.forSupplier(bodySupplier);
   }
 
+  // bodies of every operation share one pool, so their digests are cached for the same payloads
+  private synchronized RandomPayloadPool randomPayloadPool() {
+    if (this.randomPayloadPool == null) {
+      this.randomPayloadPool = new RandomPayloadPool(this.config.randomPoolSize);
+    }
+    return this.randomPayloadPool;
+  }
+
+  private synchronized DataGenerator dataGenerator() {
+    if (this.dataGenerator == null) {
+      final DataGeneratorConfig config = checkNotNull(this.config.dataGenerator);
+      this.dataGenerator =
+          new DataGenerator(config.blockSize, config.compressionRatio, config.dedupeRatio);
+    }
+    return this.dataGenerator;
+  }
+
   private Function<Map<String, String>, Body> createBodySupplier() {
     final DataType data = checkNotNull(this.config.data);
     checkArgument(DataType.NONE != data, "Unacceptable data [%s]", data);
+    final RandomPayloadPool pool = DataType.RANDOM_POOL == data ? randomPayloadPool() : null;
+    final DataGenerator generator = DataType.GENERATED == data ? dataGenerator() : null;
 
     final Function<Map<String, String>, Body> function = new Function<Map<String, String>, Body>() {
       @Override
       public Body apply(@Nullable final Map<String, String> input) {
-        final String size = input.get(Context.X_OG_OBJECT_SIZE);
+        final long size = RequestContext.getLong(input, Context.X_OG_OBJECT_SIZE);
         switch (data) {
           case ZEROES:
-            return Bodies.zeroes(Long.parseLong(size));
+            return Bodies.zeroes(size);
+          case RANDOM_POOL:
+            return pool.next(size);
+          case GENERATED:
+            return Bodies.generated(size, generator);
           default:
-            return Bodies.random(Long.parseLong(size));
+            return Bodies.random(size);
         }
       }
     };
@@ -1986,6 +2069,16 @@ public class OGModule extends AbstractModule {
     return f.toString();
   }
 
+  @Provides
+  @Singleton
+  public IntervalReporter provideIntervalReporter(final Statistics stats) {
+    final StatisticsConfig statisticsConfig = checkNotNull(this.config.statistics);
+    checkNotNull(statisticsConfig.unit, "statistics unit must not be null");
+    checkNotNull(statisticsConfig.format, "statistics format must not be null");
+    return new IntervalReporter(stats, statisticsConfig.interval, statisticsConfig.unit,
+        statisticsConfig.format);
+  }
+
   @Provides
   @Singleton
   @Named("objectfile.name")
@@ -2020,6 +2113,46 @@ public class OGModule extends AbstractModule {
     return checkNotNull(this.config.objectManager).objectFileIndex;
   }
 
+  @Provides
+  @Singleton
+  @Named("objectfile.storage")
+  public ObjectStorage provideObjectStorage() {
+    return checkNotNull(this.config.objectManager.objectStorage);
+  }
+
+  @Provides
+  @Singleton
+  @Named("objectfile.access")
+  public RankDistribution provideObjectAccess() {
+    final ObjectManagerConfig objectManagerConfig = checkNotNull(this.config.objectManager);
+    if (objectManagerConfig.access == null) {
+      return null;
+    }
+    final RankDistribution access = createAccessDistribution(objectManagerConfig.access);
+    checkArgument(access == null || ObjectStorage.HEAP != objectManagerConfig.objectStorage,
+        "object_manager access requires object_storage other than %s", ObjectStorage.HEAP);
+    return access;
+  }
+
+  // returns null for uniform access, which callers select by their existing uniform path
+  private static RankDistribution createAccessDistribution(final AccessConfig access) {
+    final AccessType type = checkNotNull(access.type, "access type must not be null");
+    final RankDistribution distribution;
+    switch (type) {
+      case ZIPF:
+        distribution = RankDistributions.zipf(access.exponent);
+        break;
+      case HOT_SET:
+        distribution =
+            RankDistributions.hotSet(access.hotObjects / 100.0, access.hotAccesses / 100.0);
+        break;
+      default:
+        // uniform access is unbiased by recency
+        return null;
+    }
+    return access.latest ? RankDistributions.latest(distribution) : distribution;
+  }
+
   private byte[] SSECustomerKey() {
     final byte[] aesKey = new byte[32];
     for (int i = 0; i < 16; i++) {
@@ -2065,21 +2198,191 @@ public class OGModule extends AbstractModule {
 
   @Provides
   @Singleton
-  public Scheduler provideScheduler(final ConcurrencyConfig concurrency, final EventBus eventBus) {
+  public Scheduler provideScheduler(final ConcurrencyConfig concurrency,
+      final OperationPipeline pipeline, final EventBus eventBus) {
     final ConcurrencyType type =
         checkNotNull(concurrency.type, "concurrency type must not be null");
-    checkNotNull(concurrency.count, "concurrency count must not be null");
 
+    if (concurrency.saturation != null) {
+      checkArgument(concurrency.stages == null || concurrency.stages.isEmpty(),
+          "saturation is not supported with stages");
+      checkArgument(!concurrency.openLoop, "open_loop is not supported with saturation");
+      checkArgument(concurrency.rampup == 0.0, "rampup is not supported with saturation");
+    }
+
+    if (concurrency.arrival != null) {
+      final ArrivalType arrival =
+          checkNotNull(concurrency.arrival.type, "arrival type must not be null");
+      if (ArrivalType.CONSTANT != arrival) {
+        checkArgument(ConcurrencyType.OPS == type, "%s arrivals require ops concurrency",
+            arrival);
+        checkArgument(concurrency.stages == null || concurrency.stages.isEmpty(),
+            "arrival is not supported with stages");
+        checkArgument(!concurrency.openLoop, "open_loop is not supported with arrival");
+        checkArgument(concurrency.rampup == 0.0, "rampup is not supported with arrival");
+        checkArgument(concurrency.saturation == null,
+            "saturation is not supported with arrival");
+        if (ArrivalType.POISSON == arrival) {
+          checkNotNull(concurrency.count, "concurrency count must not be null");
+          checkArgument(concurrency.count > 0.0, "concurrency count must be > 0.0 [%s]",
+              concurrency.count);
+          return new RequestRateScheduler(Distributions.exponential(1.0 / concurrency.count),
+              concurrency.unit);
+        }
+        checkNotNull(concurrency.arrival.unit, "arrival unit must not be null");
+        return new RequestRateScheduler(provideArrivalTrace(concurrency.arrival.file),
+            concurrency.arrival.unit);
+      }
+    }
+
+    if (concurrency.thinkTime != null) {
+      checkArgument(ConcurrencyType.THREADS == type, "think_time requires threads concurrency");
+      checkArgument(concurrency.stages == null || concurrency.stages.isEmpty(),
+          "think_time is not supported with stages");
+    }
+
+    if (concurrency.stages != null && !concurrency.stages.isEmpty()) {
+      checkArgument(!concurrency.openLoop, "open_loop is not supported with stages");
+      checkArgument(concurrency.rampup == 0.0,
+          "rampup is not supported with stages, use a ramp stage instead");
+      final LoadProfile profile = provideLoadProfile(concurrency.stages);
+      if (ConcurrencyType.THREADS == type) {
+        final ConcurrentRequestScheduler scheduler =
+            new ConcurrentRequestScheduler(profile, eventBus);
+        pipeline.register(OperationPipeline.Stage.SCHEDULER, schedulerHandler(scheduler));
+        return scheduler;
+      }
+      return new RequestRateScheduler(profile, concurrency.unit, eventBus);
+    }
+
+    checkNotNull(concurrency.count, "concurrency count must not be null");
     if (ConcurrencyType.THREADS == type) {
-      final Scheduler scheduler = new ConcurrentRequestScheduler(
-          (int) Math.round(concurrency.count), concurrency.rampup, concurrency.rampupUnit);
-      eventBus.register(scheduler);
+      checkArgument(!concurrency.openLoop, "open_loop requires ops concurrency");
+      Distribution thinkTime = null;
+      TimeUnit thinkTimeUnit = TimeUnit.MILLISECONDS;
+      if (concurrency.thinkTime != null) {
+        thinkTime = createThinkTimeDistribution(concurrency.thinkTime);
+        thinkTimeUnit = concurrency.thinkTime.unit;
+      }
+      final ConcurrentRequestScheduler scheduler =
+          new ConcurrentRequestScheduler((int) Math.round(concurrency.count), concurrency.rampup,
+              concurrency.rampupUnit, thinkTime, thinkTimeUnit);
+      pipeline.register(OperationPipeline.Stage.SCHEDULER, schedulerHandler(scheduler));
       return scheduler;
     }
+    if (concurrency.openLoop) {
+      return new OpenLoopScheduler(concurrency.count, concurrency.unit, concurrency.rampup,
+          concurrency.rampupUnit);
+    }
     return new RequestRateScheduler(concurrency.count, concurrency.unit, concurrency.rampup,
         concurrency.rampupUnit);
   }
 
+  @Provides
+  @Singleton
+  public SaturationSearch provideSaturationSearch(final ConcurrencyConfig concurrency,
+      final Scheduler scheduler, final Statistics stats) {
+    final SaturationConfig saturation =
+        checkNotNull(concurrency.saturation, "concurrency saturation must not be null");
+    checkArgument(scheduler instanceof AdjustableScheduler,
+        "saturation is not supported by scheduler [%s]", scheduler);
+    checkNotNull(saturation.latencyUnit, "saturation latency_unit must not be null");
+    checkNotNull(saturation.stepUnit, "saturation step_unit must not be null");
+    checkNotNull(concurrency.count, "concurrency count must not be null");
+
+    final SaturationSearch.Builder builder = new SaturationSearch.Builder(stats,
+        (AdjustableScheduler) scheduler, concurrency.count, saturation.latency,
+        saturation.latencyUnit).withPercentile(saturation.percentile)
+            .withMaxErrorRate(saturation.maxErrorRate)
+            .withStep(saturation.step, saturation.stepUnit).withGrowth(saturation.growth)
+            .withPrecision(saturation.precision);
+    if (saturation.max != null) {
+      builder.withMaxLevel(saturation.max);
+    }
+    if (ConcurrencyType.THREADS == concurrency.type) {
+      builder.withIntegralLevels();
+    }
+    return builder.build();
+  }
+
+  private static Distribution createThinkTimeDistribution(final ThinkTimeConfig thinkTime) {
+    final DistributionType distribution =
+        checkNotNull(thinkTime.distribution, "think_time distribution must not be null");
+    checkNotNull(thinkTime.average, "think_time average must not be null");
+    checkNotNull(thinkTime.unit, "think_time unit must not be null");
+
+    switch (distribution) {
+      case NORMAL:
+        return Distributions.normal(thinkTime.average, thinkTime.spread);
+      case LOGNORMAL:
+        return Distributions.lognormal(thinkTime.average, thinkTime.spread);
+      case UNIFORM:
+        return Distributions.uniform(thinkTime.average, thinkTime.spread);
+      case EXPONENTIAL:
+        return Distributions.exponential(thinkTime.average);
+      default:
+        throw new IllegalArgumentException(
+            String.format("unacceptable think_time distribution [%s]", distribution));
+    }
+  }
+
+  // one gap per line; blank lines and lines starting with # are ignored
+  private Distribution provideArrivalTrace(final String file) {
+    checkNotNull(file, "arrival file must not be null");
+    final List<String> lines;
+    try {
+      lines = Files.readLines(new File(file), Charsets.UTF_8);
+    } catch (final IOException e) {
+      throw new IllegalArgumentException(String.format("failed to read arrival file [%s]", file),
+          e);
+    }
+    final List<Double> gaps = Lists.newArrayList();
+    for (final String line : lines) {
+      final String gap = line.trim();
+      if (!gap.isEmpty() && !gap.startsWith("#")) {
+        gaps.add(Double.parseDouble(gap));
+      }
+    }
+    checkArgument(!gaps.isEmpty(), "arrival file must contain at least one gap [%s]", file);
+    return Distributions.trace(gaps);
+  }
+
+  private LoadProfile provideLoadProfile(final List<StageConfig> stages) {
+    final List<LoadProfile.Stage> profile = Lists.newArrayList();
+    for (final StageConfig stage : stages) {
+      checkNotNull(stage.type, "stage type must not be null");
+      checkNotNull(stage.count, "stage count must not be null");
+      switch (stage.type) {
+        case STEP:
+          profile.add(LoadProfile.Stage.step(stage.count, stage.duration, stage.unit));
+          break;
+        case RAMP:
+          profile.add(LoadProfile.Stage.ramp(stage.count, stage.duration, stage.unit));
+          break;
+        case SPIKE:
+          profile.add(LoadProfile.Stage.spike(stage.count, stage.duration, stage.unit));
+          break;
+        case SINE:
+          profile.add(LoadProfile.Stage.sine(stage.count, stage.amplitude, stage.period,
+              stage.duration, stage.unit));
+          break;
+        default:
+          throw new IllegalArgumentException(
+              String.format("unacceptable stage type [%s]", stage.type));
+      }
+    }
+    return new LoadProfile(profile);
+  }
+
+  @Provides
+  @Singleton
+  @Named("producers")
+  public int provideProducers(final ConcurrencyConfig concurrency) {
+    checkArgument(concurrency.producers > 0, "concurrency producers must be > 0 [%s]",
+        concurrency.producers);
+    return concurrency.producers;
+  }
+
   @Provides
   @Singleton
   public Client provideClient(final AuthType authType, final Map<AuthType, HttpAuth> authentication,
@@ -2088,6 +2391,13 @@ public class OGModule extends AbstractModule {
     Preconditions.checkArgument(
         authentication.get(authType) instanceof AWSV4Auth ? !clientConfig.chunkedEncoding : true,
         "http layer chunked encoding is not supported with Chunked AWSV4");
+    if (ClientEngine.NIO == clientConfig.engine) {
+      checkArgument(ClientExecutor.PLATFORM == clientConfig.executor,
+          "client executor is not configurable with the nio engine [%s]", clientConfig.executor);
+      return createAsyncClient(clientConfig, authentication.get(authType), responseBodyConsumers);
+    }
+    checkArgument(!clientConfig.directWriteBuffers,
+        "direct write buffers are only supported with the nio engine");
     final ApacheClient.Builder b = new ApacheClient.Builder()
         .withConnectTimeout(clientConfig.connectTimeout).withSoTimeout(clientConfig.soTimeout)
         .usingSoReuseAddress(clientConfig.soReuseAddress).withSoLinger(clientConfig.soLinger)
@@ -2110,7 +2420,44 @@ public class OGModule extends AbstractModule {
         .withAuthentication(authentication.get(authType))
         .withUserAgent(String.format("og-%s", Version.displayVersion()))
         .withWriteThroughput(clientConfig.writeThroughput)
-        .withReadThroughput(clientConfig.readThroughput);
+        .withReadThroughput(clientConfig.readThroughput)
+        .withWriteBlockSize(clientConfig.writeBlockSize)
+        .withReadBlockSize(clientConfig.readBlockSize)
+        .usingVirtualThreads(ClientExecutor.VIRTUAL == clientConfig.executor);
+
+    for (final Entry<String, ResponseBodyConsumer> consumer : responseBodyConsumers.entrySet()) {
+      b.withResponseBodyConsumer(consumer.getKey(), consumer.getValue());
+    }
+
+    return b.build();
+  }
+
+  private Client createAsyncClient(final ClientConfig clientConfig, final HttpAuth authentication,
+      final Map<String, ResponseBodyConsumer> responseBodyConsumers) {
+    final ApacheAsyncClient.Builder b = new ApacheAsyncClient.Builder()
+        .withIoThreads(clientConfig.ioThreads).withConnectTimeout(clientConfig.connectTimeout)
+        .withSoTimeout(clientConfig.soTimeout).usingSoReuseAddress(clientConfig.soReuseAddress)
+        .withSoLinger(clientConfig.soLinger).usingSoKeepAlive(clientConfig.soKeepAlive)
+        .usingTcpNoDelay(clientConfig.tcpNoDelay).withSoSndBuf(clientConfig.soSndBuf)
+        .withSoRcvBuf(clientConfig.soRcvBuf)
+        .usingPersistentConnections(clientConfig.persistentConnections)
+        .withMaxIdleTime(clientConfig.maxIdleTime)
+        .usingChunkedEncoding(clientConfig.chunkedEncoding)
+        .usingExpectContinue(clientConfig.expectContinue).withProtocols(clientConfig.protocols)
+        .withCipherSuites(clientConfig.cipherSuites).withKeyStore(clientConfig.keyStore)
+        .withKeyStorePassword(clientConfig.keyStorePassword)
+        .withKeyPassword(clientConfig.keyPassword).withTrustStore(clientConfig.trustStore)
+        .withTrustStorePassword(clientConfig.trustStorePassword)
+        .usingTrustSelfSignedCertificates(clientConfig.trustSelfSignedCertificates)
+        .withDnsCacheTtl(clientConfig.dnsCacheTtl)
+        .withDnsCacheNegativeTtl(clientConfig.dnsCacheNegativeTtl)
+        .withAuthentication(authentication)
+        .withUserAgent(String.format("og-%s", Version.displayVersion()))
+        .withWriteThroughput(clientConfig.writeThroughput)
+        .withReadThroughput(clientConfig.readThroughput)
+        .withWriteBlockSize(clientConfig.writeBlockSize)
+        .withReadBlockSize(clientConfig.readBlockSize)
+        .usingDirectWriteBuffers(clientConfig.directWriteBuffers);
 
     for (final Entry<String, ResponseBodyConsumer> consumer : responseBodyConsumers.entrySet()) {
       b.withResponseBodyConsumer(consumer.getKey(), consumer.getValue());
@@ -2146,8 +2493,9 @@ public class OGModule extends AbstractModule {
     }
 
     if (contentMd5) {
-      checkArgument(this.config.data == DataType.ZEROES,
-          "If contentMD5 is set, data must be ZEROES [%s]", this.config.data);
+      checkArgument(
+          this.config.data == DataType.ZEROES || this.config.data == DataType.RANDOM_POOL,
+          "If contentMD5 is set, data must be ZEROES or RANDOM_POOL [%s]", this.config.data);
     }
     final Map<String, Function<Map<String, String>, String>> queryParameters =
         Collections.emptyMap();
@@ -2320,8 +2668,9 @@ public class OGModule extends AbstractModule {
     }
 
     if (contentMd5) {
-      checkArgument(this.config.data == DataType.ZEROES,
-          "If contentMD5 is set, data must be ZEROES [%s]", this.config.data);
+      checkArgument(
+          this.config.data == DataType.ZEROES || this.config.data == DataType.RANDOM_POOL,
+          "If contentMD5 is set, data must be ZEROES or RANDOM_POOL [%s]", this.config.data);
     }
 
     final Map<String, Function<Map<String, String>, String>> queryParameters =
@@ -2675,8 +3024,9 @@ public class OGModule extends AbstractModule {
     }
 
     if (contentMd5) {
-      checkArgument(this.config.data == DataType.ZEROES,
-              "If contentMD5 is set, data must be ZEROES [%s]", this.config.data);
+      checkArgument(
+          this.config.data == DataType.ZEROES || this.config.data == DataType.RANDOM_POOL,
+          "If contentMD5 is set, data must be ZEROES or RANDOM_POOL [%s]", this.config.data);
     }
 
     final Map<String, Function<Map<String, String>, String>> queryParameters =
@@ -2719,6 +3069,78 @@ public class OGModule extends AbstractModule {
 
     return new MultipartRequestSupplier(id, scheme, host, port, uriRoot, container, object,
         partSize, partsPerSession, targetSessions, queryParameters, false, headers, context,
-        credentials, body, virtualHost, contentMd5);
+        credentials, body, virtualHost, contentMd5,
+        DataType.RANDOM_POOL == this.config.data ? randomPayloadPool() : null);
+  }
+
+  private static OperationHandler statisticsHandler(final Statistics stats) {
+    return new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {
+        stats.update(request);
+      }
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        stats.update(operation);
+      }
+
+      @Override
+      public String toString() {
+        return stats.toString();
+      }
+    };
+  }
+
+  private static OperationHandler objectNameConsumerHandler(
+      final AbstractObjectNameConsumer consumer) {
+    return new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        consumer.consume(operation);
+      }
+
+      @Override
+      public String toString() {
+        return consumer.toString();
+      }
+    };
+  }
+
+  private static OperationHandler multipartHandler(final MultipartRequestSupplier supplier) {
+    return new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        supplier.update(operation);
+      }
+
+      @Override
+      public String toString() {
+        return supplier.getClass().getSimpleName();
+      }
+    };
+  }
+
+  private static OperationHandler schedulerHandler(final ConcurrentRequestScheduler scheduler) {
+    return new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        scheduler.complete(operation);
+      }
+
+      @Override
+      public String toString() {
+        return scheduler.toString();
+      }
+    };
   }
 }
@@ -0,0 +1,22 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+public class AccessConfig {
+  public AccessType type;
+  public double exponent;
+  public double hotObjects;
+  public double hotAccesses;
+  public boolean latest;
+
+  public AccessConfig() {
+    this.type = AccessType.UNIFORM;
+    this.exponent = 0.99;
+    this.hotObjects = 20.0;
+    this.hotAccesses = 80.0;
+    this.latest = false;
+  }
+}
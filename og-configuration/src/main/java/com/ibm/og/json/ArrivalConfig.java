@@ -0,0 +1,20 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import java.util.concurrent.TimeUnit;
+
+public class ArrivalConfig {
+  public ArrivalType type;
+  public String file;
+  public TimeUnit unit;
+
+  public ArrivalConfig() {
+    this.type = ArrivalType.CONSTANT;
+    this.file = null;
+    this.unit = TimeUnit.MILLISECONDS;
+  }
+}
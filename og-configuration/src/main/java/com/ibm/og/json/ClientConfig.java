@@ -8,6 +8,9 @@ package com.ibm.og.json;
 import java.util.List;
 
 public class ClientConfig {
+  public ClientEngine engine;
+  public int ioThreads;
+  public ClientExecutor executor;
   public int connectTimeout;
   public int soTimeout;
   public boolean soReuseAddress;
@@ -36,8 +39,14 @@ public class ClientConfig {
   public int dnsCacheNegativeTtl;
   public int writeThroughput;
   public int readThroughput;
+  public int writeBlockSize;
+  public boolean directWriteBuffers;
+  public int readBlockSize;
 
   public ClientConfig() {
+    this.engine = ClientEngine.BLOCKING;
+    this.ioThreads = 0;
+    this.executor = ClientExecutor.PLATFORM;
     this.connectTimeout = 0;
     this.soTimeout = 0;
     this.soReuseAddress = false;
@@ -66,5 +75,8 @@ public class ClientConfig {
     this.dnsCacheNegativeTtl = 10;
     this.writeThroughput = 0;
     this.readThroughput = 0;
+    this.writeBlockSize = 1024 * 1024;
+    this.directWriteBuffers = false;
+    this.readBlockSize = 4096;
   }
 }
@@ -5,6 +5,7 @@
 
 package com.ibm.og.json;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class ConcurrencyConfig {
@@ -13,6 +14,12 @@ public class ConcurrencyConfig {
   public TimeUnit unit;
   public double rampup;
   public TimeUnit rampupUnit;
+  public boolean openLoop;
+  public int producers;
+  public List<StageConfig> stages;
+  public SaturationConfig saturation;
+  public ArrivalConfig arrival;
+  public ThinkTimeConfig thinkTime;
 
   public ConcurrencyConfig() {
     this.type = null;
@@ -20,5 +27,11 @@ public class ConcurrencyConfig {
     this.unit = TimeUnit.SECONDS;
     this.rampup = 0.0;
     this.rampupUnit = TimeUnit.SECONDS;
+    this.openLoop = false;
+    this.producers = 1;
+    this.stages = null;
+    this.saturation = null;
+    this.arrival = null;
+    this.thinkTime = null;
   }
 }
@@ -0,0 +1,18 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+public class DataGeneratorConfig {
+  public int blockSize;
+  public double compressionRatio;
+  public double dedupeRatio;
+
+  public DataGeneratorConfig() {
+    this.blockSize = 4096;
+    this.compressionRatio = 1.0;
+    this.dedupeRatio = 1.0;
+  }
+}
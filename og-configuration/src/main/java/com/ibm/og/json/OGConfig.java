@@ -36,12 +36,15 @@ public class OGConfig {
   public OperationConfig extendRetention;
   public SelectionConfig<FilesizeConfig> filesize;
   public DataType data;
+  public int randomPoolSize;
+  public DataGeneratorConfig dataGenerator;
   public ConcurrencyConfig concurrency;
   public AuthenticationConfig authentication;
   public ClientConfig client;
   public StoppingConditionsConfig stoppingConditions;
   public FailingConditionsConfig failingConditions;
   public ObjectManagerConfig objectManager;
+  public StatisticsConfig statistics;
   public boolean shutdownImmediate;
   public boolean virtualHost;
 
@@ -69,12 +72,15 @@ public class OGConfig {
     this.extendRetention = new OperationConfig();
     this.filesize = null;
     this.data = DataType.RANDOM;
+    this.randomPoolSize = 64;
+    this.dataGenerator = new DataGeneratorConfig();
     this.concurrency = null;
     this.authentication = new AuthenticationConfig();
     this.client = new ClientConfig();
     this.stoppingConditions = new StoppingConditionsConfig();
     this.failingConditions = new FailingConditionsConfig();
     this.objectManager = new ObjectManagerConfig();
+    this.statistics = new StatisticsConfig();
     this.shutdownImmediate = true;
     this.virtualHost = false;
   }
@@ -10,6 +10,7 @@ public class ObjectConfig {
   public SelectionType selection;
   public long minSuffix;
   public long maxSuffix;
+  public AccessConfig access;
 
   public ObjectConfig() {
     this.prefix = "";
@@ -20,5 +21,6 @@ public class ObjectConfig {
     this.selection = null;
     this.minSuffix = 0;
     this.maxSuffix = Long.MAX_VALUE;
+    this.access = null;
   }
 }
@@ -5,7 +5,7 @@
 
 package com.ibm.og.json;
 
-
+import com.ibm.og.object.ObjectStorage;
 
 public class ObjectManagerConfig {
   public String objectFileLocation;
@@ -13,6 +13,8 @@ public class ObjectManagerConfig {
   public long objectFileMaxSize;
   public long objectFilePersistFrequency;
   public Integer objectFileIndex;
+  public ObjectStorage objectStorage;
+  public AccessConfig access;
 
   public ObjectManagerConfig() {
     this.objectFileLocation = "./object";
@@ -20,5 +22,7 @@ public class ObjectManagerConfig {
     this.objectFileMaxSize = 100000000; // 100mb
     this.objectFilePersistFrequency = 1800; // 30 minutes
     this.objectFileIndex = null;
+    this.objectStorage = ObjectStorage.HEAP;
+    this.access = null;
   }
 }
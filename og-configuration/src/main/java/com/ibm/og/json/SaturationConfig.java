@@ -0,0 +1,32 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import java.util.concurrent.TimeUnit;
+
+public class SaturationConfig {
+  public double latency;
+  public TimeUnit latencyUnit;
+  public double percentile;
+  public double maxErrorRate;
+  public double step;
+  public TimeUnit stepUnit;
+  public double growth;
+  public Double max;
+  public double precision;
+
+  public SaturationConfig() {
+    this.latency = 0.0;
+    this.latencyUnit = TimeUnit.MILLISECONDS;
+    this.percentile = 99.0;
+    this.maxErrorRate = 0.01;
+    this.step = 30.0;
+    this.stepUnit = TimeUnit.SECONDS;
+    this.growth = 2.0;
+    this.max = null;
+    this.precision = 0.05;
+  }
+}
@@ -0,0 +1,26 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import java.util.concurrent.TimeUnit;
+
+public class StageConfig {
+  public StageType type;
+  public Double count;
+  public double duration;
+  public double amplitude;
+  public double period;
+  public TimeUnit unit;
+
+  public StageConfig() {
+    this.type = null;
+    this.count = null;
+    this.duration = 0.0;
+    this.amplitude = 0.0;
+    this.period = 0.0;
+    this.unit = TimeUnit.SECONDS;
+  }
+}
@@ -0,0 +1,22 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.og.statistic.IntervalFormat;
+
+public class StatisticsConfig {
+  public double interval;
+  public TimeUnit unit;
+  public IntervalFormat format;
+
+  public StatisticsConfig() {
+    this.interval = 0.0;
+    this.unit = TimeUnit.SECONDS;
+    this.format = IntervalFormat.JSON;
+  }
+}
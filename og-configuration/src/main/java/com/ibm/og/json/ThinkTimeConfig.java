@@ -0,0 +1,24 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.og.util.json.type.DistributionType;
+
+public class ThinkTimeConfig {
+  public DistributionType distribution;
+  public Double average;
+  public double spread;
+  public TimeUnit unit;
+
+  public ThinkTimeConfig() {
+    this.distribution = DistributionType.UNIFORM;
+    this.average = null;
+    this.spread = 0.0;
+    this.unit = TimeUnit.MILLISECONDS;
+  }
+}
@@ -6,8 +6,10 @@
 package com.ibm.og.cli;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -21,10 +23,13 @@ import org.junit.runner.RunWith;
 
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.api.Response;
+import com.ibm.og.client.ThreadStats;
 import com.ibm.og.http.Bodies;
 import com.ibm.og.http.HttpRequest;
 import com.ibm.og.http.HttpResponse;
+import com.ibm.og.statistic.LatencyStats;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
@@ -86,6 +91,7 @@ public class SummaryTest {
     assertThat(summaryStats.read.bytes, is(1024L));
     assertThat(summaryStats.read.statusCodes.size(), is(1));
     assertThat(summaryStats.read.statusCodes, hasEntry(200, 1L));
+    assertThat(summaryStats.read.latencies.size(), is(0));
 
     assertThat(summaryStats.delete.operation, is(Operation.DELETE));
     assertThat(summaryStats.delete.operations, is(0L));
@@ -113,4 +119,40 @@ public class SummaryTest {
     assertThat(summaryStats.writeLegalHold.statusCodes.size(), is(0));
 
   }
+
+  @Test
+  public void threadStats() {
+    final ThreadStats threads = new ThreadStats("virtual", 10, 2L);
+    final Summary summary =
+        new Summary(new Statistics(), 0, 100, 0, ImmutableList.of("Test Success"), threads);
+    summary.getSummaryStats().condensedSummary();
+
+    assertThat(summary.getSummaryStats().threads, is(threads));
+    assertThat(new Summary(new Statistics(), 0, 100, 0, ImmutableList.of("Test Success"))
+        .getSummaryStats().threads, nullValue());
+  }
+
+  @Test
+  public void latencies() throws URISyntaxException {
+    final Statistics stats = new Statistics();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, new URI("http://127.0.0.1"), Operation.READ).build();
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    timestamps.start = TimeUnit.MILLISECONDS.toNanos(1000);
+    timestamps.finish = TimeUnit.MILLISECONDS.toNanos(1250);
+    final Response response = new HttpResponse.Builder().withStatusCode(200)
+        .withRequestTimestamps(timestamps).build();
+    stats.update(Pair.of(request, response));
+    final Summary summary = new Summary(stats, 0, 100, 0, ImmutableList.of("Test Success"));
+    summary.toString();
+    final Summary.SummaryStats.OperationStats read = summary.getSummaryStats().read;
+
+    assertThat(read.latencies.size(), is(1));
+    final LatencyStats total = read.latencies.get("total");
+    assertThat(total.count, is(1L));
+    assertThat(total.min, closeTo(250.0, 0.5));
+    assertThat(total.max, closeTo(250.0, 0.5));
+    assertThat(total.percentiles.get("p99"), closeTo(250.0, 0.5));
+    assertThat(summary.getSummaryStats().write.latencies.size(), is(0));
+  }
 }
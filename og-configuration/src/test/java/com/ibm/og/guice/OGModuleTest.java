@@ -5,27 +5,56 @@
 
 package com.ibm.og.guice;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.mock;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Time;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import com.ibm.og.json.AccessConfig;
+import com.ibm.og.json.AccessType;
+import com.ibm.og.json.ArrivalConfig;
+import com.ibm.og.json.ArrivalType;
 import com.ibm.og.json.FailingConditionsConfig;
 import com.ibm.og.json.ConcurrencyConfig;
+import com.ibm.og.json.ConcurrencyType;
 import com.ibm.og.json.OGConfig;
+import com.ibm.og.json.ObjectManagerConfig;
 import com.ibm.og.json.RetentionConfig;
+import com.ibm.og.json.SaturationConfig;
+import com.ibm.og.json.StageConfig;
+import com.ibm.og.json.StageType;
+import com.ibm.og.object.ObjectStorage;
+import com.ibm.og.scheduling.ConcurrentRequestScheduler;
+import com.ibm.og.scheduling.RequestRateScheduler;
+import com.ibm.og.scheduling.Scheduler;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
+import com.ibm.og.test.OperationPipeline;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
 import com.ibm.og.json.StoppingConditionsConfig;
+import com.ibm.og.json.ThinkTimeConfig;
+import com.ibm.og.util.RankDistribution;
+import com.ibm.og.util.json.type.DistributionType;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.eventbus.EventBus;
+import com.google.common.io.Files;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -34,8 +63,10 @@ import com.tngtech.java.junit.dataprovider.UseDataProvider;
 public class OGModuleTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
   private LoadTest test;
-  private EventBus eventBus;
+  private OperationPipeline pipeline;
   private ConcurrencyConfig concurrency;
   private Statistics stats;
   private OGConfig config;
@@ -43,7 +74,7 @@ public class OGModuleTest {
   @Before
   public void before() {
     this.test = mock(LoadTest.class);
-    this.eventBus = mock(EventBus.class);
+    this.pipeline = mock(OperationPipeline.class);
     this.concurrency = new ConcurrencyConfig();
     this.stats = mock(Statistics.class);
     this.config = mock(OGConfig.class);
@@ -112,7 +143,7 @@ public class OGModuleTest {
     failingConditions.statusCodes = statusCodes;
 
     this.thrown.expect(expectedException);
-    module.provideTestConditions(this.test, this.eventBus, this.stats, this.concurrency,
+    module.provideTestConditions(this.test, this.pipeline, this.stats, this.concurrency,
         stoppingConditions, failingConditions);
   }
 
@@ -138,4 +169,221 @@ public class OGModuleTest {
     final OGModule module = new OGModule(this.config);
     module.provideTestRetentionExtensionConfig(currentRetention, rc);
   }
+
+  @DataProvider
+  public static Object[][] provideInvalidStages() {
+    return new Object[][] {{null, 10.0, 0.0, false, NullPointerException.class},
+        {StageType.STEP, null, 0.0, false, NullPointerException.class},
+        {StageType.STEP, 10.0, 5.0, false, IllegalArgumentException.class},
+        {StageType.STEP, 10.0, 0.0, true, IllegalArgumentException.class},
+        {StageType.RAMP, 0.0, 0.0, false, IllegalArgumentException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidStages")
+  public void invalidStages(final StageType type, final Double count, final double rampup,
+      final boolean openLoop, final Class<Exception> expectedException) {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.OPS;
+    this.concurrency.rampup = rampup;
+    this.concurrency.openLoop = openLoop;
+    this.concurrency.stages = ImmutableList.of(stage(type, count));
+
+    this.thrown.expect(expectedException);
+    module.provideScheduler(this.concurrency, this.pipeline, new EventBus());
+  }
+
+  @Test
+  public void stages() {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.THREADS;
+    this.concurrency.stages =
+        ImmutableList.of(stage(StageType.RAMP, 10.0), stage(StageType.SPIKE, 100.0));
+
+    assertThat(module.provideScheduler(this.concurrency, this.pipeline, new EventBus()),
+        instanceOf(ConcurrentRequestScheduler.class));
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidSaturation() {
+    return new Object[][] {{0.0, false, true, IllegalArgumentException.class},
+        {5.0, false, false, IllegalArgumentException.class},
+        {0.0, true, false, IllegalArgumentException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidSaturation")
+  public void invalidSaturation(final double rampup, final boolean openLoop, final boolean stages,
+      final Class<Exception> expectedException) {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.OPS;
+    this.concurrency.count = 10.0;
+    this.concurrency.rampup = rampup;
+    this.concurrency.openLoop = openLoop;
+    if (stages) {
+      this.concurrency.stages = ImmutableList.of(stage(StageType.STEP, 10.0));
+    }
+    this.concurrency.saturation = new SaturationConfig();
+    this.concurrency.saturation.latency = 100.0;
+
+    this.thrown.expect(expectedException);
+    module.provideScheduler(this.concurrency, this.pipeline, new EventBus());
+  }
+
+  @Test
+  public void saturation() {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.THREADS;
+    this.concurrency.count = 10.0;
+    this.concurrency.saturation = new SaturationConfig();
+    this.concurrency.saturation.latency = 100.0;
+    final Scheduler scheduler =
+        module.provideScheduler(this.concurrency, this.pipeline, new EventBus());
+
+    assertThat(module.provideSaturationSearch(this.concurrency, scheduler, this.stats),
+        notNullValue());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void saturationUnsupportedScheduler() {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.count = 10.0;
+    this.concurrency.saturation = new SaturationConfig();
+    this.concurrency.saturation.latency = 100.0;
+    module.provideSaturationSearch(this.concurrency, mock(Scheduler.class), this.stats);
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidArrival() {
+    return new Object[][] {{ConcurrencyType.THREADS, 0.0, false, IllegalArgumentException.class},
+        {ConcurrencyType.OPS, 5.0, false, IllegalArgumentException.class},
+        {ConcurrencyType.OPS, 0.0, true, IllegalArgumentException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidArrival")
+  public void invalidArrival(final ConcurrencyType type, final double rampup,
+      final boolean openLoop, final Class<Exception> expectedException) {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = type;
+    this.concurrency.count = 10.0;
+    this.concurrency.rampup = rampup;
+    this.concurrency.openLoop = openLoop;
+    this.concurrency.arrival = new ArrivalConfig();
+    this.concurrency.arrival.type = ArrivalType.POISSON;
+
+    this.thrown.expect(expectedException);
+    module.provideScheduler(this.concurrency, this.pipeline, new EventBus());
+  }
+
+  @Test
+  public void traceArrival() throws IOException {
+    final File trace = this.folder.newFile("arrivals.txt");
+    Files.write("# gaps in milliseconds\n10\n\n20.5\n", trace, Charsets.UTF_8);
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.OPS;
+    this.concurrency.arrival = new ArrivalConfig();
+    this.concurrency.arrival.type = ArrivalType.TRACE;
+    this.concurrency.arrival.file = trace.toString();
+    final Scheduler scheduler =
+        module.provideScheduler(this.concurrency, this.pipeline, new EventBus());
+
+    assertThat(scheduler, instanceOf(RequestRateScheduler.class));
+    assertThat(((RequestRateScheduler) scheduler).getLevel(), closeTo(1 / 15.25, 0.0001));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void missingArrivalFile() {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.OPS;
+    this.concurrency.arrival = new ArrivalConfig();
+    this.concurrency.arrival.type = ArrivalType.TRACE;
+    this.concurrency.arrival.file = new File(this.folder.getRoot(), "missing.txt").toString();
+    module.provideScheduler(this.concurrency, this.pipeline, new EventBus());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void thinkTimeOps() {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.OPS;
+    this.concurrency.count = 10.0;
+    this.concurrency.thinkTime = new ThinkTimeConfig();
+    this.concurrency.thinkTime.average = 100.0;
+    module.provideScheduler(this.concurrency, this.pipeline, new EventBus());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void thinkTimeNullAverage() {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.THREADS;
+    this.concurrency.count = 10.0;
+    this.concurrency.thinkTime = new ThinkTimeConfig();
+    module.provideScheduler(this.concurrency, this.pipeline, new EventBus());
+  }
+
+  @Test
+  public void thinkTime() {
+    final OGModule module = new OGModule(this.config);
+    this.concurrency.type = ConcurrencyType.THREADS;
+    this.concurrency.count = 10.0;
+    this.concurrency.thinkTime = new ThinkTimeConfig();
+    this.concurrency.thinkTime.distribution = DistributionType.EXPONENTIAL;
+    this.concurrency.thinkTime.average = 100.0;
+
+    assertThat(module.provideScheduler(this.concurrency, this.pipeline, new EventBus()),
+        instanceOf(ConcurrentRequestScheduler.class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void objectAccessHeap() {
+    this.config.objectManager = new ObjectManagerConfig();
+    this.config.objectManager.access = new AccessConfig();
+    this.config.objectManager.access.type = AccessType.ZIPF;
+    new OGModule(this.config).provideObjectAccess();
+  }
+
+  @Test
+  public void objectAccessUniform() {
+    this.config.objectManager = new ObjectManagerConfig();
+    this.config.objectManager.access = new AccessConfig();
+    assertThat(new OGModule(this.config).provideObjectAccess(), nullValue());
+  }
+
+  @DataProvider
+  public static Object[][] provideObjectAccess() {
+    return new Object[][] {{AccessType.ZIPF, false}, {AccessType.HOT_SET, false},
+        {AccessType.ZIPF, true}, {AccessType.HOT_SET, true}};
+  }
+
+  @Test
+  @UseDataProvider("provideObjectAccess")
+  public void objectAccess(final AccessType type, final boolean latest) {
+    this.config.objectManager = new ObjectManagerConfig();
+    this.config.objectManager.objectStorage = ObjectStorage.OFF_HEAP;
+    this.config.objectManager.access = new AccessConfig();
+    this.config.objectManager.access.type = type;
+    this.config.objectManager.access.latest = latest;
+    final RankDistribution access = new OGModule(this.config).provideObjectAccess();
+    assertThat(access, notNullValue());
+    // a population of one can only select its single member, whichever end ranks start from
+    assertThat(access.nextRank(1), is(0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void objectAccessInvalidHotSet() {
+    this.config.objectManager = new ObjectManagerConfig();
+    this.config.objectManager.objectStorage = ObjectStorage.OFF_HEAP;
+    this.config.objectManager.access = new AccessConfig();
+    this.config.objectManager.access.type = AccessType.HOT_SET;
+    this.config.objectManager.access.hotObjects = 0.0;
+    new OGModule(this.config).provideObjectAccess();
+  }
+
+  private static StageConfig stage(final StageType type, final Double count) {
+    final StageConfig stage = new StageConfig();
+    stage.type = type;
+    stage.count = count;
+    stage.duration = 1.0;
+    return stage;
+  }
 }
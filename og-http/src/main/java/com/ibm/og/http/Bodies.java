@@ -8,8 +8,12 @@ package com.ibm.og.http;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
+import com.ibm.og.util.io.DataGenerator;
+import com.ibm.og.util.io.GeneratedBody;
 
 /**
  * A utility class for creating body instances
@@ -41,6 +45,54 @@ public class Bodies {
     return create(DataType.RANDOM, size);
   }
 
+  /**
+   * Creates a body instance representing a body with data from a pool of random payloads. Bodies
+   * with the same seed and size have the same content.
+   * 
+   * @param seed the seed which selects the random payload
+   * @param size the size of the body
+   * @return a pooled random body instance
+   * @throws IllegalArgumentException if size is negative
+   * @see RandomPayloadPool
+   * @since 1.7.0
+   */
+  public static Body randomPool(final long seed, final long size) {
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+    return new BodyImpl(seed, size, DataType.RANDOM_POOL, null);
+  }
+
+  /**
+   * Creates a body instance representing a body with data produced by a generator. Each body has
+   * its own seed, so the unique blocks of different bodies differ.
+   * 
+   * @param size the size of the body
+   * @param generator the generator of the body's data
+   * @return a generated body instance
+   * @throws NullPointerException if generator is null
+   * @throws IllegalArgumentException if size is negative
+   * @since 1.7.0
+   */
+  public static Body generated(final long size, final DataGenerator generator) {
+    return generated(nextSeed(), size, generator);
+  }
+
+  /**
+   * Creates a body instance representing a body with data produced by a generator. Bodies with the
+   * same seed, size and generator have the same content.
+   * 
+   * @param seed the seed which determines the unique blocks of the body
+   * @param size the size of the body
+   * @param generator the generator of the body's data
+   * @return a generated body instance
+   * @throws NullPointerException if generator is null
+   * @throws IllegalArgumentException if size is negative
+   * @since 1.7.0
+   */
+  public static Body generated(final long seed, final long size, final DataGenerator generator) {
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+    return new GeneratedBodyImpl(seed, size, checkNotNull(generator));
+  }
+
   /**
    * Creates a body instance representing a body with zeroes for data
    * 
@@ -67,14 +119,21 @@ public class Bodies {
     checkNotNull(data);
     checkArgument(size >= 0, "size must be >= 0 [%s]", size);
 
-    return new BodyImpl(System.nanoTime(), size, data, null);
+    return new BodyImpl(nextSeed(), size, data, null);
   }
 
   private static Body create(final DataType data, final long size, String content) {
     checkNotNull(data);
     checkArgument(size >= 0, "size must be >= 0 [%s]", size);
 
-    return new BodyImpl(System.nanoTime(), size, data, content);
+    return new BodyImpl(nextSeed(), size, data, content);
+  }
+
+  // a random seed rather than a timestamp, since bodies created in the same tick on different
+  // threads would otherwise share content: random bodies start at the same offset into the shared
+  // payload, and generated bodies repeat the same unique blocks
+  private static long nextSeed() {
+    return ThreadLocalRandom.current().nextLong();
   }
 
   private static class BodyImpl implements Body {
@@ -86,7 +145,8 @@ public class Bodies {
 
     public BodyImpl(final long seed, final long size, final DataType dataType, String content) {
       // Force the seed to zero for non random data so that it won't affect hashCode() and equals()
-      this.seed = dataType.equals(DataType.RANDOM) ? seed : 0;
+      this.seed = dataType == DataType.RANDOM || dataType == DataType.RANDOM_POOL
+          || dataType == DataType.GENERATED ? seed : 0;
       this.size = size;
       this.dataType = dataType;
       this.content = content;
@@ -151,4 +211,34 @@ public class Bodies {
     }
 
   }
+
+  private static class GeneratedBodyImpl extends BodyImpl implements GeneratedBody {
+    private final DataGenerator generator;
+
+    public GeneratedBodyImpl(final long seed, final long size, final DataGenerator generator) {
+      super(seed, size, DataType.GENERATED, null);
+      this.generator = generator;
+    }
+
+    @Override
+    public DataGenerator getDataGenerator() {
+      return this.generator;
+    }
+
+    @Override
+    public String toString() {
+      return "GeneratedBodyImpl [seed=" + getRandomSeed() + ", size=" + getSize() + ", generator="
+          + this.generator + "]";
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * super.hashCode() + this.generator.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return super.equals(obj) && this.generator.equals(((GeneratedBodyImpl) obj).generator);
+    }
+  }
 }
@@ -0,0 +1,83 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.io.ByteStreams;
+import com.ibm.og.api.Body;
+import com.ibm.og.util.io.PayloadInputStream;
+import com.ibm.og.util.io.Streams;
+
+/**
+ * A cache loader which computes the digest of the content of a body. Bodies are equal when their
+ * data type, seed and size are equal, and equal bodies have the same content, so the digests of
+ * zero bodies are cached by size and the digests of pooled random bodies by seed and size.
+ * Caching the digests of other random bodies is of no benefit, since their seeds are not reused.
+ *
+ * @since 1.7.0
+ */
+public class BodyDigestLoader extends CacheLoader<Body, byte[]> {
+  private static final Logger _logger = LoggerFactory.getLogger(BodyDigestLoader.class);
+  private final HashFunction hashFunction;
+
+  /**
+   * Constructs a loader which digests body content with the provided hash function
+   *
+   * @param hashFunction the hash function to digest with, e.g. {@code Hashing.md5()}
+   * @throws NullPointerException if hashFunction is null
+   */
+  public BodyDigestLoader(final HashFunction hashFunction) {
+    this.hashFunction = checkNotNull(hashFunction);
+  }
+
+  /**
+   * Determines whether the digest of a body is worth caching. Zero and pooled random bodies are
+   * cacheable, since their content is determined by their seed and size and recurs; other bodies,
+   * including custom bodies whose content is not part of their identity, are not
+   *
+   * @param body the body to check
+   * @return true if the digest of body may be cached
+   */
+  public static boolean isCacheable(final Body body) {
+    switch (body.getDataType()) {
+      case NONE:
+      case ZEROES:
+      case RANDOM_POOL:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public byte[] load(final Body key) throws IOException {
+    checkNotNull(key);
+    _logger.debug("Loading {} digest for body [{}]", this.hashFunction, key);
+
+    final Hasher hasher = this.hashFunction.newHasher();
+    final OutputStream out = Funnels.asOutputStream(hasher);
+    final InputStream in = Streams.create(key);
+    // hash generated data directly from the shared payload rather than through a copy buffer
+    if (in instanceof PayloadInputStream) {
+      ((PayloadInputStream) in).writeTo(out, Streams.PAYLOAD_LENGTH);
+    } else {
+      ByteStreams.copy(in, out);
+    }
+    return hasher.hash().asBytes();
+  }
+}
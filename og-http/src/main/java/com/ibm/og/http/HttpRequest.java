@@ -16,7 +16,7 @@ import com.ibm.og.api.Body;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
-import com.google.common.collect.ImmutableMap;
+import com.ibm.og.util.RequestContext;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -31,26 +31,31 @@ public class HttpRequest implements Request {
   private final Map<String, List<String>> queryParameters;
   private final Map<String, String> requestHeaders;
   private final Body body;
-  private final Map<String, String> context;
+  private final RequestContext context;
   private final Operation operation;
 
   private HttpRequest(final Builder builder) {
     this.method = checkNotNull(builder.method);
     this.uri = checkNotNull(builder.uri);
-    // recursively immutable copy
-    final ImmutableMap.Builder<String, List<String>> queryParametersBuilder =
-        ImmutableMap.builder();
-    for (final Map.Entry<String, List<String>> entry : builder.queryParameters.entrySet()) {
-      queryParametersBuilder.put(entry.getKey(),
-          // cannot use ImmutableList.copyOf because it rejects null values
-          // must take null values to support query parameter keys without values
-          Collections.unmodifiableList(Lists.newArrayList(entry.getValue())));
-    }
-    this.queryParameters = queryParametersBuilder.build();
-    this.requestHeaders = ImmutableMap.copyOf(builder.requestHeaders);
     this.body = checkNotNull(builder.body);
-    this.context = ImmutableMap.copyOf(builder.context);
     this.operation = checkNotNull(builder.operation);
+    // the builder's maps are shared rather than copied; it copies them before any later change
+    builder.shared = true;
+    if (builder.queryParameters.isEmpty()) {
+      this.queryParameters = Collections.emptyMap();
+    } else {
+      final Map<String, List<String>> queryParameters =
+          Maps.newLinkedHashMap(builder.queryParameters);
+      for (final Map.Entry<String, List<String>> entry : queryParameters.entrySet()) {
+        // cannot use ImmutableList because it rejects null values, which represent query
+        // parameter keys without values
+        entry.setValue(Collections.unmodifiableList(entry.getValue()));
+      }
+      this.queryParameters = Collections.unmodifiableMap(queryParameters);
+    }
+    this.requestHeaders = Collections.unmodifiableMap(builder.requestHeaders);
+    // a frozen context rather than an unmodifiable view, so that readers keep its typed values
+    this.context = builder.context.freeze();
   }
 
   @Override
@@ -102,11 +107,13 @@ public class HttpRequest implements Request {
   public static class Builder {
     private final Method method;
     private final URI uri;
-    private final Map<String, List<String>> queryParameters;
-    private final Map<String, String> requestHeaders;
+    private Map<String, List<String>> queryParameters;
+    private Map<String, String> requestHeaders;
     private Body body;
-    private final Map<String, String> context;
+    private RequestContext context;
     private final Operation operation;
+    // whether a built request refers to the maps of this builder
+    private boolean shared;
 
     /**
      * Constructs a builder
@@ -120,7 +127,7 @@ public class HttpRequest implements Request {
       this.queryParameters = Maps.newLinkedHashMap();
       this.requestHeaders = Maps.newLinkedHashMap();
       this.body = Bodies.none();
-      this.context = Maps.newHashMap();
+      this.context = new RequestContext();
       this.operation = operation;
     }
 
@@ -132,7 +139,9 @@ public class HttpRequest implements Request {
      * @return this builder
      */
     public Builder withQueryParameter(final String key, final String value) {
-      List<String> parameterValues = this.queryParameters.get(checkNotNull(key));
+      checkNotNull(key);
+      unshare();
+      List<String> parameterValues = this.queryParameters.get(key);
       if (parameterValues == null) {
         parameterValues = Lists.newArrayList();
         this.queryParameters.put(key, parameterValues);
@@ -147,8 +156,12 @@ public class HttpRequest implements Request {
      * @param key a header key
      * @param value a header value
      * @return this builder
+     * @throws NullPointerException if key or value is null
      */
     public Builder withHeader(final String key, final String value) {
+      checkNotNull(key);
+      checkNotNull(value);
+      unshare();
       this.requestHeaders.put(key, value);
       return this;
     }
@@ -170,17 +183,60 @@ public class HttpRequest implements Request {
      * @param key a context key
      * @param value a context value
      * @return this builder
+     * @throws NullPointerException if key or value is null
      */
     public Builder withContext(final String key, final String value) {
+      checkNotNull(key);
+      checkNotNull(value);
+      unshare();
       this.context.put(key, value);
       return this;
     }
 
     /**
-     * Constructs an http request instance
+     * Configures the entries of a context map to include with this request. The numeric values of
+     * a {@link RequestContext} are copied without formatting.
+     * 
+     * @param context a context map
+     * @return this builder
+     * @throws NullPointerException if context is null, or is not a {@code RequestContext} and
+     *         contains a null key or value
+     */
+    public Builder withContext(final Map<String, String> context) {
+      checkNotNull(context);
+      unshare();
+      if (context instanceof RequestContext) {
+        this.context.putAll(context);
+      } else {
+        for (final Map.Entry<String, String> entry : context.entrySet()) {
+          this.context.put(checkNotNull(entry.getKey()), checkNotNull(entry.getValue()));
+        }
+      }
+      return this;
+    }
+
+    // copies the maps referred to by previously built requests, so that those requests are not
+    // changed by this builder
+    private void unshare() {
+      if (!this.shared) {
+        return;
+      }
+      final Map<String, List<String>> queryParameters = Maps.newLinkedHashMap();
+      for (final Map.Entry<String, List<String>> entry : this.queryParameters.entrySet()) {
+        queryParameters.put(entry.getKey(), Lists.newArrayList(entry.getValue()));
+      }
+      this.queryParameters = queryParameters;
+      this.requestHeaders = Maps.newLinkedHashMap(this.requestHeaders);
+      this.context = new RequestContext(this.context);
+      this.shared = false;
+    }
+
+    /**
+     * Constructs an http request instance. The request refers to the headers, query parameters and
+     * context of this builder rather than copying them, until this builder is next changed
      * 
      * @return an http request instance
-     * @throws NullPointerException if any null header keys or values were added to this builder
+     * @throws NullPointerException if method, uri, operation or body is null
      */
     public HttpRequest build() {
       return new HttpRequest(this);
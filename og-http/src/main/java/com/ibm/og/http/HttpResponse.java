@@ -11,6 +11,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.Map;
 
 import com.ibm.og.api.Body;
+import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.api.Response;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -25,6 +26,7 @@ public class HttpResponse implements Response {
   private final Map<String, String> responseHeaders;
   private final Body body;
   private final Map<String, String> context;
+  private final RequestTimestamps requestTimestamps;
 
   private HttpResponse(final Builder builder) {
     this.statusCode = builder.statusCode;
@@ -33,6 +35,7 @@ public class HttpResponse implements Response {
     this.responseHeaders = ImmutableMap.copyOf(builder.responseHeaders);
     this.body = checkNotNull(builder.body);
     this.context = ImmutableMap.copyOf(builder.context);
+    this.requestTimestamps = builder.requestTimestamps;
   }
 
   @Override
@@ -55,6 +58,11 @@ public class HttpResponse implements Response {
     return this.context;
   }
 
+  @Override
+  public RequestTimestamps getRequestTimestamps() {
+    return this.requestTimestamps;
+  }
+
   @Override
   public String toString() {
     return String.format(
@@ -70,6 +78,7 @@ public class HttpResponse implements Response {
     private final Map<String, String> responseHeaders;
     private Body body;
     private final Map<String, String> context;
+    private RequestTimestamps requestTimestamps;
 
     /**
      * Constructs a builder
@@ -120,6 +129,17 @@ public class HttpResponse implements Response {
       return this;
     }
 
+    /**
+     * Configures the timestamps recorded while executing the request for this response
+     * 
+     * @param requestTimestamps request timestamps
+     * @return this builder
+     */
+    public Builder withRequestTimestamps(final RequestTimestamps requestTimestamps) {
+      this.requestTimestamps = requestTimestamps;
+      return this;
+    }
+
     /**
      * Constructs an http response instance
      * 
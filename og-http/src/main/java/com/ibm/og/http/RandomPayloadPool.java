@@ -0,0 +1,79 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.ibm.og.api.Body;
+import com.ibm.og.api.DataType;
+import com.ibm.og.util.io.Streams;
+
+/**
+ * A bounded pool of random payloads. Each payload is identified by a seed which is generated once,
+ * when the pool is constructed; bodies created by this pool use one of those seeds, chosen
+ * uniformly at random. Since bodies with the same seed and size have the same content, digests of
+ * their content need only be computed once per seed and size, see {@link BodyDigestLoader}.
+ * <p>
+ * Random bodies repeat a shared pattern of {@link Streams#PAYLOAD_LENGTH} bytes starting at an
+ * offset derived from their seed, so the seeds of a pool are distinct offsets into that pattern.
+ *
+ * @see DataType#RANDOM_POOL
+ * @since 1.7.0
+ */
+public class RandomPayloadPool {
+  private final long[] seeds;
+
+  /**
+   * Constructs a pool of random payloads
+   *
+   * @param size the number of distinct payloads in this pool
+   * @throws IllegalArgumentException if size is negative, zero or greater than
+   *         {@link Streams#PAYLOAD_LENGTH}
+   */
+  public RandomPayloadPool(final int size) {
+    this(size, new Random());
+  }
+
+  RandomPayloadPool(final int size, final Random random) {
+    checkArgument(size > 0, "size must be > 0 [%s]", size);
+    checkArgument(size <= Streams.PAYLOAD_LENGTH, "size must be <= %s [%s]",
+        Streams.PAYLOAD_LENGTH, size);
+    // spread the payloads evenly over the shared pattern, each at a random position within its own
+    // stride, so that no two payloads start at the same offset
+    final int stride = Streams.PAYLOAD_LENGTH / size;
+    this.seeds = new long[size];
+    for (int i = 0; i < size; i++) {
+      this.seeds[i] = (long) i * stride + random.nextInt(stride);
+    }
+  }
+
+  /**
+   * Creates a body using a payload from this pool
+   *
+   * @param size the size of the body
+   * @return a pooled random body instance
+   * @throws IllegalArgumentException if size is negative
+   */
+  public Body next(final long size) {
+    return Bodies.randomPool(this.seeds[ThreadLocalRandom.current().nextInt(this.seeds.length)],
+        size);
+  }
+
+  /**
+   * @return the number of distinct payloads in this pool
+   */
+  public int size() {
+    return this.seeds.length;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RandomPayloadPool [size=%s]", this.seeds.length);
+  }
+}
@@ -8,10 +8,15 @@ package com.ibm.og.http;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import java.util.Set;
+
 import org.junit.Test;
 
+import com.google.common.collect.Sets;
 import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
+import com.ibm.og.util.io.DataGenerator;
+import com.ibm.og.util.io.GeneratedBody;
 
 public class BodiesTest {
   @Test
@@ -44,4 +49,64 @@ public class BodiesTest {
     assertThat(body.getDataType(), is(DataType.ZEROES));
     assertThat(body.getSize(), is(1L));
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void randomPoolNegativeSize() {
+    Bodies.randomPool(1, -1);
+  }
+
+  @Test
+  public void randomPool() {
+    final Body body = Bodies.randomPool(5, 1);
+    assertThat(body.getDataType(), is(DataType.RANDOM_POOL));
+    assertThat(body.getRandomSeed(), is(5L));
+    assertThat(body.getSize(), is(1L));
+    // pooled bodies are identified by seed and size
+    assertThat(body.equals(Bodies.randomPool(5, 1)), is(true));
+    assertThat(body.equals(Bodies.randomPool(6, 1)), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void generatedNegativeSize() {
+    Bodies.generated(-1, new DataGenerator(4096, 1.0, 1.0));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void generatedNullGenerator() {
+    Bodies.generated(1, null);
+  }
+
+  @Test
+  public void generated() {
+    final DataGenerator generator = new DataGenerator(4096, 2.0, 1.0);
+    final Body body = Bodies.generated(5, 1, generator);
+    assertThat(body.getDataType(), is(DataType.GENERATED));
+    assertThat(body.getRandomSeed(), is(5L));
+    assertThat(body.getSize(), is(1L));
+    assertThat(((GeneratedBody) body).getDataGenerator(), is(generator));
+    assertThat(body.equals(Bodies.generated(5, 1, new DataGenerator(4096, 2.0, 1.0))), is(true));
+    assertThat(body.equals(Bodies.generated(5, 1, new DataGenerator(4096, 3.0, 1.0))), is(false));
+    assertThat(body.equals(Bodies.generated(6, 1, generator)), is(false));
+  }
+
+  @Test
+  public void generatedSeeds() {
+    final DataGenerator generator = new DataGenerator(4096, 1.0, 1.0);
+    final Set<Long> seeds = Sets.newHashSet();
+    for (int i = 0; i < 1000; i++) {
+      seeds.add(Bodies.generated(1, generator).getRandomSeed());
+    }
+    // bodies created in quick succession must not share content
+    assertThat(seeds.size(), is(1000));
+  }
+
+  @Test
+  public void randomSeeds() {
+    final Set<Long> seeds = Sets.newHashSet();
+    for (int i = 0; i < 1000; i++) {
+      seeds.add(Bodies.random(1).getRandomSeed());
+    }
+    // random bodies created in quick succession must not start at the same payload offset
+    assertThat(seeds.size(), is(1000));
+  }
 }
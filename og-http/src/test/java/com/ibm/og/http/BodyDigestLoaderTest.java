@@ -0,0 +1,66 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.ibm.og.api.Body;
+import com.ibm.og.util.io.Streams;
+
+public class BodyDigestLoaderTest {
+  @Test(expected = NullPointerException.class)
+  public void nullHashFunction() {
+    new BodyDigestLoader(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullBody() throws IOException {
+    new BodyDigestLoader(Hashing.md5()).load(null);
+  }
+
+  @Test
+  public void zeroes() throws Exception {
+    assertThat(new BodyDigestLoader(Hashing.md5()).load(Bodies.zeroes(5000)),
+        is(Hashing.md5().hashBytes(new byte[5000]).asBytes()));
+  }
+
+  @Test
+  public void none() throws IOException {
+    assertThat(new BodyDigestLoader(Hashing.sha256()).load(Bodies.none()),
+        is(Hashing.sha256().hashBytes(new byte[0]).asBytes()));
+  }
+
+  @Test
+  public void randomPool() throws IOException {
+    // spans the end of the shared pattern
+    final Body body = Bodies.randomPool(Streams.PAYLOAD_LENGTH - 100, 2L * Streams.PAYLOAD_LENGTH);
+    final byte[] content = ByteStreams.toByteArray(Streams.create(body));
+    assertThat(new BodyDigestLoader(Hashing.sha256()).load(body),
+        is(Hashing.sha256().hashBytes(content).asBytes()));
+  }
+
+  @Test
+  public void cacheable() {
+    assertThat(BodyDigestLoader.isCacheable(Bodies.none()), is(true));
+    assertThat(BodyDigestLoader.isCacheable(Bodies.zeroes(1)), is(true));
+    assertThat(BodyDigestLoader.isCacheable(Bodies.randomPool(1, 1)), is(true));
+    assertThat(BodyDigestLoader.isCacheable(Bodies.random(1)), is(false));
+    assertThat(BodyDigestLoader.isCacheable(Bodies.custom(1, "a")), is(false));
+  }
+
+  @Test
+  public void custom() throws IOException {
+    assertThat(new BodyDigestLoader(Hashing.md5()).load(Bodies.custom(4, "ab")),
+        is(Hashing.md5().hashBytes("abab".getBytes("UTF-8")).asBytes()));
+  }
+}
@@ -9,6 +9,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -18,6 +19,7 @@ import org.junit.runner.RunWith;
 
 import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
+import com.ibm.og.api.RequestTimestamps;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -169,4 +171,18 @@ public class HttpResponseTest {
     new HttpResponse.Builder().withStatusCode(200).withContext("key", "value").build().getContext()
         .remove("key");
   }
+
+  @Test
+  public void noRequestTimestamps() {
+    final HttpResponse response = new HttpResponse.Builder().withStatusCode(200).build();
+    assertThat(response.getRequestTimestamps(), is((RequestTimestamps) null));
+  }
+
+  @Test
+  public void requestTimestamps() {
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    final HttpResponse response =
+        new HttpResponse.Builder().withStatusCode(200).withRequestTimestamps(timestamps).build();
+    assertThat(response.getRequestTimestamps(), sameInstance(timestamps));
+  }
 }
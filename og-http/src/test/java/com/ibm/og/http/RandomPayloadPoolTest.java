@@ -0,0 +1,67 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.collect.Sets;
+import com.ibm.og.api.Body;
+import com.ibm.og.api.DataType;
+import com.ibm.og.util.io.Streams;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class RandomPayloadPoolTest {
+  @DataProvider
+  public static Object[][] provideInvalidSize() {
+    return new Object[][] {{-1}, {0}, {Streams.PAYLOAD_LENGTH + 1}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidSize")
+  public void invalidSize(final int size) {
+    new RandomPayloadPool(size);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeBodySize() {
+    new RandomPayloadPool(1).next(-1);
+  }
+
+  @Test
+  public void next() {
+    final RandomPayloadPool pool = new RandomPayloadPool(4, new Random(0));
+    assertThat(pool.size(), is(4));
+    final Set<Long> seeds = Sets.newHashSet();
+    for (int i = 0; i < 1000; i++) {
+      final Body body = pool.next(10);
+      assertThat(body.getDataType(), is(DataType.RANDOM_POOL));
+      assertThat(body.getSize(), is(10L));
+      seeds.add(body.getRandomSeed());
+    }
+    assertThat(seeds.size(), is(4));
+  }
+
+  @Test
+  public void seedsWithinPattern() {
+    final RandomPayloadPool pool = new RandomPayloadPool(3);
+    for (int i = 0; i < 100; i++) {
+      final long seed = pool.next(0).getRandomSeed();
+      assertThat(seed >= 0, is(true));
+      assertThat(seed, lessThanOrEqualTo((long) Streams.PAYLOAD_LENGTH - 1));
+    }
+  }
+}
@@ -15,9 +15,9 @@ import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.http.HttpUtil;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 import com.ibm.og.util.Pair;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.eventbus.Subscribe;
 
 /**
  * A consumer of object names
@@ -54,7 +54,6 @@ public abstract class AbstractObjectNameConsumer {
    * 
    * @param operation the operation to process
    */
-  @Subscribe
   public void consume(final Pair<Request, Response> operation) {
     checkNotNull(operation);
     final Request request = operation.getKey();
@@ -113,35 +112,20 @@ public abstract class AbstractObjectNameConsumer {
     if (this.operation == Operation.WRITE) {
       return request.getBody().getSize();
     }
-    return Long.parseLong(request.getContext().get(Context.X_OG_OBJECT_SIZE));
+    return RequestContext.getLong(request.getContext(), Context.X_OG_OBJECT_SIZE);
   }
 
   protected int getContainerSuffix(final Request request) {
-    final String containerSuffix = request.getContext().get(Context.X_OG_CONTAINER_SUFFIX);
-    if (containerSuffix == null) {
-      return -1;
-    } else {
-      return Integer.parseInt(containerSuffix);
-    }
+    return RequestContext.getInt(request.getContext(), Context.X_OG_CONTAINER_SUFFIX, -1);
   }
 
   protected byte getNumberOfLegalHolds(final Request request, final Response response) {
-    final String nHolds = request.getContext().get(Context.X_OG_NUM_LEGAL_HOLDS);
-    if (nHolds == null) {
-      return 0;
-    } else {
-      return Byte.parseByte(nHolds);
-    }
+    return (byte) RequestContext.getInt(request.getContext(), Context.X_OG_NUM_LEGAL_HOLDS, 0);
   }
 
   //todo: check whether to use the retention in the request or response
   protected int getObjectRetention(final Request request, final Response response) {
-    final String retention = request.getContext().get(Context.X_OG_OBJECT_RETENTION);
-    if (retention == null) {
-      return 0;
-    } else {
-      return Integer.parseInt(retention);
-    }
+    return RequestContext.getInt(request.getContext(), Context.X_OG_OBJECT_RETENTION, 0);
   }
 
   protected abstract void updateObjectManager(ObjectMetadata objectName);
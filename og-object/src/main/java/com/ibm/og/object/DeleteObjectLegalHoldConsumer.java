@@ -9,9 +9,11 @@ import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -39,24 +41,15 @@ public class DeleteObjectLegalHoldConsumer extends AbstractObjectNameConsumer {
 
   @Override
   protected byte getNumberOfLegalHolds(final Request request, final Response response) {
-    final String nHolds = request.getContext().get(Context.X_OG_NUM_LEGAL_HOLDS);
-
-    if (nHolds == null) {
+    final Map<String, String> context = request.getContext();
+    if (!context.containsKey(Context.X_OG_NUM_LEGAL_HOLDS)) {
       return 0;
-    } else {
-      if (response.getStatusCode() != 200) {
-        return Byte.valueOf(nHolds);
-      }
-      else {
-        if (Byte.valueOf(nHolds) > 0) {
-          byte reducedHolds = Byte.valueOf(nHolds);
-          reducedHolds -= (byte) 1;
-          return reducedHolds;
-        } else {
-          return Byte.valueOf(nHolds);
-        }
-      }
     }
+    final byte nHolds = (byte) RequestContext.getInt(context, Context.X_OG_NUM_LEGAL_HOLDS);
+    if (response.getStatusCode() == 200 && nHolds > 0) {
+      return (byte) (nHolds - 1);
+    }
+    return nHolds;
   }
 
   @Override
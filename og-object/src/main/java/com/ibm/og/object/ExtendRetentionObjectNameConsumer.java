@@ -9,7 +9,9 @@ import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -37,12 +39,12 @@ public class ExtendRetentionObjectNameConsumer extends AbstractObjectNameConsume
   }
 
   protected int getObjectRetention(final Request request, final Response response) {
-    final String sRetention = request.getContext().get(Context.X_OG_OBJECT_RETENTION);
-    final String sRExtension = request.getContext().get(Context.X_OG_OBJECT_RETENTION_EXT);
+    final Map<String, String> context = request.getContext();
+    final int retention = RequestContext.getInt(context, Context.X_OG_OBJECT_RETENTION);
     if (response.getStatusCode() == 200) {
-      return Integer.parseInt(sRetention) + Integer.parseInt(sRExtension);
+      return retention + RequestContext.getInt(context, Context.X_OG_OBJECT_RETENTION_EXT);
     } else {
-      return Integer.parseInt(sRetention);
+      return retention;
     }
   }
 
@@ -0,0 +1,128 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import com.ibm.og.util.RankDistribution;
+
+/**
+ * An object set which records each addition and removal which changes its membership in an
+ * {@link ObjectJournal}
+ *
+ * @since 1.7.0
+ */
+class JournaledObjectSet implements RandomAccessSet<ObjectMetadata> {
+  private final RandomAccessSet<ObjectMetadata> objects;
+  private final ObjectJournal journal;
+
+  /**
+   * Constructs an instance
+   *
+   * @param objects the set to record changes to
+   * @param journal the journal to record changes in
+   * @throws NullPointerException if objects or journal is null
+   */
+  JournaledObjectSet(final RandomAccessSet<ObjectMetadata> objects, final ObjectJournal journal) {
+    this.objects = checkNotNull(objects);
+    this.journal = checkNotNull(journal);
+  }
+
+  @Override
+  public ObjectMetadata put(final ObjectMetadata key) {
+    final ObjectMetadata added = this.objects.put(key);
+    if (added != null) {
+      this.journal.add(added);
+    }
+    return added;
+  }
+
+  @Override
+  public void putAll(final Collection<? extends ObjectMetadata> keys) {
+    for (final ObjectMetadata key : keys) {
+      put(key);
+    }
+  }
+
+  @Override
+  public ObjectMetadata getRandom() {
+    return this.objects.getRandom();
+  }
+
+  @Override
+  public ObjectMetadata getRandom(final RankDistribution ranks) {
+    return this.objects.getRandom(ranks);
+  }
+
+  @Override
+  public ObjectMetadata removeRandom() {
+    return removed(this.objects.removeRandom());
+  }
+
+  @Override
+  public ObjectMetadata remove(final Object key) {
+    return removed(this.objects.remove(key));
+  }
+
+  private ObjectMetadata removed(final ObjectMetadata object) {
+    if (object != null) {
+      this.journal.remove(object);
+    }
+    return object;
+  }
+
+  @Override
+  public boolean contains(final Object key) {
+    return this.objects.contains(key);
+  }
+
+  @Override
+  public int size() {
+    return this.objects.size();
+  }
+
+  /**
+   * Removes all members without recording their removal
+   */
+  @Override
+  public void clear() {
+    this.objects.clear();
+  }
+
+  @Override
+  public Iterator<ObjectMetadata> iterator() {
+    final Iterator<ObjectMetadata> iterator = this.objects.iterator();
+    return new Iterator<ObjectMetadata>() {
+      private ObjectMetadata current;
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public ObjectMetadata next() {
+        this.current = iterator.next();
+        return this.current;
+      }
+
+      @Override
+      public void remove() {
+        if (this.current == null) {
+          iterator.remove();
+          return;
+        }
+        // journaled first, as an iterator may reuse the returned object for another member
+        JournaledObjectSet.this.journal.remove(this.current);
+        this.current = null;
+        iterator.remove();
+      }
+    };
+  }
+}
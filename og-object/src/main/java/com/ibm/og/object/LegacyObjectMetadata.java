@@ -45,9 +45,8 @@ public class LegacyObjectMetadata implements ObjectMetadata {
    */
   public static LegacyObjectMetadata fromBytes(final byte[] objectBytes) {
     checkNotNull(objectBytes);
-    checkArgument(objectBytes.length == OBJECT_SIZE,
-        String.format("objectName length must be == %s", OBJECT_SIZE) + " [%s]",
-        objectBytes.length);
+    checkArgument(objectBytes.length == OBJECT_SIZE, "objectName length must be == %s [%s]",
+        OBJECT_SIZE, objectBytes.length);
 
     return new LegacyObjectMetadata(ByteBuffer.allocate(OBJECT_SIZE).put(objectBytes));
   }
@@ -66,9 +65,8 @@ public class LegacyObjectMetadata implements ObjectMetadata {
     checkNotNull(objectName);
     // HACK; assume 1 char == 2 bytes for object name string length checking
     final int stringLength = 2 * OBJECT_NAME_SIZE;
-    checkArgument(objectName.length() == stringLength,
-        String.format("objectName length must be == %s", stringLength) + " [%s]",
-        objectName.length());
+    checkArgument(objectName.length() == stringLength, "objectName length must be == %s [%s]",
+        stringLength, objectName.length());
     checkArgument(objectSize >= 0, "objectSize must be >= 0 [%s]", objectSize);
     checkArgument(containerSuffix >= -1, "containerSuffix must be >= -1 [%s]", containerSuffix);
     checkArgument(numLegalHolds >= -1, "numLegalHolds must be >= -1 [%s]", numLegalHolds);
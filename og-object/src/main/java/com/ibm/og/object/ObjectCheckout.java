@@ -0,0 +1,155 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the objects which are checked out for reading or for exclusive use. A checked out object
+ * has an atomic state which is either a positive count of readers or {@code EXCLUSIVE}; an object
+ * which is not checked out has no state. Each transition is a single compare-and-set, either of an
+ * object's state or of its entry in a concurrent map, so no global lock is held and no caller
+ * waits for another.
+ * <p>
+ * Objects are keyed by the raw bytes of their name, so sizes and other metadata may change while
+ * an object is checked out. The key of an immutable record is a view of the record itself rather
+ * than a copy, so checking out an object does not copy its name.
+ *
+ * @since 1.7.0
+ */
+class ObjectCheckout {
+  private static final int EXCLUSIVE = -1;
+  // the state of an entry whose last reader has released it, and which is being unmapped
+  private static final int RELEASED = 0;
+  private final ConcurrentMap<ByteBuffer, AtomicInteger> states;
+  private final AtomicInteger exclusive;
+
+  ObjectCheckout() {
+    this.states = new ConcurrentHashMap<ByteBuffer, AtomicInteger>();
+    this.exclusive = new AtomicInteger();
+  }
+
+  /**
+   * Checks out an object for reading, unless it is exclusively checked out. Any number of readers
+   * may check out an object at once
+   *
+   * @param object the object to read
+   * @return true if the object was checked out
+   */
+  boolean tryRead(final ObjectMetadata object) {
+    final ByteBuffer key = key(object);
+    while (true) {
+      final AtomicInteger state = this.states.get(key);
+      if (state == null) {
+        if (this.states.putIfAbsent(key, new AtomicInteger(1)) == null) {
+          return true;
+        }
+        continue;
+      }
+      final int count = state.get();
+      if (count == EXCLUSIVE) {
+        return false;
+      }
+      if (count == RELEASED) {
+        this.states.remove(key, state);
+      } else if (state.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Checks out an object for reading, only if it is not checked out at all
+   *
+   * @param object the object to read
+   * @return true if the object was checked out
+   */
+  boolean tryReadOnce(final ObjectMetadata object) {
+    return tryPut(key(object), 1);
+  }
+
+  /**
+   * Returns a read checkout of an object
+   *
+   * @param object the object which was read
+   * @throws IllegalStateException if the object is not checked out for reading
+   */
+  void releaseRead(final ObjectMetadata object) {
+    final ByteBuffer key = key(object);
+    final AtomicInteger state = this.states.get(key);
+    checkState(state != null && state.get() > RELEASED, "object is not being read [%s]",
+        object.getName());
+    if (state.decrementAndGet() == RELEASED) {
+      this.states.remove(key, state);
+    }
+  }
+
+  /**
+   * Checks out an object for exclusive use, only if it is not checked out at all
+   *
+   * @param object the object to use
+   * @return true if the object was checked out
+   */
+  boolean tryExclusive(final ObjectMetadata object) {
+    if (tryPut(key(object), EXCLUSIVE)) {
+      this.exclusive.incrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns an exclusive checkout of an object
+   *
+   * @param object the object which was used
+   * @return true if the object was exclusively checked out
+   */
+  boolean releaseExclusive(final ObjectMetadata object) {
+    final ByteBuffer key = key(object);
+    final AtomicInteger state = this.states.get(key);
+    if (state != null && state.get() == EXCLUSIVE && this.states.remove(key, state)) {
+      this.exclusive.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * @return the number of objects which are exclusively checked out
+   */
+  int exclusiveCount() {
+    return this.exclusive.get();
+  }
+
+  private boolean tryPut(final ByteBuffer key, final int count) {
+    while (true) {
+      final AtomicInteger state = this.states.putIfAbsent(key, new AtomicInteger(count));
+      if (state == null) {
+        return true;
+      }
+      if (state.get() != RELEASED) {
+        return false;
+      }
+      this.states.remove(key, state);
+    }
+  }
+
+  // a view of the name in the object's own record, which is immutable for a LegacyObjectMetadata
+  // itself; subclasses such as reusable views may change, so their names are copied
+  private static ByteBuffer key(final ObjectMetadata object) {
+    final byte[] record = object.toBytes();
+    if (object.getClass() == LegacyObjectMetadata.class) {
+      return ByteBuffer.wrap(record, 0, LegacyObjectMetadata.OBJECT_NAME_SIZE);
+    }
+    return ByteBuffer.wrap(Arrays.copyOf(record, LegacyObjectMetadata.OBJECT_NAME_SIZE));
+  }
+}
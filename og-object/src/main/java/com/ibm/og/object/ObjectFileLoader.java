@@ -0,0 +1,193 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Loads the objects of an object file into an object set. The file is memory mapped, and its
+ * records are split into contiguous ranges which are decoded and inserted in batches by a pool of
+ * threads. Both version 1.0 and version 2.0 object files are supported; a trailing partial record
+ * is ignored.
+ *
+ * @since 1.7.0
+ */
+class ObjectFileLoader {
+  private static final Logger _logger = LoggerFactory.getLogger(ObjectFileLoader.class);
+  static final int DEFAULT_MIN_RECORDS_PER_TASK = 64 * 1024;
+  private static final int BATCH_SIZE = 4096;
+  private final int parallelism;
+  private final int minRecordsPerTask;
+
+  /**
+   * Constructs an instance
+   *
+   * @param parallelism the maximum number of threads to load with
+   * @param minRecordsPerTask the minimum number of records each thread loads, so that small files
+   *        are not split
+   * @throws IllegalArgumentException if parallelism or minRecordsPerTask is not positive
+   */
+  ObjectFileLoader(final int parallelism, final int minRecordsPerTask) {
+    checkArgument(parallelism > 0, "parallelism must be > 0 [%s]", parallelism);
+    checkArgument(minRecordsPerTask > 0, "minRecordsPerTask must be > 0 [%s]", minRecordsPerTask);
+    this.parallelism = parallelism;
+    this.minRecordsPerTask = minRecordsPerTask;
+  }
+
+  /**
+   * Adds the objects in an object file to an object set
+   *
+   * @param file the object file to load
+   * @param objects the set to add objects to
+   * @return the number of records read from file
+   * @throws IOException if file cannot be read
+   * @throws IllegalArgumentException if file is of an unsupported version
+   */
+  long load(final File file, final RandomAccessSet<ObjectMetadata> objects) throws IOException {
+    checkNotNull(file);
+    checkNotNull(objects);
+    final RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      final FileChannel channel = raf.getChannel();
+      final long length = channel.size();
+      if (length == 0) {
+        return 0;
+      }
+
+      final ObjectFileVersion version = readVersion(channel);
+      final int major = version.getMajorVersion();
+      final int minor = version.getMinorVersion();
+      final int recordSize;
+      if (major == LegacyObjectMetadata.MAJOR_VERSION
+          && minor == LegacyObjectMetadata.MINOR_VERSION) {
+        recordSize = LegacyObjectMetadata.OBJECT_SIZE;
+      } else if (major == 1 && minor == 0) {
+        recordSize = ObjectFileUtil.OBJECT_SIZE_V1_0;
+      } else {
+        throw new IllegalArgumentException(
+            String.format("Unsupported object file version [%s.%s]", major, minor));
+      }
+      final int headerLength = ObjectFileUtil.getVersionHeaderLength(major, minor);
+      final long records = Math.max(0, length - headerLength) / recordSize;
+
+      // a single mapping cannot exceed 2GB
+      final long maxRecordsPerTask = Integer.MAX_VALUE / recordSize;
+      int tasks = (int) Math.min(this.parallelism, Math.max(1, records / this.minRecordsPerTask));
+      tasks = (int) Math.max(tasks, (records + maxRecordsPerTask - 1) / maxRecordsPerTask);
+      _logger.debug("Loading {} version {}.{} records from {} with {} tasks", records, major, minor,
+          file, tasks);
+
+      final List<Callable<Void>> loaders = Lists.newArrayListWithCapacity(tasks);
+      final long recordsPerTask = records / tasks;
+      for (int i = 0; i < tasks; i++) {
+        final long first = i * recordsPerTask;
+        final long count = i < tasks - 1 ? recordsPerTask : records - first;
+        final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+            headerLength + first * recordSize, count * recordSize);
+        loaders.add(new RangeLoader(region, major, minor, recordSize, objects));
+      }
+      run(loaders);
+      return records;
+    } finally {
+      raf.close();
+    }
+  }
+
+  private static ObjectFileVersion readVersion(final FileChannel channel) throws IOException {
+    // a file shorter than a version header is read as version 1.0, as it has no header prefix
+    final ByteBuffer header = ByteBuffer.allocate(ObjectFileVersion.VERSION_HEADER_LENGTH);
+    while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+      // read until full or end of file
+    }
+    return ObjectFileVersion.fromBytes(header.array());
+  }
+
+  private void run(final List<Callable<Void>> loaders) throws IOException {
+    if (loaders.size() == 1) {
+      try {
+        loaders.get(0).call();
+      } catch (final Exception e) {
+        Throwables.propagateIfInstanceOf(e, IOException.class);
+        throw Throwables.propagate(e);
+      }
+      return;
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(this.parallelism, loaders.size()),
+        new ThreadFactoryBuilder().setNameFormat("object-file-loader-%d").setDaemon(true).build());
+    try {
+      for (final Future<Void> future : executor.invokeAll(loaders)) {
+        future.get();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while loading object file", e);
+    } catch (final ExecutionException e) {
+      Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+      throw Throwables.propagate(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  // decodes and inserts the records of a mapped range of an object file
+  private static class RangeLoader implements Callable<Void> {
+    private final ByteBuffer region;
+    private final int major;
+    private final int minor;
+    private final int recordSize;
+    private final RandomAccessSet<ObjectMetadata> objects;
+
+    public RangeLoader(final ByteBuffer region, final int major, final int minor,
+        final int recordSize, final RandomAccessSet<ObjectMetadata> objects) {
+      this.region = region;
+      this.major = major;
+      this.minor = minor;
+      this.recordSize = recordSize;
+      this.objects = objects;
+    }
+
+    @Override
+    public Void call() {
+      final byte[] inputBytes = new byte[this.recordSize];
+      final byte[] objectBytes = new byte[LegacyObjectMetadata.OBJECT_SIZE];
+      final List<ObjectMetadata> batch = Lists.newArrayListWithCapacity(BATCH_SIZE);
+      while (this.region.remaining() >= this.recordSize) {
+        this.region.get(inputBytes);
+        batch.add(ObjectFileUtil.getObjectFromInputBuffer(this.major, this.minor, inputBytes,
+            objectBytes));
+        if (batch.size() == BATCH_SIZE) {
+          this.objects.putAll(batch);
+          batch.clear();
+        }
+      }
+      this.objects.putAll(batch);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,402 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+
+/**
+ * An append-only journal of the objects added to and removed from an object file. Each entry is an
+ * operation byte followed by a version 2.0 object record. Entries are buffered and appended in
+ * batches, so a crash loses at most the entries of the current, unflushed batch.
+ * <p>
+ * Compaction merges the journal into the object file without reference to the in-memory object
+ * set: the journal is rotated, the object file is rewritten to a temporary file with the last
+ * journaled operation on each object name applied, and the temporary file atomically replaces the
+ * object file. Appends continue to a new journal while compaction runs. Journals left behind by a
+ * crash are merged by {@link #recover(File)}.
+ *
+ * @since 1.7.0
+ */
+class ObjectJournal {
+  private static final Logger _logger = LoggerFactory.getLogger(ObjectJournal.class);
+  static final String JOURNAL_SUFFIX = ".journal";
+  static final String COMPACTING_SUFFIX = ".compacting";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+  private static final byte ADD = 1;
+  private static final byte REMOVE = 2;
+  static final int ENTRY_SIZE = 1 + LegacyObjectMetadata.OBJECT_SIZE;
+  // marks a name whose last journaled operation was a removal
+  private static final byte[] REMOVED = new byte[0];
+  private final File objectFile;
+  private final File journalFile;
+  private final File compactingFile;
+  private final ByteBuffer batch;
+  private final Lock compactionLock;
+  private FileChannel channel;
+  private long entries;
+
+  /**
+   * Constructs an instance. The journal file is created on the first append
+   *
+   * @param objectFile the object file which this journal records changes to
+   * @param batchSize the number of entries to buffer before appending them to the journal file
+   * @throws NullPointerException if objectFile is null
+   * @throws IllegalArgumentException if batchSize is not positive
+   */
+  ObjectJournal(final File objectFile, final int batchSize) {
+    this.objectFile = checkNotNull(objectFile);
+    checkArgument(batchSize > 0, "batchSize must be > 0 [%s]", batchSize);
+    this.journalFile = journalFile(objectFile);
+    this.compactingFile = compactingFile(objectFile);
+    this.batch = ByteBuffer.allocate(batchSize * ENTRY_SIZE);
+    this.compactionLock = new ReentrantLock();
+  }
+
+  static File journalFile(final File objectFile) {
+    return new File(objectFile.getPath() + JOURNAL_SUFFIX);
+  }
+
+  static File compactingFile(final File objectFile) {
+    return new File(objectFile.getPath() + JOURNAL_SUFFIX + COMPACTING_SUFFIX);
+  }
+
+  /**
+   * Records the addition of an object
+   *
+   * @param object the added object
+   * @throws ObjectManagerException if a full batch cannot be appended to the journal file
+   */
+  synchronized void add(final ObjectMetadata object) {
+    append(ADD, object);
+  }
+
+  /**
+   * Records the removal of an object
+   *
+   * @param object the removed object
+   * @throws ObjectManagerException if a full batch cannot be appended to the journal file
+   */
+  synchronized void remove(final ObjectMetadata object) {
+    append(REMOVE, object);
+  }
+
+  private void append(final byte operation, final ObjectMetadata object) {
+    final byte[] record = object.toBytes();
+    checkArgument(record.length == LegacyObjectMetadata.OBJECT_SIZE,
+        "record length must be %s [%s]", LegacyObjectMetadata.OBJECT_SIZE, record.length);
+    if (!this.batch.hasRemaining()) {
+      // a previous append of this batch failed
+      flushBatch();
+    }
+    this.batch.put(operation).put(record);
+    this.entries++;
+    if (!this.batch.hasRemaining()) {
+      flushBatch();
+    }
+  }
+
+  private void flushBatch() {
+    try {
+      flush();
+    } catch (final IOException e) {
+      throw new ObjectManagerException(
+          "Failed to append to object journal " + this.journalFile, e);
+    }
+  }
+
+  /**
+   * Appends buffered entries to the journal file
+   *
+   * @throws IOException if the journal file cannot be written
+   */
+  synchronized void flush() throws IOException {
+    if (this.batch.position() == 0) {
+      return;
+    }
+    if (this.channel == null) {
+      this.channel = new RandomAccessFile(this.journalFile, "rw").getChannel();
+      this.channel.position(this.channel.size());
+    }
+    this.batch.flip();
+    try {
+      while (this.batch.hasRemaining()) {
+        this.channel.write(this.batch);
+      }
+    } finally {
+      // retain any entries which were not written, so that they are retried
+      this.batch.compact();
+    }
+  }
+
+  /**
+   * Appends buffered entries to the journal file and forces them to storage, so that they survive
+   * a crash
+   *
+   * @throws IOException if the journal file cannot be written
+   */
+  synchronized void sync() throws IOException {
+    flush();
+    if (this.channel != null) {
+      this.channel.force(false);
+    }
+  }
+
+  /**
+   * @return the number of entries recorded since the last compaction
+   */
+  synchronized long size() {
+    return this.entries;
+  }
+
+  /**
+   * Merges recorded entries into the object file. Entries recorded while compacting are retained
+   * for the next compaction. Creates the object file if it does not exist, and rewrites it in
+   * version 2.0 format if it is in an older format
+   *
+   * @throws IOException if the journal or object file cannot be read or written
+   */
+  void compact() throws IOException {
+    this.compactionLock.lock();
+    try {
+      // a compacting file may also remain from a failed compaction, and is merged regardless
+      rotate();
+      final boolean compacting = this.compactingFile.exists();
+      if (!compacting && this.objectFile.exists() && isCurrentVersion(this.objectFile)) {
+        return;
+      }
+      final long start = System.nanoTime();
+      final long objects = merge(this.objectFile, compacting
+          ? ImmutableList.of(this.compactingFile) : ImmutableList.<File>of());
+      Files.deleteIfExists(this.compactingFile.toPath());
+      _logger.info("Compacted journal into object file {} with {} objects in {} ms",
+          this.objectFile, objects, (System.nanoTime() - start) / 1000000);
+    } finally {
+      this.compactionLock.unlock();
+    }
+  }
+
+  // moves the journal aside for compaction, if anything was recorded
+  private synchronized void rotate() throws IOException {
+    flush();
+    if (this.channel == null) {
+      return;
+    }
+    this.channel.close();
+    this.channel = null;
+    this.entries = 0;
+    if (this.compactingFile.exists()) {
+      // append to the journal of a previously failed compaction, preserving entry order
+      appendTo(this.journalFile, this.compactingFile);
+      Files.delete(this.journalFile.toPath());
+    } else {
+      Files.move(this.journalFile.toPath(), this.compactingFile.toPath(),
+          StandardCopyOption.ATOMIC_MOVE);
+    }
+  }
+
+  /**
+   * Appends buffered entries and closes the journal file. A journal file with no entries is deleted
+   *
+   * @throws IOException if the journal file cannot be written
+   */
+  synchronized void close() throws IOException {
+    flush();
+    if (this.channel != null) {
+      final boolean empty = this.channel.size() == 0;
+      this.channel.close();
+      this.channel = null;
+      if (empty) {
+        Files.delete(this.journalFile.toPath());
+      }
+    }
+  }
+
+  /**
+   * Merges any journals of an object file which were left behind by a crash into the object file
+   *
+   * @param objectFile the object file to recover
+   * @return true if any journals were merged
+   * @throws IOException if the journal or object file cannot be read or written
+   */
+  static boolean recover(final File objectFile) throws IOException {
+    Files.deleteIfExists(new File(objectFile.getPath() + TEMPORARY_SUFFIX).toPath());
+    final List<File> journals = Lists.newArrayList();
+    for (final File journal : new File[] {compactingFile(objectFile), journalFile(objectFile)}) {
+      if (journal.exists()) {
+        journals.add(journal);
+      }
+    }
+    if (journals.isEmpty()) {
+      return false;
+    }
+    _logger.info("Recovering object file {} from journals {}", objectFile, journals);
+    merge(objectFile, journals);
+    for (final File journal : journals) {
+      Files.delete(journal.toPath());
+    }
+    return true;
+  }
+
+  /**
+   * Rewrites an object file with the entries of journals applied, in order. The last operation on
+   * each object name wins. The rewritten file is in version 2.0 format, and is empty if it contains
+   * no objects.
+   * <p>
+   * The last change to each journaled object name is held on the heap while merging, roughly 150
+   * bytes per name, so the heap cost of a merge depends on how many entries are journaled between
+   * compactions rather than on the number of objects in the object file
+   *
+   * @param objectFile the object file to rewrite
+   * @param journals the journals to apply
+   * @return the number of objects in the rewritten file
+   * @throws IOException if a journal or the object file cannot be read or written
+   */
+  static long merge(final File objectFile, final List<File> journals) throws IOException {
+    final Map<ByteBuffer, byte[]> changes = Maps.newLinkedHashMap();
+    for (final File journal : journals) {
+      readJournal(journal, changes);
+    }
+
+    final File temporary = new File(objectFile.getPath() + TEMPORARY_SUFFIX);
+    long objects = 0;
+    final OutputStream out = new BufferedOutputStream(new FileOutputStream(temporary));
+    try {
+      ObjectFileUtil.writeObjectFileVersion(out);
+      if (objectFile.exists()) {
+        objects += copyUnchanged(objectFile, changes, out);
+      }
+      for (final byte[] record : changes.values()) {
+        if (record != REMOVED) {
+          out.write(record);
+          objects++;
+        }
+      }
+    } finally {
+      out.close();
+    }
+    if (objects == 0) {
+      // an object file without objects has no version header
+      new FileOutputStream(temporary).close();
+    }
+    Files.move(temporary.toPath(), objectFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return objects;
+  }
+
+  private static void readJournal(final File journal, final Map<ByteBuffer, byte[]> changes)
+      throws IOException {
+    final InputStream in = new BufferedInputStream(new FileInputStream(journal));
+    try {
+      final byte[] entry = new byte[ENTRY_SIZE];
+      // a trailing partial entry is the remains of an interrupted append, and is ignored
+      while (ByteStreams.read(in, entry, 0, ENTRY_SIZE) == ENTRY_SIZE) {
+        final byte[] record = Arrays.copyOfRange(entry, 1, ENTRY_SIZE);
+        final ByteBuffer name = name(record);
+        if (entry[0] == ADD) {
+          changes.remove(name);
+          changes.put(name, record);
+        } else if (entry[0] == REMOVE) {
+          changes.remove(name);
+          changes.put(name, REMOVED);
+        } else {
+          _logger.warn("Ignoring remainder of journal {} after invalid operation [{}]", journal,
+              entry[0]);
+          return;
+        }
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  // copies the objects of an object file which have no journaled changes
+  private static long copyUnchanged(final File objectFile, final Map<ByteBuffer, byte[]> changes,
+      final OutputStream out) throws IOException {
+    final InputStream in = new BufferedInputStream(new FileInputStream(objectFile));
+    try {
+      final ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(in);
+      final int major = version.getMajorVersion();
+      final int minor = version.getMinorVersion();
+      ByteStreams.skipFully(in, ObjectFileUtil.getVersionHeaderLength(major, minor));
+      final byte[] inputBytes = ObjectFileUtil.allocateObjectBuffer(major, minor, in);
+      final byte[] objectBytes = new byte[LegacyObjectMetadata.OBJECT_SIZE];
+      long objects = 0;
+      while (ByteStreams.read(in, inputBytes, 0, inputBytes.length) == inputBytes.length) {
+        final byte[] record =
+            ObjectFileUtil.getObjectFromInputBuffer(major, minor, inputBytes, objectBytes)
+                .toBytes();
+        if (!changes.containsKey(name(record))) {
+          out.write(record);
+          objects++;
+        }
+      }
+      return objects;
+    } finally {
+      in.close();
+    }
+  }
+
+  // true if an object file is empty or in version 2.0 format, so need not be rewritten
+  private static boolean isCurrentVersion(final File objectFile) throws IOException {
+    if (objectFile.length() == 0) {
+      return true;
+    }
+    final InputStream in = new BufferedInputStream(new FileInputStream(objectFile));
+    try {
+      final ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(in);
+      return version.getMajorVersion() == LegacyObjectMetadata.MAJOR_VERSION
+          && version.getMinorVersion() == LegacyObjectMetadata.MINOR_VERSION;
+    } finally {
+      in.close();
+    }
+  }
+
+  private static void appendTo(final File source, final File destination) throws IOException {
+    final OutputStream out = new FileOutputStream(destination, true);
+    try {
+      Files.copy(source.toPath(), out);
+    } finally {
+      out.close();
+    }
+  }
+
+  private static ByteBuffer name(final byte[] record) {
+    return ByteBuffer.wrap(record, 0, LegacyObjectMetadata.OBJECT_NAME_SIZE).slice();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ObjectJournal [journalFile=%s]", this.journalFile);
+  }
+}
@@ -0,0 +1,44 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+/**
+ * Where {@link RandomObjectPopulator} stores the metadata of known objects
+ *
+ * @since 1.7.0
+ */
+public enum ObjectStorage {
+  /** an object per member on the java heap */
+  HEAP {
+    @Override
+    RandomAccessSet<ObjectMetadata> newObjectSet(final boolean ranked) {
+      return new RandomAccessConcurrentHashSet<ObjectMetadata>();
+    }
+  },
+  /** fixed width records in direct memory slabs; see {@link OffHeapObjectSet} */
+  OFF_HEAP {
+    @Override
+    RandomAccessSet<ObjectMetadata> newObjectSet(final boolean ranked) {
+      // ranks are only ordered within a segment, so a ranked set has a single segment
+      return ranked ? new OffHeapObjectSet(1, OffHeapObjectSet.DEFAULT_SLAB_SHIFT)
+          : new OffHeapObjectSet();
+    }
+  };
+
+  RandomAccessSet<ObjectMetadata> newObjectSet() {
+    return newObjectSet(false);
+  }
+
+  /**
+   * Creates an empty set
+   *
+   * @param ranked whether {@link RandomAccessSet#getRandom(com.ibm.og.util.RankDistribution)} must
+   *        rank all members by when they were added, rather than trading that order for less
+   *        contention between threads
+   * @return a new set
+   */
+  abstract RandomAccessSet<ObjectMetadata> newObjectSet(boolean ranked);
+}
@@ -0,0 +1,564 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.ibm.og.util.RankDistribution;
+
+/**
+ * A set of object metadata stored outside of the java heap. Each member is stored as its
+ * {@link LegacyObjectMetadata} record in a fixed width slot of a direct memory slab.
+ * <p>
+ * The set is striped into segments by a hash of object name, each with its own lock, slabs and
+ * index, so that threads adding and removing members of different segments do not contend. Slabs
+ * are allocated as a segment grows, and the live members of a segment always occupy its slots
+ * {@code [0, size)}; removing a member moves the member in the segment's last slot into the freed
+ * slot. A random member is selected by choosing a segment with probability proportional to its
+ * size, then a random slot within it. Slots double as ranks for
+ * {@link #getRandom(RankDistribution)}, which applies the rank distribution within the chosen
+ * segment: members occupy slots in the order they were added, except for those moved into the slot
+ * of a removed member. Only a set of a single segment therefore ranks all of its members.
+ * <p>
+ * Members are located by an open addressing index per segment keyed on object name, which is the
+ * only per member state on the java heap, at 6 to 11 bytes per member. The heap footprint and
+ * garbage collection cost of this set are therefore largely independent of the number of members.
+ * Direct memory is bounded by {@code -XX:MaxDirectMemorySize}.
+ * <p>
+ * Members are identified by object name only. Members returned by {@code getRandom},
+ * {@code removeRandom} and {@code remove} are copies, since callers hold them after the segment
+ * lock is released, while a removal may move another member into their slot. Members returned by
+ * an iterator are a single reusable view of the current slot, which is only valid until the next
+ * call to {@code next}; the iterator is not safe for use concurrently with modifications other than
+ * its own {@code remove}. {@link #size()} is the sum of the segment sizes, which is not atomic with
+ * respect to concurrent modification.
+ *
+ * @since 1.7.0
+ */
+public class OffHeapObjectSet implements RandomAccessSet<ObjectMetadata> {
+  private static final int RECORD_SIZE = LegacyObjectMetadata.OBJECT_SIZE;
+  private static final int NAME_SIZE = LegacyObjectMetadata.OBJECT_NAME_SIZE;
+  static final int DEFAULT_SEGMENTS = 16;
+  // segments are selected by bits 40 to 45 of a name's hash, which allows up to 64 of them
+  private static final int MAXIMUM_SEGMENTS = 64;
+  // 2^16 slots, 2.2 MiB per slab
+  static final int DEFAULT_SLAB_SHIFT = 16;
+  private static final int INITIAL_INDEX_CAPACITY = 1 << 12;
+  private static final int MAXIMUM_INDEX_CAPACITY = 1 << 30;
+  private final int slabShift;
+  private final int slabMask;
+  private final Segment[] segments;
+  private final int segmentMask;
+
+  /**
+   * Constructs an empty instance
+   */
+  public OffHeapObjectSet() {
+    this(DEFAULT_SEGMENTS, DEFAULT_SLAB_SHIFT);
+  }
+
+  /**
+   * Constructs an empty instance with a custom number of segments and slab size
+   *
+   * @param segments the number of independently locked segments
+   * @param slabShift base 2 logarithm of the number of slots per slab of each segment
+   * @throws IllegalArgumentException if segments is not a power of two in the range {@code [1, 64]}
+   *         or slabShift is not in the range {@code [0, 24]}
+   */
+  OffHeapObjectSet(final int segments, final int slabShift) {
+    checkArgument(segments > 0 && segments <= MAXIMUM_SEGMENTS && Integer.bitCount(segments) == 1,
+        "segments must be a power of two in range [1, %s] [%s]", MAXIMUM_SEGMENTS, segments);
+    checkArgument(slabShift >= 0 && slabShift <= 24, "slabShift must be in range [0, 24] [%s]",
+        slabShift);
+    this.slabShift = slabShift;
+    this.slabMask = (1 << slabShift) - 1;
+    this.segments = new Segment[segments];
+    for (int i = 0; i < segments; i++) {
+      this.segments[i] = new Segment();
+    }
+    this.segmentMask = segments - 1;
+  }
+
+  @Override
+  public ObjectMetadata put(final ObjectMetadata key) {
+    final byte[] record = record(key);
+    final Segment segment = segmentFor(record);
+    segment.lock.writeLock().lock();
+    try {
+      return segment.putRecord(record) ? key : null;
+    } finally {
+      segment.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds each of the provided members, as if by {@link #put(ObjectMetadata)}
+   */
+  @Override
+  public void putAll(final Collection<? extends ObjectMetadata> keys) {
+    for (final ObjectMetadata key : keys) {
+      put(key);
+    }
+  }
+
+  private static byte[] record(final ObjectMetadata key) {
+    final byte[] record = checkNotNull(key).toBytes();
+    checkArgument(record.length == RECORD_SIZE, "record length must be %s [%s]", RECORD_SIZE,
+        record.length);
+    return record;
+  }
+
+  @Override
+  public ObjectMetadata getRandom() {
+    while (true) {
+      final Segment segment = randomSegment();
+      if (segment == null) {
+        return null;
+      }
+      segment.lock.readLock().lock();
+      try {
+        // the segment may have emptied since it was chosen
+        if (segment.size > 0) {
+          return segment.copy(ThreadLocalRandom.current().nextInt(segment.size));
+        }
+      } finally {
+        segment.lock.readLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns the member in the slot of a random segment selected by a rank distribution, so that
+   * rank 0 is the oldest member of the segment and rank {@code size - 1} the most recently added
+   */
+  @Override
+  public ObjectMetadata getRandom(final RankDistribution ranks) {
+    checkNotNull(ranks);
+    while (true) {
+      final Segment segment = randomSegment();
+      if (segment == null) {
+        return null;
+      }
+      segment.lock.readLock().lock();
+      try {
+        if (segment.size > 0) {
+          return segment.copy((int) ranks.nextRank(segment.size));
+        }
+      } finally {
+        segment.lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public ObjectMetadata removeRandom() {
+    while (true) {
+      final Segment segment = randomSegment();
+      if (segment == null) {
+        return null;
+      }
+      segment.lock.writeLock().lock();
+      try {
+        if (segment.size > 0) {
+          final int slot = ThreadLocalRandom.current().nextInt(segment.size);
+          final ObjectMetadata removed = segment.copy(slot);
+          segment.removeSlot(slot);
+          return removed;
+        }
+      } finally {
+        segment.lock.writeLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public ObjectMetadata remove(final Object key) {
+    if (!(checkNotNull(key) instanceof ObjectMetadata)) {
+      return null;
+    }
+    final byte[] record = ((ObjectMetadata) key).toBytes();
+    if (record.length < NAME_SIZE) {
+      return null;
+    }
+    final Segment segment = segmentFor(record);
+    segment.lock.writeLock().lock();
+    try {
+      final int position = segment.find(record);
+      if (position < 0) {
+        return null;
+      }
+      final int slot = segment.index[position] - 1;
+      final ObjectMetadata removed = segment.copy(slot);
+      segment.removeSlot(slot);
+      return removed;
+    } finally {
+      segment.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean contains(final Object key) {
+    if (!(checkNotNull(key) instanceof ObjectMetadata)) {
+      return false;
+    }
+    final byte[] record = ((ObjectMetadata) key).toBytes();
+    if (record.length < NAME_SIZE) {
+      return false;
+    }
+    final Segment segment = segmentFor(record);
+    segment.lock.readLock().lock();
+    try {
+      return segment.find(record) >= 0;
+    } finally {
+      segment.lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    long size = 0;
+    for (final Segment segment : this.segments) {
+      size += segment.size;
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Removes all members. Allocated slabs are retained for reuse
+   */
+  @Override
+  public void clear() {
+    for (final Segment segment : this.segments) {
+      segment.lock.writeLock().lock();
+      try {
+        Arrays.fill(segment.index, 0);
+        segment.size = 0;
+      } finally {
+        segment.lock.writeLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public Iterator<ObjectMetadata> iterator() {
+    return new SlotIterator();
+  }
+
+  private Segment segmentFor(final byte[] record) {
+    return this.segments[(int) (mix(record) >>> 40) & this.segmentMask];
+  }
+
+  // a segment chosen with probability proportional to its size, or null if all are empty
+  private Segment randomSegment() {
+    while (true) {
+      long total = 0;
+      for (final Segment segment : this.segments) {
+        total += segment.size;
+      }
+      if (total == 0) {
+        return null;
+      }
+      long remaining = (long) (ThreadLocalRandom.current().nextDouble() * total);
+      for (final Segment segment : this.segments) {
+        final int size = segment.size;
+        if (remaining < size) {
+          return segment;
+        }
+        remaining -= size;
+      }
+      // segments shrank concurrently between the two passes
+    }
+  }
+
+  // names are compared and hashed as two longs and a short, in the slab's big endian order
+  private static long mix(final byte[] record) {
+    return mix(getLong(record, 0), getLong(record, 8), getShort(record, 16));
+  }
+
+  private static long mix(final long first, final long second, final short last) {
+    long h = first * 0x9E3779B97F4A7C15L;
+    h = (h ^ second) * 0xC2B2AE3D27D4EB4FL;
+    return (h ^ last) * 0x9E3779B97F4A7C15L;
+  }
+
+  private static int hash(final long mix) {
+    return (int) (mix ^ (mix >>> 32));
+  }
+
+  private static long getLong(final byte[] bytes, final int offset) {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | (bytes[offset + i] & 0xFF);
+    }
+    return value;
+  }
+
+  private static short getShort(final byte[] bytes, final int offset) {
+    return (short) ((bytes[offset] << 8) | (bytes[offset + 1] & 0xFF));
+  }
+
+  @Override
+  public String toString() {
+    int slabs = 0;
+    for (final Segment segment : this.segments) {
+      slabs += segment.slabs.length;
+    }
+    return String.format("OffHeapObjectSet [size=%s, segments=%s, slabs=%s]", size(),
+        this.segments.length, slabs);
+  }
+
+  // a stripe of the set, whose fields are guarded by its lock; size is volatile so that segments
+  // may be weighed without locking them
+  private class Segment {
+    private final ReentrantReadWriteLock lock;
+    private ByteBuffer[] slabs;
+    // slot + 1 of the member whose name hashes to each position, or 0 if the position is free
+    private int[] index;
+    private int indexMask;
+    private int threshold;
+    private volatile int size;
+
+    Segment() {
+      this.lock = new ReentrantReadWriteLock();
+      this.slabs = new ByteBuffer[0];
+      resize(INITIAL_INDEX_CAPACITY);
+    }
+
+    // returns false if a member with the same name is already present
+    private boolean putRecord(final byte[] record) {
+      if (find(record) >= 0) {
+        return false;
+      }
+      final int slot = this.size;
+      checkArgument(slot < Integer.MAX_VALUE, "set is full");
+      final int slab = slot >>> OffHeapObjectSet.this.slabShift;
+      if (slab == this.slabs.length) {
+        this.slabs = Arrays.copyOf(this.slabs, slab + 1);
+        this.slabs[slab] =
+            ByteBuffer.allocateDirect((OffHeapObjectSet.this.slabMask + 1) * RECORD_SIZE);
+      }
+      write(slot, record);
+      if (this.size + 1 > this.threshold) {
+        resize(2 * (this.indexMask + 1));
+      }
+      insert(slot);
+      this.size++;
+      return true;
+    }
+
+    // index position of the member with the name of record, or -1 if not present
+    private int find(final byte[] record) {
+      int position = OffHeapObjectSet.hash(mix(record)) & this.indexMask;
+      for (int entry = this.index[position]; entry != 0; entry = this.index[position]) {
+        if (nameEquals(entry - 1, record)) {
+          return position;
+        }
+        position = (position + 1) & this.indexMask;
+      }
+      return -1;
+    }
+
+    // index position which refers to slot
+    private int positionOf(final int slot) {
+      int position = hash(slot) & this.indexMask;
+      while (this.index[position] != slot + 1) {
+        position = (position + 1) & this.indexMask;
+      }
+      return position;
+    }
+
+    private void insert(final int slot) {
+      int position = hash(slot) & this.indexMask;
+      while (this.index[position] != 0) {
+        position = (position + 1) & this.indexMask;
+      }
+      this.index[position] = slot + 1;
+    }
+
+    private void removeSlot(final int slot) {
+      delete(positionOf(slot));
+      final int last = this.size - 1;
+      if (slot != last) {
+        // keep live members dense by moving the last member into the freed slot
+        final int position = positionOf(last);
+        final ByteBuffer from = slab(last);
+        final int fromOffset = offset(last);
+        final ByteBuffer to = slab(slot);
+        final int toOffset = offset(slot);
+        for (int i = 0; i < RECORD_SIZE; i++) {
+          to.put(toOffset + i, from.get(fromOffset + i));
+        }
+        this.index[position] = slot + 1;
+      }
+      this.size = last;
+    }
+
+    // backward shift deletion, which keeps probe sequences intact without tombstones
+    private void delete(final int position) {
+      int free = position;
+      int next = position;
+      while (true) {
+        next = (next + 1) & this.indexMask;
+        final int entry = this.index[next];
+        if (entry == 0) {
+          break;
+        }
+        final int home = hash(entry - 1) & this.indexMask;
+        // an entry may fill the free position unless its home lies cyclically in (free, next]
+        final boolean reachable =
+            free <= next ? (free < home && home <= next) : (free < home || home <= next);
+        if (!reachable) {
+          this.index[free] = entry;
+          free = next;
+        }
+      }
+      this.index[free] = 0;
+    }
+
+    private void resize(final int capacity) {
+      checkArgument(capacity <= MAXIMUM_INDEX_CAPACITY, "index capacity exceeded [%s]", capacity);
+      this.index = new int[capacity];
+      this.indexMask = capacity - 1;
+      this.threshold = (int) (capacity * 0.75);
+      for (int slot = 0; slot < this.size; slot++) {
+        insert(slot);
+      }
+    }
+
+    private ByteBuffer slab(final int slot) {
+      return this.slabs[slot >>> OffHeapObjectSet.this.slabShift];
+    }
+
+    private int offset(final int slot) {
+      return (slot & OffHeapObjectSet.this.slabMask) * RECORD_SIZE;
+    }
+
+    private void write(final int slot, final byte[] record) {
+      final ByteBuffer slab = slab(slot).duplicate();
+      slab.position(offset(slot));
+      slab.put(record, 0, RECORD_SIZE);
+    }
+
+    private void read(final int slot, final byte[] record) {
+      final ByteBuffer slab = slab(slot).duplicate();
+      slab.position(offset(slot));
+      slab.get(record, 0, RECORD_SIZE);
+    }
+
+    private ObjectMetadata copy(final int slot) {
+      final byte[] record = new byte[RECORD_SIZE];
+      read(slot, record);
+      return new LegacyObjectMetadata(ByteBuffer.wrap(record));
+    }
+
+    private boolean nameEquals(final int slot, final byte[] record) {
+      final ByteBuffer slab = slab(slot);
+      final int offset = offset(slot);
+      return slab.getLong(offset) == getLong(record, 0)
+          && slab.getLong(offset + 8) == getLong(record, 8)
+          && slab.getShort(offset + 16) == getShort(record, 16);
+    }
+
+    private int hash(final int slot) {
+      final ByteBuffer slab = slab(slot);
+      final int offset = offset(slot);
+      return OffHeapObjectSet
+          .hash(mix(slab.getLong(offset), slab.getLong(offset + 8), slab.getShort(offset + 16)));
+    }
+  }
+
+  // a reusable view of the record in a slot
+  private static class RecordView extends LegacyObjectMetadata {
+    RecordView() {
+      super(ByteBuffer.allocate(RECORD_SIZE));
+    }
+
+    byte[] record() {
+      return this.objectBuffer.array();
+    }
+  }
+
+  // iterates over segments from the last down, and over the slots of each from the last down, so
+  // that removal of the current member, which moves the last member of its segment into its slot,
+  // never moves an unvisited member
+  private class SlotIterator implements Iterator<ObjectMetadata> {
+    private final RecordView view;
+    private int segment;
+    private int next;
+    private Segment currentSegment;
+    private int current;
+
+    SlotIterator() {
+      this.view = new RecordView();
+      this.segment = OffHeapObjectSet.this.segments.length - 1;
+      this.next = OffHeapObjectSet.this.segments[this.segment].size - 1;
+      this.current = -1;
+    }
+
+    // moves past exhausted segments
+    private void advance() {
+      while (this.next < 0 && this.segment > 0) {
+        this.segment--;
+        this.next = OffHeapObjectSet.this.segments[this.segment].size - 1;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      advance();
+      return this.next >= 0;
+    }
+
+    @Override
+    public ObjectMetadata next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Segment segment = OffHeapObjectSet.this.segments[this.segment];
+      segment.lock.readLock().lock();
+      try {
+        if (this.next >= segment.size) {
+          throw new ConcurrentModificationException();
+        }
+        segment.read(this.next, this.view.record());
+      } finally {
+        segment.lock.readLock().unlock();
+      }
+      this.currentSegment = segment;
+      this.current = this.next;
+      this.next--;
+      return this.view;
+    }
+
+    @Override
+    public void remove() {
+      if (this.current < 0) {
+        throw new IllegalStateException();
+      }
+      final Segment segment = this.currentSegment;
+      segment.lock.writeLock().lock();
+      try {
+        if (this.current >= segment.size) {
+          throw new ConcurrentModificationException();
+        }
+        segment.removeSlot(this.current);
+      } finally {
+        segment.lock.writeLock().unlock();
+      }
+      this.current = -1;
+    }
+  }
+}
@@ -5,15 +5,18 @@
 
 package com.ibm.og.object;
 
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.ibm.og.util.RankDistribution;
+
 // This is modified from java.util's ConcurrentHashMap to support randomly selecting a member, and
 // to be a set instead of a map
-public class RandomAccessConcurrentHashSet<K> {
+public class RandomAccessConcurrentHashSet<K> implements RandomAccessSet<K> {
   /*
    * The basic strategy is to subdivide the table among Segments, each of which itself is a
    * concurrently readable hash table.
@@ -643,6 +646,16 @@ public class RandomAccessConcurrentHashSet<K> {
     return random;
   }
 
+  /**
+   * Not supported, as members of this set are ordered by hash rather than by when they were added
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public K getRandom(final RankDistribution ranks) {
+    throw new UnsupportedOperationException("selection by rank is not supported");
+  }
+
   /**
    * Tests if the specified object is a key in this table.
    * 
@@ -651,6 +664,7 @@ public class RandomAccessConcurrentHashSet<K> {
    *         by the <tt>equals</tt> method; <tt>false</tt> otherwise.
    * @throws NullPointerException if the specified key is null
    */
+  @Override
   public boolean contains(final Object key) {
     final int hash = RandomAccessConcurrentHashSet.hash(key.hashCode());
     return segmentFor(hash).contains(key, hash);
@@ -668,6 +682,18 @@ public class RandomAccessConcurrentHashSet<K> {
     return segmentFor(hash).put(key, hash);
   }
 
+  /**
+   * Puts each of the specified objects in this table
+   * 
+   * @param keys objects to put in the set
+   * @throws NullPointerException if keys or any of its members is null
+   */
+  public void putAll(final Collection<? extends K> keys) {
+    for (final K key : keys) {
+      put(key);
+    }
+  }
+
   /**
    * Removes the object from this set. This method does nothing if the object is not in the set.
    * 
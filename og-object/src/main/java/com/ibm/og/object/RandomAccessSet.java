@@ -0,0 +1,91 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import com.ibm.og.util.RankDistribution;
+
+/**
+ * A set which supports selecting a member at random
+ *
+ * @param <K> the type of members of this set
+ * @since 1.7.0
+ */
+public interface RandomAccessSet<K> {
+  /**
+   * Adds a member to this set, if an equal member is not already present
+   *
+   * @param key the member to add
+   * @return the added member, or null if an equal member was already present
+   */
+  K put(K key);
+
+  /**
+   * Adds each of the provided members, as if by {@link #put(Object)}
+   *
+   * @param keys the members to add
+   */
+  void putAll(Collection<? extends K> keys);
+
+  /**
+   * Returns a random member of this set
+   *
+   * @return a random member, or null if this set is empty
+   */
+  K getRandom();
+
+  /**
+   * Returns a member of this set selected by rank, where ranks order members by when they were
+   * added. Sets which do not maintain such an order do not support this method
+   *
+   * @param ranks the distribution to select a rank from
+   * @return the selected member, or null if this set is empty
+   * @throws UnsupportedOperationException if this set does not order its members
+   */
+  K getRandom(RankDistribution ranks);
+
+  /**
+   * Removes and returns a random member of this set
+   *
+   * @return the removed member, or null if this set is empty
+   */
+  K removeRandom();
+
+  /**
+   * Removes the member equal to the provided key
+   *
+   * @param key the key of the member to remove
+   * @return the removed member, or null if no equal member was present
+   */
+  K remove(Object key);
+
+  /**
+   * Returns whether a member equal to the provided key is present
+   *
+   * @param key the key to look up
+   * @return true if an equal member is present
+   */
+  boolean contains(Object key);
+
+  /**
+   * @return the number of members of this set
+   */
+  int size();
+
+  /**
+   * Removes all members of this set
+   */
+  void clear();
+
+  /**
+   * Returns an iterator over the members of this set. The iterator supports removal
+   *
+   * @return an iterator over the members of this set
+   */
+  Iterator<K> iterator();
+}
@@ -15,23 +15,15 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
-import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.Random;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nullable;
@@ -40,11 +32,11 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import com.google.common.io.BaseEncoding;
-import com.google.common.util.concurrent.Uninterruptibles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibm.og.util.RankDistribution;
 
 @Singleton
 public class RandomObjectPopulator extends Thread implements ObjectManager {
@@ -53,6 +45,13 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   public static final int OBJECT_SIZE = LegacyObjectMetadata.OBJECT_SIZE;
   private static final int MAX_PERSIST_ARG = 30 * 1000 * 60;
   public static final int MAX_OBJECT_ARG = 100 * (1048576 / OBJECT_SIZE);
+  private static final int LOAD_PARALLELISM = Runtime.getRuntime().availableProcessors();
+  private static final int JOURNAL_BATCH_SIZE = 4096;
+  private static final long JOURNAL_FLUSH_MILLIS = 1000;
+  // journal entries after which the journal is compacted ahead of the next scheduled persist.
+  // Compaction holds one change per journaled object name on the heap, roughly 150 bytes each for
+  // the record, its name key and the map entry, so this bounds that transient cost to about 40MB
+  private static final long JOURNAL_COMPACTION_THRESHOLD = 250000;
   private final int maxObjects;
   private final String directory;
   private final String prefix;
@@ -60,19 +59,17 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   private final Integer objectFileIndex;
   public static final String SUFFIX = ".object";
   private final Pattern filenamePattern;
+  private final Pattern journalPattern;
 
 
   // object read from a file
-  private final RandomAccessConcurrentHashSet<ObjectMetadata> objects =
-      new RandomAccessConcurrentHashSet<ObjectMetadata>();
-  private final ReadWriteLock objectsLock = new ReentrantReadWriteLock(true);
-  private final SortedMap<String, Integer> currentlyReading =
-      Collections.synchronizedSortedMap(new TreeMap<String, Integer>());
-  private final SortedMap<String, ObjectMetadata> currentlyUpdating =
-          Collections.synchronizedSortedMap(new TreeMap<String, ObjectMetadata>());
-  private final ReadWriteLock readingLock = new ReentrantReadWriteLock(true);
-  private final ReadWriteLock persistLock = new ReentrantReadWriteLock(true);
+  private final ObjectStorage storage;
+  private final RandomAccessSet<ObjectMetadata> objects;
+  // selects the objects returned by get and getOnce, or null for a uniform selection
+  private final RankDistribution access;
+  private final ObjectCheckout checkout = new ObjectCheckout();
   private final File saveFile;
+  private final ObjectJournal journal;
   private volatile boolean testEnded = false;
   private final int idFileIndex;
   private final Random rand = new Random();
@@ -99,9 +96,11 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       @Named("objectfile.name") final String prefix,
       @Named("objectfile.maxsize") final long maxSize,
       @Named("objectfile.persistfrequency") final long persistFrequency,
-      @Named("objectfile.index") @Nullable final Integer objectFileIndex) {
+      @Named("objectfile.index") @Nullable final Integer objectFileIndex,
+      @Named("objectfile.storage") final ObjectStorage storage,
+      @Named("objectfile.access") @Nullable final RankDistribution access) {
     this(UUID.randomUUID(), directory, prefix, (int) (maxSize / OBJECT_SIZE),
-        persistFrequency * 1000, objectFileIndex);
+        persistFrequency * 1000, objectFileIndex, storage, access);
   }
 
   public RandomObjectPopulator(final UUID vaultId, final String directory, final String prefix) {
@@ -122,6 +121,28 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
 
   public RandomObjectPopulator(final UUID vaultId, final String directory, final String prefix,
       final int maxObjectCount, final long persistTime, final Integer objectFileIndex) {
+    this(vaultId, directory, prefix, maxObjectCount, persistTime, objectFileIndex,
+        ObjectStorage.HEAP);
+  }
+
+  public RandomObjectPopulator(final UUID vaultId, final String directory, final String prefix,
+      final int maxObjectCount, final long persistTime, final Integer objectFileIndex,
+      final ObjectStorage storage) {
+    this(vaultId, directory, prefix, maxObjectCount, persistTime, objectFileIndex, storage, null);
+  }
+
+  /**
+   * Constructs an instance which selects the objects to read by rank, where objects are ranked by
+   * when they were added. Selection by rank requires storage which orders its objects, so is not
+   * supported with {@link ObjectStorage#HEAP}
+   *
+   * @param access the distribution to select objects to read from, or null to select uniformly
+   * @throws IllegalArgumentException if access is not null and storage is
+   *         {@link ObjectStorage#HEAP}
+   */
+  public RandomObjectPopulator(final UUID vaultId, final String directory, final String prefix,
+      final int maxObjectCount, final long persistTime, final Integer objectFileIndex,
+      final ObjectStorage storage, @Nullable final RankDistribution access) {
     this.vaultId = checkNotNull(vaultId);
     this.directory = checkNotNull(directory);
     if (prefix != null && !prefix.isEmpty()) {
@@ -131,10 +152,18 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
     }
     this.filenamePattern = Pattern
         .compile(String.format("%s(\\d|[1-9]\\d*)%s", this.prefix, RandomObjectPopulator.SUFFIX));
+    this.journalPattern = Pattern.compile(String.format("%s(\\d|[1-9]\\d*)%s%s(%s)?",
+        this.prefix, RandomObjectPopulator.SUFFIX, ObjectJournal.JOURNAL_SUFFIX,
+        ObjectJournal.COMPACTING_SUFFIX));
     checkArgument(maxObjectCount > 0, "maxObjectCount must be > 0 [%s]", maxObjectCount);
     this.maxObjects = maxObjectCount;
     this.persistFrequency = persistTime;
     this.objectFileIndex = objectFileIndex;
+    this.storage = checkNotNull(storage);
+    checkArgument(access == null || storage != ObjectStorage.HEAP,
+        "object access distributions require storage other than %s", ObjectStorage.HEAP);
+    this.access = access;
+    recoverJournals();
     final File[] files = getIdFiles();
     if (files != null && files.length > 1) {
       this.idFileIndex = selectInitialObjectFile(files.length, objectFileIndex);
@@ -149,10 +178,23 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
     _logger.info("Initial object file index {}", this.idFileIndex);
     this.saveFile = createFile(this.idFileIndex);
 
-    loadObjects();
+    final RandomAccessSet<ObjectMetadata> objects = storage.newObjectSet(access != null);
+    loadObjects(objects);
+    this.journal = new ObjectJournal(this.saveFile, JOURNAL_BATCH_SIZE);
+    this.objects = new JournaledObjectSet(objects, this.journal);
 
-    this.saver = Executors.newScheduledThreadPool(1, new ThreadFactoryBuilder().setDaemon(true)
-        .setNameFormat("scheduled-object-persist").build());
+    this.saver = Executors.newScheduledThreadPool(2, new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat("scheduled-object-persist-%d").build());
+    this.saver.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          flushJournal();
+        } catch (final Exception e) {
+          _logger.error("Can't append to object journal", e);
+        }
+      }
+    }, JOURNAL_FLUSH_MILLIS, JOURNAL_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
     this.saver.scheduleWithFixedDelay(new Runnable() {
       @Override
       public void run() {
@@ -176,41 +218,40 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
     return this.rand.nextInt(objectFileCount - 1);
   }
 
-  private void loadObjects() {
-    this.objects.clear();
+  // merges the journals of any object file which were left behind by a crash
+  private void recoverJournals() {
+    final File[] journals = new File(this.directory).listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return RandomObjectPopulator.this.journalPattern.matcher(name).matches();
+      }
+    });
+    if (journals == null) {
+      return;
+    }
+    for (final File journal : journals) {
+      final String name = journal.getName();
+      final File objectFile = new File(journal.getParentFile(),
+          name.substring(0, name.indexOf(ObjectJournal.JOURNAL_SUFFIX)));
+      try {
+        ObjectJournal.recover(objectFile);
+      } catch (final IOException e) {
+        throw new ObjectManagerException("Failed to recover object file " + objectFile, e);
+      }
+    }
+  }
+
+  private void loadObjects(final RandomAccessSet<ObjectMetadata> objects) {
+    objects.clear();
     try {
-      int actualObjectSize = OBJECT_SIZE;
       if (this.saveFile.exists()) {
         _logger.debug("loading objects from file: {}", this.saveFile);
-        final InputStream input = new BufferedInputStream(new FileInputStream(this.saveFile));
-
-        int versionHeaderLength = 0;
-        ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(input);
-        if (version.getMajorVersion() == LegacyObjectMetadata.MAJOR_VERSION &&
-                version.getMinorVersion() == LegacyObjectMetadata.MINOR_VERSION) {
-          actualObjectSize = OBJECT_SIZE;
-          versionHeaderLength = ObjectFileVersion.VERSION_HEADER_LENGTH;
-        } else if (version.getMajorVersion() == 1 && version.getMinorVersion() == 0) {
-          actualObjectSize = OBJECT_SIZE_V1;
-        } else {
-          throw new IllegalArgumentException("Unsupported Object File version [%sd].[%s]".
-                  format(Byte.toString(version.getMajorVersion()), Byte.toString(version.getMinorVersion())));
-        }
-
-        input.skip(versionHeaderLength);
-
-        final byte[] objectBytes = new byte[OBJECT_SIZE];
-        final byte[] inputBytes = new byte[actualObjectSize];
-        ByteBuffer b2 = ByteBuffer.wrap(objectBytes);
-
-        ObjectMetadata id;
-        while (input.read(inputBytes) == actualObjectSize) {
-          id = ObjectFileUtil.getObjectFromInputBuffer(version.getMajorVersion(), version.getMinorVersion(),
-                  inputBytes, objectBytes);
-          this.objects.put(id);
-        }
-        _logger.info("No. of objects loaded {}", this.objects.size());
-        input.close();
+        final long start = System.nanoTime();
+        final long records = new ObjectFileLoader(LOAD_PARALLELISM,
+            ObjectFileLoader.DEFAULT_MIN_RECORDS_PER_TASK).load(this.saveFile, objects);
+        _logger.info("Loaded {} records from object file {} in {} ms", records, this.saveFile,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        _logger.info("No. of objects loaded {}", objects.size());
       }
     } catch (final Exception e) {
       this.testEnded = true;
@@ -238,83 +279,56 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
 
   @Override
   public ObjectMetadata remove() {
-    this.persistLock.readLock().lock();
-    try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.removeRandom();
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          this.objects.put(id);
-          id = null;
-        }
-      }
-      _logger.debug("Removing object: {}", id);
-      return id;
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    final ObjectMetadata id = checkOutRandom();
+    // the object has left the set, so readers which raced for it will not find it
+    this.checkout.releaseExclusive(id);
+    _logger.debug("Removing object: {}", id);
+    return id;
   }
 
   @Override
   public ObjectMetadata removeForUpdate() {
-    this.persistLock.readLock().lock();
-    try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.removeRandom();
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          this.objects.put(id);
-          id = null;
+    final ObjectMetadata id = checkOutRandom();
+    _logger.debug("Removing object: {}", id);
+    return id;
+  }
+
+  // removes a random object which is not being read, leaving it exclusively checked out. The
+  // object is checked out before it is removed, so that contention neither journals a spurious
+  // removal nor moves the object within the set
+  private ObjectMetadata checkOutRandom() {
+    while (true) {
+      final ObjectMetadata id = this.objects.getRandom();
+      checkForNull(id);
+      if (this.checkout.tryExclusive(id)) {
+        final ObjectMetadata removed = this.objects.remove(id);
+        if (removed != null) {
+          return removed;
         }
+        // another caller removed the object between selection and checkout
+        this.checkout.releaseExclusive(id);
       }
-      _logger.debug("Removing object: {}", id);
-      this.currentlyUpdating.put(id.getName(), id);
-      return id;
-    } finally {
-      this.persistLock.readLock().unlock();
+      Thread.yield();
     }
   }
+
   @Override
   public ObjectMetadata removeObject(ObjectMetadata objectMetadata) {
-    this.persistLock.readLock().lock();
-    try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.remove(objectMetadata);
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          _logger.info("object {} is available already in currently reading. so skipping", id.getName());
-          this.objects.put(id);
-          id = null;
+    while (true) {
+      if (this.checkout.tryExclusive(objectMetadata)) {
+        final ObjectMetadata id = this.objects.remove(objectMetadata);
+        if (id == null) {
+          this.checkout.releaseExclusive(objectMetadata);
         }
+        checkForNull(id);
+        _logger.trace("Removing object: {}", id);
+        return id;
       }
-      _logger.trace("Removing object: {}", id);
-      this.currentlyUpdating.put(id.getName(), id);
-      return id;
-    } finally {
-      this.persistLock.readLock().unlock();
+      checkForNull(this.objects.contains(objectMetadata) ? objectMetadata : null);
+      _logger.info("object {} is available already in currently reading. so skipping",
+          objectMetadata.getName());
+      Thread.yield();
     }
-
   }
 
 
@@ -331,33 +345,18 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       throw new RuntimeException("Test already ended");
     }
 
-    ObjectMetadata id;
-
-    this.objectsLock.readLock().lock();
-    id = this.objects.getRandom();
-    try {
+    while (true) {
+      final ObjectMetadata id = select();
       checkForNull(id);
-    } catch (final ObjectManagerException e) {
-      this.objectsLock.readLock().unlock();
-      throw e;
-    }
-
-    int count = 0;
-    this.readingLock.writeLock().lock();
-    if (this.currentlyReading.containsKey(id.getName())) {
-      // The only reason to have both locked simultaneously is to prevent an id from being
-      // selected for deletion before it has been added to currentlyReading
-      this.objectsLock.readLock().unlock();
-      count = this.currentlyReading.get(id.getName()).intValue();
-    }
-    this.currentlyReading.put(id.getName(), Integer.valueOf(count + 1));
-    if (count == 0) {
-      this.objectsLock.readLock().unlock();
+      if (this.checkout.tryRead(id)) {
+        // an object removed between selection and checkout must not be returned
+        if (this.objects.contains(id)) {
+          _logger.trace("Getting object: {}", id);
+          return id;
+        }
+        this.checkout.releaseRead(id);
+      }
     }
-    this.readingLock.writeLock().unlock();
-
-    _logger.trace("Getting object: {}", id);
-    return id;
   }
 
   @Override
@@ -366,106 +365,74 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       throw new RuntimeException("Test already ended");
     }
 
-    ObjectMetadata id = null;
-    while (id == null) {
-      this.objectsLock.readLock().lock();
-      id = this.objects.getRandom();
-      try {
-        checkForNull(id);
-      } catch (final ObjectManagerException e) {
-        this.objectsLock.readLock().unlock();
-        throw e;
-      }
-
-      this.readingLock.writeLock().lock();
-      if (this.currentlyReading.containsKey(id.getName())) {
-        // The only reason to have both locked simultaneously is to prevent an id from being
-        // selected for deletion before it has been added to currentlyReading
-        _logger.debug("object {} already found in currently reading",id.getName());
-        id = null;
-        Uninterruptibles.sleepUninterruptibly(20, TimeUnit.MILLISECONDS);
+    while (true) {
+      final ObjectMetadata id = select();
+      checkForNull(id);
+      if (this.checkout.tryReadOnce(id)) {
+        if (this.objects.contains(id)) {
+          _logger.debug("adding object {} to currently reading", id.getName());
+          _logger.trace("Getting currently not read object : {}", id);
+          return id;
+        }
+        this.checkout.releaseRead(id);
       } else {
-        // The only reason to have both locked simultaneously is to prevent an id from being
-        // selected for deletion before it has been added to currentlyReading
-        this.currentlyReading.put(id.getName(),1);
-        _logger.debug("adding object {} to currently reading",id.getName());
+        _logger.debug("object {} already found in currently reading", id.getName());
+        // every selected object may be busy, so let their readers run rather than spin
+        Thread.yield();
       }
-      this.readingLock.writeLock().unlock();
-      this.objectsLock.readLock().unlock();
     }
-    _logger.trace("Getting currently not read object : {}", id);
-    return id;
+  }
+
+  private ObjectMetadata select() {
+    if (this.access != null) {
+      return this.objects.getRandom(this.access);
+    }
+    return this.objects.getRandom();
   }
 
   @Override
   public void getComplete(final ObjectMetadata id) {
-    this.readingLock.writeLock().lock();
-    Integer c = this.currentlyReading.get(id.getName());
-    _logger.debug("id {} count {}", id, c);
-    final int count = this.currentlyReading.get(id.getName()).intValue();
-    if (count > 1) {
-      this.currentlyReading.put(id.getName(), Integer.valueOf(count - 1));
-      _logger.debug("decrementing {} from currentlyReading", id.getName());
-    } else {
-      _logger.debug("removing {} from currentlyReading", id.getName());
-      this.currentlyReading.remove(id.getName());
-    }
-    this.readingLock.writeLock().unlock();
+    this.checkout.releaseRead(id);
     _logger.trace("Returning read object: {}", id);
-    return;
   }
 
   @Override
   public void add(final ObjectMetadata id) {
     _logger.debug("Adding object: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      this.objects.put(id);
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    this.objects.put(id);
   }
 
   @Override
   public void updateObject(final ObjectMetadata id) {
     _logger.debug("Adding Updated object: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      this.currentlyUpdating.remove(id.getName());
-      this.objects.put(id);
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    this.objects.put(id);
+    this.checkout.releaseExclusive(id);
   }
 
   @Override
   public void removeUpdatedObject(final ObjectMetadata id) {
     _logger.trace("Removing Updated object from currentlyUpdating cache: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      this.currentlyUpdating.remove(id.getName());
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    this.checkout.releaseExclusive(id);
   }
 
   @Override
   public int getCurrentlyUpdatingCount() {
-    this.persistLock.readLock().lock();
-    int size = this.currentlyUpdating.size();
-    this.persistLock.readLock().unlock();
-    return size;
+    return this.checkout.exclusiveCount();
   }
+
+  private void flushJournal() throws IOException {
+    this.journal.flush();
+    if (this.journal.size() >= JOURNAL_COMPACTION_THRESHOLD) {
+      this.journal.compact();
+    }
+  }
+
   private void persistIds() throws IOException {
     _logger.info("persisting objects");
-    this.persistLock.writeLock().lock();
     final int toSave = this.objects.size();
     _logger.info("number of objects to persist [{}]", toSave);
-    final OutputStream out = new BufferedOutputStream(new FileOutputStream(this.saveFile));
-    if (toSave > 0) {
-      _logger.info("writing version to file {}", this.saveFile);
-      ObjectFileUtil.writeObjectFileVersion(out);
-    }
+    // the save file must exist before rebalancing, as surplus files are numbered after it
+    this.saveFile.createNewFile();
     _logger.info("toSave [{}] maxObjects [{}]", toSave, this.maxObjects);
     if (toSave > this.maxObjects) {
       for (int size = this.objects.size(); size > this.maxObjects; size = this.objects.size()) {
@@ -484,15 +451,32 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         }
         final int remaining = getRemaining(size, surplus);
         _logger.info("remaining objects [{}] to write in surplus ", remaining);
-        // While writing surplus, remove them from this.objects, to keep consistent with
-        // this.savefile
-        final Iterator<ObjectMetadata> iterator = this.objects.iterator();
+        // While writing surplus, remove them from this.objects, journaling their removal from
+        // this.savefile. Objects which are checked out are skipped, as their readers and updaters
+        // expect to find them in this.objects when they check them back in
+        int spilled = 0;
         for (int i = 0; i < remaining; i++) {
-          final ObjectMetadata sid = iterator.next();
-          dos.write(sid.toBytes());
-          iterator.remove();
+          final ObjectMetadata sid = this.objects.getRandom();
+          if (sid == null) {
+            break;
+          }
+          if (!this.checkout.tryExclusive(sid)) {
+            continue;
+          }
+          try {
+            if (this.objects.remove(sid) != null) {
+              dos.write(sid.toBytes());
+              spilled++;
+            }
+          } finally {
+            this.checkout.releaseExclusive(sid);
+          }
         }
         dos.close();
+        if (spilled == 0) {
+          // every object sampled was checked out; leave the remainder for the next persist
+          break;
+        }
       }
     } else if (toSave < this.maxObjects) {
       for (int size = this.objects.size(); size < this.maxObjects; size = this.objects.size()) {
@@ -557,6 +541,9 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
           }
         }
         in.close();
+        // the borrowed objects must be journaled durably before they leave the surplus file, or a
+        // crash in between loses them from both
+        this.journal.sync();
         // If surplus is out of objects, delete it
         if (skip == ObjectFileVersion.VERSION_HEADER_LENGTH) {
           _logger.info("deleting surplus file [{}]", surplus.getName());
@@ -576,15 +563,11 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         }
       }
     }
-    // Finally we save a number less than or equal to the maximum number of objects to our
-    // savefile
-    _logger.info(
-        String.format("Writing state file: %d objects into ", this.objects.size()) + this.saveFile);
-    for (final Iterator<ObjectMetadata> iterator = this.objects.iterator(); iterator.hasNext();) {
-      out.write(iterator.next().toBytes());
-    }
-    out.close();
-    this.persistLock.writeLock().unlock();
+    // Finally we merge the journaled changes, leaving a number less than or equal to the maximum
+    // number of objects in our savefile
+    _logger.info("Compacting object journal into state file: {} objects into {}",
+        this.objects.size(), this.saveFile);
+    this.journal.compact();
   }
 
   private int getRemaining(final int size, final File surplus) {
@@ -618,6 +601,7 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
 
     try {
       persistIds();
+      this.journal.close();
     } catch (final Exception e) {
       throw new ObjectManagerException(e);
     }
@@ -643,7 +627,8 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   @Override
   public String toString() {
     return String.format(
-        "RandomObjectPopulator [maxObjects=%s, directory=%s, prefix=%s, persistFrequency=%s, objectFileIndex=%s]",
-        this.maxObjects, this.directory, this.prefix, this.persistFrequency, this.objectFileIndex);
+        "RandomObjectPopulator [maxObjects=%s, directory=%s, prefix=%s, persistFrequency=%s, objectFileIndex=%s, storage=%s]",
+        this.maxObjects, this.directory, this.prefix, this.persistFrequency, this.objectFileIndex,
+        this.storage);
   }
 }
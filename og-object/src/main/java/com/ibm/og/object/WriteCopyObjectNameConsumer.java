@@ -9,6 +9,7 @@ import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 
 import java.util.Set;
 
@@ -37,16 +38,12 @@ public class WriteCopyObjectNameConsumer extends AbstractObjectNameConsumer {
 
   protected long getSourceObjectSize(final Request request) {
 
-    return Long.parseLong(request.getContext().get(Context.X_OG_OBJECT_SIZE));
+    return RequestContext.getLong(request.getContext(), Context.X_OG_OBJECT_SIZE);
   }
 
   protected int getSourceObjectContainerSuffix(final Request request) {
-    final String containerSuffix = request.getContext().get(Context.X_OG_SSE_SOURCE_OBJECT_CONTAINER_SUFFIX);
-    if (containerSuffix == null) {
-      return -1;
-    } else {
-      return Integer.parseInt(containerSuffix);
-    }
+    return RequestContext.getInt(request.getContext(),
+        Context.X_OG_SSE_SOURCE_OBJECT_CONTAINER_SUFFIX, -1);
   }
 
   @Override
@@ -0,0 +1,157 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class ObjectCheckoutTest {
+  private ObjectCheckout checkout;
+  private ObjectMetadata object;
+
+  @Before
+  public void before() {
+    this.checkout = new ObjectCheckout();
+    this.object = object(1);
+  }
+
+  @Test
+  public void sharedRead() {
+    assertThat(this.checkout.tryRead(this.object), is(true));
+    assertThat(this.checkout.tryRead(this.object), is(true));
+    assertThat(this.checkout.tryReadOnce(this.object), is(false));
+    assertThat(this.checkout.tryExclusive(this.object), is(false));
+
+    this.checkout.releaseRead(this.object);
+    assertThat(this.checkout.tryExclusive(this.object), is(false));
+    this.checkout.releaseRead(this.object);
+    assertThat(this.checkout.tryExclusive(this.object), is(true));
+  }
+
+  @Test
+  public void readOnce() {
+    assertThat(this.checkout.tryReadOnce(this.object), is(true));
+    assertThat(this.checkout.tryReadOnce(this.object), is(false));
+    // readers may still share an object checked out once
+    assertThat(this.checkout.tryRead(this.object), is(true));
+    this.checkout.releaseRead(this.object);
+    this.checkout.releaseRead(this.object);
+    assertThat(this.checkout.tryReadOnce(this.object), is(true));
+  }
+
+  @Test
+  public void exclusive() {
+    assertThat(this.checkout.tryExclusive(this.object), is(true));
+    assertThat(this.checkout.exclusiveCount(), is(1));
+    assertThat(this.checkout.tryExclusive(this.object), is(false));
+    assertThat(this.checkout.tryRead(this.object), is(false));
+    assertThat(this.checkout.tryReadOnce(this.object), is(false));
+    assertThat(this.checkout.tryRead(object(1)), is(true));
+
+    assertThat(this.checkout.releaseExclusive(this.object), is(true));
+    assertThat(this.checkout.exclusiveCount(), is(0));
+    assertThat(this.checkout.releaseExclusive(this.object), is(false));
+    assertThat(this.checkout.tryRead(this.object), is(true));
+  }
+
+  @Test
+  public void keyedByName() {
+    assertThat(this.checkout.tryExclusive(this.object), is(true));
+    final ObjectMetadata resized =
+        LegacyObjectMetadata.fromMetadata(this.object.getName(), 2048, 1, (byte) 0, -1);
+    assertThat(this.checkout.tryRead(resized), is(false));
+    assertThat(this.checkout.releaseExclusive(resized), is(true));
+  }
+
+  @Test
+  public void mutableObjectKeyedByCopy() {
+    // a subclass may reuse its record, which must not change the key of a checked out name
+    final byte[] record = this.object.toBytes().clone();
+    final ObjectMetadata view = new LegacyObjectMetadata(ByteBuffer.wrap(record)) {};
+    assertThat(this.checkout.tryExclusive(view), is(true));
+    System.arraycopy(object(1).toBytes(), 0, record, 0, LegacyObjectMetadata.OBJECT_NAME_SIZE);
+
+    assertThat(this.checkout.tryRead(this.object), is(false));
+    assertThat(this.checkout.releaseExclusive(this.object), is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void releaseUnread() {
+    this.checkout.releaseRead(this.object);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void releaseReadOfExclusive() {
+    this.checkout.tryExclusive(this.object);
+    this.checkout.releaseRead(this.object);
+  }
+
+  @Test
+  public void concurrentCheckout() throws Exception {
+    // readers and writers contend for a single object; a writer must never overlap a reader
+    final AtomicInteger readers = new AtomicInteger();
+    final AtomicInteger writers = new AtomicInteger();
+    final AtomicInteger violations = new AtomicInteger();
+    final List<Callable<Void>> tasks = Lists.newArrayList();
+    for (int t = 0; t < 8; t++) {
+      final boolean writer = t % 2 == 0;
+      tasks.add(new Callable<Void>() {
+        @Override
+        public Void call() {
+          for (int i = 0; i < 20000; i++) {
+            if (writer) {
+              if (ObjectCheckoutTest.this.checkout.tryExclusive(ObjectCheckoutTest.this.object)) {
+                if (writers.incrementAndGet() > 1 || readers.get() > 0) {
+                  violations.incrementAndGet();
+                }
+                writers.decrementAndGet();
+                ObjectCheckoutTest.this.checkout.releaseExclusive(ObjectCheckoutTest.this.object);
+              }
+            } else if (ObjectCheckoutTest.this.checkout.tryRead(ObjectCheckoutTest.this.object)) {
+              readers.incrementAndGet();
+              if (writers.get() > 0) {
+                violations.incrementAndGet();
+              }
+              readers.decrementAndGet();
+              ObjectCheckoutTest.this.checkout.releaseRead(ObjectCheckoutTest.this.object);
+            }
+          }
+          return null;
+        }
+      });
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+    try {
+      for (final Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(violations.get(), is(0));
+    assertThat(this.checkout.exclusiveCount(), is(0));
+    assertThat(this.checkout.tryExclusive(this.object), is(true));
+  }
+
+  private static ObjectMetadata object(final long size) {
+    final String name = UUID.randomUUID().toString().replace("-", "") + "0000";
+    return LegacyObjectMetadata.fromMetadata(name, size, 0, (byte) 0, -1);
+  }
+}
@@ -0,0 +1,122 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import com.google.common.collect.Sets;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class ObjectFileLoaderTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @DataProvider
+  public static Object[][] provideInvalidObjectFileLoader() {
+    return new Object[][] {{0, 1}, {1, 0}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidObjectFileLoader")
+  public void invalidObjectFileLoader(final int parallelism, final int minRecordsPerTask) {
+    this.thrown.expect(IllegalArgumentException.class);
+    new ObjectFileLoader(parallelism, minRecordsPerTask);
+  }
+
+  @DataProvider
+  public static Object[][] provideLoad() {
+    return new Object[][] {{ObjectStorage.HEAP, 1, 0}, {ObjectStorage.HEAP, 1, 1000},
+        {ObjectStorage.HEAP, 4, 10001}, {ObjectStorage.OFF_HEAP, 1, 1000},
+        {ObjectStorage.OFF_HEAP, 4, 10001}};
+  }
+
+  @Test
+  @UseDataProvider("provideLoad")
+  public void load(final ObjectStorage storage, final int parallelism, final int count)
+      throws IOException {
+    final Set<ObjectMetadata> expected = Sets.newHashSet();
+    final File file = this.folder.newFile();
+    final OutputStream out = new FileOutputStream(file);
+    ObjectFileUtil.writeObjectFileVersion(out);
+    for (int i = 0; i < count; i++) {
+      final ObjectMetadata object = LegacyObjectMetadata.fromMetadata(objectName(), i, i % 3,
+          (byte) (i % 2), i);
+      expected.add(object);
+      out.write(object.toBytes());
+    }
+    // trailing partial record
+    out.write(new byte[LegacyObjectMetadata.OBJECT_SIZE - 1]);
+    out.close();
+
+    final RandomAccessSet<ObjectMetadata> objects = storage.newObjectSet();
+    final long records = new ObjectFileLoader(parallelism, 1000).load(file, objects);
+
+    assertThat(records, is((long) count));
+    assertThat(objects.size(), is(count));
+    final Iterator<ObjectMetadata> it = objects.iterator();
+    while (it.hasNext()) {
+      final ObjectMetadata object = it.next();
+      assertThat(expected.remove(object), is(true));
+    }
+    assertThat(expected.isEmpty(), is(true));
+  }
+
+  @Test
+  public void loadVersion1() throws IOException {
+    final File file = this.folder.newFile();
+    final OutputStream out = new FileOutputStream(file);
+    final ObjectMetadata object = LegacyObjectMetadata.fromMetadata(objectName(), 1024, 2,
+        (byte) 0, -1);
+    out.write(Arrays.copyOf(object.toBytes(), ObjectFileUtil.OBJECT_SIZE_V1_0));
+    out.close();
+
+    final RandomAccessSet<ObjectMetadata> objects = ObjectStorage.HEAP.newObjectSet();
+    assertThat(new ObjectFileLoader(2, 1).load(file, objects), is(1L));
+
+    final ObjectMetadata loaded = objects.getRandom();
+    assertThat(loaded.getName(), is(object.getName()));
+    assertThat(loaded.getSize(), is(1024L));
+    assertThat(loaded.getContainerSuffix(), is(2));
+    assertThat(loaded.getNumberOfLegalHolds(), is(0));
+    assertThat(loaded.getRetention(), is(-1));
+  }
+
+  @Test
+  public void loadUnsupportedVersion() throws IOException {
+    final File file = this.folder.newFile();
+    final OutputStream out = new FileOutputStream(file);
+    out.write(ObjectFileVersion.fromMetadata((byte) 3, (byte) 0).getBytes());
+    out.close();
+
+    this.thrown.expect(IllegalArgumentException.class);
+    new ObjectFileLoader(1, 1).load(file, ObjectStorage.HEAP.newObjectSet());
+  }
+
+  private static String objectName() {
+    return UUID.randomUUID().toString().replace("-", "") + "0000";
+  }
+}
@@ -0,0 +1,240 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Maps;
+
+public class ObjectJournalTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private File objectFile;
+
+  @Before
+  public void before() {
+    this.objectFile = new File(this.folder.getRoot(), "id_0.object");
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullObjectFile() {
+    new ObjectJournal(null, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroBatchSize() {
+    new ObjectJournal(this.objectFile, 0);
+  }
+
+  @Test
+  public void compactCreatesObjectFile() throws IOException {
+    final ObjectJournal journal = new ObjectJournal(this.objectFile, 10);
+    journal.compact();
+    assertThat(this.objectFile.exists(), is(true));
+    assertThat(this.objectFile.length(), is(0L));
+  }
+
+  @Test
+  public void compact() throws IOException {
+    final ObjectMetadata kept = object(1);
+    final ObjectMetadata removed = object(2);
+    writeObjectFile(kept, removed);
+
+    final ObjectJournal journal = new ObjectJournal(this.objectFile, 10);
+    final ObjectMetadata added = object(3);
+    final ObjectMetadata readded = object(4);
+    journal.add(added);
+    journal.remove(removed);
+    journal.add(readded);
+    journal.remove(readded);
+    journal.add(readded);
+    assertThat(journal.size(), is(5L));
+    journal.compact();
+
+    assertThat(journal.size(), is(0L));
+    assertThat(ObjectJournal.journalFile(this.objectFile).exists(), is(false));
+    assertThat(ObjectJournal.compactingFile(this.objectFile).exists(), is(false));
+    final Map<String, ObjectMetadata> objects = load();
+    assertThat(objects.size(), is(3));
+    assertThat(objects.get(kept.getName()).getSize(), is(1L));
+    assertThat(objects.get(added.getName()).getSize(), is(3L));
+    assertThat(objects.get(readded.getName()).getSize(), is(4L));
+  }
+
+  @Test
+  public void compactAll() throws IOException {
+    final ObjectMetadata object = object(1);
+    writeObjectFile(object);
+
+    final ObjectJournal journal = new ObjectJournal(this.objectFile, 10);
+    journal.remove(object);
+    journal.compact();
+
+    // an object file without objects has no version header
+    assertThat(this.objectFile.length(), is(0L));
+  }
+
+  @Test
+  public void compactVersion1() throws IOException {
+    final ObjectMetadata object = object(1);
+    final OutputStream out = new FileOutputStream(this.objectFile);
+    out.write(Arrays.copyOf(object.toBytes(), ObjectFileUtil.OBJECT_SIZE_V1_0));
+    out.close();
+
+    // a version 1.0 file is rewritten even without journaled changes
+    new ObjectJournal(this.objectFile, 10).compact();
+
+    assertThat(this.objectFile.length(), is((long) ObjectFileVersion.VERSION_HEADER_LENGTH
+        + LegacyObjectMetadata.OBJECT_SIZE));
+    assertThat(load().get(object.getName()).getSize(), is(1L));
+  }
+
+  @Test
+  public void appendAfterCompact() throws IOException {
+    final ObjectJournal journal = new ObjectJournal(this.objectFile, 10);
+    final ObjectMetadata first = object(1);
+    journal.add(first);
+    journal.compact();
+    final ObjectMetadata second = object(2);
+    journal.add(second);
+    journal.compact();
+
+    final Map<String, ObjectMetadata> objects = load();
+    assertThat(objects.size(), is(2));
+    assertThat(objects.containsKey(first.getName()), is(true));
+    assertThat(objects.containsKey(second.getName()), is(true));
+  }
+
+  @Test
+  public void batch() throws IOException {
+    final ObjectJournal journal = new ObjectJournal(this.objectFile, 2);
+    final File journalFile = ObjectJournal.journalFile(this.objectFile);
+    journal.add(object(1));
+    assertThat(journalFile.exists(), is(false));
+    journal.add(object(2));
+    assertThat(journalFile.length(), is(2L * ObjectJournal.ENTRY_SIZE));
+    journal.add(object(3));
+    assertThat(journalFile.length(), is(2L * ObjectJournal.ENTRY_SIZE));
+    journal.flush();
+    assertThat(journalFile.length(), is(3L * ObjectJournal.ENTRY_SIZE));
+  }
+
+  @Test
+  public void sync() throws IOException {
+    final ObjectJournal journal = new ObjectJournal(this.objectFile, 10);
+    final File journalFile = ObjectJournal.journalFile(this.objectFile);
+    // nothing recorded, nothing to sync
+    journal.sync();
+    assertThat(journalFile.exists(), is(false));
+    journal.add(object(1));
+    journal.sync();
+    assertThat(journalFile.length(), is((long) ObjectJournal.ENTRY_SIZE));
+  }
+
+  @Test
+  public void closeEmpty() throws IOException {
+    final ObjectJournal journal = new ObjectJournal(this.objectFile, 1);
+    journal.add(object(1));
+    journal.compact();
+    journal.close();
+    assertThat(ObjectJournal.journalFile(this.objectFile).exists(), is(false));
+  }
+
+  @Test
+  public void recover() throws IOException {
+    final ObjectMetadata removed = object(1);
+    writeObjectFile(removed);
+    final ObjectMetadata compacting = object(2);
+    final ObjectMetadata journaled = object(3);
+
+    ObjectJournal journal = new ObjectJournal(this.objectFile, 10);
+    journal.add(compacting);
+    journal.remove(removed);
+    journal.close();
+    assertThat(ObjectJournal.journalFile(this.objectFile)
+        .renameTo(ObjectJournal.compactingFile(this.objectFile)), is(true));
+    journal = new ObjectJournal(this.objectFile, 10);
+    journal.remove(compacting);
+    journal.add(journaled);
+    journal.close();
+    // a partial entry from an interrupted append
+    final OutputStream out =
+        new FileOutputStream(ObjectJournal.journalFile(this.objectFile), true);
+    out.write(new byte[ObjectJournal.ENTRY_SIZE - 1]);
+    out.close();
+
+    assertThat(ObjectJournal.recover(this.objectFile), is(true));
+
+    assertThat(ObjectJournal.journalFile(this.objectFile).exists(), is(false));
+    assertThat(ObjectJournal.compactingFile(this.objectFile).exists(), is(false));
+    final Map<String, ObjectMetadata> objects = load();
+    assertThat(objects.size(), is(1));
+    assertThat(objects.containsKey(journaled.getName()), is(true));
+    assertThat(ObjectJournal.recover(this.objectFile), is(false));
+  }
+
+  @Test
+  public void journaledObjectSet() throws IOException {
+    final ObjectJournal journal = new ObjectJournal(this.objectFile, 10);
+    final RandomAccessSet<ObjectMetadata> objects =
+        new JournaledObjectSet(ObjectStorage.OFF_HEAP.newObjectSet(), journal);
+    for (int i = 0; i < 10; i++) {
+      objects.put(object(i));
+    }
+    objects.removeRandom();
+    objects.remove(objects.getRandom());
+    final Iterator<ObjectMetadata> it = objects.iterator();
+    it.next();
+    it.remove();
+    journal.compact();
+
+    final Map<String, ObjectMetadata> persisted = load();
+    assertThat(persisted.size(), is(objects.size()));
+    for (final Iterator<ObjectMetadata> members = objects.iterator(); members.hasNext();) {
+      assertThat(persisted.containsKey(members.next().getName()), is(true));
+    }
+  }
+
+  private void writeObjectFile(final ObjectMetadata... objects) throws IOException {
+    final OutputStream out = new FileOutputStream(this.objectFile);
+    ObjectFileUtil.writeObjectFileVersion(out);
+    for (final ObjectMetadata object : objects) {
+      out.write(object.toBytes());
+    }
+    out.close();
+  }
+
+  private Map<String, ObjectMetadata> load() throws IOException {
+    final RandomAccessSet<ObjectMetadata> objects = ObjectStorage.HEAP.newObjectSet();
+    new ObjectFileLoader(1, 1).load(this.objectFile, objects);
+    final Map<String, ObjectMetadata> loaded = Maps.newHashMap();
+    for (final Iterator<ObjectMetadata> it = objects.iterator(); it.hasNext();) {
+      final ObjectMetadata object = it.next();
+      loaded.put(object.getName(), object);
+    }
+    return loaded;
+  }
+
+  private static ObjectMetadata object(final long size) {
+    final String name = UUID.randomUUID().toString().replace("-", "") + "0000";
+    return LegacyObjectMetadata.fromMetadata(name, size, 0, (byte) 0, -1);
+  }
+}
@@ -0,0 +1,298 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.ibm.og.util.RankDistribution;
+
+public class OffHeapObjectSetTest {
+  private OffHeapObjectSet objects;
+
+  @Before
+  public void before() {
+    // several segments of small slabs, so that tests span several of each
+    this.objects = new OffHeapObjectSet(4, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroSegments() {
+    new OffHeapObjectSet(0, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPowerOfTwoSegments() {
+    new OffHeapObjectSet(3, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooManySegments() {
+    new OffHeapObjectSet(128, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSlabShift() {
+    new OffHeapObjectSet(1, -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void largeSlabShift() {
+    new OffHeapObjectSet(1, 25);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void putNull() {
+    this.objects.put(null);
+  }
+
+  @Test
+  public void empty() {
+    assertThat(this.objects.size(), is(0));
+    assertThat(this.objects.getRandom(), nullValue());
+    assertThat(this.objects.removeRandom(), nullValue());
+    assertThat(this.objects.remove(object(0)), nullValue());
+    assertThat(this.objects.iterator().hasNext(), is(false));
+  }
+
+  @Test
+  public void put() {
+    final ObjectMetadata object = object(1024);
+    assertThat(this.objects.put(object), is(object));
+    assertThat(this.objects.size(), is(1));
+
+    final ObjectMetadata random = this.objects.getRandom();
+    assertThat(random, is(object));
+    assertThat(random.getSize(), is(1024L));
+    assertThat(random.getRetention(), is(object.getRetention()));
+  }
+
+  @Test
+  public void putExistingName() {
+    final ObjectMetadata object = object(1);
+    this.objects.put(object);
+    final ObjectMetadata sameName = LegacyObjectMetadata.fromMetadata(object.getName(), 2, 0,
+        (byte) 0, -1);
+
+    assertThat(this.objects.put(sameName), nullValue());
+    assertThat(this.objects.size(), is(1));
+    assertThat(this.objects.getRandom().getSize(), is(1L));
+  }
+
+  @Test
+  public void remove() {
+    final ObjectMetadata object = object(1);
+    this.objects.put(object);
+    this.objects.put(object(2));
+
+    assertThat(this.objects.remove(object), is(object));
+    assertThat(this.objects.remove(object), nullValue());
+    assertThat(this.objects.size(), is(1));
+    assertThat(this.objects.getRandom().getSize(), is(2L));
+  }
+
+  @Test
+  public void removeOther() {
+    assertThat(this.objects.remove("object"), nullValue());
+  }
+
+  @Test
+  public void clear() {
+    for (int i = 0; i < 100; i++) {
+      this.objects.put(object(i));
+    }
+    this.objects.clear();
+    assertThat(this.objects.size(), is(0));
+    assertThat(this.objects.getRandom(), nullValue());
+
+    final ObjectMetadata object = object(1);
+    this.objects.put(object);
+    assertThat(this.objects.getRandom(), is(object));
+  }
+
+  @Test
+  public void manyObjects() {
+    // enough members to resize the index several times
+    final Map<String, ObjectMetadata> expected = Maps.newLinkedHashMap();
+    for (int i = 0; i < 100000; i++) {
+      final ObjectMetadata object = object(i);
+      expected.put(object.getName(), object);
+      this.objects.put(object);
+    }
+    assertThat(this.objects.size(), is(expected.size()));
+
+    // interleave removal by name and at random, checking the index stays consistent with slots
+    final Random random = new Random();
+    for (int i = 0; !expected.isEmpty(); i++) {
+      final ObjectMetadata removed;
+      if (i % 2 == 0) {
+        final ObjectMetadata object = expected.values().iterator().next();
+        removed = this.objects.remove(object);
+        assertThat(removed, is(object));
+      } else {
+        removed = this.objects.removeRandom();
+        assertThat(removed, notNullValue());
+      }
+      assertThat(expected.remove(removed.getName()), is(removed));
+      if (random.nextInt(1000) == 0 && !expected.isEmpty()) {
+        final ObjectMetadata present = this.objects.getRandom();
+        assertThat(this.objects.remove(present), is(present));
+        assertThat(this.objects.put(present), is(present));
+      }
+    }
+    assertThat(this.objects.size(), is(0));
+  }
+
+  @Test
+  public void iterator() {
+    final Set<String> expected = Sets.newHashSet();
+    for (int i = 0; i < 100; i++) {
+      final ObjectMetadata object = object(i);
+      expected.add(object.getName());
+      this.objects.put(object);
+    }
+
+    final Iterator<ObjectMetadata> it = this.objects.iterator();
+    int count = 0;
+    while (it.hasNext()) {
+      final ObjectMetadata object = it.next();
+      assertThat(expected.remove(object.getName()), is(true));
+      if (count++ % 3 == 0) {
+        it.remove();
+      }
+    }
+    assertThat(expected.isEmpty(), is(true));
+    assertThat(this.objects.size(), is(66));
+  }
+
+  @Test
+  public void iteratorRemoveAll() {
+    for (int i = 0; i < 100; i++) {
+      this.objects.put(object(i));
+    }
+    final Iterator<ObjectMetadata> it = this.objects.iterator();
+    while (it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+    assertThat(this.objects.size(), is(0));
+  }
+
+  @Test
+  public void getRandomReachesAllSegments() {
+    final Set<String> expected = Sets.newHashSet();
+    for (int i = 0; i < 100; i++) {
+      final ObjectMetadata object = object(i);
+      expected.add(object.getName());
+      this.objects.put(object);
+    }
+    for (int i = 0; i < 100000 && !expected.isEmpty(); i++) {
+      expected.remove(this.objects.getRandom().getName());
+    }
+    assertThat(expected.isEmpty(), is(true));
+  }
+
+  @Test
+  public void getRandomByRank() {
+    // ranks apply within a segment, so a single segment orders the whole set
+    final OffHeapObjectSet objects = new OffHeapObjectSet(1, 4);
+    assertThat(objects.getRandom(rank(0)), nullValue());
+    final ObjectMetadata[] added = new ObjectMetadata[100];
+    for (int i = 0; i < added.length; i++) {
+      added[i] = object(i);
+      objects.put(added[i]);
+    }
+    // ranks follow the order in which members were added
+    for (int i = 0; i < added.length; i++) {
+      assertThat(objects.getRandom(rank(i)), is(added[i]));
+    }
+
+    // removal moves the most recently added member into the rank of the removed member
+    objects.remove(added[10]);
+    assertThat(objects.getRandom(rank(10)), is(added[99]));
+    assertThat(objects.getRandom(rank(98)), is(added[98]));
+  }
+
+  @Test
+  public void concurrentModification() throws InterruptedException {
+    final int threads = 8;
+    final int perThread = 10000;
+    final CountDownLatch done = new CountDownLatch(threads);
+    final AtomicInteger removed = new AtomicInteger();
+    final AtomicInteger failures = new AtomicInteger();
+    for (int t = 0; t < threads; t++) {
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            for (int i = 0; i < perThread; i++) {
+              final ObjectMetadata object = object(i);
+              if (OffHeapObjectSetTest.this.objects.put(object) != object) {
+                failures.incrementAndGet();
+              }
+              if (i % 2 == 0 && OffHeapObjectSetTest.this.objects.removeRandom() != null) {
+                removed.incrementAndGet();
+              }
+            }
+          } catch (final RuntimeException e) {
+            failures.incrementAndGet();
+          } finally {
+            done.countDown();
+          }
+        }
+      }).start();
+    }
+    done.await();
+
+    assertThat(failures.get(), is(0));
+    assertThat(this.objects.size(), is(threads * perThread - removed.get()));
+    int count = 0;
+    for (final Iterator<ObjectMetadata> it = this.objects.iterator(); it.hasNext(); it.next()) {
+      count++;
+    }
+    assertThat(count, is(this.objects.size()));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void getRandomNullRanks() {
+    this.objects.getRandom(null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void iteratorRemoveBeforeNext() {
+    this.objects.put(object(1));
+    this.objects.iterator().remove();
+  }
+
+  private static RankDistribution rank(final long rank) {
+    return new RankDistribution() {
+      @Override
+      public long nextRank(final long n) {
+        return Math.min(rank, n - 1);
+      }
+    };
+  }
+
+  private static ObjectMetadata object(final long size) {
+    final String name = UUID.randomUUID().toString().replace("-", "") + "0000";
+    return LegacyObjectMetadata.fromMetadata(name, size, 0, (byte) 0, -1);
+  }
+}
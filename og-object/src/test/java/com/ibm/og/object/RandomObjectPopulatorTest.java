@@ -29,6 +29,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.Files;
+import com.ibm.og.util.RankDistributions;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -217,6 +218,87 @@ public class RandomObjectPopulatorTest {
             ObjectFileVersion.VERSION_HEADER_LENGTH + OBJECT_SIZE);
   }
 
+  @Test
+  public void offHeapOverflowAndBorrow() throws ObjectManagerException {
+    RandomObjectPopulator rop = offHeapPopulator();
+    final ObjectMetadata[] savedIds = new ObjectMetadata[RandomObjectPopulatorTest.MAX_OBJECTS * 2];
+    for (int i = 0; i < savedIds.length; i++) {
+      savedIds[i] = generateId();
+      rop.add(savedIds[i]);
+    }
+    rop.shutdown();
+    Assert.assertEquals(getIdFiles().length, 2);
+
+    // borrows the surplus file back, one object at a time
+    rop = offHeapPopulator();
+    final ObjectMetadata[] retrievedIds = new ObjectMetadata[savedIds.length];
+    for (int i = 0; i < retrievedIds.length; i++) {
+      retrievedIds[i] = rop.remove();
+      rop.shutdown();
+      rop = offHeapPopulator();
+    }
+    rop.shutdown();
+    Assert.assertEquals(getIdFiles().length, 1);
+    Assert.assertEquals(new File(prefix + 0 + suffix).length(), 0);
+
+    Arrays.sort(savedIds);
+    Arrays.sort(retrievedIds);
+    Assert.assertArrayEquals(savedIds, retrievedIds);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void heapAccessDistribution() {
+    new RandomObjectPopulator(this.vaultId, ".", "", RandomObjectPopulatorTest.MAX_OBJECTS,
+        30 * 60 * 1000, null, ObjectStorage.HEAP, RankDistributions.zipf(1.0));
+  }
+
+  @Test
+  public void latestAccessDistribution() throws ObjectManagerException {
+    // a hot set of a single object which receives every read selects the most recent object
+    final RandomObjectPopulator rop = new RandomObjectPopulator(this.vaultId, ".", "",
+        RandomObjectPopulatorTest.MAX_OBJECTS, 30 * 60 * 1000, null, ObjectStorage.OFF_HEAP,
+        RankDistributions.latest(RankDistributions.hotSet(0.01, 1.0)));
+    for (int i = 0; i < 10; i++) {
+      rop.add(generateId());
+    }
+    final ObjectMetadata latest = generateId();
+    rop.add(latest);
+    for (int i = 0; i < 100; i++) {
+      final ObjectMetadata id = rop.get();
+      Assert.assertEquals(latest, id);
+      rop.getComplete(id);
+    }
+    rop.shutdown();
+  }
+
+  @Test
+  public void zipfAccessDistribution() throws ObjectManagerException {
+    final RandomObjectPopulator rop = new RandomObjectPopulator(this.vaultId, ".", "",
+        RandomObjectPopulatorTest.MAX_OBJECTS, 30 * 60 * 1000, null, ObjectStorage.OFF_HEAP,
+        RankDistributions.zipf(2.0));
+    final ObjectMetadata first = generateId();
+    rop.add(first);
+    for (int i = 0; i < 99; i++) {
+      rop.add(generateId());
+    }
+    int reads = 0;
+    for (int i = 0; i < 10000; i++) {
+      final ObjectMetadata id = rop.get();
+      if (first.equals(id)) {
+        reads++;
+      }
+      rop.getComplete(id);
+    }
+    rop.shutdown();
+    // with an exponent of 2 the first of 100 objects receives about 61% of reads
+    Assert.assertTrue(String.valueOf(reads), reads > 5500 && reads < 6700);
+  }
+
+  private RandomObjectPopulator offHeapPopulator() {
+    return new RandomObjectPopulator(this.vaultId, ".", "", RandomObjectPopulatorTest.MAX_OBJECTS,
+        30 * 60 * 1000, null, ObjectStorage.OFF_HEAP);
+  }
+
   @Test
   public void borrowIds() throws ObjectManagerException {
     RandomObjectPopulator rop =
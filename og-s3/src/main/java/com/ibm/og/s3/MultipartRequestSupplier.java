@@ -21,7 +21,8 @@ import com.ibm.og.api.Response;
 import com.ibm.og.http.Bodies;
 import com.ibm.og.http.Credential;
 import com.ibm.og.http.HttpRequest;
-import com.ibm.og.http.MD5DigestLoader;
+import com.ibm.og.http.BodyDigestLoader;
+import com.ibm.og.http.RandomPayloadPool;
 import com.ibm.og.http.Scheme;
 import com.ibm.og.util.Context;
 import com.ibm.og.util.Pair;
@@ -32,7 +33,6 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.eventbus.Subscribe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,7 +82,9 @@ public class MultipartRequestSupplier implements Supplier<Request> {
   private final Function<Map<String, String>, Body> body;
   private final boolean virtualHost;
   private final boolean contentMd5;
-  private final LoadingCache<Long, byte[]> md5ContentCache;
+  private final BodyDigestLoader md5Loader;
+  private final LoadingCache<Body, byte[]> md5ContentCache;
+  private final RandomPayloadPool randomPayloadPool;
 
 
   // constants
@@ -114,6 +116,8 @@ public class MultipartRequestSupplier implements Supplier<Request> {
    * @param context request metadata to be sent with the created request
    * @param credentials username/password or keystone token
    * @param body a description of the request body to add to the request
+   * @param randomPayloadPool the pool of payloads for the parts of pooled random objects; may be
+   *        null if the body data type is not {@code RANDOM_POOL}
    */
   // FIXME refactor username, password, and keystoneToken so they are embedded in headers rather
   // than separate fields
@@ -130,7 +134,7 @@ public class MultipartRequestSupplier implements Supplier<Request> {
       final List<Function<Map<String, String>, String>> context,
       final Function<Map<String, String>, Credential> credentials,
       final Function<Map<String, String>, Body> body, final boolean virtualHost,
-      final boolean contentMd5) {
+      final boolean contentMd5, final RandomPayloadPool randomPayloadPool) {
 
     this.id = id;
     this.scheme = checkNotNull(scheme);
@@ -150,11 +154,13 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     this.body = body;
     this.virtualHost = virtualHost;
     this.contentMd5 = contentMd5;
+    this.randomPayloadPool = randomPayloadPool;
     this.randomNumber = new Random();
     this.actionableMultipartSessions = Collections.synchronizedList(new ArrayList<MultipartInfo>());
     this.multipartRequestMap = new ConcurrentHashMap<String, MultipartInfo>();
     this.sessionManager = new MPSessionManager();
-    this.md5ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new MD5DigestLoader());
+    this.md5Loader = new BodyDigestLoader(Hashing.md5());
+    this.md5ContentCache = CacheBuilder.newBuilder().maximumSize(1024).build(this.md5Loader);
 
   }
 
@@ -504,7 +510,6 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     }
   }
 
-  @Subscribe
   public void update(final Pair<Request, Response> result) {
     Request request = result.getKey();
     Response response = result.getValue();
@@ -687,6 +692,10 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     } else if(bodyDataType.equals(DataType.ZEROES.toString())) {
       body = Bodies.zeroes(partSize);
       builder.withBody(body);
+    } else if (bodyDataType.equals(DataType.RANDOM_POOL.toString())
+        && this.randomPayloadPool != null) {
+      body = this.randomPayloadPool.next(partSize);
+      builder.withBody(body);
     } else {
       body = Bodies.random(partSize);
       builder.withBody(body);
@@ -694,8 +703,7 @@ public class MultipartRequestSupplier implements Supplier<Request> {
 
     if (this.contentMd5) {
       try {
-        Long size = body.getSize();
-        byte[] md5 = md5ContentCache.get(size);
+        final byte[] md5 = md5(body);
         builder.withHeader(Context.X_OG_CONTENT_MD5, BaseEncoding.base64().encode(md5));
       } catch (Exception e) {
         _logger.error(e.getMessage());
@@ -854,4 +862,12 @@ public class MultipartRequestSupplier implements Supplier<Request> {
         this.scheme, this.host, this.port, this.uriRoot, this.container, this.object,
         this.queryParameters, this.trailingSlash, this.headers, this.body);
   }
+
+  // only bodies whose content recurs are cached; unique bodies would evict them and never be hit
+  private byte[] md5(final Body body) throws Exception {
+    if (BodyDigestLoader.isCacheable(body)) {
+      return this.md5ContentCache.get(body);
+    }
+    return this.md5Loader.load(body);
+  }
 }
@@ -12,13 +12,34 @@
  */
 package com.ibm.og.s3.v4;
 
+import static com.amazonaws.auth.internal.SignerConstants.AUTHORIZATION;
+import static com.amazonaws.auth.internal.SignerConstants.AWS4_SIGNING_ALGORITHM;
+import static com.amazonaws.auth.internal.SignerConstants.AWS4_TERMINATOR;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_CONTENT_SHA256;
+import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_DATE;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.ReadLimitInfo;
@@ -26,33 +47,372 @@ import com.amazonaws.Request;
 import com.amazonaws.ResetException;
 import com.amazonaws.SignableRequest;
 import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSSessionCredentials;
+import com.amazonaws.auth.AnonymousAWSCredentials;
+import com.amazonaws.auth.SigningAlgorithm;
 import com.amazonaws.auth.internal.AWS4SignerRequestParams;
 import com.amazonaws.http.HttpMethodName;
 import com.amazonaws.services.s3.Headers;
 import com.amazonaws.services.s3.request.S3HandlerContextKeys;
+import com.amazonaws.util.AwsHostNameUtils;
 import com.amazonaws.util.BinaryUtils;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.ibm.og.api.Body;
+import com.ibm.og.http.BodyDigestLoader;
 
 /**
  * AWS4 signer implementation for AWS S3
+ * <p>
+ * An instance may be shared by all threads. Signing keys are derived once per secret key, date,
+ * region and service and then cached, and the hash functions and buffers which canonicalize and
+ * sign requests are borrowed from a shared pool, so signing a request allocates little beyond the
+ * headers it adds, on long lived and virtual threads alike.
  */
 public class AWSS3V4Signer extends AWS4Signer {
   private static final String CONTENT_SHA_256 = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
+  private static final String HMAC_SHA256 = SigningAlgorithm.HmacSHA256.toString();
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final char[] UPPER_HEX = "0123456789ABCDEF".toCharArray();
+  private static final int SIGNING_KEY_CACHE_SIZE = 1024;
+  // released buffers kept for reuse; bounds the buffers held by a burst of concurrent signers
+  private static final int SIGNING_BUFFERS_POOL_SIZE = 256;
+  // buffers are pooled rather than cached per thread, since with virtual threads each request is
+  // signed on a new thread and a per thread cache would build new buffers for every request
+  private static final Queue<SigningBuffers> BUFFERS = new ConcurrentLinkedQueue<SigningBuffers>();
+  private static final AtomicInteger BUFFERS_COUNT = new AtomicInteger();
 
   private final boolean chunkedEncoding;
-  private final LoadingCache<Long, byte[]> digestCache;
+  private final LoadingCache<Body, byte[]> digestCache;
+  private final LoadingCache<Body, byte[]> chunkDigestCache;
+  private final LoadingCache<SigningKeyId, byte[]> signingKeys;
+  private final ConcurrentMap<String, String> regions;
 
   /**
    * Constructs the signer; configures whether to use aws chunking or not
    * 
    * @param chunkedEncoding whether to use standard or chunked signing
-   * @param digestCache optional digest cache for like-sized objects
+   * @param digestCache optional digest cache for zero and pooled random bodies
    */
   public AWSS3V4Signer(final boolean chunkedEncoding,
-      @Nullable final LoadingCache<Long, byte[]> digestCache) {
+      @Nullable final LoadingCache<Body, byte[]> digestCache) {
+    this(chunkedEncoding, digestCache, digestCache);
+  }
+
+  /**
+   * Constructs the signer; configures whether to use aws chunking or not
+   * 
+   * @param chunkedEncoding whether to use standard or chunked signing
+   * @param digestCache optional digest cache for zero and pooled random bodies
+   * @param chunkDigestCache optional digest cache for chunks, only valid if all bodies are zeroes
+   */
+  public AWSS3V4Signer(final boolean chunkedEncoding,
+      @Nullable final LoadingCache<Body, byte[]> digestCache,
+      @Nullable final LoadingCache<Body, byte[]> chunkDigestCache) {
     super(false);
     this.chunkedEncoding = chunkedEncoding;
     this.digestCache = digestCache;
+    this.chunkDigestCache = chunkDigestCache;
+    this.signingKeys = CacheBuilder.newBuilder().maximumSize(SIGNING_KEY_CACHE_SIZE)
+        .build(new CacheLoader<SigningKeyId, byte[]>() {
+          @Override
+          public byte[] load(final SigningKeyId id) {
+            return deriveSigningKey(id);
+          }
+        });
+    this.regions = new ConcurrentHashMap<String, String>();
+  }
+
+  @Override
+  public void setServiceName(final String serviceName) {
+    super.setServiceName(serviceName);
+    // regions parsed from host names depend on the service
+    this.regions.clear();
+  }
+
+  @Override
+  public void sign(final SignableRequest<?> request, final AWSCredentials credentials) {
+    if (credentials instanceof AnonymousAWSCredentials) {
+      return;
+    }
+    if (credentials instanceof AWSSessionCredentials) {
+      addSessionCredentials(request, (AWSSessionCredentials) credentials);
+    }
+    sign(request, credentials.getAWSAccessKeyId(), credentials.getAWSSecretKey());
+  }
+
+  /**
+   * Signs a request with basic credentials, without wrapping them in an {@code AWSCredentials}
+   * instance. This produces the same signature as {@link AWS4Signer#sign}.
+   * 
+   * @param request the request to sign
+   * @param accessKeyId the access key id
+   * @param secretKey the secret access key
+   */
+  public void sign(final SignableRequest<?> request, final String accessKeyId,
+      final String secretKey) {
+    final SigningBuffers buffers = acquireBuffers();
+    try {
+      sign(request, accessKeyId, secretKey, buffers);
+    } finally {
+      releaseBuffers(buffers);
+    }
+  }
+
+  private void sign(final SignableRequest<?> request, final String accessKeyId,
+      final String secretKey, final SigningBuffers buffers) {
+    final long signingTime = this.overriddenDate != null ? this.overriddenDate.getTime()
+        : System.currentTimeMillis() - request.getTimeOffset() * 1000L;
+    buffers.setSigningTime(signingTime);
+    final String region = region(request);
+    final String scope = buffers.scope(region, this.serviceName);
+
+    addHostHeader(request);
+    request.addHeader(X_AMZ_DATE, buffers.dateTime);
+    final String contentSha256 = calculateContentHash(request);
+    if ("required".equals(request.getHeaders().get(X_AMZ_CONTENT_SHA256))) {
+      request.addHeader(X_AMZ_CONTENT_SHA256, contentSha256);
+    }
+
+    final StringBuilder text = buffers.text;
+    text.setLength(0);
+    final String signedHeaders = appendCanonicalRequest(text, request, contentSha256, buffers);
+    final byte[] canonicalRequestHash = buffers.sha256(text);
+
+    text.setLength(0);
+    text.append(AWS4_SIGNING_ALGORITHM).append('\n').append(buffers.dateTime).append('\n')
+        .append(scope).append('\n');
+    appendHex(text, canonicalRequestHash);
+
+    final byte[] signingKey;
+    try {
+      signingKey = this.signingKeys
+          .get(new SigningKeyId(secretKey.trim(), buffers.date, region, this.serviceName));
+    } catch (final ExecutionException e) {
+      throw new AmazonClientException("Unable to derive signing key: " + e.getMessage(), e);
+    }
+    final byte[] signature = buffers.hmacSha256(signingKey, text);
+
+    text.setLength(0);
+    text.append(AWS4_SIGNING_ALGORITHM).append(" Credential=").append(accessKeyId.trim())
+        .append('/').append(scope).append(", SignedHeaders=").append(signedHeaders)
+        .append(", Signature=");
+    appendHex(text, signature);
+    request.addHeader(AUTHORIZATION, text.toString());
+
+    chunkRequestPayload(request, signature, signingKey, buffers.dateTime, scope);
+  }
+
+  private String region(final SignableRequest<?> request) {
+    if (this.regionName != null) {
+      return this.regionName;
+    }
+    final String host = request.getEndpoint().getHost();
+    String region = this.regions.get(host);
+    if (region == null) {
+      region = AwsHostNameUtils.parseRegionName(host, this.serviceName);
+      this.regions.putIfAbsent(host, region);
+    }
+    return region;
+  }
+
+  private static byte[] deriveSigningKey(final SigningKeyId id) {
+    try {
+      final Mac mac = Mac.getInstance(HMAC_SHA256);
+      byte[] key = ("AWS4" + id.secretKey).getBytes(UTF8);
+      for (final String part : new String[] {id.date, id.region, id.service, AWS4_TERMINATOR}) {
+        mac.init(new SecretKeySpec(key, HMAC_SHA256));
+        key = mac.doFinal(part.getBytes(UTF8));
+      }
+      return key;
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    } catch (final InvalidKeyException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  protected String createCanonicalRequest(final SignableRequest<?> request,
+      final String contentSha256) {
+    final StringBuilder canonicalRequest = new StringBuilder();
+    final SigningBuffers buffers = acquireBuffers();
+    try {
+      appendCanonicalRequest(canonicalRequest, request, contentSha256, buffers);
+    } finally {
+      releaseBuffers(buffers);
+    }
+    return canonicalRequest.toString();
+  }
+
+  private static SigningBuffers acquireBuffers() {
+    final SigningBuffers buffers = BUFFERS.poll();
+    if (buffers != null) {
+      BUFFERS_COUNT.decrementAndGet();
+      return buffers;
+    }
+    return new SigningBuffers();
+  }
+
+  private static void releaseBuffers(final SigningBuffers buffers) {
+    // buffers released beyond the pool size are left to the garbage collector
+    if (BUFFERS_COUNT.incrementAndGet() <= SIGNING_BUFFERS_POOL_SIZE) {
+      BUFFERS.offer(buffers);
+    } else {
+      BUFFERS_COUNT.decrementAndGet();
+    }
+  }
+
+  /**
+   * Appends the canonical form of a request, as {@link AWS4Signer} computes it, and returns its
+   * signed headers
+   */
+  private String appendCanonicalRequest(final StringBuilder canonicalRequest,
+      final SignableRequest<?> request, final String contentSha256,
+      final SigningBuffers buffers) {
+    canonicalRequest.append(request.getHttpMethod().toString()).append('\n');
+    appendCanonicalPath(canonicalRequest, request.getEndpoint().getPath(),
+        request.getResourcePath());
+    canonicalRequest.append('\n');
+
+    final Map<String, List<String>> parameters = request.getParameters();
+    if (!parameters.isEmpty()) {
+      canonicalRequest.append(getCanonicalizedQueryString(request));
+    }
+    canonicalRequest.append('\n');
+
+    final Map<String, String> headers = request.getHeaders();
+    final List<String> names = buffers.sortedNames(headers.keySet());
+    for (int i = 0; i < names.size(); i++) {
+      final String name = names.get(i);
+      appendCollapsed(canonicalRequest, name, true);
+      canonicalRequest.append(':');
+      final String value = headers.get(name);
+      if (value != null) {
+        appendCollapsed(canonicalRequest, value, false);
+      }
+      canonicalRequest.append('\n');
+    }
+    canonicalRequest.append('\n');
+
+    final int signedHeadersStart = canonicalRequest.length();
+    for (int i = 0; i < names.size(); i++) {
+      if (i > 0) {
+        canonicalRequest.append(';');
+      }
+      appendLowerCase(canonicalRequest, names.get(i));
+    }
+    final String signedHeaders = canonicalRequest.substring(signedHeadersStart);
+    canonicalRequest.append('\n').append(contentSha256);
+    return signedHeaders;
+  }
+
+  /**
+   * Appends the canonical resource path of a request: the resource path, url encoded apart from
+   * its slashes, appended to the endpoint path
+   */
+  private void appendCanonicalPath(final StringBuilder out, @Nullable final String endpointPath,
+      @Nullable final String resourcePath) {
+    final int start = out.length();
+    String base = endpointPath != null ? endpointPath : "";
+    if (resourcePath != null && !resourcePath.isEmpty()) {
+      if (resourcePath.startsWith("/") && base.endsWith("/")) {
+        base = base.substring(0, base.length() - 1);
+      }
+      out.append(base);
+      if (!resourcePath.startsWith("/") && !base.endsWith("/")) {
+        out.append('/');
+      }
+      appendUrlEncoded(out, resourcePath, true);
+    } else {
+      out.append(base);
+      if (!base.endsWith("/")) {
+        out.append('/');
+      }
+    }
+    if (this.doubleUrlEncode) {
+      final String once = out.substring(start);
+      out.setLength(start);
+      appendUrlEncoded(out, once, true);
+    }
+    if (out.length() == start || out.charAt(start) != '/') {
+      out.insert(start, '/');
+    }
+  }
+
+  /**
+   * Appends a value percent encoded as in RFC 3986, which leaves only unreserved characters, and
+   * optionally slashes, unencoded
+   */
+  private static void appendUrlEncoded(final StringBuilder out, final String value,
+      final boolean path) {
+    final int length = value.length();
+    int i = 0;
+    while (i < length) {
+      final char c = value.charAt(i);
+      if (isUnreserved(c) || (path && c == '/')) {
+        out.append(c);
+        i++;
+      } else if (c < 0x80) {
+        appendPercentEncoded(out, (byte) c);
+        i++;
+      } else {
+        // encode a run of non ascii characters together, so surrogate pairs stay intact
+        int end = i + 1;
+        while (end < length && value.charAt(end) >= 0x80) {
+          end++;
+        }
+        for (final byte b : value.substring(i, end).getBytes(UTF8)) {
+          appendPercentEncoded(out, b);
+        }
+        i = end;
+      }
+    }
+  }
+
+  private static boolean isUnreserved(final char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-'
+        || c == '_' || c == '.' || c == '~';
+  }
+
+  private static void appendPercentEncoded(final StringBuilder out, final byte b) {
+    out.append('%').append(UPPER_HEX[(b >> 4) & 0xF]).append(UPPER_HEX[b & 0xF]);
+  }
+
+  /**
+   * Appends a header name or value with each run of whitespace replaced by a single space, as
+   * {@link AWS4Signer} does with {@code replaceAll("\\s+", " ")}
+   */
+  private static void appendCollapsed(final StringBuilder out, final String value,
+      final boolean lowerCase) {
+    boolean whitespace = false;
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+        if (!whitespace) {
+          out.append(' ');
+          whitespace = true;
+        }
+      } else {
+        out.append(lowerCase ? Character.toLowerCase(c) : c);
+        whitespace = false;
+      }
+    }
+  }
+
+  private static void appendLowerCase(final StringBuilder out, final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      out.append(Character.toLowerCase(value.charAt(i)));
+    }
+  }
+
+  private static void appendHex(final StringBuilder out, final byte[] bytes) {
+    for (final byte b : bytes) {
+      out.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
   }
 
   /**
@@ -61,10 +421,16 @@ public class AWSS3V4Signer extends AWS4Signer {
   @Override
   protected void processRequestPayload(final SignableRequest<?> request, final byte[] signature,
       final byte[] signingKey, final AWS4SignerRequestParams signerRequestParams) {
+    chunkRequestPayload(request, signature, signingKey,
+        signerRequestParams.getFormattedSigningDateTime(), signerRequestParams.getScope());
+  }
+
+  private void chunkRequestPayload(final SignableRequest<?> request, final byte[] signature,
+      final byte[] signingKey, final String dateTime, final String scope) {
     if (useChunkEncoding(request)) {
-      final AwsChunkedEncodingInputStream chunkEncodededStream = new AwsChunkedEncodingInputStream(
-          request.getContent(), signingKey, signerRequestParams.getFormattedSigningDateTime(),
-          signerRequestParams.getScope(), BinaryUtils.toHex(signature), this, this.digestCache);
+      final AwsChunkedEncodingInputStream chunkEncodededStream =
+          new AwsChunkedEncodingInputStream(request.getContent(), signingKey, dateTime, scope,
+              BinaryUtils.toHex(signature), this, this.chunkDigestCache);
       request.setContent(chunkEncodededStream);
     }
   }
@@ -113,10 +479,10 @@ public class AWSS3V4Signer extends AWS4Signer {
       return CONTENT_SHA_256;
     }
 
-    if (this.digestCache != null) {
+    final Body body = cacheableBody(request);
+    if (body != null) {
       try {
-        final long length = contentLength != null ? Long.parseLong(contentLength) : 0;
-        return BinaryUtils.toHex(this.digestCache.get(length));
+        return BinaryUtils.toHex(this.digestCache.get(body));
       } catch (final ExecutionException e) {
         throw new RuntimeException(e);
       }
@@ -124,6 +490,24 @@ public class AWSS3V4Signer extends AWS4Signer {
     return super.calculateContentHash(request);
   }
 
+  /**
+   * Returns the body of the request if its digest may be cached, otherwise null
+   *
+   * @see BodyDigestLoader#isCacheable(Body)
+   */
+  @Nullable
+  private Body cacheableBody(final SignableRequest<?> request) {
+    if (this.digestCache == null) {
+      return null;
+    }
+    final Object original = request.getOriginalRequestObject();
+    if (!(original instanceof com.ibm.og.api.Request)) {
+      return null;
+    }
+    final Body body = ((com.ibm.og.api.Request) original).getBody();
+    return BodyDigestLoader.isCacheable(body) ? body : null;
+  }
+
   /**
    * Determine whether to use aws-chunked for signing
    */
@@ -176,4 +560,166 @@ public class AWSS3V4Signer extends AWS4Signer {
     }
     return contentLength;
   }
+
+  private static class SigningKeyId {
+    private final String secretKey;
+    private final String date;
+    private final String region;
+    private final String service;
+
+    SigningKeyId(final String secretKey, final String date, final String region,
+        final String service) {
+      this.secretKey = secretKey;
+      this.date = date;
+      this.region = region;
+      this.service = service;
+    }
+
+    @Override
+    public int hashCode() {
+      final int prime = 31;
+      int result = this.secretKey.hashCode();
+      result = prime * result + this.date.hashCode();
+      result = prime * result + this.region.hashCode();
+      result = prime * result + this.service.hashCode();
+      return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof SigningKeyId)) {
+        return false;
+      }
+      final SigningKeyId other = (SigningKeyId) obj;
+      return this.secretKey.equals(other.secretKey) && this.date.equals(other.date)
+          && this.region.equals(other.region) && this.service.equals(other.service);
+    }
+  }
+
+  /**
+   * Hash functions and buffers which are borrowed from a shared pool for each request signed, and
+   * used by one thread at a time
+   */
+  private static class SigningBuffers {
+    private final StringBuilder text = new StringBuilder(1024);
+    private final List<String> names = new ArrayList<String>();
+    private final MessageDigest sha256;
+    private final Mac hmacSha256;
+    private byte[] hmacKey;
+    private final SimpleDateFormat dateTimeFormat;
+    private byte[] bytes = new byte[1024];
+    private long second = Long.MIN_VALUE;
+    private String dateTime;
+    private String date;
+    private String scope;
+    private String scopeRegion;
+    private String scopeService;
+
+    SigningBuffers() {
+      try {
+        this.sha256 = MessageDigest.getInstance("SHA-256");
+        this.hmacSha256 = Mac.getInstance(HMAC_SHA256);
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+      this.dateTimeFormat = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+      this.dateTimeFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    /**
+     * Formats the signing date and time, at most once per second
+     */
+    void setSigningTime(final long millis) {
+      final long second = millis / 1000;
+      if (second != this.second) {
+        this.second = second;
+        this.dateTime = this.dateTimeFormat.format(new Date(millis));
+        final String date = this.dateTime.substring(0, 8);
+        if (!date.equals(this.date)) {
+          this.date = date;
+          this.scope = null;
+        }
+      }
+    }
+
+    String scope(final String region, final String service) {
+      if (this.scope == null || !region.equals(this.scopeRegion)
+          || !service.equals(this.scopeService)) {
+        this.scope = this.date + "/" + region + "/" + service + "/" + AWS4_TERMINATOR;
+        this.scopeRegion = region;
+        this.scopeService = service;
+      }
+      return this.scope;
+    }
+
+    /**
+     * Returns header names in the order {@link AWS4Signer} signs them, by insertion sort since
+     * requests have few headers
+     */
+    List<String> sortedNames(final Iterable<String> headerNames) {
+      this.names.clear();
+      for (final String name : headerNames) {
+        int i = this.names.size();
+        this.names.add(name);
+        while (i > 0 && String.CASE_INSENSITIVE_ORDER.compare(this.names.get(i - 1), name) > 0) {
+          this.names.set(i, this.names.get(i - 1));
+          i--;
+        }
+        this.names.set(i, name);
+      }
+      return this.names;
+    }
+
+    byte[] sha256(final CharSequence text) {
+      final int length = encode(text);
+      if (length >= 0) {
+        this.sha256.update(this.bytes, 0, length);
+      } else {
+        this.sha256.update(text.toString().getBytes(UTF8));
+      }
+      return this.sha256.digest();
+    }
+
+    byte[] hmacSha256(final byte[] key, final CharSequence text) {
+      // signing keys are cached, so consecutive requests usually sign with the same key instance,
+      // and the mac keeps its key after doFinal
+      if (key != this.hmacKey) {
+        try {
+          this.hmacSha256.init(new SecretKeySpec(key, HMAC_SHA256));
+        } catch (final InvalidKeyException e) {
+          throw new IllegalArgumentException(e);
+        }
+        this.hmacKey = key;
+      }
+      final int length = encode(text);
+      if (length >= 0) {
+        this.hmacSha256.update(this.bytes, 0, length);
+      } else {
+        this.hmacSha256.update(text.toString().getBytes(UTF8));
+      }
+      return this.hmacSha256.doFinal();
+    }
+
+    /**
+     * Encodes ascii text into the reusable byte buffer, returning its length, or -1 if the text is
+     * not ascii
+     */
+    private int encode(final CharSequence text) {
+      final int length = text.length();
+      if (this.bytes.length < length) {
+        this.bytes = new byte[Math.max(length, 2 * this.bytes.length)];
+      }
+      for (int i = 0; i < length; i++) {
+        final char c = text.charAt(i);
+        if (c >= 0x80) {
+          return -1;
+        }
+        this.bytes[i] = (byte) c;
+      }
+      return length;
+    }
+  }
 }
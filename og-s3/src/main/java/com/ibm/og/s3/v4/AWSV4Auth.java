@@ -14,22 +14,18 @@ import javax.inject.Named;
 import com.ibm.og.http.AuthenticatedHttpRequest;
 import com.ibm.og.http.HttpAuth;
 import com.ibm.og.util.Context;
-import com.ibm.og.util.io.Streams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.amazonaws.SignableRequest;
-import com.amazonaws.auth.AWSCredentials;
-import com.amazonaws.auth.BasicAWSCredentials;
 import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
 import com.ibm.og.api.Request;
-import com.ibm.og.http.Bodies;
+import com.ibm.og.http.BodyDigestLoader;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.hash.Hashing;
-import com.google.common.hash.HashingInputStream;
 
 /**
  * An http auth implementation which authenticates using the aws v4 algorithm
@@ -41,7 +37,9 @@ public class AWSV4Auth implements HttpAuth {
   private final boolean chunkedEncoding;
   private final int cacheSize;
   private final DataType data;
-  private final LoadingCache<Long, byte[]> digestCache;
+  private final LoadingCache<Body, byte[]> digestCache;
+  private final LoadingCache<Body, byte[]> chunkDigestCache;
+  private final AWSS3V4Signer signer;
 
   @Inject
   public AWSV4Auth(@Named("authentication.awsChunked") final boolean chunkedEncoding,
@@ -53,29 +51,21 @@ public class AWSV4Auth implements HttpAuth {
     checkArgument(data != DataType.NONE, "data must not be NONE");
 
     if (cacheSize > 0) {
-      checkArgument(data == DataType.ZEROES, "If cacheSize > 0, data must be ZEROES [%s]", data);
-      this.digestCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build(new DigestLoader());
+      checkArgument(data == DataType.ZEROES || data == DataType.RANDOM_POOL,
+          "If cacheSize > 0, data must be ZEROES or RANDOM_POOL [%s]", data);
+      _logger.debug("Caching up to {} payload digests", cacheSize);
+      this.digestCache = CacheBuilder.newBuilder().maximumSize(cacheSize)
+          .build(new BodyDigestLoader(Hashing.sha256()));
+      // chunk digests are cached by chunk length, which only identifies the chunk content if every
+      // body is all zeroes
+      this.chunkDigestCache = data == DataType.ZEROES ? this.digestCache : null;
     } else {
       this.digestCache = null;
+      this.chunkDigestCache = null;
     }
-  }
-
-  static class DigestLoader extends CacheLoader<Long, byte[]> {
-    @Override
-    public byte[] load(final Long key) throws Exception {
-      checkNotNull(key);
-      _logger.debug("Loading digest for size [{}]", key);
-
-      final HashingInputStream hashStream =
-          new HashingInputStream(Hashing.sha256(), Streams.create(Bodies.zeroes(key)));
-      final byte[] buffer = new byte[4096];
-      while (hashStream.read(buffer) != -1) {
-      }
-      // should never throw an exception since the source is from Streams.create
-      hashStream.close();
-
-      return hashStream.hash().asBytes();
-    }
+    // the signer is shared by all requests, so signing keys it derives are reused
+    this.signer = new AWSS3V4Signer(chunkedEncoding, this.digestCache, this.chunkDigestCache);
+    this.signer.setServiceName("s3");
   }
 
   @Override
@@ -83,16 +73,12 @@ public class AWSV4Auth implements HttpAuth {
     checkNotNull(request);
     final String accessKeyId = checkNotNull(request.getContext().get(Context.X_OG_USERNAME));
     final String secretAccessKey = checkNotNull(request.getContext().get(Context.X_OG_PASSWORD));
-    final AWSCredentials credentials = new BasicAWSCredentials(accessKeyId, secretAccessKey);
-
-    final AWSS3V4Signer signer = new AWSS3V4Signer(this.chunkedEncoding, this.digestCache);
-    signer.setServiceName("s3");
 
     final AuthenticatedHttpRequest authenticatedRequest = new AuthenticatedHttpRequest(request);
     final SignableRequest<Request> signableRequest =
         new SignableRequestAdapter(authenticatedRequest);
 
-    signer.sign(signableRequest, credentials);
+    this.signer.sign(signableRequest, accessKeyId, secretAccessKey);
 
     return authenticatedRequest;
   }
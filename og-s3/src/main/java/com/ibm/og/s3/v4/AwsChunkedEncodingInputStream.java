@@ -36,6 +36,8 @@ import com.amazonaws.auth.SigningAlgorithm;
 import com.amazonaws.internal.SdkInputStream;
 import com.amazonaws.util.BinaryUtils;
 import com.google.common.cache.LoadingCache;
+import com.ibm.og.api.Body;
+import com.ibm.og.http.Bodies;
 
 /**
  * A wrapper class of InputStream that implements chunked-encoding.
@@ -77,11 +79,11 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
 
   private static final Log log = LogFactory.getLog(AwsChunkedEncodingInputStream.class);
 
-  private final LoadingCache<Long, byte[]> digestCache;
+  private final LoadingCache<Body, byte[]> digestCache;
 
   public AwsChunkedEncodingInputStream(final InputStream in, final byte[] kSigning,
       final String datetime, final String keyPath, final String headerSignature,
-      final AWS4Signer aws4Signer, @Nullable final LoadingCache<Long, byte[]> digestCache) {
+      final AWS4Signer aws4Signer, @Nullable final LoadingCache<Body, byte[]> digestCache) {
     this(in, DEFAULT_BUFFER_SIZE, kSigning, datetime, keyPath, headerSignature, aws4Signer,
         digestCache);
   }
@@ -102,11 +104,13 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
    * @param headerSignature The signature of the signed headers. This will be used for calculating
    *        the signature of the first chunk.
    * @param aws4Signer The AWS4Signer used for hashing and signing.
+   * @param digestCache Optional cache of the digests of zero bodies, only valid when the original
+   *        stream is all zeroes.
    */
   public AwsChunkedEncodingInputStream(final InputStream in, int maxBufferSize,
       final byte[] kSigning, final String datetime, final String keyPath,
       final String headerSignature, final AWS4Signer aws4Signer,
-      final LoadingCache<Long, byte[]> digestCache) {
+      final LoadingCache<Body, byte[]> digestCache) {
     if (in instanceof AwsChunkedEncodingInputStream) {
       // This could happen when the request is retried, and we need to re-calculate the signatures.
       final AwsChunkedEncodingInputStream originalChunkedStream =
@@ -336,7 +340,7 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
     byte[] chunkDigest;
     if (this.digestCache != null) {
       try {
-        chunkDigest = this.digestCache.get((long) chunkData.length);
+        chunkDigest = this.digestCache.get(Bodies.zeroes(chunkData.length));
       } catch (final ExecutionException e) {
         throw new RuntimeException(e);
       }
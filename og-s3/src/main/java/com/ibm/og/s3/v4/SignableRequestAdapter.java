@@ -105,7 +105,7 @@ public class SignableRequestAdapter implements SignableRequest<Request> {
 
   @Override
   public Object getOriginalRequestObject() {
-    return null;
+    return this.request;
   }
 
   @Override
@@ -0,0 +1,110 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_CONTENT_SHA256;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.net.URI;
+import java.util.Date;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.amazonaws.SignableRequest;
+import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class AWSS3V4SignerTest {
+  private static final Date DATE = new Date(1457000000000L);
+  private static final String ACCESS_KEY = "AKIDEXAMPLE";
+  private static final String SECRET_KEY = "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY";
+
+  @DataProvider
+  public static Object[][] provideRequests() {
+    final HttpRequest get =
+        new HttpRequest.Builder(Method.GET, URI.create("http://127.0.0.1/container/object"),
+            Operation.READ).build();
+    final HttpRequest put = new HttpRequest.Builder(Method.PUT,
+        URI.create("https://s3.us-west-2.amazonaws.com:8443/container/object"), Operation.WRITE)
+            .withHeader("X-Custom", "  spaced \t  value ").withHeader("content-type", "text/plain")
+            .withBody(Bodies.zeroes(100)).build();
+    final HttpRequest encoded = new HttpRequest.Builder(Method.GET,
+        URI.create("http://example.com/container/a%20b%2Bc~d*e/%C3%A9t%C3%A9//x"),
+        Operation.READ).build();
+    final HttpRequest query = new HttpRequest.Builder(Method.PUT,
+        URI.create("http://example.com/container/object"), Operation.MULTIPART_WRITE_PART)
+            .withQueryParameter("uploadId", "a b/c").withQueryParameter("partNumber", "2")
+            .withBody(Bodies.random(10)).build();
+    final HttpRequest root =
+        new HttpRequest.Builder(Method.GET, URI.create("http://example.com"), Operation.LIST)
+            .build();
+    return new Object[][] {{get}, {put}, {encoded}, {query}, {root}};
+  }
+
+  @Test
+  @UseDataProvider("provideRequests")
+  public void signsAsSdk(final HttpRequest request) {
+    final AuthenticatedHttpRequest expected = new AuthenticatedHttpRequest(request);
+    final AWS4Signer sdkSigner = new AWS4Signer(false) {
+      {
+        this.overriddenDate = DATE;
+      }
+
+      @Override
+      protected String calculateContentHash(final SignableRequest<?> signableRequest) {
+        signableRequest.addHeader(X_AMZ_CONTENT_SHA256, "required");
+        return super.calculateContentHash(signableRequest);
+      }
+    };
+    sdkSigner.setServiceName("s3");
+    sdkSigner.sign(new SignableRequestAdapter(expected),
+        new BasicAWSCredentials(ACCESS_KEY, SECRET_KEY));
+
+    final AWSS3V4Signer signer = new DatedSigner();
+    signer.setServiceName("s3");
+    // signed twice, so the second signature uses cached keys and reused buffers
+    for (int i = 0; i < 2; i++) {
+      final AuthenticatedHttpRequest actual = new AuthenticatedHttpRequest(request);
+      signer.sign(new SignableRequestAdapter(actual), ACCESS_KEY, SECRET_KEY);
+      assertThat(actual.headers(), is(expected.headers()));
+    }
+  }
+
+  @Test
+  public void credentials() {
+    final AuthenticatedHttpRequest expected = new AuthenticatedHttpRequest(
+        new HttpRequest.Builder(Method.GET, URI.create("http://127.0.0.1/container/object"),
+            Operation.READ).build());
+    final AuthenticatedHttpRequest actual = new AuthenticatedHttpRequest(
+        new HttpRequest.Builder(Method.GET, URI.create("http://127.0.0.1/container/object"),
+            Operation.READ).build());
+    final AWSS3V4Signer signer = new DatedSigner();
+    signer.setServiceName("s3");
+    signer.sign(new SignableRequestAdapter(expected), ACCESS_KEY, SECRET_KEY);
+    signer.sign(new SignableRequestAdapter(actual),
+        new BasicAWSCredentials(" " + ACCESS_KEY, SECRET_KEY + " "));
+
+    assertThat(actual.headers(), is(expected.headers()));
+  }
+
+  private static class DatedSigner extends AWSS3V4Signer {
+    DatedSigner() {
+      super(false, null);
+      this.overriddenDate = DATE;
+    }
+  }
+}
@@ -11,8 +11,10 @@ import static org.hamcrest.Matchers.is;
 import org.junit.Test;
 
 import com.amazonaws.util.BinaryUtils;
+import com.google.common.hash.Hashing;
 import com.ibm.og.api.DataType;
-import com.ibm.og.s3.v4.AWSV4Auth.DigestLoader;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.BodyDigestLoader;
 
 public class AWSV4AuthTest {
   @Test(expected = IllegalArgumentException.class)
@@ -35,10 +37,15 @@ public class AWSV4AuthTest {
     new AWSV4Auth(false, 1, DataType.RANDOM);
   }
 
+  @Test
+  public void positiveCacheSizeRandomPoolData() {
+    new AWSV4Auth(false, 1, DataType.RANDOM_POOL);
+  }
+
   @Test
   public void digestLoaderCacheZeroDigest() throws Exception {
-    final DigestLoader loader = new AWSV4Auth.DigestLoader();
-    assertThat(BinaryUtils.toHex(loader.load(0L)),
+    final BodyDigestLoader loader = new BodyDigestLoader(Hashing.sha256());
+    assertThat(BinaryUtils.toHex(loader.load(Bodies.zeroes(0))),
         is("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855"));
   }
 }
@@ -0,0 +1,30 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+/**
+ * A scheduler whose load level may be changed while a test is running
+ *
+ * @since 1.7.0
+ */
+public interface AdjustableScheduler extends Scheduler {
+  /**
+   * Changes the load level of this scheduler. Callers already waiting in {@link #schedule()} are
+   * permitted according to the new level
+   *
+   * @param level the new level, interpreted in the same way as the level this scheduler was
+   *        configured with
+   * @throws IllegalArgumentException if level is not positive
+   * @throws IllegalStateException if the level of this scheduler is already being changed by a
+   *         rampup or a load profile
+   */
+  void setLevel(double level);
+
+  /**
+   * @return the current load level of this scheduler
+   */
+  double getLevel();
+}
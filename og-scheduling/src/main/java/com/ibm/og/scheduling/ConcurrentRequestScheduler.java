@@ -7,18 +7,24 @@ package com.ibm.og.scheduling;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
+import com.ibm.og.util.Distribution;
 import com.ibm.og.util.Pair;
-import com.google.common.eventbus.Subscribe;
+import com.google.common.eventbus.EventBus;
 import com.google.common.math.DoubleMath;
 import com.google.common.util.concurrent.RateLimiter;
 import com.google.common.util.concurrent.Uninterruptibles;
@@ -28,13 +34,20 @@ import com.google.common.util.concurrent.Uninterruptibles;
  * 
  * @since 1.0
  */
-public class ConcurrentRequestScheduler implements Scheduler {
+public class ConcurrentRequestScheduler implements AdjustableScheduler {
   private static final Logger _logger = LoggerFactory.getLogger(ConcurrentRequestScheduler.class);
   private final int concurrentRequests;
   private final double rampup;
   private final TimeUnit rampupUnit;
-  private final Semaphore permits;
+  private final ResizableSemaphore permits;
   private final CountDownLatch started;
+  private final LoadProfileDriver driver;
+  private final Distribution thinkTime;
+  private final TimeUnit thinkTimeUnit;
+  // completed requests whose permits are released once their think time has elapsed
+  private final DelayQueue<Wakeup> thinking;
+  // the number of permits in circulation, once any rampup has completed
+  private int limit;
 
   /**
    * Constructs an instance with the provided concurrency
@@ -44,6 +57,28 @@ public class ConcurrentRequestScheduler implements Scheduler {
    */
   public ConcurrentRequestScheduler(final int concurrentRequests, final double rampup,
       final TimeUnit rampupUnit) {
+    this(concurrentRequests, rampup, rampupUnit, null, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Constructs an instance which simulates a population of users. Each user waits for a think
+   * time, drawn from a distribution, between the completion of its request and the start of its
+   * next. Users which are thinking are held in a single delay queue rather than by a thread each,
+   * so a large population of mostly idle users is inexpensive.
+   * 
+   * @param concurrentRequests the number of simulated users
+   * @param rampup the duration to ramp up to the full population
+   * @param rampupUnit the rampup duration unit
+   * @param thinkTime the distribution of think times, or null for no think time
+   * @param thinkTimeUnit the unit of think times
+   * @throws IllegalArgumentException if concurrentRequests is negative or zero, or if rampup is
+   *         negative
+   * @throws NullPointerException if rampupUnit or thinkTimeUnit is null
+   * @since 1.7.0
+   */
+  public ConcurrentRequestScheduler(final int concurrentRequests, final double rampup,
+      final TimeUnit rampupUnit, @Nullable final Distribution thinkTime,
+      final TimeUnit thinkTimeUnit) {
     checkArgument(concurrentRequests > 0, "concurrentRequests must be > 0");
     checkArgument(rampup >= 0.0, "rampup must be >= 0.0 [%s]", rampup);
     checkNotNull(rampupUnit);
@@ -51,11 +86,16 @@ public class ConcurrentRequestScheduler implements Scheduler {
     this.rampup = rampup;
     this.rampupUnit = rampupUnit;
     this.started = new CountDownLatch(1);
+    this.driver = null;
+    this.limit = concurrentRequests;
+    this.thinkTime = thinkTime;
+    this.thinkTimeUnit = checkNotNull(thinkTimeUnit);
+    this.thinking = thinkTime != null ? new DelayQueue<Wakeup>() : null;
 
     if (DoubleMath.fuzzyEquals(rampup, 0.0, Math.pow(0.1, 6))) {
-      this.permits = new Semaphore(concurrentRequests);
+      this.permits = new ResizableSemaphore(concurrentRequests);
     } else {
-      this.permits = new Semaphore(0);
+      this.permits = new ResizableSemaphore(0);
       final Thread rampupThread = new Thread(new Runnable() {
         @Override
         public void run() {
@@ -82,6 +122,51 @@ public class ConcurrentRequestScheduler implements Scheduler {
       rampupThread.start();
       _logger.debug("Starting permits [{}]", this.permits.availablePermits());
     }
+
+    // the wakeup thread releases permits, so may only start once they exist
+    if (this.thinking != null) {
+      final Thread wakeupThread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          while (true) {
+            Uninterruptibles.takeUninterruptibly(ConcurrentRequestScheduler.this.thinking);
+            ConcurrentRequestScheduler.this.permits.release();
+          }
+        }
+      }, "concurrent-scheduler-think-time");
+      wakeupThread.setDaemon(true);
+      wakeupThread.start();
+    }
+  }
+
+  /**
+   * Constructs an instance whose concurrency follows a load profile. The profile level, rounded to
+   * the nearest integer, is the number of concurrent requests allowed. When the level falls,
+   * requests in progress are allowed to complete and their permits are withheld. Markers are posted
+   * to the event bus as each stage starts.
+   *
+   * @param profile the profile of concurrency to follow
+   * @param eventBus the event bus to post stage markers to
+   * @throws NullPointerException if profile or eventBus is null
+   * @since 1.7.0
+   */
+  public ConcurrentRequestScheduler(final LoadProfile profile, final EventBus eventBus) {
+    checkNotNull(profile);
+    this.concurrentRequests = 0;
+    this.rampup = 0.0;
+    this.rampupUnit = TimeUnit.SECONDS;
+    this.started = new CountDownLatch(1);
+    this.permits = new ResizableSemaphore(0);
+    this.limit = 0;
+    this.thinkTime = null;
+    this.thinkTimeUnit = TimeUnit.MILLISECONDS;
+    this.thinking = null;
+    this.driver = new LoadProfileDriver(profile, eventBus, new LoadProfileDriver.LevelListener() {
+      @Override
+      public void onLevel(final double level) {
+        resize((int) Math.round(level));
+      }
+    }, "concurrent-scheduler-profile");
   }
 
   /**
@@ -90,25 +175,114 @@ public class ConcurrentRequestScheduler implements Scheduler {
    * This implementation blocks until a previously scheduled request has completed
    */
   @Override
-  public void schedule() {
+  public long schedule() {
+    if (this.driver != null) {
+      this.driver.origin();
+    }
     this.started.countDown();
     this.permits.acquireUninterruptibly();
+    return 0;
   }
 
   /**
-   * Informs this scheduler that it should allow the calling thread on {@link #schedule} to proceed
+   * Informs this scheduler that it should allow the calling thread on {@link #schedule} to proceed,
+   * once any think time has elapsed
    * 
    * @param operation the operation for the completed request
    */
-  @Subscribe
   public void complete(final Pair<Request, Response> operation) {
+    if (this.thinking != null) {
+      final double sample;
+      // distributions are not safe for concurrent sampling
+      synchronized (this.thinkTime) {
+        sample = this.thinkTime.nextSample();
+      }
+      final long delay = (long) (sample * this.thinkTimeUnit.toNanos(1));
+      if (delay > 0) {
+        this.thinking.put(new Wakeup(System.nanoTime() + delay));
+        return;
+      }
+    }
     this.permits.release();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The level of this scheduler is the number of concurrent requests, rounded to the nearest
+   * integer. When the level falls, requests in progress are allowed to complete and their permits
+   * are withheld
+   */
+  @Override
+  public void setLevel(final double level) {
+    final int target = (int) Math.round(level);
+    checkArgument(target > 0, "level must be >= 1 [%s]", level);
+    checkState(this.driver == null && this.rampup == 0.0,
+        "level cannot be changed with a rampup or load profile");
+    resize(target);
+  }
+
+  private synchronized void resize(final int target) {
+    if (target > this.limit) {
+      this.permits.release(target - this.limit);
+    } else if (target < this.limit) {
+      this.permits.reducePermits(this.limit - target);
+    }
+    this.limit = target;
+  }
+
+  @Override
+  public synchronized double getLevel() {
+    return this.limit;
+  }
+
   @Override
   public String toString() {
+    if (this.driver != null) {
+      return String.format("ConcurrentRequestScheduler [driver=%s]", this.driver);
+    }
+    if (this.thinkTime != null) {
+      return String.format("ConcurrentRequestScheduler [users=%s, rampup=%s, rampupUnit=%s, "
+          + "thinkTime=%s, thinkTimeUnit=%s]", this.concurrentRequests, this.rampup,
+          this.rampupUnit, this.thinkTime, this.thinkTimeUnit);
+    }
     return String.format(
         "ConcurrentRequestScheduler [concurrentRequests=%s, rampup=%s, rampupUnit=%s]",
         this.concurrentRequests, this.rampup, this.rampupUnit);
   }
+
+  // the end of a user's think time
+  private static class Wakeup implements Delayed {
+    private final long deadline;
+
+    public Wakeup(final long deadline) {
+      this.deadline = deadline;
+    }
+
+    @Override
+    public long getDelay(final TimeUnit unit) {
+      return unit.convert(this.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(final Delayed o) {
+      final long diff = this.deadline - ((Wakeup) o).deadline;
+      return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+    }
+  }
+
+  // a semaphore whose permits may be withdrawn, leaving the available permits negative until enough
+  // requests in progress complete
+  private static class ResizableSemaphore extends Semaphore {
+    private static final long serialVersionUID = 1L;
+
+    public ResizableSemaphore(final int permits) {
+      super(permits);
+    }
+
+    @Override
+    public void reducePermits(final int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
 }
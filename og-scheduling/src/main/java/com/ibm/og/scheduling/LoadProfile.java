@@ -0,0 +1,270 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A declarative load level over time, made of consecutive stages. The level is unitless; a rate
+ * scheduler interprets it as a request rate and a concurrent scheduler as a number of concurrent
+ * requests. The level is zero before the first stage starts, and after the last stage ends the
+ * profile holds the level that stage ended at.
+ *
+ * @since 1.7.0
+ */
+public class LoadProfile {
+  private final List<Stage> stages;
+  private final long[] starts;
+  private final double[] fromLevels;
+  private final long duration;
+  private final double finalLevel;
+
+  /**
+   * The shape of the level during a stage
+   */
+  public enum Shape {
+    /** hold the target level for the stage duration */
+    STEP,
+    /** change linearly from the previous level to the target level over the stage duration */
+    RAMP,
+    /** hold the target level for the stage duration, then return to the previous level */
+    SPIKE,
+    /** oscillate around the target level with a configured amplitude and period */
+    SINE
+  }
+
+  /**
+   * A single stage of a load profile
+   */
+  public static class Stage {
+    private final Shape shape;
+    private final double target;
+    private final long duration;
+    private final double amplitude;
+    private final long period;
+
+    private Stage(final Shape shape, final double target, final double duration,
+        final TimeUnit unit, final double amplitude, final double period) {
+      this.shape = checkNotNull(shape);
+      checkArgument(target >= 0.0, "target must be >= 0.0 [%s]", target);
+      this.target = target;
+      checkNotNull(unit);
+      this.duration = (long) (duration * unit.toNanos(1));
+      checkArgument(this.duration > 0, "duration must be > 0 [%s %s]", duration, unit);
+      checkArgument(amplitude >= 0.0, "amplitude must be >= 0.0 [%s]", amplitude);
+      this.amplitude = amplitude;
+      this.period = (long) (period * unit.toNanos(1));
+    }
+
+    /**
+     * Creates a stage which holds a level
+     *
+     * @param target the level to hold
+     * @param duration the duration of the stage
+     * @param unit the unit of duration
+     * @return a new stage
+     * @throws IllegalArgumentException if target is negative or duration is not positive
+     * @throws NullPointerException if unit is null
+     */
+    public static Stage step(final double target, final double duration, final TimeUnit unit) {
+      return new Stage(Shape.STEP, target, duration, unit, 0.0, 0.0);
+    }
+
+    /**
+     * Creates a stage which changes linearly from the previous level to a target level
+     *
+     * @param target the level at the end of the stage
+     * @param duration the duration of the stage
+     * @param unit the unit of duration
+     * @return a new stage
+     * @throws IllegalArgumentException if target is negative or duration is not positive
+     * @throws NullPointerException if unit is null
+     */
+    public static Stage ramp(final double target, final double duration, final TimeUnit unit) {
+      return new Stage(Shape.RAMP, target, duration, unit, 0.0, 0.0);
+    }
+
+    /**
+     * Creates a stage which holds a level and then returns to the previous level
+     *
+     * @param target the level to hold
+     * @param duration the duration of the stage
+     * @param unit the unit of duration
+     * @return a new stage
+     * @throws IllegalArgumentException if target is negative or duration is not positive
+     * @throws NullPointerException if unit is null
+     */
+    public static Stage spike(final double target, final double duration, final TimeUnit unit) {
+      return new Stage(Shape.SPIKE, target, duration, unit, 0.0, 0.0);
+    }
+
+    /**
+     * Creates a stage which oscillates around a level. The oscillation starts at the mean level,
+     * rising first, and the level never falls below zero.
+     *
+     * @param mean the level to oscillate around
+     * @param amplitude the maximum deviation from the mean level
+     * @param period the duration of a single oscillation
+     * @param duration the duration of the stage
+     * @param unit the unit of period and duration
+     * @return a new stage
+     * @throws IllegalArgumentException if mean or amplitude is negative, or if period or duration
+     *         is not positive
+     * @throws NullPointerException if unit is null
+     */
+    public static Stage sine(final double mean, final double amplitude, final double period,
+        final double duration, final TimeUnit unit) {
+      final Stage stage = new Stage(Shape.SINE, mean, duration, unit, amplitude, period);
+      checkArgument(stage.period > 0, "period must be > 0 [%s %s]", period, unit);
+      return stage;
+    }
+
+    /**
+     * @return the shape of this stage
+     */
+    public Shape getShape() {
+      return this.shape;
+    }
+
+    /**
+     * @return the target level of this stage, or the mean level of a sine stage
+     */
+    public double getTarget() {
+      return this.target;
+    }
+
+    /**
+     * @param unit the unit to return the duration in
+     * @return the duration of this stage
+     */
+    public long getDuration(final TimeUnit unit) {
+      return unit.convert(this.duration, TimeUnit.NANOSECONDS);
+    }
+
+    private double level(final double from, final long elapsed) {
+      switch (this.shape) {
+        case RAMP:
+          return from + (this.target - from) * ((double) elapsed / this.duration);
+        case SINE:
+          final double angle = 2 * Math.PI * ((double) elapsed / this.period);
+          return Math.max(0.0, this.target + this.amplitude * Math.sin(angle));
+        default:
+          return this.target;
+      }
+    }
+
+    private double endLevel(final double from) {
+      return this.shape == Shape.SPIKE ? from : this.target;
+    }
+
+    @Override
+    public String toString() {
+      final double seconds = (double) this.duration / TimeUnit.SECONDS.toNanos(1);
+      if (this.shape == Shape.SINE) {
+        return String.format("sine %s +/- %s, period %ss, for %ss", this.target, this.amplitude,
+            (double) this.period / TimeUnit.SECONDS.toNanos(1), seconds);
+      }
+      return String.format("%s %s for %ss", this.shape.toString().toLowerCase(Locale.US),
+          this.target, seconds);
+    }
+  }
+
+  /**
+   * Constructs an instance
+   *
+   * @param stages the stages of this profile, in order
+   * @throws NullPointerException if stages is null or contains null elements
+   * @throws IllegalArgumentException if stages is empty, or the profile ends at a zero level
+   */
+  public LoadProfile(final List<Stage> stages) {
+    this.stages = ImmutableList.copyOf(stages);
+    checkArgument(!this.stages.isEmpty(), "stages must not be empty");
+    this.starts = new long[this.stages.size()];
+    this.fromLevels = new double[this.stages.size()];
+
+    long start = 0;
+    double level = 0.0;
+    for (int i = 0; i < this.stages.size(); i++) {
+      final Stage stage = this.stages.get(i);
+      this.starts[i] = start;
+      this.fromLevels[i] = level;
+      start += stage.duration;
+      level = stage.endLevel(level);
+    }
+    this.duration = start;
+    this.finalLevel = level;
+    // a profile which ends idle would never permit another request
+    checkArgument(this.finalLevel > 0.0, "profile must not end at a zero level");
+  }
+
+  /**
+   * @return the stages of this profile, in order
+   */
+  public List<Stage> getStages() {
+    return this.stages;
+  }
+
+  /**
+   * Calculates the level at a point in the profile
+   *
+   * @param elapsed nanoseconds since the start of the profile
+   * @return the level at that point
+   */
+  public double level(final long elapsed) {
+    if (elapsed < 0) {
+      return 0.0;
+    }
+    if (elapsed >= this.duration) {
+      return this.finalLevel;
+    }
+    final int stage = stage(elapsed);
+    return this.stages.get(stage).level(this.fromLevels[stage], elapsed - this.starts[stage]);
+  }
+
+  /**
+   * Determines the stage active at a point in the profile
+   *
+   * @param elapsed nanoseconds since the start of the profile
+   * @return the index of the active stage, or the index of the last stage once the profile has
+   *         ended
+   */
+  public int stage(final long elapsed) {
+    int stage = 0;
+    while (stage + 1 < this.starts.length && this.starts[stage + 1] <= elapsed) {
+      stage++;
+    }
+    return stage;
+  }
+
+  /**
+   * @param stage the index of a stage
+   * @return nanoseconds from the start of the profile to the start of the stage
+   * @throws IndexOutOfBoundsException if stage is not a valid index
+   */
+  public long start(final int stage) {
+    return this.starts[stage];
+  }
+
+  /**
+   * @param unit the unit to return the duration in
+   * @return the combined duration of all stages
+   */
+  public long getDuration(final TimeUnit unit) {
+    return unit.convert(this.duration, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LoadProfile [stages=%s]", this.stages);
+  }
+}
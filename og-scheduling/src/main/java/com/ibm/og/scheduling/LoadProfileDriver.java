@@ -0,0 +1,144 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.util.StageMarker;
+
+/**
+ * Runs a load profile against the clock. The profile starts on the first call to
+ * {@link #origin()}, after which a daemon thread posts a {@link StageMarker} as each stage starts
+ * and, if configured with a listener, reports the current level every {@link #RESOLUTION_NANOS}.
+ *
+ * @since 1.7.0
+ */
+class LoadProfileDriver {
+  private static final Logger _logger = LoggerFactory.getLogger(LoadProfileDriver.class);
+  static final long RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long UNSTARTED = Long.MIN_VALUE;
+  private final LoadProfile profile;
+  private final EventBus eventBus;
+  private final LevelListener listener;
+  private final AtomicLong origin;
+  private final Thread thread;
+  // wall clock time of the origin, written before the driver thread starts
+  private long originMillis;
+
+  /**
+   * A receiver of the current level of a running profile
+   */
+  interface LevelListener {
+    /**
+     * Called on the driver thread with the level at the current point in the profile
+     *
+     * @param level the current level
+     */
+    void onLevel(double level);
+  }
+
+  /**
+   * Constructs an instance
+   *
+   * @param profile the profile to run
+   * @param eventBus the event bus to post stage markers to
+   * @param listener a receiver of the current level, or null if only stage markers are required
+   * @param name the name of the driver thread
+   * @throws NullPointerException if profile, eventBus or name is null
+   */
+  LoadProfileDriver(final LoadProfile profile, final EventBus eventBus,
+      @Nullable final LevelListener listener, final String name) {
+    this.profile = checkNotNull(profile);
+    this.eventBus = checkNotNull(eventBus);
+    this.listener = listener;
+    this.origin = new AtomicLong(UNSTARTED);
+    this.thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        drive();
+      }
+    }, checkNotNull(name));
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * Returns the start of the profile, starting it if this is the first call
+   *
+   * @return the start of the profile, from {@link System#nanoTime()}
+   */
+  long origin() {
+    final long origin = this.origin.get();
+    if (origin != UNSTARTED) {
+      return origin;
+    }
+    final long millis = System.currentTimeMillis();
+    if (this.origin.compareAndSet(UNSTARTED, System.nanoTime())) {
+      this.originMillis = millis;
+      this.thread.start();
+    }
+    return this.origin.get();
+  }
+
+  /**
+   * @return the current level of the profile, or zero if the profile has not started
+   */
+  double level() {
+    final long origin = this.origin.get();
+    if (origin == UNSTARTED) {
+      return 0.0;
+    }
+    return this.profile.level(System.nanoTime() - origin);
+  }
+
+  private void drive() {
+    final long origin = this.origin.get();
+    final int lastStage = this.profile.getStages().size() - 1;
+    final long duration = this.profile.getDuration(TimeUnit.NANOSECONDS);
+    int stage = -1;
+    while (true) {
+      final long elapsed = System.nanoTime() - origin;
+      final int current = this.profile.stage(elapsed);
+      while (stage < current) {
+        stage++;
+        final LoadProfile.Stage s = this.profile.getStages().get(stage);
+        _logger.info("Starting load profile stage {} [{}]", stage, s);
+        // markers carry the planned start of a stage, regardless of when this thread wakes
+        final long start = this.originMillis
+            + TimeUnit.NANOSECONDS.toMillis(this.profile.start(stage));
+        this.eventBus.post(new StageMarker(stage, s.toString(), start));
+      }
+      if (this.listener != null) {
+        this.listener.onLevel(this.profile.level(elapsed));
+      }
+      if (stage == lastStage && (this.listener == null || elapsed >= duration)) {
+        break;
+      }
+
+      // sleep until the next stage starts, or until the next level update is due
+      long sleep = stage < lastStage ? this.profile.start(stage + 1) - elapsed : duration - elapsed;
+      if (this.listener != null) {
+        sleep = Math.min(sleep, RESOLUTION_NANOS);
+      }
+      Uninterruptibles.sleepUninterruptibly(Math.max(sleep, 0), TimeUnit.NANOSECONDS);
+    }
+    _logger.info("Finished load profile");
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LoadProfileDriver [profile=%s]", this.profile);
+  }
+}
@@ -0,0 +1,108 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A scheduler which permits calls at a configured rate according to a fixed timeline. The n-th
+ * call is intended to start at a planned offset from the first call, regardless of when earlier
+ * calls were permitted. A caller which falls behind, for example because a slow target backs up
+ * the client, is permitted immediately and is given the earlier intended start time. Latency
+ * measured from that time includes the delay, rather than hiding it as a scheduler which slips
+ * its timeline does (coordinated omission).
+ * <p>
+ * With a rampup, the rate grows linearly from zero to the configured rate over the rampup
+ * duration. Start times are claimed with a single atomic increment, so any number of threads may
+ * call {@link #schedule()} concurrently.
+ *
+ * @since 1.7.0
+ */
+public class OpenLoopScheduler implements Scheduler {
+  private static final long UNSTARTED = Long.MIN_VALUE;
+  private final double rate;
+  private final TimeUnit unit;
+  private final double rampup;
+  private final TimeUnit rampupUnit;
+  private final double nanosPerRequest;
+  private final double rampNanos;
+  private final double rampRequests;
+  private final AtomicLong origin;
+  private final AtomicLong scheduled;
+
+  /**
+   * Constructs an instance using the provided rate {@code count / unit }
+   *
+   * @param rate the numerator of the rate to configure
+   * @param unit the denominator of the rate to configure
+   * @param rampup the duration to ramp up to the stable request rate
+   * @param rampupUnit the rampup duration unit
+   * @throws IllegalArgumentException if rate is not positive or rampup is negative
+   * @throws NullPointerException if unit or rampupUnit is null
+   */
+  public OpenLoopScheduler(final double rate, final TimeUnit unit, final double rampup,
+      final TimeUnit rampupUnit) {
+    checkArgument(rate > 0.0, "rate must be > 0.0 [%s]", rate);
+    this.rate = rate;
+    this.unit = checkNotNull(unit);
+    checkArgument(rampup >= 0.0, "rampup must be >= 0.0 [%s]", rampup);
+    this.rampup = rampup;
+    this.rampupUnit = checkNotNull(rampupUnit);
+
+    this.nanosPerRequest = unit.toNanos(1) / rate;
+    this.rampNanos = rampup * rampupUnit.toNanos(1);
+    // the area under the linear ramp of the rate
+    this.rampRequests = this.rampNanos / this.nanosPerRequest / 2;
+    this.origin = new AtomicLong(UNSTARTED);
+    this.scheduled = new AtomicLong();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * This implementation blocks until the intended start time of the next call on the timeline,
+   * and returns immediately if that time has already passed
+   */
+  @Override
+  public long schedule() {
+    final long intendedStart = origin() + offset(this.scheduled.getAndIncrement());
+    Timing.sleepUntil(intendedStart);
+    return intendedStart;
+  }
+
+  private long origin() {
+    final long origin = this.origin.get();
+    if (origin != UNSTARTED) {
+      return origin;
+    }
+    this.origin.compareAndSet(UNSTARTED, System.nanoTime());
+    return this.origin.get();
+  }
+
+  /**
+   * Calculates the intended start time of a call, relative to the first call
+   *
+   * @param n the index of the call, starting at zero
+   * @return nanoseconds from the intended start of the first call
+   */
+  long offset(final long n) {
+    if (n < this.rampRequests) {
+      // n = t^2 / (2 * rampNanos * nanosPerRequest) while ramping
+      return (long) Math.sqrt(2 * this.rampNanos * this.nanosPerRequest * n);
+    }
+    return (long) (this.rampNanos + (n - this.rampRequests) * this.nanosPerRequest);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("OpenLoopScheduler [rate=%s, unit=%s, rampup=%s, rampupUnit=%s]",
+        this.rate, this.unit, this.rampup, this.rampupUnit);
+  }
+}
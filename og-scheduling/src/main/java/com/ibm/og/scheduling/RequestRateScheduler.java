@@ -7,6 +7,7 @@ package com.ibm.og.scheduling;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import java.math.RoundingMode;
 import java.util.concurrent.CountDownLatch;
@@ -16,16 +17,18 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.eventbus.EventBus;
 import com.google.common.math.DoubleMath;
 import com.google.common.util.concurrent.RateLimiter;
 import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.util.Distribution;
 
 /**
  * A scheduler which permits calls at a configured rate
  * 
  * @since 1.0
  */
-public class RequestRateScheduler implements Scheduler {
+public class RequestRateScheduler implements AdjustableScheduler {
   private static final Logger _logger = LoggerFactory.getLogger(RequestRateScheduler.class);
   private final double rate;
   private final TimeUnit unit;
@@ -33,6 +36,12 @@ public class RequestRateScheduler implements Scheduler {
   private final TimeUnit rampupUnit;
   private final AtomicReference<RateLimiter> permits;
   private final CountDownLatch started;
+  private final LoadProfileDriver driver;
+  private final LoadProfile profile;
+  private final Distribution arrivals;
+  private final double nanosPerUnit;
+  private long next;
+  private boolean arriving;
 
   /**
    * Constructs an instance using the provided rate {@code count / unit }
@@ -107,6 +116,59 @@ public class RequestRateScheduler implements Scheduler {
       rampupThread.start();
     }
     this.started = new CountDownLatch(1);
+    this.driver = null;
+    this.profile = null;
+    this.arrivals = null;
+    this.nanosPerUnit = 0.0;
+  }
+
+  /**
+   * Constructs an instance which follows a load profile. The profile level is the numerator of the
+   * rate, and changes in level take effect on the next permit rather than at a coarse step.
+   * Markers are posted to the event bus as each stage starts.
+   *
+   * @param profile the profile of request rates to follow
+   * @param unit the denominator of the rate
+   * @param eventBus the event bus to post stage markers to
+   * @throws NullPointerException if profile, unit or eventBus is null
+   * @since 1.7.0
+   */
+  public RequestRateScheduler(final LoadProfile profile, final TimeUnit unit,
+      final EventBus eventBus) {
+    this.profile = checkNotNull(profile);
+    this.unit = checkNotNull(unit);
+    this.driver = new LoadProfileDriver(profile, eventBus, null, "rate-scheduler-profile");
+    this.nanosPerUnit = unit.toNanos(1);
+    this.rate = 0.0;
+    this.rampup = 0.0;
+    this.rampupUnit = TimeUnit.SECONDS;
+    this.permits = null;
+    this.started = null;
+    this.arrivals = null;
+  }
+
+  /**
+   * Constructs an instance whose gaps between permits are drawn from a distribution, such as an
+   * exponential distribution for poisson arrivals or a trace of recorded gaps. Permits follow a
+   * timeline which is waited on with microsecond precision, so the spacing of permits stays
+   * accurate at rates where a sleep would overshoot each gap.
+   *
+   * @param arrivals the distribution of gaps between permits
+   * @param unit the unit of the gaps
+   * @throws NullPointerException if arrivals or unit is null
+   * @since 1.7.0
+   */
+  public RequestRateScheduler(final Distribution arrivals, final TimeUnit unit) {
+    this.arrivals = checkNotNull(arrivals);
+    this.unit = checkNotNull(unit);
+    this.nanosPerUnit = unit.toNanos(1);
+    this.rate = 0.0;
+    this.rampup = 0.0;
+    this.rampupUnit = TimeUnit.SECONDS;
+    this.permits = null;
+    this.started = null;
+    this.driver = null;
+    this.profile = null;
   }
 
   double requestsPerSecond(final double rate, final TimeUnit unit) {
@@ -114,13 +176,108 @@ public class RequestRateScheduler implements Scheduler {
   }
 
   @Override
-  public void schedule() {
+  public long schedule() {
+    if (this.arrivals != null) {
+      Timing.sleepUntil(nextArrival());
+      return 0;
+    }
+    if (this.profile != null) {
+      final long origin = this.driver.origin();
+      Timing.sleepUntil(origin + nextPermit(System.nanoTime() - origin));
+      return 0;
+    }
     this.started.countDown();
     this.permits.get().acquire();
+    return 0;
+  }
+
+  /**
+   * Claims the next permit on the profile timeline. Like a {@link RateLimiter}, permits which were
+   * not claimed in time are not saved up, so a caller which falls behind does not cause a burst
+   *
+   * @param elapsed nanoseconds since the start of the profile
+   * @return the offset of the claimed permit from the start of the profile
+   */
+  private synchronized long nextPermit(final long elapsed) {
+    final long permit = Math.max(this.next, elapsed);
+    this.next = after(permit);
+    return permit;
+  }
+
+  /**
+   * Claims the next permit on the arrival timeline, which starts with the first call. As with the
+   * profile timeline, permits which were not claimed in time are not saved up
+   *
+   * @return the time of the claimed permit, from {@link System#nanoTime()}
+   */
+  private synchronized long nextArrival() {
+    final long now = System.nanoTime();
+    if (!this.arriving) {
+      this.next = now;
+      this.arriving = true;
+    }
+    final long permit = this.next - now > 0 ? this.next : now;
+    this.next = permit + Math.round(this.arrivals.nextSample() * this.nanosPerUnit);
+    return permit;
+  }
+
+  /**
+   * Calculates the offset at which the level of the profile, integrated from a permit, reaches one
+   * further permit. The integration steps at the resolution of the profile driver, so rate changes
+   * within a step take effect with at most that delay, and zero levels are waited out.
+   *
+   * @param permit the offset of a permit from the start of the profile
+   * @return the offset of the following permit from the start of the profile
+   */
+  long after(final long permit) {
+    double remaining = 1.0;
+    long t = permit;
+    while (true) {
+      final double permitsPerNano = this.profile.level(t) / this.nanosPerUnit;
+      if (permitsPerNano > 0.0) {
+        final double interval = remaining / permitsPerNano;
+        if (interval <= LoadProfileDriver.RESOLUTION_NANOS) {
+          return t + (long) interval;
+        }
+        remaining -= permitsPerNano * LoadProfileDriver.RESOLUTION_NANOS;
+      }
+      t += LoadProfileDriver.RESOLUTION_NANOS;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * The level of this scheduler is the numerator of its rate
+   */
+  @Override
+  public void setLevel(final double level) {
+    checkArgument(level > 0.0, "level must be > 0.0 [%s]", level);
+    checkState(this.profile == null && this.arrivals == null && this.rampup == 0.0,
+        "level cannot be changed with a rampup, load profile or arrival distribution");
+    this.permits.get().setRate(requestsPerSecond(level, this.unit));
+  }
+
+  @Override
+  public double getLevel() {
+    if (this.profile != null) {
+      return this.driver.level();
+    }
+    if (this.arrivals != null) {
+      return 1.0 / this.arrivals.getAverage();
+    }
+    return this.permits.get().getRate() * this.unit.toNanos(1) / TimeUnit.SECONDS.toNanos(1);
   }
 
   @Override
   public String toString() {
+    if (this.profile != null) {
+      return String.format("RequestRateScheduler [profile=%s, unit=%s]", this.profile, this.unit);
+    }
+    if (this.arrivals != null) {
+      return String.format("RequestRateScheduler [arrivals=%s, unit=%s]", this.arrivals,
+          this.unit);
+    }
     return String.format("RequestRateScheduler [rate=%s, unit=%s, rampup=%s, rampupUnit=%s]",
         this.rate, this.unit, this.rampup, this.rampupUnit);
   }
@@ -13,6 +13,9 @@ package com.ibm.og.scheduling;
 public interface Scheduler {
   /**
    * Blocks until permitted to continue
+   * 
+   * @return the time, from {@link System#nanoTime()}, at which the permitted request was intended
+   *         to start, or {@code 0} if this scheduler does not plan start times
    */
-  void schedule();
+  long schedule();
 }
@@ -0,0 +1,48 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Waits for points in time with a precision of microseconds. A plain sleep may overshoot its
+ * deadline by tens of microseconds, which is a significant error once permits are only a few
+ * microseconds apart. This class parks the calling thread until shortly before a deadline and
+ * spins for the remainder.
+ *
+ * @since 1.7.0
+ */
+final class Timing {
+  /** the duration before a deadline below which the calling thread spins rather than parks */
+  static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private Timing() {}
+
+  /**
+   * Blocks until a point in time. Like {@link Uninterruptibles#sleepUninterruptibly}, an interrupt
+   * does not end the wait early, and the interrupt status of the calling thread is preserved
+   *
+   * @param deadline the point in time to wait for, from {@link System#nanoTime()}
+   */
+  static void sleepUntil(final long deadline) {
+    long remaining = deadline - System.nanoTime();
+    while (remaining > SPIN_NANOS) {
+      if (Thread.currentThread().isInterrupted()) {
+        // park returns immediately while interrupted, so sleep out the remaining time instead
+        Uninterruptibles.sleepUninterruptibly(remaining, TimeUnit.NANOSECONDS);
+        return;
+      }
+      LockSupport.parkNanos(remaining - SPIN_NANOS);
+      remaining = deadline - System.nanoTime();
+    }
+    while (deadline - System.nanoTime() > 0) {
+      // spin
+    }
+  }
+}
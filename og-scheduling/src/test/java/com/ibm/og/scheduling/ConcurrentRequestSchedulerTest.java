@@ -6,11 +6,13 @@
 package com.ibm.og.scheduling;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -20,7 +22,10 @@ import org.junit.runner.RunWith;
 
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
+import com.ibm.og.util.Distributions;
 import com.ibm.og.util.Pair;
+import com.google.common.collect.ImmutableList;
+import com.google.common.eventbus.EventBus;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
@@ -80,4 +85,114 @@ public class ConcurrentRequestSchedulerTest {
     }
     assertThat(count, is(concurrentRequests));
   }
+
+  @Test
+  public void profileConcurrency() {
+    // two concurrent requests for 100ms, then one
+    final ConcurrentRequestScheduler scheduler = new ConcurrentRequestScheduler(
+        new LoadProfile(ImmutableList.of(LoadProfile.Stage.step(2.0, 100, TimeUnit.MILLISECONDS),
+            LoadProfile.Stage.step(1.0, 100, TimeUnit.MILLISECONDS))),
+        new EventBus());
+    final Pair<Request, Response> operation = Pair.of(mock(Request.class), mock(Response.class));
+    scheduler.schedule();
+    scheduler.schedule();
+
+    // both requests complete once the level has fallen; only one may then be in progress
+    Uninterruptibles.sleepUninterruptibly(150, TimeUnit.MILLISECONDS);
+    scheduler.complete(operation);
+    scheduler.complete(operation);
+    final AtomicInteger scheduled = new AtomicInteger();
+    final Thread t = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (true) {
+          scheduler.schedule();
+          scheduled.incrementAndGet();
+        }
+      }
+    });
+    t.setDaemon(true);
+    t.start();
+    Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+    assertThat(scheduled.get(), is(1));
+  }
+
+  @Test
+  public void setLevel() {
+    final ConcurrentRequestScheduler scheduler =
+        new ConcurrentRequestScheduler(2, 0.0, TimeUnit.SECONDS);
+    final Pair<Request, Response> operation = Pair.of(mock(Request.class), mock(Response.class));
+    scheduler.schedule();
+    scheduler.schedule();
+    scheduler.setLevel(1.0);
+    assertThat(scheduler.getLevel(), is(1.0));
+
+    // both requests in progress complete, after which only one may be in progress
+    scheduler.complete(operation);
+    scheduler.complete(operation);
+    scheduler.schedule();
+    final Thread t = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        scheduler.schedule();
+      }
+    });
+    t.setDaemon(true);
+    t.start();
+    Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+    assertThat(t.isAlive(), is(true));
+    scheduler.setLevel(2.0);
+    Uninterruptibles.joinUninterruptibly(t, 1, TimeUnit.SECONDS);
+    assertThat(t.isAlive(), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setZeroLevel() {
+    new ConcurrentRequestScheduler(1, 0.0, TimeUnit.SECONDS).setLevel(0.4);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void setLevelWithRampup() {
+    new ConcurrentRequestScheduler(1, 1.0, TimeUnit.SECONDS).setLevel(2.0);
+  }
+
+  @Test
+  public void thinkTime() {
+    final ConcurrentRequestScheduler scheduler = new ConcurrentRequestScheduler(1, 0.0,
+        TimeUnit.SECONDS, Distributions.uniform(50.0, 0.0), TimeUnit.MILLISECONDS);
+    final Pair<Request, Response> operation = Pair.of(mock(Request.class), mock(Response.class));
+    scheduler.schedule();
+    final long start = System.nanoTime();
+    scheduler.complete(operation);
+    scheduler.schedule();
+    assertThat(System.nanoTime() - start,
+        greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50)));
+  }
+
+  @Test
+  public void thinkTimeManyUsers() {
+    final int users = 100000;
+    final ConcurrentRequestScheduler scheduler = new ConcurrentRequestScheduler(users, 0.0,
+        TimeUnit.SECONDS, Distributions.uniform(20.0, 10.0), TimeUnit.MILLISECONDS);
+    final Pair<Request, Response> operation = Pair.of(mock(Request.class), mock(Response.class));
+    for (int i = 0; i < users; i++) {
+      scheduler.schedule();
+    }
+    for (int i = 0; i < users; i++) {
+      scheduler.complete(operation);
+    }
+    // every user thinks for at most 30 milliseconds, then may start another request
+    final Thread t = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < users; i++) {
+          scheduler.schedule();
+        }
+      }
+    });
+    t.setDaemon(true);
+    t.start();
+    Uninterruptibles.joinUninterruptibly(t, 5, TimeUnit.SECONDS);
+    assertThat(t.isAlive(), is(false));
+  }
 }
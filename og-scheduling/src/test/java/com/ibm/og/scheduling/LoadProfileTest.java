@@ -0,0 +1,114 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class LoadProfileTest {
+  private static final double ERROR = Math.pow(0.1, 6);
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emptyProfile() {
+    new LoadProfile(ImmutableList.<LoadProfile.Stage>of());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullStages() {
+    new LoadProfile(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void endsIdle() {
+    new LoadProfile(ImmutableList.of(LoadProfile.Stage.step(10.0, 1, TimeUnit.SECONDS),
+        LoadProfile.Stage.ramp(0.0, 1, TimeUnit.SECONDS)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeTarget() {
+    LoadProfile.Stage.step(-1.0, 1, TimeUnit.SECONDS);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroDuration() {
+    LoadProfile.Stage.ramp(1.0, 0, TimeUnit.SECONDS);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroSinePeriod() {
+    LoadProfile.Stage.sine(1.0, 1.0, 0.0, 1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void rampHoldSpikeStep() {
+    // ramp to 100 over 10s, hold for 10s, spike to 400 for 1s, step down to 50
+    final List<LoadProfile.Stage> stages = ImmutableList.of(
+        LoadProfile.Stage.ramp(100.0, 10, TimeUnit.SECONDS),
+        LoadProfile.Stage.step(100.0, 10, TimeUnit.SECONDS),
+        LoadProfile.Stage.spike(400.0, 1, TimeUnit.SECONDS),
+        LoadProfile.Stage.step(50.0, 5, TimeUnit.SECONDS));
+    final LoadProfile profile = new LoadProfile(stages);
+
+    assertThat(profile.getDuration(TimeUnit.SECONDS), is(26L));
+    assertThat(profile.level(-1), closeTo(0.0, ERROR));
+    assertThat(profile.level(0), closeTo(0.0, ERROR));
+    assertThat(profile.level(nanos(2.5)), closeTo(25.0, ERROR));
+    assertThat(profile.level(nanos(9.9)), closeTo(99.0, ERROR));
+    assertThat(profile.level(nanos(15)), closeTo(100.0, ERROR));
+    assertThat(profile.level(nanos(20.5)), closeTo(400.0, ERROR));
+    assertThat(profile.level(nanos(21)), closeTo(50.0, ERROR));
+    // the last level is held after the profile ends
+    assertThat(profile.level(nanos(1000)), closeTo(50.0, ERROR));
+
+    assertThat(profile.stage(0), is(0));
+    assertThat(profile.stage(nanos(10)), is(1));
+    assertThat(profile.stage(nanos(20.5)), is(2));
+    assertThat(profile.stage(nanos(1000)), is(3));
+    assertThat(profile.start(2), is(nanos(20)));
+  }
+
+  @Test
+  public void spikeReturnsToPreviousLevel() {
+    final LoadProfile profile = new LoadProfile(ImmutableList.of(
+        LoadProfile.Stage.step(100.0, 1, TimeUnit.SECONDS),
+        LoadProfile.Stage.spike(1000.0, 500, TimeUnit.MILLISECONDS)));
+    assertThat(profile.level(nanos(1.25)), closeTo(1000.0, ERROR));
+    assertThat(profile.level(nanos(1.5)), closeTo(100.0, ERROR));
+  }
+
+  @Test
+  public void rampFromPreviousLevel() {
+    final LoadProfile profile = new LoadProfile(ImmutableList.of(
+        LoadProfile.Stage.step(100.0, 1, TimeUnit.SECONDS),
+        LoadProfile.Stage.ramp(200.0, 1, TimeUnit.SECONDS)));
+    assertThat(profile.level(nanos(1.5)), closeTo(150.0, ERROR));
+  }
+
+  @Test
+  public void sine() {
+    final LoadProfile profile = new LoadProfile(
+        ImmutableList.of(LoadProfile.Stage.sine(100.0, 150.0, 4, 8, TimeUnit.SECONDS)));
+    assertThat(profile.level(0), closeTo(100.0, ERROR));
+    assertThat(profile.level(nanos(1)), closeTo(250.0, ERROR));
+    assertThat(profile.level(nanos(2)), closeTo(100.0, ERROR));
+    // the level does not fall below zero
+    assertThat(profile.level(nanos(3)), closeTo(0.0, ERROR));
+    assertThat(profile.level(nanos(5)), closeTo(250.0, ERROR));
+    assertThat(profile.level(nanos(8)), closeTo(100.0, ERROR));
+  }
+
+  private static long nanos(final double seconds) {
+    return (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+  }
+}
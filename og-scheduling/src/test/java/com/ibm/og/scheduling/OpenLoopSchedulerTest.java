@@ -0,0 +1,97 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class OpenLoopSchedulerTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @DataProvider
+  public static Object[][] provideInvalidOpenLoopScheduler() {
+    final double rate = 10.0;
+    final TimeUnit unit = TimeUnit.SECONDS;
+    return new Object[][] {{0.0, unit, 0.0, unit, IllegalArgumentException.class},
+        {-1.0, unit, 0.0, unit, IllegalArgumentException.class},
+        {rate, null, 0.0, unit, NullPointerException.class},
+        {rate, unit, -1.0, unit, IllegalArgumentException.class},
+        {rate, unit, 0.0, null, NullPointerException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidOpenLoopScheduler")
+  public void invalidOpenLoopScheduler(final double rate, final TimeUnit unit,
+      final double rampup, final TimeUnit rampupUnit, final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    new OpenLoopScheduler(rate, unit, rampup, rampupUnit);
+  }
+
+  @DataProvider
+  public static Object[][] provideOffset() {
+    return new Object[][] {{10.0, TimeUnit.SECONDS, 0L, 0L}, {10.0, TimeUnit.SECONDS, 1L, 100L},
+        {10.0, TimeUnit.SECONDS, 25L, 2500L}, {2.0, TimeUnit.MILLISECONDS, 4L, 2L},
+        {60.0, TimeUnit.MINUTES, 3L, 3000L}};
+  }
+
+  @Test
+  @UseDataProvider("provideOffset")
+  public void offset(final double rate, final TimeUnit unit, final long n,
+      final long expectedMillis) {
+    final OpenLoopScheduler s = new OpenLoopScheduler(rate, unit, 0.0, TimeUnit.SECONDS);
+    assertThat(TimeUnit.NANOSECONDS.toMillis(s.offset(n)), is(expectedMillis));
+  }
+
+  @Test
+  public void rampupOffset() {
+    // 10 requests per second, ramping linearly over 2 seconds, plans 10 requests during the ramp
+    final OpenLoopScheduler s = new OpenLoopScheduler(10.0, TimeUnit.SECONDS, 2.0,
+        TimeUnit.SECONDS);
+    assertThat(s.offset(0), is(0L));
+    // n = 10 * t^2 / 4, so the 5th request starts at sqrt(2) seconds
+    assertThat(TimeUnit.NANOSECONDS.toMillis(s.offset(5)), is(1414L));
+    assertThat(TimeUnit.NANOSECONDS.toMillis(s.offset(10)), is(2000L));
+    assertThat(TimeUnit.NANOSECONDS.toMillis(s.offset(11)), is(2100L));
+  }
+
+  @Test
+  public void scheduleWithoutSlipping() {
+    final OpenLoopScheduler s = new OpenLoopScheduler(100.0, TimeUnit.SECONDS, 0.0,
+        TimeUnit.SECONDS);
+    final long first = s.schedule();
+    // a caller which falls behind is permitted immediately with its planned start times
+    Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+    final long beforeCatchUp = System.nanoTime();
+    for (int i = 1; i <= 10; i++) {
+      assertThat(s.schedule() - first, is(TimeUnit.MILLISECONDS.toNanos(10 * i)));
+    }
+    assertThat(System.nanoTime() - beforeCatchUp, lessThan(TimeUnit.MILLISECONDS.toNanos(100)));
+  }
+
+  @Test
+  public void scheduleWaitsForIntendedStart() {
+    final OpenLoopScheduler s = new OpenLoopScheduler(20.0, TimeUnit.SECONDS, 0.0,
+        TimeUnit.SECONDS);
+    s.schedule();
+    final long intendedStart = s.schedule();
+    assertThat(intendedStart - System.nanoTime(), lessThan(1L));
+  }
+}
@@ -7,7 +7,12 @@ package com.ibm.og.scheduling;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Rule;
@@ -15,6 +20,11 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.ibm.og.util.Distributions;
+import com.ibm.og.util.StageMarker;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -61,4 +71,105 @@ public class RequestRateSchedulerTest {
     assertThat(s.requestsPerSecond(rate, unit),
         closeTo(expectedRequestsPerSecond, Math.pow(0.1, 6)));
   }
+
+  @Test
+  public void profilePermitSpacing() {
+    final RequestRateScheduler s = new RequestRateScheduler(
+        new LoadProfile(ImmutableList.of(LoadProfile.Stage.step(100.0, 1, TimeUnit.SECONDS),
+            LoadProfile.Stage.step(1000.0, 1, TimeUnit.SECONDS))),
+        TimeUnit.SECONDS, new EventBus());
+    final long halfSecond = TimeUnit.MILLISECONDS.toNanos(500);
+    final long twoSeconds = TimeUnit.SECONDS.toNanos(2);
+    assertThat(s.after(halfSecond) - halfSecond, is(TimeUnit.MILLISECONDS.toNanos(10)));
+    assertThat(s.after(twoSeconds) - twoSeconds, is(TimeUnit.MILLISECONDS.toNanos(1)));
+  }
+
+  @Test
+  public void profileWaitsOutIdleStage() {
+    final RequestRateScheduler s = new RequestRateScheduler(
+        new LoadProfile(ImmutableList.of(LoadProfile.Stage.step(0.0, 1, TimeUnit.SECONDS),
+            LoadProfile.Stage.step(100.0, 1, TimeUnit.SECONDS))),
+        TimeUnit.SECONDS, new EventBus());
+    assertThat(s.after(0), is(TimeUnit.MILLISECONDS.toNanos(1010)));
+  }
+
+  @Test
+  public void profileStageMarkers() {
+    final EventBus eventBus = new EventBus();
+    final List<StageMarker> markers = new CopyOnWriteArrayList<StageMarker>();
+    eventBus.register(new Object() {
+      @Subscribe
+      public void marker(final StageMarker marker) {
+        markers.add(marker);
+      }
+    });
+    final RequestRateScheduler s = new RequestRateScheduler(
+        new LoadProfile(ImmutableList.of(LoadProfile.Stage.ramp(1000.0, 50, TimeUnit.MILLISECONDS),
+            LoadProfile.Stage.step(1000.0, 50, TimeUnit.MILLISECONDS))),
+        TimeUnit.SECONDS, eventBus);
+    final long start = System.nanoTime();
+    while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200)) {
+      s.schedule();
+    }
+    assertThat(markers.size(), is(2));
+    assertThat(markers.get(0).getStage(), is(0));
+    assertThat(markers.get(1).getStage(), is(1));
+    assertThat(markers.get(1).getTimestamp() - markers.get(0).getTimestamp(),
+        greaterThanOrEqualTo(50L));
+  }
+
+  @Test
+  public void setLevel() {
+    final RequestRateScheduler s =
+        new RequestRateScheduler(10.0, TimeUnit.MINUTES, 0.0, TimeUnit.SECONDS);
+    assertThat(s.getLevel(), closeTo(10.0, Math.pow(0.1, 6)));
+    s.setLevel(120.0);
+    assertThat(s.getLevel(), closeTo(120.0, Math.pow(0.1, 6)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setZeroLevel() {
+    new RequestRateScheduler(1.0, TimeUnit.SECONDS, 0.0, TimeUnit.SECONDS).setLevel(0.0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void setLevelWithProfile() {
+    new RequestRateScheduler(
+        new LoadProfile(ImmutableList.of(LoadProfile.Stage.step(1.0, 1, TimeUnit.SECONDS))),
+        TimeUnit.SECONDS, new EventBus()).setLevel(2.0);
+  }
+
+  @Test
+  public void poissonArrivals() {
+    // 20000 requests at 200000/s, with exponential gaps averaging 5 microseconds
+    final RequestRateScheduler s =
+        new RequestRateScheduler(Distributions.exponential(5.0), TimeUnit.MICROSECONDS);
+    assertThat(s.getLevel(), closeTo(0.2, Math.pow(0.1, 6)));
+    final long start = System.nanoTime();
+    for (int i = 0; i < 20000; i++) {
+      s.schedule();
+    }
+    final long elapsed = System.nanoTime() - start;
+    assertThat(elapsed, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(80)));
+    assertThat(elapsed, lessThan(TimeUnit.MILLISECONDS.toNanos(250)));
+  }
+
+  @Test
+  public void traceArrivals() {
+    final RequestRateScheduler s = new RequestRateScheduler(
+        Distributions.trace(ImmutableList.of(10.0, 30.0)), TimeUnit.MILLISECONDS);
+    final long start = System.nanoTime();
+    // permits at 0, 10, 40 and 50 milliseconds
+    for (int i = 0; i < 4; i++) {
+      s.schedule();
+    }
+    final long elapsed = System.nanoTime() - start;
+    assertThat(elapsed, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50)));
+    assertThat(elapsed, lessThan(TimeUnit.MILLISECONDS.toNanos(90)));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void setLevelWithArrivals() {
+    new RequestRateScheduler(Distributions.exponential(1.0), TimeUnit.SECONDS).setLevel(2.0);
+  }
 }
@@ -0,0 +1,84 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Output formats supported by {@link IntervalReporter}
+ *
+ * @since 1.7.0
+ */
+public enum IntervalFormat {
+  /** one json object per interval, one interval per line */
+  JSON {
+    @Override
+    public String format(final IntervalStats stats) {
+      return GSON.toJson(stats);
+    }
+  },
+  /**
+   * one row per operation per interval; latency columns describe total latency in milliseconds
+   */
+  CSV {
+    @Override
+    public String format(final IntervalStats stats) {
+      final StringBuilder s = new StringBuilder();
+      for (final Entry<String, IntervalStats.OperationStats> e : stats.operations.entrySet()) {
+        if (s.length() > 0) {
+          s.append(LINE_SEPARATOR);
+        }
+        final IntervalStats.OperationStats op = e.getValue();
+        final List<Object> row = Lists.<Object>newArrayList(stats.timestamp, stats.interval,
+            e.getKey(), op.operations, op.opsPerSecond, op.bytes, op.bytesPerSecond,
+            op.activeOperations, STATUS_CODE_JOINER.join(op.statusCodes));
+        final LatencyStats total = op.latencies.get(LATENCY_KEY);
+        if (total != null) {
+          row.add(total.count);
+          for (final String label : LatencyStats.PERCENTILE_LABELS) {
+            row.add(total.percentiles.get(label));
+          }
+          row.add(total.max);
+        } else {
+          row.add(0);
+          for (int i = 0; i <= LatencyStats.PERCENTILE_LABELS.length; i++) {
+            row.add("");
+          }
+        }
+        s.append(CSV_JOINER.join(row));
+      }
+      return s.toString();
+    }
+  };
+
+  /** column names of rows written in {@link #CSV} format */
+  public static final String CSV_HEADER = "timestamp,interval,operation,operations,ops_per_second,"
+      + "bytes,bytes_per_second,active_operations,status_codes,latency_count,latency_p50,"
+      + "latency_p90,latency_p95,latency_p99,latency_p99.9,latency_p99.99,latency_max";
+  private static final Gson GSON = new GsonBuilder()
+      .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES).create();
+  private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+  private static final String LATENCY_KEY = Latency.TOTAL.toString().toLowerCase(Locale.US);
+  private static final Joiner CSV_JOINER = Joiner.on(',');
+  private static final Joiner.MapJoiner STATUS_CODE_JOINER =
+      Joiner.on(' ').withKeyValueSeparator(":");
+
+  /**
+   * Formats the statistics of an interval
+   *
+   * @param stats interval statistics
+   * @return formatted statistics, without a trailing line separator
+   */
+  public abstract String format(IntervalStats stats);
+}
@@ -0,0 +1,229 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.og.api.Operation;
+import com.ibm.og.util.StageMarker;
+import com.ibm.og.util.TestState;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A periodic reporter of {@link Statistics}. Once a test is running, a snapshot of per-operation
+ * operation and byte rates, status code deltas, active operations and latency percentiles, along
+ * with the current load profile stage when there is one, is
+ * written every interval to {@code stats.json} or {@code stats.csv}, depending on the configured
+ * {@link IntervalFormat}.
+ * <p>
+ * Snapshots are taken on a dedicated thread and only read counters and copy histograms, neither of
+ * which blocks threads updating statistics. Interval deltas are calculated against the previous
+ * snapshot, so the cost of a snapshot is independent of how long a test has been running.
+ *
+ * @since 1.7.0
+ */
+public class IntervalReporter {
+  private static final Logger _logger = LoggerFactory.getLogger(IntervalReporter.class);
+  private static final Logger _statsJsonLogger = LoggerFactory.getLogger("StatsJsonLogger");
+  private static final Logger _statsCsvLogger = LoggerFactory.getLogger("StatsCsvLogger");
+  private final Statistics stats;
+  private final long intervalNanos;
+  private final IntervalFormat format;
+  private final Map<Operation, Snapshot> previous;
+  private ScheduledExecutorService executor;
+  private long previousNanos;
+
+  /**
+   * Constructs an instance
+   *
+   * @param stats the statistics to report
+   * @param interval the duration between reports, or 0 to disable reporting
+   * @param unit the unit of interval
+   * @param format the output format of reports
+   * @throws NullPointerException if stats, unit or format is null
+   * @throws IllegalArgumentException if interval is negative, or is positive but less than one
+   *         millisecond
+   */
+  public IntervalReporter(final Statistics stats, final double interval, final TimeUnit unit,
+      final IntervalFormat format) {
+    this.stats = checkNotNull(stats);
+    checkArgument(interval >= 0.0, "interval must be >= 0.0 [%s]", interval);
+    checkNotNull(unit);
+    this.format = checkNotNull(format);
+    this.intervalNanos = (long) (interval * unit.toNanos(1));
+    checkArgument(interval == 0.0 || this.intervalNanos >= TimeUnit.MILLISECONDS.toNanos(1),
+        "interval must be 0 or at least 1 millisecond [%s %s]", interval, unit);
+    this.previous = new EnumMap<Operation, Snapshot>(Operation.class);
+  }
+
+  /**
+   * Starts reporting when a test transitions to running
+   *
+   * @param state the state that the test has transitioned to
+   */
+  @Subscribe
+  public void update(final TestState state) {
+    checkNotNull(state);
+    if (state == TestState.RUNNING) {
+      start();
+    }
+  }
+
+  /**
+   * Starts periodic reporting. Has no effect if reporting is disabled or already started
+   */
+  public synchronized void start() {
+    if (this.intervalNanos == 0 || this.executor != null) {
+      return;
+    }
+    for (final Operation operation : Operation.values()) {
+      this.previous.put(operation, new Snapshot(this.stats, operation));
+    }
+    this.previousNanos = System.nanoTime();
+    this.executor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("interval-reporter").setDaemon(true).build());
+    this.executor.scheduleAtFixedRate(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          scheduledReport();
+        } catch (final Exception e) {
+          // an exception would cancel all future reports
+          _logger.error("Exception while reporting interval statistics", e);
+        }
+      }
+    }, this.intervalNanos, this.intervalNanos, TimeUnit.NANOSECONDS);
+    _logger.info("Reporting interval statistics every {} ms in {} format",
+        TimeUnit.NANOSECONDS.toMillis(this.intervalNanos), this.format);
+  }
+
+  /**
+   * Stops periodic reporting and writes a final report covering the remainder of the last interval.
+   * Has no effect if reporting was never started or has already been shut down
+   */
+  public synchronized void shutdown() {
+    if (this.executor == null || this.executor.isShutdown()) {
+      return;
+    }
+    this.executor.shutdownNow();
+    report();
+  }
+
+  private synchronized void scheduledReport() {
+    // a scheduled report may have been waiting on shutdown, which has already written the final
+    // report
+    if (!this.executor.isShutdown()) {
+      report();
+    }
+  }
+
+  private synchronized void report() {
+    final IntervalStats intervalStats = snapshot();
+    final String formatted = this.format.format(intervalStats);
+    if (this.format == IntervalFormat.CSV) {
+      _statsCsvLogger.info(formatted);
+    } else {
+      _statsJsonLogger.info(formatted);
+    }
+  }
+
+  /**
+   * Calculates statistics since the previous snapshot
+   *
+   * @return statistics for the interval since the previous snapshot
+   */
+  synchronized IntervalStats snapshot() {
+    final long nanos = System.nanoTime();
+    final double interval = (double) (nanos - this.previousNanos) / TimeUnit.SECONDS.toNanos(1);
+    this.previousNanos = nanos;
+
+    final Map<String, IntervalStats.OperationStats> operations = Maps.newLinkedHashMap();
+    for (final Operation operation : Operation.values()) {
+      final Snapshot previous = this.previous.get(operation);
+      final Snapshot current = new Snapshot(this.stats, operation);
+      this.previous.put(operation, current);
+      final IntervalStats.OperationStats operationStats = current.since(previous, interval);
+      // omit idle operations to keep each report small, but always report the aggregate
+      if (operation == Operation.ALL || operationStats.operations > 0
+          || operationStats.activeOperations != 0 || !operationStats.statusCodes.isEmpty()) {
+        operations.put(operation.toString().toLowerCase(Locale.US), operationStats);
+      }
+    }
+    final List<StageMarker> stages = this.stats.stages();
+    final Integer stage = stages.isEmpty() ? null : stages.get(stages.size() - 1).getStage();
+    return new IntervalStats(System.currentTimeMillis(), Math.round(interval * 1000) / 1000.0,
+        stage, operations);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("IntervalReporter [intervalNanos=%s, format=%s]", this.intervalNanos,
+        this.format);
+  }
+
+  // cumulative statistics of an operation at a point in time
+  private static class Snapshot {
+    private final long operations;
+    private final long bytes;
+    private final long activeOperations;
+    private final SortedMap<Integer, Long> statusCodes;
+    private final Map<Latency, Histogram> latencies;
+
+    public Snapshot(final Statistics stats, final Operation operation) {
+      this.operations = stats.get(operation, Counter.OPERATIONS);
+      this.bytes = stats.get(operation, Counter.BYTES);
+      this.activeOperations = stats.get(operation, Counter.ACTIVE_OPERATIONS);
+      this.statusCodes = ImmutableSortedMap.copyOf(stats.statusCodes(operation));
+      this.latencies = new EnumMap<Latency, Histogram>(Latency.class);
+      for (final Latency latency : Latency.values()) {
+        this.latencies.put(latency, stats.latency(operation, latency));
+      }
+    }
+
+    public IntervalStats.OperationStats since(final Snapshot previous, final double interval) {
+      final Map<Integer, Long> statusCodes = Maps.newTreeMap();
+      for (final Entry<Integer, Long> sc : this.statusCodes.entrySet()) {
+        final Long previousCount = previous.statusCodes.get(sc.getKey());
+        final long delta = sc.getValue() - (previousCount != null ? previousCount : 0);
+        if (delta > 0) {
+          statusCodes.put(sc.getKey(), delta);
+        }
+      }
+
+      final Map<String, LatencyStats> latencies = Maps.newLinkedHashMap();
+      for (final Entry<Latency, Histogram> e : this.latencies.entrySet()) {
+        final Histogram previousHistogram = previous.latencies.get(e.getKey());
+        if (e.getValue().getTotalCount() > previousHistogram.getTotalCount()) {
+          // histograms only ever grow, so the current histogram can always absorb the previous
+          final Histogram histogram = e.getValue().copy();
+          histogram.subtract(previousHistogram);
+          latencies.put(e.getKey().toString().toLowerCase(Locale.US), new LatencyStats(histogram));
+        }
+      }
+
+      return new IntervalStats.OperationStats(this.operations - previous.operations,
+          this.bytes - previous.bytes, this.activeOperations, statusCodes, latencies, interval);
+    }
+  }
+}
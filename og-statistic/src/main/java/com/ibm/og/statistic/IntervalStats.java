@@ -0,0 +1,65 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Statistics for a single reporting interval, as produced by {@link IntervalReporter}. Counts are
+ * deltas over the interval, with the exception of active operations which is sampled at the end of
+ * the interval.
+ *
+ * @since 1.7.0
+ */
+public class IntervalStats {
+  /** end of this interval, in millis since epoch */
+  final long timestamp;
+  /** duration of this interval, in seconds */
+  final double interval;
+  /** the most recently started load profile stage, or null without a load profile */
+  final Integer stage;
+  /** per-operation stats, keyed by lowercase operation name */
+  final Map<String, OperationStats> operations;
+
+  IntervalStats(final long timestamp, final double interval, final Integer stage,
+      final Map<String, OperationStats> operations) {
+    this.timestamp = timestamp;
+    this.interval = interval;
+    this.stage = stage;
+    this.operations = ImmutableMap.copyOf(operations);
+  }
+
+  static class OperationStats {
+    final long operations;
+    final double opsPerSecond;
+    final long bytes;
+    final double bytesPerSecond;
+    final long activeOperations;
+    final Map<Integer, Long> statusCodes;
+    final Map<String, LatencyStats> latencies;
+
+    OperationStats(final long operations, final long bytes, final long activeOperations,
+        final Map<Integer, Long> statusCodes, final Map<String, LatencyStats> latencies,
+        final double interval) {
+      this.operations = operations;
+      this.opsPerSecond = rate(operations, interval);
+      this.bytes = bytes;
+      this.bytesPerSecond = rate(bytes, interval);
+      this.activeOperations = activeOperations;
+      this.statusCodes = ImmutableMap.copyOf(statusCodes);
+      this.latencies = ImmutableMap.copyOf(latencies);
+    }
+
+    private static double rate(final long count, final double interval) {
+      if (interval <= 0.0) {
+        return 0.0;
+      }
+      return Math.round(count / interval * 1000) / 1000.0;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import com.ibm.og.api.RequestTimestamps;
+
+/**
+ * A query-able type of latency, derived from the timestamps recorded for a request. These
+ * correspond to the {@code stat} fields of the request log.
+ * 
+ * @since 1.7.0
+ */
+public enum Latency {
+  /** request start to request finish */
+  TOTAL {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.start, t.finish);
+    }
+  },
+  /** request start to the first byte of response content */
+  TTFB {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.start, t.responseContentFirstBytes);
+    }
+  },
+  /** transfer of request content */
+  REQUEST_CONTENT {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.requestContentStart, t.requestContentFinish);
+    }
+  },
+  /** transfer of response content */
+  RESPONSE_CONTENT {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.responseContentStart, t.responseContentFinish);
+    }
+  },
+  /** end of request content to request finish */
+  CLOSE_LATENCY {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.requestContentFinish, t.finish);
+    }
+  },
+  /**
+   * intended start, as planned by an open loop scheduler, to request finish. Unlike {@link #TOTAL}
+   * this includes any time the request waited to be sent behind earlier requests
+   */
+  INTENDED_TOTAL {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.intendedStart, t.finish);
+    }
+  };
+
+  /**
+   * Calculates this latency for a request
+   * 
+   * @param timestamps timestamps recorded for a request
+   * @return latency in nanoseconds, or {@code -1} if the timestamps needed are not available
+   */
+  public abstract long duration(RequestTimestamps timestamps);
+
+  private static long between(final long start, final long finish) {
+    if (start > 0 && finish >= start) {
+      return finish - start;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,60 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A json serializable latency distribution, in milliseconds, derived from a latency histogram
+ * recorded by {@link Statistics}
+ *
+ * @since 1.7.0
+ */
+public class LatencyStats {
+  /** reported percentiles */
+  public static final double[] PERCENTILES = {50.0, 90.0, 95.0, 99.0, 99.9, 99.99};
+  /** labels of reported percentiles, in the same order as {@link #PERCENTILES} */
+  public static final String[] PERCENTILE_LABELS =
+      {"p50", "p90", "p95", "p99", "p99.9", "p99.99"};
+  public final long count;
+  public final double min;
+  public final double mean;
+  public final double max;
+  public final Map<String, Double> percentiles;
+
+  /**
+   * Constructs an instance
+   *
+   * @param histogram a latency histogram with values recorded in {@link Statistics#LATENCY_UNIT}
+   * @throws NullPointerException if histogram is null
+   */
+  public LatencyStats(final Histogram histogram) {
+    checkNotNull(histogram);
+    this.count = histogram.getTotalCount();
+    this.min = millis(histogram.getMinValue());
+    this.mean = millis(histogram.getMean());
+    this.max = millis(histogram.getMaxValue());
+    final ImmutableMap.Builder<String, Double> percentiles = ImmutableMap.builder();
+    for (int i = 0; i < PERCENTILES.length; i++) {
+      percentiles.put(PERCENTILE_LABELS[i],
+          millis(histogram.getValueAtPercentile(PERCENTILES[i])));
+    }
+    this.percentiles = percentiles.build();
+  }
+
+  private static double millis(final double value) {
+    final double millis = value / Statistics.LATENCY_UNIT.convert(1, TimeUnit.MILLISECONDS);
+    // histogram values are recorded in microseconds, so round away floating point noise
+    return Math.round(millis * 1000) / 1000.0;
+  }
+}
@@ -8,25 +8,31 @@ package com.ibm.og.statistic;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.api.Response;
-import com.ibm.og.http.HttpUtil;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
+import com.ibm.og.util.StageMarker;
 import com.ibm.og.util.TestState;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Sets;
 import com.google.common.eventbus.Subscribe;
-import com.google.common.util.concurrent.AtomicLongMap;
 
 /**
  * An aggregator of counters including:
@@ -34,6 +40,7 @@ import com.google.common.util.concurrent.AtomicLongMap;
  * <li>operations</li>
  * <li>bytes</li>
  * <li>status codes</li>
+ * <li>latency histograms</li>
  * </ul>
  * <p>
  * statistics are gathered and stored for the following operation types:
@@ -49,9 +56,26 @@ import com.google.common.util.concurrent.AtomicLongMap;
 @Singleton
 public class Statistics {
   private static final Logger _logger = LoggerFactory.getLogger(Statistics.class);
+  /** the unit of values recorded in latency histograms */
+  public static final TimeUnit LATENCY_UNIT = TimeUnit.MICROSECONDS;
+  private static final int LATENCY_SIGNIFICANT_DIGITS = 3;
+  private static final int MIN_STATUS_CODE = 100;
+  private static final int MAX_STATUS_CODE = 599;
+  private static final int COUNTERS = Counter.values().length;
+  // each operation owns a contiguous block of counters, followed by a status code counter for
+  // every status code in [MIN_STATUS_CODE, MAX_STATUS_CODE]
+  private static final int OPERATION_COUNTERS =
+      COUNTERS + MAX_STATUS_CODE - MIN_STATUS_CODE + 1;
+  // operations which are not included in the aggregate ALL operation count
+  private static final Set<Operation> UNCOUNTED_OPERATIONS = Sets.immutableEnumSet(
+      Operation.MULTIPART_WRITE, Operation.MULTIPART_WRITE_INITIATE,
+      Operation.MULTIPART_WRITE_PART);
+  // cached, since values() allocates a new array on every call
+  private static final Latency[] LATENCIES = Latency.values();
   private volatile boolean running;
-  private final Map<Operation, AtomicLongMap<Counter>> counters;
-  private final Map<Operation, AtomicLongMap<Integer>> scCounters;
+  private final StripedCounters counters;
+  private final Histogram[][] latencies;
+  private final List<StageMarker> stages;
 
   /**
    * Constructs an instance
@@ -59,12 +83,17 @@ public class Statistics {
   @Inject
   public Statistics() {
     this.running = true;
-    this.counters = Maps.newHashMap();
-    this.scCounters = Maps.newHashMap();
-    for (final Operation operation : Operation.values()) {
-      this.counters.put(operation, AtomicLongMap.<Counter>create());
-      this.scCounters.put(operation, AtomicLongMap.<Integer>create());
+    this.counters = new StripedCounters(Operation.values().length * OPERATION_COUNTERS,
+        StripedCounters.DEFAULT_STRIPES);
+    this.latencies = new Histogram[Operation.values().length][LATENCIES.length];
+    for (final Histogram[] histograms : this.latencies) {
+      for (int i = 0; i < histograms.length; i++) {
+        // auto-resizing histograms grow with the largest recorded value rather than the number
+        // of recorded values, so memory use is independent of test duration
+        histograms[i] = new ConcurrentHistogram(LATENCY_SIGNIFICANT_DIGITS);
+      }
     }
+    this.stages = new CopyOnWriteArrayList<StageMarker>();
   }
 
   /**
@@ -81,13 +110,22 @@ public class Statistics {
     }
   }
 
+  /**
+   * Records the start of a load profile stage
+   * 
+   * @param marker the stage which started
+   */
+  @Subscribe
+  public void update(final StageMarker marker) {
+    this.stages.add(checkNotNull(marker));
+  }
+
   /**
    * Updates this instance with data from an in-progress request
    * 
    * @param request an in-progress request
    */
 
-  @Subscribe
   public void update(final Request request) {
     checkNotNull(request);
 
@@ -104,7 +142,6 @@ public class Statistics {
    * 
    * @param result the completed operation
    */
-  @Subscribe
   public void update(final Pair<Request, Response> result) {
     checkNotNull(result);
     final Request request = result.getKey();
@@ -115,23 +152,24 @@ public class Statistics {
     updateCounter(Operation.ALL, Counter.ACTIVE_OPERATIONS, -1);
 
     // do not record operations with 599 status after shutdown (known client aborts)
-    if (this.running || response.getStatusCode() != 599) {
+    final int statusCode = response.getStatusCode();
+    if (this.running || statusCode != 599) {
       updateCounter(operation, Counter.OPERATIONS, 1);
-      List<Operation> invalidCountOps = new ArrayList<Operation>();
-      invalidCountOps.add(Operation.MULTIPART_WRITE);
-      invalidCountOps.add(Operation.MULTIPART_WRITE_INITIATE);
-      invalidCountOps.add(Operation.MULTIPART_WRITE_PART);
-      if (!invalidCountOps.contains(operation)) {
+      final RequestTimestamps timestamps = response.getRequestTimestamps();
+      if (!UNCOUNTED_OPERATIONS.contains(operation)) {
         updateCounter(Operation.ALL, Counter.OPERATIONS, 1);
+        updateLatencies(Operation.ALL, timestamps);
       }
+      updateLatencies(operation, timestamps);
 
-      if (HttpUtil.SUCCESS_STATUS_CODES.contains(response.getStatusCode())) {
+      // equivalent to HttpUtil.SUCCESS_STATUS_CODES.contains, without boxing
+      if (statusCode >= 200 && statusCode <= 299) {
         final long bytes = getBytes(operation, request, response);
         updateCounter(operation, Counter.BYTES, bytes);
         updateCounter(Operation.ALL, Counter.BYTES, bytes);
       }
-      updateStatusCode(operation, response.getStatusCode());
-      updateStatusCode(Operation.ALL, response.getStatusCode());
+      updateStatusCode(operation, statusCode);
+      updateStatusCode(Operation.ALL, statusCode);
     }
     _logger.trace("Statistics operation updated: {}, {}", request, response);
   }
@@ -148,11 +186,35 @@ public class Statistics {
   }
 
   private void updateCounter(final Operation operation, final Counter counter, final long value) {
-    this.counters.get(operation).addAndGet(counter, value);
+    this.counters.add(counterIndex(operation, counter), value);
   }
 
   private void updateStatusCode(final Operation operation, final int statusCode) {
-    this.scCounters.get(operation).incrementAndGet(statusCode);
+    if (statusCode >= MIN_STATUS_CODE && statusCode <= MAX_STATUS_CODE) {
+      this.counters.add(statusCodeIndex(operation, statusCode), 1);
+    }
+  }
+
+  private static int counterIndex(final Operation operation, final Counter counter) {
+    return operation.ordinal() * OPERATION_COUNTERS + counter.ordinal();
+  }
+
+  private static int statusCodeIndex(final Operation operation, final int statusCode) {
+    return operation.ordinal() * OPERATION_COUNTERS + COUNTERS + statusCode - MIN_STATUS_CODE;
+  }
+
+  private void updateLatencies(final Operation operation, final RequestTimestamps timestamps) {
+    if (timestamps == null) {
+      return;
+    }
+    final Histogram[] histograms = this.latencies[operation.ordinal()];
+    for (final Latency latency : LATENCIES) {
+      final long duration = latency.duration(timestamps);
+      if (duration >= 0) {
+        histograms[latency.ordinal()]
+            .recordValue(LATENCY_UNIT.convert(duration, TimeUnit.NANOSECONDS));
+      }
+    }
   }
 
   /**
@@ -165,7 +227,7 @@ public class Statistics {
   public long get(final Operation operation, final Counter counter) {
     checkNotNull(operation);
     checkNotNull(counter);
-    return this.counters.get(operation).get(counter);
+    return this.counters.sum(counterIndex(operation, counter));
   }
 
   /**
@@ -177,21 +239,51 @@ public class Statistics {
    */
   public long getStatusCode(final Operation operation, final int statusCode) {
     checkNotNull(operation);
-    checkArgument(HttpUtil.VALID_STATUS_CODES.contains(statusCode),
+    checkArgument(statusCode >= MIN_STATUS_CODE && statusCode <= MAX_STATUS_CODE,
         "statusCode must be a valid status code [%s]", statusCode);
 
-    return this.scCounters.get(operation).get(statusCode);
+    return this.counters.sum(statusCodeIndex(operation, statusCode));
   }
 
   /**
-   * Gets a read-only map of status code counters for a given operation type
+   * Gets a point in time copy of the non-zero status code counters for a given operation type
    * 
-   * @param operation the operatino type to get status code counter values for
-   * @return a map of status code counters
+   * @param operation the operation type to get status code counter values for
+   * @return a map of status code counters, in ascending status code order
    */
   public Map<Integer, Long> statusCodes(final Operation operation) {
     checkNotNull(operation);
-    return this.scCounters.get(operation).asMap();
+    final ImmutableSortedMap.Builder<Integer, Long> statusCodes = ImmutableSortedMap.naturalOrder();
+    for (int statusCode = MIN_STATUS_CODE; statusCode <= MAX_STATUS_CODE; statusCode++) {
+      final long count = this.counters.sum(statusCodeIndex(operation, statusCode));
+      if (count != 0) {
+        statusCodes.put(statusCode, count);
+      }
+    }
+    return statusCodes.build();
+  }
+
+  /**
+   * Gets a copy of a latency histogram. Values are recorded in {@link #LATENCY_UNIT}
+   * 
+   * @param operation the operation type of the histogram to get
+   * @param latency the latency type to get
+   * @return a point in time copy of the histogram
+   */
+  public Histogram latency(final Operation operation, final Latency latency) {
+    checkNotNull(operation);
+    checkNotNull(latency);
+    return this.latencies[operation.ordinal()][latency.ordinal()].copy();
+  }
+
+  /**
+   * Gets the load profile stages which have started, in order
+   * 
+   * @return a point in time copy of the stage markers, which is empty if the test does not follow
+   *         a load profile
+   */
+  public List<StageMarker> stages() {
+    return ImmutableList.copyOf(this.stages);
   }
 
   @Override
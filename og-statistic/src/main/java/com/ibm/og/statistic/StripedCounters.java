@@ -0,0 +1,83 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed number of long counters, each striped across several cells to reduce contention between
+ * updating threads. A thread always updates the same stripe, and the cells of a stripe are laid out
+ * contiguously and padded from neighboring stripes, so threads on different stripes do not share
+ * cache lines. Reads sum a counter's cells across all stripes, and are not atomic with respect to
+ * concurrent updates.
+ * <p>
+ * Updates do not allocate.
+ *
+ * @since 1.7.0
+ */
+class StripedCounters {
+  // 128 bytes, enough to separate stripes on architectures with adjacent line prefetching
+  private static final int PADDING = 16;
+  private static final int MAX_STRIPES = 64;
+  static final int DEFAULT_STRIPES =
+      Math.min(MAX_STRIPES, ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors() * 2));
+  private final int stripeMask;
+  private final int stripeLength;
+  private final AtomicLongArray cells;
+
+  /**
+   * Constructs an instance
+   *
+   * @param counters the number of counters
+   * @param stripes the number of stripes, must be a power of 2
+   * @throws IllegalArgumentException if counters is not positive, or if stripes is not a positive
+   *         power of 2
+   */
+  StripedCounters(final int counters, final int stripes) {
+    checkArgument(counters > 0, "counters must be > 0 [%s]", counters);
+    checkArgument(stripes > 0 && Integer.bitCount(stripes) == 1,
+        "stripes must be a positive power of 2 [%s]", stripes);
+    this.stripeMask = stripes - 1;
+    this.stripeLength = counters + PADDING;
+    this.cells = new AtomicLongArray(PADDING + stripes * this.stripeLength);
+  }
+
+  /**
+   * Adds to a counter
+   *
+   * @param counter the index of the counter to update
+   * @param delta the value to add
+   */
+  void add(final int counter, final long delta) {
+    this.cells.getAndAdd(PADDING + stripe() * this.stripeLength + counter, delta);
+  }
+
+  /**
+   * Sums the cells of a counter
+   *
+   * @param counter the index of the counter to read
+   * @return the counter's current value
+   */
+  long sum(final int counter) {
+    long sum = 0;
+    for (int stripe = 0; stripe <= this.stripeMask; stripe++) {
+      sum += this.cells.get(PADDING + stripe * this.stripeLength + counter);
+    }
+    return sum;
+  }
+
+  private int stripe() {
+    // spread sequential thread ids across stripes
+    final long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+    return (int) (id >>> 32) & this.stripeMask;
+  }
+
+  private static int ceilingPowerOfTwo(final int value) {
+    return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+}
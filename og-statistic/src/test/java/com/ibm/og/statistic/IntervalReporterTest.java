@@ -0,0 +1,178 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.util.Pair;
+import com.ibm.og.util.TestState;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class IntervalReporterTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+  private Statistics stats;
+  private Request request;
+  private Response response;
+  private Pair<Request, Response> operation;
+  private IntervalReporter reporter;
+
+  @Before
+  public void before() {
+    this.stats = new Statistics();
+    this.request = mock(Request.class);
+    when(this.request.getMethod()).thenReturn(Method.PUT);
+    when(this.request.getOperation()).thenReturn(Operation.WRITE);
+    when(this.request.getBody()).thenReturn(Bodies.random(1024));
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    timestamps.start = TimeUnit.MILLISECONDS.toNanos(1000);
+    timestamps.finish = TimeUnit.MILLISECONDS.toNanos(1020);
+    this.response = mock(Response.class);
+    when(this.response.getStatusCode()).thenReturn(201);
+    when(this.response.getBody()).thenReturn(Bodies.none());
+    when(this.response.getRequestTimestamps()).thenReturn(timestamps);
+    this.operation = Pair.of(this.request, this.response);
+    // a long interval so that only explicit snapshots are taken
+    this.reporter = new IntervalReporter(this.stats, 1, TimeUnit.HOURS, IntervalFormat.JSON);
+  }
+
+  @After
+  public void after() {
+    this.reporter.shutdown();
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidIntervalReporter() {
+    final Statistics stats = new Statistics();
+    final TimeUnit unit = TimeUnit.SECONDS;
+    final IntervalFormat format = IntervalFormat.JSON;
+    return new Object[][] {{null, 1.0, unit, format, NullPointerException.class},
+        {stats, -1.0, unit, format, IllegalArgumentException.class},
+        {stats, 1.0, TimeUnit.MICROSECONDS, format, IllegalArgumentException.class},
+        {stats, 1.0, null, format, NullPointerException.class},
+        {stats, 1.0, unit, null, NullPointerException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidIntervalReporter")
+  public void invalidIntervalReporter(final Statistics stats, final double interval,
+      final TimeUnit unit, final IntervalFormat format, final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    new IntervalReporter(stats, interval, unit, format);
+  }
+
+  @Test
+  public void disabled() {
+    final IntervalReporter reporter =
+        new IntervalReporter(this.stats, 0.0, TimeUnit.SECONDS, IntervalFormat.JSON);
+    reporter.update(TestState.RUNNING);
+    reporter.shutdown();
+  }
+
+  @Test
+  public void shutdownBeforeStart() {
+    this.reporter.shutdown();
+  }
+
+  @Test
+  public void snapshot() {
+    this.stats.update(this.request);
+    this.stats.update(this.operation);
+    this.reporter.update(TestState.RUNNING);
+    // operations prior to start are not reported
+    assertThat(this.reporter.snapshot().operations.get("all").operations, is(0L));
+
+    this.stats.update(this.request);
+    this.stats.update(this.request);
+    this.stats.update(this.operation);
+    final IntervalStats interval = this.reporter.snapshot();
+
+    assertThat(interval.operations, hasKey("all"));
+    assertThat(interval.operations, hasKey("write"));
+    assertThat(interval.operations, not(hasKey("read")));
+    final IntervalStats.OperationStats write = interval.operations.get("write");
+    assertThat(write.operations, is(1L));
+    assertThat(write.bytes, is(1024L));
+    assertThat(write.activeOperations, is(1L));
+    assertThat(write.statusCodes.size(), is(1));
+    assertThat(write.statusCodes, hasEntry(201, 1L));
+    assertThat(write.latencies.get("total").count, is(1L));
+
+    final IntervalStats idle = this.reporter.snapshot();
+    final IntervalStats.OperationStats idleWrite = idle.operations.get("write");
+    assertThat(idleWrite.operations, is(0L));
+    assertThat(idleWrite.activeOperations, is(1L));
+    assertThat(idleWrite.statusCodes.size(), is(0));
+    assertThat(idleWrite.latencies.size(), is(0));
+  }
+
+  @Test
+  public void shutdownReportsFinalInterval() {
+    final IntervalReporter reporter =
+        new IntervalReporter(this.stats, 10, TimeUnit.MILLISECONDS, IntervalFormat.CSV);
+    reporter.start();
+    for (int i = 0; i < 100; i++) {
+      this.stats.update(this.operation);
+    }
+    reporter.shutdown();
+    // subsequent shutdown is a no-op
+    reporter.shutdown();
+  }
+
+  @Test
+  public void json() {
+    this.reporter.start();
+    this.stats.update(this.operation);
+    final String json = IntervalFormat.JSON.format(this.reporter.snapshot());
+
+    assertThat(json, containsString("\"ops_per_second\""));
+    assertThat(json, containsString("\"write\""));
+    assertThat(json, containsString("\"p99.9\""));
+    assertThat(json, not(containsString("\n")));
+  }
+
+  @Test
+  public void csv() {
+    this.reporter.start();
+    this.stats.update(this.operation);
+    final String csv = IntervalFormat.CSV.format(this.reporter.snapshot());
+    final String[] rows = csv.split(System.getProperty("line.separator"));
+    final int columns = IntervalFormat.CSV_HEADER.split(",", -1).length;
+
+    // all, write
+    assertThat(rows.length, is(2));
+    for (final String row : rows) {
+      assertThat(row.split(",", -1).length, is(columns));
+    }
+    assertThat(rows[1], containsString(",write,1,"));
+    assertThat(rows[1], containsString("201:1"));
+  }
+}
@@ -11,8 +11,11 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
+import org.HdrHistogram.Histogram;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -21,10 +24,12 @@ import org.junit.runner.RunWith;
 
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.api.Response;
 import com.ibm.og.http.Bodies;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
+import com.ibm.og.util.StageMarker;
 import com.ibm.og.util.TestState;
 import com.google.common.collect.Lists;
 import com.tngtech.java.junit.dataprovider.DataProvider;
@@ -63,6 +68,21 @@ public class StatisticsTest {
     this.stats.update((TestState) null);
   }
 
+  @Test(expected = NullPointerException.class)
+  public void updateNullStageMarker() {
+    this.stats.update((StageMarker) null);
+  }
+
+  @Test
+  public void stages() {
+    assertThat(this.stats.stages().isEmpty(), is(true));
+    this.stats.update(new StageMarker(0, "ramp 100.0 for 10.0s", 1000));
+    this.stats.update(new StageMarker(1, "step 100.0 for 60.0s", 11000));
+    assertThat(this.stats.stages().size(), is(2));
+    assertThat(this.stats.stages().get(1).getStage(), is(1));
+    assertThat(this.stats.stages().get(1).getTimestamp(), is(11000L));
+  }
+
   @Test
   public void updateState() {
     this.stats.update(this.operation);
@@ -181,6 +201,95 @@ public class StatisticsTest {
     this.stats.getStatusCode(operation, statusCode);
   }
 
+  @Test
+  public void statusCodes() {
+    when(this.response.getStatusCode()).thenReturn(500, 201, 404);
+    this.stats.update(this.operation);
+    this.stats.update(this.operation);
+    final Map<Integer, Long> statusCodes = this.stats.statusCodes(Operation.WRITE);
+    this.stats.update(this.operation);
+
+    // a point in time copy containing only observed status codes, in ascending order
+    assertThat(statusCodes.size(), is(2));
+    assertThat(Lists.newArrayList(statusCodes.keySet()),
+        is((List<Integer>) Lists.newArrayList(201, 500)));
+    assertThat(this.stats.statusCodes(Operation.WRITE).size(), is(3));
+    assertThat(this.stats.statusCodes(Operation.READ).size(), is(0));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void latencyNullOperation() {
+    this.stats.latency(null, Latency.TOTAL);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void latencyNullLatency() {
+    this.stats.latency(Operation.WRITE, null);
+  }
+
+  @Test
+  public void latencyNoTimestamps() {
+    this.stats.update(this.operation);
+
+    assertThat(this.stats.latency(Operation.WRITE, Latency.TOTAL).getTotalCount(), is(0L));
+  }
+
+  @Test
+  public void latency() {
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    timestamps.start = TimeUnit.MILLISECONDS.toNanos(1000);
+    timestamps.requestContentStart = TimeUnit.MILLISECONDS.toNanos(1001);
+    timestamps.requestContentFinish = TimeUnit.MILLISECONDS.toNanos(1005);
+    timestamps.finish = TimeUnit.MILLISECONDS.toNanos(1010);
+    when(this.response.getRequestTimestamps()).thenReturn(timestamps);
+    this.stats.update(this.operation);
+    this.stats.update(this.operation);
+
+    for (final Operation operation : new Operation[] {Operation.WRITE, Operation.ALL}) {
+      final Histogram total = this.stats.latency(operation, Latency.TOTAL);
+      assertThat(total.getTotalCount(), is(2L));
+      assertThat(total.getMaxValue(), is(total.highestEquivalentValue(10000)));
+      assertThat(this.stats.latency(operation, Latency.REQUEST_CONTENT).getTotalCount(), is(2L));
+      assertThat(this.stats.latency(operation, Latency.CLOSE_LATENCY).getTotalCount(), is(2L));
+      // no response content timestamps were recorded
+      assertThat(this.stats.latency(operation, Latency.TTFB).getTotalCount(), is(0L));
+      assertThat(this.stats.latency(operation, Latency.RESPONSE_CONTENT).getTotalCount(), is(0L));
+      // no open loop scheduler planned the request
+      assertThat(this.stats.latency(operation, Latency.INTENDED_TOTAL).getTotalCount(), is(0L));
+    }
+    assertThat(this.stats.latency(Operation.READ, Latency.TOTAL).getTotalCount(), is(0L));
+  }
+
+  @Test
+  public void intendedLatency() {
+    // a request sent 40ms after its intended start, taking 10ms once sent
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    timestamps.intendedStart = TimeUnit.MILLISECONDS.toNanos(960);
+    timestamps.start = TimeUnit.MILLISECONDS.toNanos(1000);
+    timestamps.finish = TimeUnit.MILLISECONDS.toNanos(1010);
+    when(this.response.getRequestTimestamps()).thenReturn(timestamps);
+    this.stats.update(this.operation);
+
+    final Histogram total = this.stats.latency(Operation.WRITE, Latency.TOTAL);
+    assertThat(total.getMaxValue(), is(total.highestEquivalentValue(10000)));
+    final Histogram intended = this.stats.latency(Operation.WRITE, Latency.INTENDED_TOTAL);
+    assertThat(intended.getTotalCount(), is(1L));
+    assertThat(intended.getMaxValue(), is(intended.highestEquivalentValue(50000)));
+  }
+
+  @Test
+  public void latencyIsCopy() {
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    timestamps.start = 1;
+    timestamps.finish = 2;
+    when(this.response.getRequestTimestamps()).thenReturn(timestamps);
+    final Histogram before = this.stats.latency(Operation.WRITE, Latency.TOTAL);
+    this.stats.update(this.operation);
+
+    assertThat(before.getTotalCount(), is(0L));
+    assertThat(this.stats.latency(Operation.WRITE, Latency.TOTAL).getTotalCount(), is(1L));
+  }
+
   @Test
   public void concurrency() throws InterruptedException {
     final int threadCount = 10;
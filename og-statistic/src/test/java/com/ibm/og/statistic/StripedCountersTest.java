@@ -0,0 +1,82 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.google.common.collect.Lists;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class StripedCountersTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @DataProvider
+  public static Object[][] provideInvalidStripedCounters() {
+    return new Object[][] {{0, 1}, {-1, 1}, {1, 0}, {1, -1}, {1, 3}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidStripedCounters")
+  public void invalidStripedCounters(final int counters, final int stripes) {
+    this.thrown.expect(IllegalArgumentException.class);
+    new StripedCounters(counters, stripes);
+  }
+
+  @Test
+  public void defaultStripes() {
+    assertThat(Integer.bitCount(StripedCounters.DEFAULT_STRIPES), is(1));
+  }
+
+  @Test
+  public void add() {
+    final StripedCounters counters = new StripedCounters(3, 4);
+    counters.add(0, 1);
+    counters.add(1, 10);
+    counters.add(1, -3);
+
+    assertThat(counters.sum(0), is(1L));
+    assertThat(counters.sum(1), is(7L));
+    assertThat(counters.sum(2), is(0L));
+  }
+
+  @Test
+  public void concurrency() throws InterruptedException {
+    final StripedCounters counters = new StripedCounters(2, 4);
+    final List<Thread> threads = Lists.newArrayList();
+    for (int i = 0; i < 16; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            counters.add(0, 1);
+            counters.add(1, 2);
+          }
+        }
+      }));
+    }
+    for (final Thread t : threads) {
+      t.start();
+    }
+    for (final Thread t : threads) {
+      t.join();
+    }
+
+    assertThat(counters.sum(0), is(16000L));
+    assertThat(counters.sum(1), is(32000L));
+  }
+}
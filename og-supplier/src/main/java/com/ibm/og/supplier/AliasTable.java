@@ -0,0 +1,102 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Random;
+
+/**
+ * A table for sampling an index in proportion to a set of weights in constant time, using Vose's
+ * alias method. Each slot of the table holds the probability of keeping its own index and an alias
+ * index to return otherwise, so a sample picks a slot uniformly and makes a single comparison.
+ * Instances are immutable and may be shared between threads.
+ *
+ * @since 1.7.0
+ */
+final class AliasTable {
+  private final double[] weights;
+  private final double[] probability;
+  private final int[] alias;
+
+  /**
+   * Constructs an instance
+   *
+   * @param weights the weight of each index; the array is copied
+   * @throws IllegalArgumentException if weights is empty, contains negative values, or does not
+   *         contain a positive value
+   */
+  AliasTable(final double[] weights) {
+    final int n = weights.length;
+    checkArgument(n > 0, "weights must not be empty");
+    this.weights = weights.clone();
+    this.probability = new double[n];
+    this.alias = new int[n];
+
+    double total = 0.0;
+    for (final double weight : this.weights) {
+      checkArgument(weight >= 0.0, "weights must be >= 0.0 [%s]", weight);
+      total += weight;
+    }
+    checkArgument(total > 0.0, "weights must contain a value > 0.0 [%s]", total);
+
+    // scale weights so that their average is 1, then pair each underfull slot with an overfull one
+    final double[] scaled = new double[n];
+    final int[] small = new int[n];
+    final int[] large = new int[n];
+    int smallSize = 0;
+    int largeSize = 0;
+    for (int i = 0; i < n; i++) {
+      scaled[i] = this.weights[i] * n / total;
+      if (scaled[i] < 1.0) {
+        small[smallSize++] = i;
+      } else {
+        large[largeSize++] = i;
+      }
+    }
+    while (smallSize > 0 && largeSize > 0) {
+      final int s = small[--smallSize];
+      final int l = large[--largeSize];
+      this.probability[s] = scaled[s];
+      this.alias[s] = l;
+      scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+      if (scaled[l] < 1.0) {
+        small[smallSize++] = l;
+      } else {
+        large[largeSize++] = l;
+      }
+    }
+    // whatever remains is full, up to floating point error
+    while (largeSize > 0) {
+      this.probability[large[--largeSize]] = 1.0;
+    }
+    while (smallSize > 0) {
+      this.probability[small[--smallSize]] = 1.0;
+    }
+  }
+
+  /**
+   * Samples an index in proportion to its weight
+   *
+   * @param random the source of randomness
+   * @return the sampled index
+   */
+  int sample(final Random random) {
+    // a single draw picks both the slot, from its integer part, and the coin, from its fraction
+    final double u = random.nextDouble() * this.probability.length;
+    // rounding may carry the largest draws up to the length of the table
+    final int slot = Math.min((int) u, this.probability.length - 1);
+    return u - slot < this.probability[slot] ? slot : this.alias[slot];
+  }
+
+  /**
+   * @param index an index of this table
+   * @return the weight this table was built with for index
+   */
+  double weight(final int index) {
+    return this.weights[index];
+  }
+}
@@ -7,7 +7,8 @@ import com.ibm.og.util.json.type.CaseInsensitiveEnumTypeAdapterFactory;
 import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.ibm.og.api.AuthType;
-import com.google.common.collect.Iterators;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.io.Closer;
 import com.google.gson.FieldNamingPolicy;
@@ -20,7 +21,6 @@ import java.io.InputStreamReader;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.lang.Exception;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.ArrayList;
@@ -38,7 +38,7 @@ public class CredentialGetterFunction implements Function<Map<String, String>, C
     private Map<String, Account> accountsMap;
     private Map<String, String> containerAccountMap;
     private Set<Map.Entry<String,Account>> entrySet;
-    private Iterator<Map.Entry<String,Account>> cyclicAccountsIterator;
+    private Supplier<String> cyclicAccountNames;
 
     public CredentialGetterFunction(AuthType authType, File credentialFile, final Api api)
             throws Exception {
@@ -80,8 +80,8 @@ public class CredentialGetterFunction implements Function<Map<String, String>, C
             }
             populateContainerAccountMap();
 
-            Set<Map.Entry<String,Account>> entrySet = accountsMap.entrySet();
-            cyclicAccountsIterator = Iterators.cycle(entrySet);
+            // a thread-safe cycle, as credentials may be requested by several request producers
+            cyclicAccountNames = Suppliers.cycle(ImmutableList.copyOf(accountsMap.keySet()));
 
         } catch (Throwable e) {
             throw closer.rethrow(e);
@@ -111,7 +111,7 @@ public class CredentialGetterFunction implements Function<Map<String, String>, C
         String containerName = context.get(Context.X_OG_CONTAINER_NAME);
         String accountName = containerAccountMap.get(containerName);
         if (accountName == null) {
-            accountName = cyclicAccountsIterator.next().getKey();
+            accountName = cyclicAccountNames.get();
         }
         Account account = accountsMap.get(accountName);
         checkNotNull(account);
@@ -10,6 +10,7 @@ import com.ibm.og.api.Operation;
 import com.ibm.og.object.ObjectManager;
 import com.ibm.og.object.ObjectMetadata;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 
 import java.util.Map;
 
@@ -50,10 +51,12 @@ public class LegalholdObjectNameFunction implements Function<Map<String, String>
   public String apply(final Map<String, String> context) {
     final ObjectMetadata objectMetadata = this.objectManager.removeForUpdate();
     context.put(Context.X_OG_OBJECT_NAME, objectMetadata.getName());
-    context.put(Context.X_OG_OBJECT_SIZE, String.valueOf(objectMetadata.getSize()));
-    context.put(Context.X_OG_CONTAINER_SUFFIX, String.valueOf(objectMetadata.getContainerSuffix()));
-    context.put(Context.X_OG_LEGAL_HOLD_SUFFIX, String.valueOf(objectMetadata.getNumberOfLegalHolds()));
-    context.put(Context.X_OG_OBJECT_RETENTION, String.valueOf(objectMetadata.getRetention()));
+    RequestContext.putLong(context, Context.X_OG_OBJECT_SIZE, objectMetadata.getSize());
+    RequestContext.putLong(context, Context.X_OG_CONTAINER_SUFFIX,
+        objectMetadata.getContainerSuffix());
+    RequestContext.putLong(context, Context.X_OG_LEGAL_HOLD_SUFFIX,
+        objectMetadata.getNumberOfLegalHolds());
+    RequestContext.putLong(context, Context.X_OG_OBJECT_RETENTION, objectMetadata.getRetention());
 
     return objectMetadata.getName();
   }
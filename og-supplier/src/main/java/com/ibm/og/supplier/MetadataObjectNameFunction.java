@@ -12,6 +12,7 @@ import java.util.Map;
 import com.ibm.og.object.ObjectManager;
 import com.ibm.og.object.ObjectMetadata;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 import com.google.common.base.Function;
 
 /**
@@ -47,8 +48,9 @@ public class MetadataObjectNameFunction implements Function<Map<String, String>,
   public String apply(final Map<String, String> context) {
     final ObjectMetadata objectMetadata = this.objectManager.get();
     context.put(Context.X_OG_OBJECT_NAME, objectMetadata.getName());
-    context.put(Context.X_OG_OBJECT_SIZE, String.valueOf(objectMetadata.getSize()));
-    context.put(Context.X_OG_CONTAINER_SUFFIX, String.valueOf(objectMetadata.getContainerSuffix()));
+    RequestContext.putLong(context, Context.X_OG_OBJECT_SIZE, objectMetadata.getSize());
+    RequestContext.putLong(context, Context.X_OG_CONTAINER_SUFFIX,
+        objectMetadata.getContainerSuffix());
 
     return objectMetadata.getName();
   }
@@ -8,6 +8,7 @@ import com.google.common.base.Function;
 import com.ibm.og.object.ObjectManager;
 import com.ibm.og.object.ObjectMetadata;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 
 import java.util.Map;
 
@@ -47,9 +48,11 @@ public class ObjectRetentionExtensionFunction implements Function<Map<String, St
     public String apply(final Map<String, String> context) {
         final ObjectMetadata objectMetadata = this.objectManager.removeForUpdate();
         context.put(Context.X_OG_OBJECT_NAME, objectMetadata.getName());
-        context.put(Context.X_OG_OBJECT_SIZE, String.valueOf(objectMetadata.getSize()));
-        context.put(Context.X_OG_CONTAINER_SUFFIX, String.valueOf(objectMetadata.getContainerSuffix()));
-        context.put(Context.X_OG_OBJECT_RETENTION, String.valueOf(objectMetadata.getRetention()));
+        RequestContext.putLong(context, Context.X_OG_OBJECT_SIZE, objectMetadata.getSize());
+        RequestContext.putLong(context, Context.X_OG_CONTAINER_SUFFIX,
+            objectMetadata.getContainerSuffix());
+        RequestContext.putLong(context, Context.X_OG_OBJECT_RETENTION,
+            objectMetadata.getRetention());
         return objectMetadata.getName();
     }
 
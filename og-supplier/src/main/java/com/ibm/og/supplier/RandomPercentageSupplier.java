@@ -21,12 +21,10 @@ public class RandomPercentageSupplier<T> implements Supplier<T> {
     private static class Choice<S> {
         private final S value;
         private final Supplier<? extends Number> percentage;
-        private double currentPercentage;
 
         private Choice(final S choice, final Supplier<? extends Number> percentage) {
             this.value = choice;
             this.percentage = percentage;
-            this.currentPercentage = 0.0;
         }
     }
     private RandomPercentageSupplier(final RandomPercentageSupplier.Builder<T> builder) {
@@ -37,29 +35,27 @@ public class RandomPercentageSupplier<T> implements Supplier<T> {
 
     @Override
     public T get() {
-        final double totalPercent = getCurrentPercents();
+        // percentages are read into a local array so that concurrent callers do not share state
+        final double[] currentPercents = new double[this.choices.size()];
+        final double totalPercent = getCurrentPercents(currentPercents);
         final double rnd = this.random.nextDouble() * totalPercent;
         double previousPercents = 0.0;
 
-        RandomPercentageSupplier.Choice<T> unUsedChoice = this.choices.get(this.choices.size()-1);
-        for (final RandomPercentageSupplier.Choice<T> choice : this.choices) {
-            if (rnd < previousPercents + choice.currentPercentage) {
-                if (choice.value != null) {
-                    return choice.value;
-                } else {
-                    return null;
-                }
+        for (int i = 0; i < currentPercents.length; i++) {
+            if (rnd < previousPercents + currentPercents[i]) {
+                // the trailing unused percentage choice has a null value
+                return this.choices.get(i).value;
             }
-            previousPercents += choice.currentPercentage;
+            previousPercents += currentPercents[i];
         }
         throw new IllegalStateException("Incorrect percentage calculation");
     }
 
-    private double getCurrentPercents() {
+    private double getCurrentPercents(final double[] currentPercents) {
         double currentTotalPercent = 0.0;
-        for (final RandomPercentageSupplier.Choice<T> choice : this.choices) {
-            choice.currentPercentage = choice.percentage.get().doubleValue();
-            currentTotalPercent += choice.currentPercentage;
+        for (int i = 0; i < currentPercents.length; i++) {
+            currentPercents[i] = this.choices.get(i).percentage.get().doubleValue();
+            currentTotalPercent += currentPercents[i];
         }
         return currentTotalPercent;
     }
@@ -10,12 +10,18 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
 /**
- * A supplier which chooses a random value to supply
+ * A supplier which chooses a random value to supply. Choices are sampled in constant time from an
+ * alias table, which is built once when every weight is fixed. When any weight is dynamic, the
+ * weights are read on each call and the table is rebuilt only when they have changed.
+ * <p>
+ * Unless a random instance is configured, each calling thread draws from its own random source.
  * 
  * @param <T> the type of values to supply
  * @since 1.0
@@ -23,47 +29,60 @@ import com.google.common.collect.Lists;
 public class RandomSupplier<T> implements Supplier<T> {
   private final List<Choice<T>> choices;
   private final Random random;
+  private final boolean dynamic;
+  private volatile AliasTable table;
 
   private RandomSupplier(final Builder<T> builder) {
-    this.choices = checkNotNull(builder.choices);
+    this.choices = ImmutableList.copyOf(builder.choices);
     checkArgument(!this.choices.isEmpty(), "choices must not be empty");
-    this.random = checkNotNull(builder.random);
+    this.random = builder.random;
+    boolean dynamic = false;
+    for (final Choice<T> choice : this.choices) {
+      dynamic |= !choice.fixed;
+    }
+    this.dynamic = dynamic;
+    this.table = new AliasTable(currentWeights());
   }
 
   private static class Choice<S> {
     private final S value;
     private final Supplier<? extends Number> weight;
-    private double currentWeight;
+    private final boolean fixed;
 
-    private Choice(final S choice, final Supplier<? extends Number> weight) {
+    private Choice(final S choice, final Supplier<? extends Number> weight, final boolean fixed) {
       this.value = choice;
       this.weight = weight;
-      this.currentWeight = 0.0;
+      this.fixed = fixed;
     }
   }
 
   @Override
   public T get() {
-    final double totalWeight = getCurrentWeights();
-    final double rnd = this.random.nextDouble() * totalWeight;
-    double previousWeights = 0.0;
+    AliasTable table = this.table;
+    if (this.dynamic && !isCurrent(table)) {
+      // concurrent rebuilds are harmless; each caller samples from a table of current weights
+      table = new AliasTable(currentWeights());
+      this.table = table;
+    }
+    final Random random = this.random != null ? this.random : ThreadLocalRandom.current();
+    return this.choices.get(table.sample(random)).value;
+  }
 
-    for (final Choice<T> choice : this.choices) {
-      if (rnd < previousWeights + choice.currentWeight) {
-        return choice.value;
+  private boolean isCurrent(final AliasTable table) {
+    for (int i = 0; i < this.choices.size(); i++) {
+      if (this.choices.get(i).weight.get().doubleValue() != table.weight(i)) {
+        return false;
       }
-      previousWeights += choice.currentWeight;
     }
-    throw new IllegalStateException("Incorrect weight calculation");
+    return true;
   }
 
-  private double getCurrentWeights() {
-    double currentTotalWeight = 0.0;
-    for (final Choice<T> choice : this.choices) {
-      choice.currentWeight = choice.weight.get().doubleValue();
-      currentTotalWeight += choice.currentWeight;
+  private double[] currentWeights() {
+    final double[] weights = new double[this.choices.size()];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = this.choices.get(i).weight.get().doubleValue();
     }
-    return currentTotalWeight;
+    return weights;
   }
 
   /**
@@ -80,7 +99,7 @@ public class RandomSupplier<T> implements Supplier<T> {
      */
     public Builder() {
       this.choices = Lists.newArrayList();
-      this.random = new Random();
+      this.random = null;
     }
 
     /**
@@ -103,7 +122,9 @@ public class RandomSupplier<T> implements Supplier<T> {
      */
     public Builder<T> withChoice(final T choice, final double weight) {
       checkArgument(weight > 0.0, "weight must be > 0.0 [%s]", weight);
-      return withChoice(choice, Suppliers.of(weight));
+      checkNotNull(choice);
+      this.choices.add(new Choice<T>(choice, Suppliers.of(weight), true));
+      return this;
     }
 
     /**
@@ -116,18 +137,20 @@ public class RandomSupplier<T> implements Supplier<T> {
     public Builder<T> withChoice(final T choice, final Supplier<? extends Number> weight) {
       checkNotNull(choice);
       checkNotNull(weight);
-      this.choices.add(new Choice<T>(choice, weight));
+      this.choices.add(new Choice<T>(choice, weight, false));
       return this;
     }
 
     /**
-     * Configures this builder to use a provided random instance
+     * Configures this builder to use a provided random instance, shared by all calling threads,
+     * rather than a random source per thread
      * 
      * @param random the random instance to use for value selection
      * @return this builder
+     * @throws NullPointerException if random is null
      */
     public Builder<T> withRandom(final Random random) {
-      this.random = random;
+      this.random = checkNotNull(random);
       return this;
     }
 
@@ -135,7 +158,8 @@ public class RandomSupplier<T> implements Supplier<T> {
      * Creates a random choice supplier instance
      * 
      * @return a new random choice supplier instance
-     * @throws IllegalArgumentException if no choices were added prior to calling this method
+     * @throws IllegalArgumentException if no choices were added prior to calling this method, or
+     *         if the initial weights are negative or all zero
      */
     public RandomSupplier<T> build() {
       return new RandomSupplier<T>(this);
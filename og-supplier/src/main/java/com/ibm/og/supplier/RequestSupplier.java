@@ -8,31 +8,28 @@ package com.ibm.og.supplier;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
+import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
 import com.ibm.og.api.Body;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
-import com.ibm.og.http.MD5DigestLoader;
+import com.ibm.og.http.BodyDigestLoader;
 import com.ibm.og.http.Credential;
 import com.ibm.og.http.HttpRequest;
 import com.ibm.og.http.Scheme;
 import com.ibm.og.object.RandomObjectPopulator;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 import com.google.common.base.Function;
-import com.google.common.base.Joiner;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,7 +40,6 @@ import org.slf4j.LoggerFactory;
  */
 public class RequestSupplier implements Supplier<Request> {
   private static final Logger _logger = LoggerFactory.getLogger(RequestSupplier.class);
-  private static final Joiner.MapJoiner PARAM_JOINER = Joiner.on('&').withKeyValueSeparator("=").useForNull("");
   private final Function<Map<String, String>, String> id;
   private final Method method;
   private final Scheme scheme;
@@ -65,7 +61,11 @@ public class RequestSupplier implements Supplier<Request> {
   private final Supplier<Function<Map<String, String>, String>> legalHold;
   private final Operation operation;
   private final boolean contentMd5;
-  private final LoadingCache<Long, byte[]> md5ContentCache;
+  private final BodyDigestLoader md5Loader;
+  private final LoadingCache<Body, byte[]> md5ContentCache;
+  private final UriTemplate uriTemplate;
+  private final String[] queryKeys;
+  private final List<Function<Map<String, String>, String>> queryValues;
 
 
 
@@ -126,14 +126,20 @@ public class RequestSupplier implements Supplier<Request> {
     this.retention = retention;
     this.legalHold = legalHold;
     this.contentMd5 = contentMd5;
-    this.md5ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new MD5DigestLoader());
+    this.md5Loader = new BodyDigestLoader(Hashing.md5());
+    this.md5ContentCache = CacheBuilder.newBuilder().maximumSize(1024).build(this.md5Loader);
 
     checkArgument(!(this.container == null && this.object != null));
+    this.queryKeys = this.queryParameters.keySet().toArray(new String[0]);
+    this.queryValues = ImmutableList.copyOf(this.queryParameters.values());
+    this.uriTemplate = new UriTemplate(this.scheme, this.host, this.port, this.uriRoot,
+        this.apiVersion, this.object, ImmutableList.copyOf(this.queryKeys), this.trailingSlash,
+        this.virtualHost);
   }
 
   @Override
   public Request get() {
-    final Map<String, String> requestContext = Maps.newHashMap();
+    final RequestContext requestContext = new RequestContext();
 
     // populate the request context map with any relevant metadata for this request
     for (final Function<Map<String, String>, String> function : this.context) {
@@ -186,8 +192,13 @@ public class RequestSupplier implements Supplier<Request> {
       }
     }
 
-    final HttpRequest.Builder builder =
-        new HttpRequest.Builder(this.method, getUrl(requestContext), this.operation);
+    // query parameter values are computed once, for both the uri and the request
+    final String[] queryValues = new String[this.queryKeys.length];
+    for (int i = 0; i < queryValues.length; i++) {
+      queryValues[i] = this.queryValues.get(i).apply(requestContext);
+    }
+    final HttpRequest.Builder builder = new HttpRequest.Builder(this.method,
+        this.uriTemplate.expand(requestContext, queryValues), this.operation);
 
     for (final Map.Entry<String, Function<Map<String, String>, String>> header : this.headers
         .entrySet()) {
@@ -217,9 +228,7 @@ public class RequestSupplier implements Supplier<Request> {
       builder.withContext(Context.X_OG_REQUEST_ID, this.id.apply(requestContext));
     }
 
-    for (final Map.Entry<String, String> entry : requestContext.entrySet()) {
-      builder.withContext(entry.getKey(), entry.getValue());
-    }
+    builder.withContext(requestContext);
 
 
     if (this.body != null) {
@@ -227,8 +236,7 @@ public class RequestSupplier implements Supplier<Request> {
       builder.withBody(body);
       if (this.contentMd5) {
         try {
-          Long size = body.getSize();
-          byte[] md5 = md5ContentCache.get(size);
+          final byte[] md5 = md5(body);
           builder.withHeader(Context.X_OG_CONTENT_MD5, BaseEncoding.base64().encode(md5));
         } catch (Exception e) {
             _logger.error(e.getMessage());
@@ -238,127 +246,13 @@ public class RequestSupplier implements Supplier<Request> {
 
 
 
-    if (this.queryParameters != null) {
-      for (final Map.Entry<String, Function<Map<String, String>, String>> queryParams : this.queryParameters
-          .entrySet()) {
-        builder.withQueryParameter(queryParams.getKey(), queryParams.getValue().apply(requestContext));
-      }
+    for (int i = 0; i < queryValues.length; i++) {
+      builder.withQueryParameter(this.queryKeys[i], queryValues[i]);
     }
 
     return builder.build();
   }
 
-  private URI getUrl(final Map<String, String> context) {
-
-    final StringBuilder s = new StringBuilder().append(this.scheme).append("://");
-    appendHost(s, context);
-    appendPort(s);
-    appendPath(s, context, apiVersion);
-    appendTrailingSlash(s);
-    appendQueryParams(s, context);
-
-    try {
-      return new URI(s.toString());
-    } catch (final URISyntaxException e) {
-      // Wrapping checked exception as unchecked because most callers will not be able to handle
-      // it and I don't want to include URISyntaxException in the entire signature chain
-      throw new IllegalArgumentException(e);
-    }
-  }
-
-  private void appendHost(final StringBuilder s, final Map<String, String> context) {
-    if (this.virtualHost) {
-      String containerName = context.get(Context.X_OG_CONTAINER_NAME);
-      if (containerName != null) {
-        s.append(containerName).append(".");
-      }
-    }
-
-    s.append(this.host.apply(context));
-  }
-
-  private void appendPort(final StringBuilder s) {
-    if (this.port != null) {
-      s.append(":").append(this.port);
-    }
-  }
-
-  private void appendPath(final StringBuilder s, final Map<String, String> context, final String apiVersion) {
-    if (!this.virtualHost) {
-      s.append("/");
-      if (this.uriRoot != null) {
-        s.append(this.uriRoot).append("/");
-      }
-
-      if (apiVersion != null) {
-        s.append(apiVersion).append("/");
-      }
-      String storageAccount = getStorageAccountPath(context, apiVersion);
-      if (storageAccount != null) {
-        s.append(getStorageAccountPath(context, apiVersion));
-      }
-
-      String containerName = context.get(Context.X_OG_CONTAINER_NAME);
-      if (containerName != null) {
-        s.append(containerName);
-      }
-    }
-
-    if (this.object != null) {
-      s.append("/").append(this.object.apply(context));
-    }
-  }
-
-  private void appendTrailingSlash(final StringBuilder s) {
-    if (this.trailingSlash) {
-      s.append("/");
-    }
-  }
-
-  private void appendQueryParams(final StringBuilder s, final Map<String, String> context) {
-    final Map<String, String> queryParamsMap = Maps.newHashMap();
-
-    StringBuilder sb = new StringBuilder();
-    int mapSize = this.queryParameters.size();
-    int counter = 0;
-    for (final Map.Entry<String, Function<Map<String, String>, String>> queryParams : this.queryParameters
-        .entrySet()) {
-      counter++;
-      queryParamsMap.put(queryParams.getKey(), queryParams.getValue().apply(context));
-      sb.append(queryParams.getKey());
-      String value = queryParams.getValue().apply(context);
-      if (value != null) {
-        sb.append("=").append(value);
-      }
-      if (counter < mapSize) {
-        sb.append("&");
-      }
-    }
-
-//    final String queryParams = PARAM_JOINER.join(queryParamsMap);
-//    if (queryParams.length() > 0) {
-//      s.append("?").append(queryParams);
-//
-    if (sb.toString().length() != 0) {
-      s.append("?").append(sb.toString());
-    }
-  }
-
-  private String getStorageAccountPath(final Map<String, String> context, final String apiVersion) {
-    String storageAccountName = context.get(Context.X_OG_STORAGE_ACCOUNT_NAME);
-    StringBuilder s = new StringBuilder();
-    if(storageAccountName != null) {
-      s.append(storageAccountName).append("/");
-    } else if (apiVersion != null && storageAccountName == null) {
-      // FIXME - this is a case to accomodate vault mode swift account. If the api version is present,
-      // the dsnet expects a storage account name. so pass a dummy account name when there is no authentication
-      s.append("dummyaccount").append("/");
-    } else {
-      return null;
-    }
-    return s.toString();
-  }
-
   @Override
   public String toString() {
     return String.format(
@@ -368,4 +262,12 @@ public class RequestSupplier implements Supplier<Request> {
         this.method, this.scheme, this.host, this.port, this.uriRoot, this.container, this.object,
         this.queryParameters, this.trailingSlash, this.headers, this.body);
   }
+
+  // only bodies whose content recurs are cached; unique bodies would evict them and never be hit
+  private byte[] md5(final Body body) throws Exception {
+    if (BodyDigestLoader.isCacheable(body)) {
+      return this.md5ContentCache.get(body);
+    }
+    return this.md5Loader.load(body);
+  }
 }
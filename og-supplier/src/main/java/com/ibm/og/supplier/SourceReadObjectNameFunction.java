@@ -9,6 +9,7 @@ import com.google.common.base.Function;
 import com.ibm.og.object.ObjectManager;
 import com.ibm.og.object.ObjectMetadata;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
 
 import java.util.Map;
 
@@ -47,9 +48,10 @@ public class SourceReadObjectNameFunction implements Function<Map<String, String
   public String apply(final Map<String, String> context) {
     final ObjectMetadata objectMetadata = this.objectManager.get();
     context.put(Context.X_OG_SSE_SOURCE_OBJECT_NAME, objectMetadata.getName());
-    context.put(Context.X_OG_SSE_SOURCE_OBJECT_SIZE, String.valueOf(objectMetadata.getSize()));
-    context.put(Context.X_OG_SSE_SOURCE_OBJECT_CONTAINER_SUFFIX, String.valueOf(objectMetadata.getContainerSuffix()));
-    context.put(Context.X_OG_OBJECT_SIZE, String.valueOf(objectMetadata.getSize()));
+    RequestContext.putLong(context, Context.X_OG_SSE_SOURCE_OBJECT_SIZE, objectMetadata.getSize());
+    RequestContext.putLong(context, Context.X_OG_SSE_SOURCE_OBJECT_CONTAINER_SUFFIX,
+        objectMetadata.getContainerSuffix());
+    RequestContext.putLong(context, Context.X_OG_OBJECT_SIZE, objectMetadata.getSize());
 
     return objectMetadata.getName();
   }
@@ -8,13 +8,13 @@ package com.ibm.og.supplier;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterators;
+import com.ibm.og.util.RankDistribution;
 
 /**
  * A utility class for creating supplier instances
@@ -56,11 +56,11 @@ public class Suppliers {
   public static <T> Supplier<T> cycle(final List<T> values) {
     final List<T> copy = ImmutableList.copyOf(values);
     checkArgument(!copy.isEmpty(), "values must not be empty");
-    final Iterator<T> it = Iterators.cycle(copy);
+    final AtomicLong next = new AtomicLong();
     return new Supplier<T>() {
       @Override
       public T get() {
-        return it.next();
+        return copy.get((int) (next.getAndIncrement() % copy.size()));
       }
 
       @Override
@@ -80,18 +80,12 @@ public class Suppliers {
     checkArgument(minValue <= maxValue, "minValue must be <= maxValue, [%s, %s]", minValue,
         maxValue);
 
+    final long range = maxValue - minValue + 1;
+    final AtomicLong next = new AtomicLong();
     return new Supplier<Long>() {
-      // FIXME simplify this implementation
-      long currentValue = minValue - 1;
-
       @Override
       public Long get() {
-        this.currentValue = (this.currentValue + 1) % (maxValue + 1);
-        if (this.currentValue == 0) {
-          this.currentValue = minValue;
-        }
-
-        return this.currentValue;
+        return minValue + next.getAndIncrement() % range;
       }
 
       @Override
@@ -133,4 +127,40 @@ public class Suppliers {
       }
     };
   }
+
+  /**
+   * A supplier which chooses a long to supply by rank, where {@code minValue} has rank 0
+   *
+   * @param minValue the smallest value to supply
+   * @param maxValue the largest value to supply
+   * @param ranks the distribution to select the rank of each supplied value from
+   * @return a supplier of values in the range {@code [minValue, maxValue]}
+   * @throws IllegalArgumentException if minValue is negative, if maxValue is less than minValue,
+   *         or if the range contains {@link Long#MAX_VALUE} values or more
+   * @throws NullPointerException if ranks is null
+   * @since 1.7.0
+   */
+  public static Supplier<Long> random(final long minValue, final long maxValue,
+      final RankDistribution ranks) {
+    checkArgument(minValue >= 0, "minValue must be >= 0 [%s]", minValue);
+    checkArgument(minValue <= maxValue, "minValue must be <= maxValue, [%s, %s]", minValue,
+        maxValue);
+    checkArgument(maxValue - minValue < Long.MAX_VALUE,
+        "maxValue - minValue must be < Long.MAX_VALUE [%s, %s]", minValue, maxValue);
+    checkNotNull(ranks);
+    final long n = maxValue - minValue + 1;
+    return new Supplier<Long>() {
+
+      @Override
+      public Long get() {
+        return minValue + ranks.nextRank(n);
+      }
+
+      @Override
+      public String toString() {
+        return String.format("random [minValue=%s, maxValue=%s, ranks=%s]", minValue, maxValue,
+            ranks);
+      }
+    };
+  }
 }
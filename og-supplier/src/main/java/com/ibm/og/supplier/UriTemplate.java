@@ -0,0 +1,156 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Function;
+import com.ibm.og.http.Scheme;
+import com.ibm.og.util.Context;
+
+/**
+ * The uri of the requests created by a {@link RequestSupplier}, compiled once into the fixed text
+ * between its variable parts. The fixed text, such as the scheme, port, uri root and api version,
+ * and the query parameter keys, is assembled when the template is constructed, so expanding the
+ * template for a request appends each variable part once to a presized buffer.
+ *
+ * @since 1.7.0
+ */
+final class UriTemplate {
+  // a storage account must be present in the path when an api version is, see RequestSupplier
+  private static final String DEFAULT_STORAGE_ACCOUNT = "dummyaccount/";
+  private final Function<Map<String, String>, String> host;
+  private final Function<Map<String, String>, String> object;
+  private final boolean virtualHost;
+  private final boolean accountRequired;
+  // scheme and separator, e.g. "http://"
+  private final String prefix;
+  // port, and for path style requests the path up to the storage account, e.g. ":8080/s3/"
+  private final String authoritySuffix;
+  private final String trailingSlash;
+  // "key=" for each query parameter, or "key" if a parameter has no value
+  private final String[] queryKeys;
+  private final String[] queryKeysWithoutValue;
+  private volatile int capacity;
+
+  /**
+   * Constructs an instance
+   *
+   * @param scheme the request scheme
+   * @param host the request host
+   * @param port the request port, or null for the default port of scheme
+   * @param uriRoot the base path of requests, or null
+   * @param apiVersion the api version of requests, or null
+   * @param object the object name of requests, or null if requests do not name an object
+   * @param queryKeys the keys of the query parameters of requests, in the order values are
+   *        provided to {@link #expand(Map, String[])}
+   * @param trailingSlash whether or not to add a trailing slash to the path
+   * @param virtualHost whether the container is addressed as a subdomain of host rather than in the
+   *        path
+   */
+  UriTemplate(final Scheme scheme, final Function<Map<String, String>, String> host,
+      @Nullable final Integer port, @Nullable final String uriRoot,
+      @Nullable final String apiVersion,
+      @Nullable final Function<Map<String, String>, String> object, final List<String> queryKeys,
+      final boolean trailingSlash, final boolean virtualHost) {
+    this.host = checkNotNull(host);
+    this.object = object;
+    this.virtualHost = virtualHost;
+    this.accountRequired = apiVersion != null;
+    this.prefix = checkNotNull(scheme) + "://";
+
+    final StringBuilder authority = new StringBuilder();
+    if (port != null) {
+      authority.append(":").append(port);
+    }
+    if (!virtualHost) {
+      authority.append("/");
+      if (uriRoot != null) {
+        authority.append(uriRoot).append("/");
+      }
+      if (apiVersion != null) {
+        authority.append(apiVersion).append("/");
+      }
+    }
+    this.authoritySuffix = authority.toString();
+    this.trailingSlash = trailingSlash ? "/" : "";
+
+    this.queryKeys = new String[queryKeys.size()];
+    this.queryKeysWithoutValue = new String[queryKeys.size()];
+    for (int i = 0; i < this.queryKeys.length; i++) {
+      final String key = checkNotNull(queryKeys.get(i));
+      this.queryKeys[i] = key + "=";
+      this.queryKeysWithoutValue[i] = key;
+    }
+    this.capacity = 64;
+  }
+
+  /**
+   * Creates the uri of a request
+   *
+   * @param context the request context, which supplies the container and storage account names
+   * @param queryValues the value of each query parameter, or null for a parameter without a value
+   * @return the uri of the request
+   * @throws IllegalArgumentException if the expanded template is not a valid uri
+   */
+  URI expand(final Map<String, String> context, final String[] queryValues) {
+    final StringBuilder s = new StringBuilder(this.capacity).append(this.prefix);
+    final String container = context.get(Context.X_OG_CONTAINER_NAME);
+    if (this.virtualHost && container != null) {
+      s.append(container).append(".");
+    }
+    s.append(this.host.apply(context)).append(this.authoritySuffix);
+
+    if (!this.virtualHost) {
+      final String account = context.get(Context.X_OG_STORAGE_ACCOUNT_NAME);
+      if (account != null) {
+        s.append(account).append("/");
+      } else if (this.accountRequired) {
+        s.append(DEFAULT_STORAGE_ACCOUNT);
+      }
+      if (container != null) {
+        s.append(container);
+      }
+    }
+    if (this.object != null) {
+      s.append("/").append(this.object.apply(context));
+    }
+    s.append(this.trailingSlash);
+
+    for (int i = 0; i < this.queryKeys.length; i++) {
+      s.append(i == 0 ? '?' : '&');
+      if (queryValues[i] != null) {
+        s.append(this.queryKeys[i]).append(queryValues[i]);
+      } else {
+        s.append(this.queryKeysWithoutValue[i]);
+      }
+    }
+
+    if (s.length() > this.capacity) {
+      // racing updates only affect the size of later buffers
+      this.capacity = s.length();
+    }
+    try {
+      // URI offers no constructor which skips parsing, so the uri is parsed once, here
+      return new URI(s.toString());
+    } catch (final URISyntaxException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("UriTemplate [prefix=%s, host=%s, authoritySuffix=%s, object=%s]",
+        this.prefix, this.host, this.authoritySuffix, this.object);
+  }
+}
@@ -6,15 +6,19 @@
 package com.ibm.og.supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 public class RandomSupplierTest {
@@ -71,4 +75,67 @@ public class RandomSupplierTest {
       assertThat(count, greaterThan(0));
     }
   }
+
+  @Test
+  public void weightedChoices() {
+    final Supplier<Integer> s = new RandomSupplier.Builder<Integer>().withChoice(1, 10)
+        .withChoice(2, 30).withChoice(3, 60).withRandom(new Random(0)).build();
+    final int[] counts = new int[4];
+    for (int i = 0; i < 100000; i++) {
+      counts[s.get()]++;
+    }
+    assertThat(counts[1] / 100000.0, closeTo(0.1, 0.01));
+    assertThat(counts[2] / 100000.0, closeTo(0.3, 0.01));
+    assertThat(counts[3] / 100000.0, closeTo(0.6, 0.01));
+  }
+
+  @Test
+  public void dynamicWeights() {
+    final AtomicInteger selected = new AtomicInteger(1);
+    final Supplier<Integer> s = new RandomSupplier.Builder<Integer>()
+        .withChoice(1, weightWhen(selected, 1)).withChoice(2, weightWhen(selected, 2)).build();
+    for (int i = 0; i < 100; i++) {
+      assertThat(s.get(), is(1));
+    }
+    selected.set(2);
+    for (int i = 0; i < 100; i++) {
+      assertThat(s.get(), is(2));
+    }
+  }
+
+  @Test
+  public void concurrentChoices() throws InterruptedException {
+    final Supplier<Integer> s =
+        new RandomSupplier.Builder<Integer>().withChoice(1, 50).withChoice(2, 50).build();
+    final AtomicInteger ones = new AtomicInteger();
+    final List<Thread> threads = Lists.newArrayList();
+    for (int t = 0; t < 4; t++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 25000; i++) {
+            if (s.get() == 1) {
+              ones.incrementAndGet();
+            }
+          }
+        }
+      }));
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(ones.get() / 100000.0, closeTo(0.5, 0.01));
+  }
+
+  private static Supplier<Integer> weightWhen(final AtomicInteger selected, final int choice) {
+    return new Supplier<Integer>() {
+      @Override
+      public Integer get() {
+        return selected.get() == choice ? 1 : 0;
+      }
+    };
+  }
 }
@@ -12,6 +12,7 @@ import java.net.URISyntaxException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 
@@ -29,6 +30,7 @@ import com.ibm.og.http.Scheme;
 import com.ibm.og.util.MoreFunctions;
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
 public class RequestSupplierTest {
@@ -191,6 +193,51 @@ public class RequestSupplierTest {
 
   }
 
+  @Test
+  public void queryParametersAppliedOnce() throws URISyntaxException {
+    final AtomicInteger applied = new AtomicInteger();
+    final Map<String, Function<Map<String, String>, String>> queryParameters =
+        ImmutableMap.<String, Function<Map<String, String>, String>>of("count",
+            new Function<Map<String, String>, String>() {
+              @Override
+              public String apply(final Map<String, String> context) {
+                return String.valueOf(applied.incrementAndGet());
+              }
+            }, "versioning", new Function<Map<String, String>, String>() {
+              @Override
+              public String apply(final Map<String, String> context) {
+                return null;
+              }
+            });
+    final Supplier<String> hostSupplier = Suppliers.of(this.hostName);
+    final Function<Map<String, String>, String> host = MoreFunctions.forSupplier(hostSupplier);
+    final RequestSupplier request = new RequestSupplier(Operation.WRITE, null, Method.PUT,
+        Scheme.HTTP, host, null, this.uriRoot,
+        containerFunction(), "v1", null, queryParameters, false,
+        Collections.<String, Function<Map<String, String>, String>>emptyMap(),
+        Collections.<Function<Map<String, String>, String>>emptyList(), null, null, null, false,
+        null, null, false);
+
+    final Request req = request.get();
+
+    Assert.assertEquals(1, applied.get());
+    Assert.assertEquals(new URI("http://" + this.hostName + "/" + this.uriRoot
+        + "/v1/dummyaccount/" + this.vaultName + "?count=1&versioning"), req.getUri());
+    Assert.assertEquals(Collections.singletonList("1"), req.getQueryParameters().get("count"));
+    Assert.assertEquals(Collections.singletonList(null),
+        req.getQueryParameters().get("versioning"));
+  }
+
+  private Function<Map<String, String>, String> containerFunction() {
+    return new Function<Map<String, String>, String>() {
+      @Override
+      public String apply(final Map<String, String> input) {
+        input.put(Context.X_OG_CONTAINER_NAME, RequestSupplierTest.this.vaultName);
+        return RequestSupplierTest.this.vaultName;
+      }
+    };
+  }
+
   public static <O, T> Function<O, T> forSupplier(final Supplier<T> supplier) {
     return new SupplierFunction<O, T>(supplier);
   }
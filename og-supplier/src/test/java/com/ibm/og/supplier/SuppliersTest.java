@@ -9,12 +9,18 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.junit.Test;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.ibm.og.util.RankDistributions;
 
 public class SuppliersTest {
   @Test(expected = NullPointerException.class)
@@ -99,6 +105,44 @@ public class SuppliersTest {
     assertThat(cycle.get(), is(1L));
   }
 
+  @Test
+  public void cycleNonZeroMinValue() {
+    final Supplier<Long> cycle = Suppliers.cycle(5, 6);
+    assertThat(cycle.get(), is(5L));
+    assertThat(cycle.get(), is(6L));
+    assertThat(cycle.get(), is(5L));
+  }
+
+  @Test
+  public void concurrentCycle() throws Exception {
+    // every value is supplied exactly as often as the others when shared between threads
+    final Supplier<Integer> cycle = Suppliers.cycle(ImmutableList.of(0, 1, 2, 3));
+    final AtomicIntegerArray counts = new AtomicIntegerArray(4);
+    final List<Callable<Void>> tasks = Lists.newArrayList();
+    for (int t = 0; t < 8; t++) {
+      tasks.add(new Callable<Void>() {
+        @Override
+        public Void call() {
+          for (int i = 0; i < 10000; i++) {
+            counts.incrementAndGet(cycle.get());
+          }
+          return null;
+        }
+      });
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+    try {
+      for (final Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    for (int i = 0; i < counts.length(); i++) {
+      assertThat(counts.get(i), is(20000));
+    }
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void randomNegativeMinValue() {
     Suppliers.random(-1, 100);
@@ -108,4 +152,38 @@ public class SuppliersTest {
   public void randomMaxValueLessThanMinValue() {
     Suppliers.random(10, 9);
   }
+
+  @Test(expected = NullPointerException.class)
+  public void rankedNullRanks() {
+    Suppliers.random(0, 100, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rankedNegativeMinValue() {
+    Suppliers.random(-1, 100, RankDistributions.uniform());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rankedMaxValueLessThanMinValue() {
+    Suppliers.random(10, 9, RankDistributions.uniform());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rankedRangeTooLarge() {
+    Suppliers.random(0, Long.MAX_VALUE, RankDistributions.uniform());
+  }
+
+  @Test
+  public void ranked() {
+    // every selection is hot, and the hot set is the lowest value
+    final Supplier<Long> s = Suppliers.random(10, 109, RankDistributions.hotSet(0.01, 1.0));
+    for (int i = 0; i < 100; i++) {
+      assertThat(s.get(), is(10L));
+    }
+    final Supplier<Long> latest =
+        Suppliers.random(10, 109, RankDistributions.latest(RankDistributions.hotSet(0.01, 1.0)));
+    for (int i = 0; i < 100; i++) {
+      assertThat(latest.get(), is(109L));
+    }
+  }
 }
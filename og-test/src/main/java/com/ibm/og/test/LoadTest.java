@@ -5,10 +5,12 @@
 
 package com.ibm.og.test;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -46,15 +48,16 @@ public class LoadTest implements Callable<LoadTestResult> {
   private final RequestManager requestManager;
   private final Client client;
   private final Scheduler scheduler;
-  private final Thread schedulerThread;
+  private final List<Thread> schedulerThreads;
   private final EventBus eventBus;
+  private final OperationPipeline pipeline;
   private final boolean shutdownImmediate;
   private final AtomicBoolean running;
   private long timestampStart;
   private long timestampFinish;
   private volatile boolean success;
   private final CountDownLatch completed;
-  private ArrayList<String> messages;
+  private final List<String> messages;
 
   /**
    * Creates an instance
@@ -62,26 +65,62 @@ public class LoadTest implements Callable<LoadTestResult> {
    * @param requestManager a generator of request instances
    * @param client a request executor
    * @param scheduler a scheduler which determines request rate
-   * @param eventBus an event bus for notifying components of events in the system
+   * @param eventBus an event bus for notifying components of test state changes
+   * @param pipeline a pipeline for notifying components of request and completion events
    * @param shutdownImmediate if true, abort all in-progress requests at shutdown, else wait until
    *        all current requests finish and shutdown gracefully
-   * @throws NullPointerException if requestSupplier, client, scheduler, or eventBus are null
+   * @throws NullPointerException if requestSupplier, client, scheduler, eventBus, or pipeline are
+   *         null
+   */
+  public LoadTest(final RequestManager requestManager, final Client client,
+      final Scheduler scheduler, final EventBus eventBus, final OperationPipeline pipeline,
+      final boolean shutdownImmediate) {
+    this(requestManager, client, scheduler, eventBus, pipeline, shutdownImmediate, 1);
+  }
+
+  /**
+   * Creates an instance which produces requests on multiple threads. Each producer thread waits on
+   * the shared scheduler, so the configured rate or concurrency applies to the test as a whole and
+   * is divided among the producers as they claim permits
+   * 
+   * @param requestManager a generator of request instances, safe for concurrent use
+   * @param client a request executor
+   * @param scheduler a scheduler which determines request rate
+   * @param eventBus an event bus for notifying components of test state changes
+   * @param pipeline a pipeline for notifying components of request and completion events
+   * @param shutdownImmediate if true, abort all in-progress requests at shutdown, else wait until
+   *        all current requests finish and shutdown gracefully
+   * @param producers the number of threads producing requests
+   * @throws NullPointerException if requestSupplier, client, scheduler, eventBus, or pipeline are
+   *         null
+   * @throws IllegalArgumentException if producers is not positive
+   * @since 1.7.0
    */
   @Inject
   public LoadTest(final RequestManager requestManager, final Client client,
-      final Scheduler scheduler, final EventBus eventBus,
-      @Named("shutdownImmediate") final boolean shutdownImmediate) {
+      final Scheduler scheduler, final EventBus eventBus, final OperationPipeline pipeline,
+      @Named("shutdownImmediate") final boolean shutdownImmediate,
+      @Named("producers") final int producers) {
     this.requestManager = checkNotNull(requestManager);
     this.client = checkNotNull(client);
     this.scheduler = checkNotNull(scheduler);
-    this.schedulerThread = new Thread(new SchedulerRunnable(), "loadtest-scheduler");
-    this.schedulerThread.setDaemon(true);
+    checkArgument(producers > 0, "producers must be > 0 [%s]", producers);
+    final ImmutableList.Builder<Thread> schedulerThreads = ImmutableList.builder();
+    for (int i = 0; i < producers; i++) {
+      final Thread schedulerThread =
+          new Thread(new SchedulerRunnable(), String.format("loadtest-scheduler-%d", i));
+      schedulerThread.setDaemon(true);
+      schedulerThreads.add(schedulerThread);
+    }
+    this.schedulerThreads = schedulerThreads.build();
     this.eventBus = checkNotNull(eventBus);
+    this.pipeline = checkNotNull(pipeline);
     this.shutdownImmediate = shutdownImmediate;
     this.running = new AtomicBoolean(true);
     this.success = true;
     this.completed = new CountDownLatch(1);
-    this.messages =  new ArrayList<String>();
+    // aborts may be reported concurrently by producer threads and request callbacks
+    this.messages = new CopyOnWriteArrayList<String>();
 
   }
 
@@ -90,16 +129,20 @@ public class LoadTest implements Callable<LoadTestResult> {
     public void run() {
       try {
         while (LoadTest.this.running.get()) {
-          LoadTest.this.scheduler.schedule();
+          final long intendedStart = LoadTest.this.scheduler.schedule();
           if (LoadTest.this.running.get()) {
-            final Request request = LoadTest.this.requestManager.get();
+            Request request = LoadTest.this.requestManager.get();
+            if (intendedStart != 0) {
+              // latency is measured from the planned start, however late the request is built
+              request = new ScheduledRequest(request, intendedStart);
+            }
             _logger.trace("Created request {}", request);
             // RequestManager.get() could block (in case of Multipart supplier) and when it returns the test may be stopped and client could be shutdown.
             // We cannot submit a new request if client is shutdown. So check again to make sure that the test is
             // still running.
             if (LoadTest.this.running.get()) {
               final ListenableFuture<Response> future = LoadTest.this.client.execute(request);
-              LoadTest.this.eventBus.post(request);
+              LoadTest.this.pipeline.publish(request);
               addCallback(request, future);
             }
           }
@@ -122,11 +165,16 @@ public class LoadTest implements Callable<LoadTestResult> {
   @Override
   public LoadTestResult call() {
     this.timestampStart = System.currentTimeMillis();
+    _logger.debug("Starting operation pipeline");
+    this.pipeline.start();
+
     _logger.debug("Posting TestState.RUNNING to event bus");
     this.eventBus.post(TestState.RUNNING);
 
-    _logger.debug("Starting scheduler thread");
-    this.schedulerThread.start();
+    _logger.debug("Starting {} scheduler threads", this.schedulerThreads.size());
+    for (final Thread schedulerThread : this.schedulerThreads) {
+      schedulerThread.start();
+    }
 
     _logger.debug("Waiting for test complete");
     Uninterruptibles.awaitUninterruptibly(this.completed);
@@ -141,14 +189,14 @@ public class LoadTest implements Callable<LoadTestResult> {
     _logger.debug("Entering stopTest");
     // ensure this code is only run once
     if (this.running.getAndSet(false)) {
-      _logger.debug("Interrupting scheduler thread");
-      this.schedulerThread.interrupt();
-
-      // currently a new thread is required here to run shutdown logic because stopTest can be
-      // called via a client worker thread via client -> eventbus -> stopping condition -> stopTest,
-      // which will introduce a deadlock since stopTest waits until all client threads are done. An
-      // alternative approach is to us an async eventbus, but this requires managing the shutdown of
-      // the async eventbus' executor somewhere
+      _logger.debug("Interrupting scheduler threads");
+      for (final Thread schedulerThread : this.schedulerThreads) {
+        schedulerThread.interrupt();
+      }
+
+      // a new thread is required here to run shutdown logic because stopTest can be called via a
+      // pipeline thread via pipeline -> stopping condition -> stopTest, which would introduce a
+      // deadlock since shutdown waits until all client threads are done and the pipeline is drained
       new Thread("loadtest-shutdown") {
         @Override
         public void run() {
@@ -162,6 +210,9 @@ public class LoadTest implements Callable<LoadTestResult> {
           } catch (final Exception e) {
             _logger.error("Exception while attempting to shutdown client", e);
           }
+          // all client callbacks have completed, deliver any operations still in the pipeline
+          _logger.debug("Draining operation pipeline");
+          LoadTest.this.pipeline.shutdown();
           LoadTest.this.completed.countDown();
         }
       }.start();
@@ -203,8 +254,7 @@ public class LoadTest implements Callable<LoadTestResult> {
       }
 
       private void postOperation(final Response response) {
-        LoadTest.this.eventBus.post(response);
-        LoadTest.this.eventBus.post(Pair.of(request, response));
+        LoadTest.this.pipeline.publish(Pair.of(request, response));
       }
     });
   }
@@ -213,8 +263,8 @@ public class LoadTest implements Callable<LoadTestResult> {
   public String toString() {
     return String.format(
         "LoadTest [%n" + "requestManager=%s,%n" + "scheduler=%s,%n" + "client=%s,%n"
-            + "shutdownImmediate=%s%n" + "]",
-        this.requestManager, this.scheduler, this.client, this.shutdownImmediate);
+            + "pipeline=%s,%n" + "shutdownImmediate=%s%n" + "]",
+        this.requestManager, this.scheduler, this.client, this.pipeline, this.shutdownImmediate);
   }
   
 }
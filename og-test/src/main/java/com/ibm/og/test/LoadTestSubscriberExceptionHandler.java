@@ -12,14 +12,16 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.eventbus.SubscriberExceptionContext;
 import com.google.common.eventbus.SubscriberExceptionHandler;
+import com.lmax.disruptor.ExceptionHandler;
 
 /**
- * An {@code EventBus} exception handler. This handler aborts the OG load test when an eventbus
- * exception occurs.
+ * An {@code EventBus} and {@code OperationPipeline} exception handler. This handler aborts the OG
+ * load test when an eventbus or pipeline exception occurs.
  * 
  * @since 1.0
  */
-public class LoadTestSubscriberExceptionHandler implements SubscriberExceptionHandler {
+public class LoadTestSubscriberExceptionHandler
+    implements SubscriberExceptionHandler, ExceptionHandler<Object> {
   private static final Logger _logger =
       LoggerFactory.getLogger(LoadTestSubscriberExceptionHandler.class);
   private static final Logger _exceptionLogger = LoggerFactory.getLogger("ExceptionLogger");
@@ -37,6 +39,24 @@ public class LoadTestSubscriberExceptionHandler implements SubscriberExceptionHa
     this.test.abortTest(String.format("%s %s", getClass().getSimpleName(), exception.getMessage()));
   }
 
+  @Override
+  public void handleEventException(final Throwable exception, final long sequence,
+      final Object event) {
+    _logger.error("Exception while processing pipeline handler", exception);
+    _exceptionLogger.error("Exception while processing pipeline handler", exception);
+    this.test.abortTest(String.format("%s %s", getClass().getSimpleName(), exception.getMessage()));
+  }
+
+  @Override
+  public void handleOnStartException(final Throwable exception) {
+    _logger.error("Exception while starting pipeline handler", exception);
+  }
+
+  @Override
+  public void handleOnShutdownException(final Throwable exception) {
+    _logger.error("Exception while stopping pipeline handler", exception);
+  }
+
   /**
    * Set the load test for this instance to abort in the event that an event bus exception occurs
    * 
@@ -0,0 +1,33 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.util.Pair;
+
+/**
+ * A typed consumer of load test events delivered by an {@link OperationPipeline}. A handler is
+ * only ever invoked by the single thread which services its pipeline stage, so implementations
+ * need not be thread safe with respect to other handlers in the same stage.
+ *
+ * @since 1.7.0
+ */
+public interface OperationHandler {
+  /**
+   * Invoked when a request has been submitted to the client
+   *
+   * @param request the in-progress request
+   */
+  void onRequest(Request request);
+
+  /**
+   * Invoked when a request has completed
+   *
+   * @param operation the completed request and its response
+   */
+  void onOperation(Pair<Request, Response> operation);
+}
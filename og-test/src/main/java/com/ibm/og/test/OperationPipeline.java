@@ -0,0 +1,248 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.util.Pair;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventTranslatorTwoArg;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.EventHandlerGroup;
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+ * A bounded, multi-producer pipeline which delivers request and completion events to
+ * {@link OperationHandler} instances. Events are written to a pre-allocated ring buffer by client
+ * threads without locking or reflective dispatch, and each {@link Stage} consumes the ring on a
+ * dedicated thread. Stages run concurrently with one another, except that a stage with a
+ * dependency only observes an event after its dependency has finished processing it.
+ * <p>
+ * Handlers must be registered before the pipeline is started. When the ring buffer is full,
+ * publishers wait for the slowest stage to make progress.
+ *
+ * @since 1.7.0
+ */
+public class OperationPipeline {
+  private static final Logger _logger = LoggerFactory.getLogger(OperationPipeline.class);
+  public static final int DEFAULT_RING_SIZE = 16384;
+  private static final EventTranslatorTwoArg<OperationEvent, Request, Pair<Request, Response>>
+      TRANSLATOR = new EventTranslatorTwoArg<OperationEvent, Request, Pair<Request, Response>>() {
+        @Override
+        public void translateTo(final OperationEvent event, final long sequence,
+            final Request request, final Pair<Request, Response> operation) {
+          event.request = request;
+          event.operation = operation;
+        }
+      };
+
+  /**
+   * Consumer stages of a pipeline
+   */
+  public enum Stage {
+    /** statistics counters */
+    STATISTICS(null),
+    /** test conditions, which observe statistics after they are updated */
+    CONDITIONS(STATISTICS),
+    /** object manager and multipart session updates */
+    OBJECTS(null),
+    /** scheduler permits, released once the object manager reflects an operation */
+    SCHEDULER(OBJECTS);
+
+    private final Stage dependency;
+
+    private Stage(final Stage dependency) {
+      this.dependency = dependency;
+    }
+  }
+
+  private final int ringSize;
+  private final ExceptionHandler<Object> exceptionHandler;
+  private final Map<Stage, List<OperationHandler>> handlers;
+  private Disruptor<OperationEvent> disruptor;
+  private ExecutorService executor;
+  private volatile RingBuffer<OperationEvent> ringBuffer;
+
+  /**
+   * Constructs an instance
+   *
+   * @param ringSize the number of events which may be in flight, must be a power of 2
+   * @param exceptionHandler handler for exceptions thrown by registered handlers
+   * @throws IllegalArgumentException if ringSize is not a positive power of 2
+   * @throws NullPointerException if exceptionHandler is null
+   */
+  public OperationPipeline(final int ringSize, final ExceptionHandler<Object> exceptionHandler) {
+    checkArgument(ringSize > 0 && Integer.bitCount(ringSize) == 1,
+        "ringSize must be a positive power of 2 [%s]", ringSize);
+    this.ringSize = ringSize;
+    this.exceptionHandler = checkNotNull(exceptionHandler);
+    this.handlers = new EnumMap<Stage, List<OperationHandler>>(Stage.class);
+    for (final Stage stage : Stage.values()) {
+      this.handlers.put(stage, Lists.<OperationHandler>newArrayList());
+    }
+  }
+
+  /**
+   * Registers a handler with a stage. Handlers within a stage are invoked in registration order
+   *
+   * @param stage the stage to run the handler on
+   * @param handler the handler to register
+   * @throws NullPointerException if stage or handler is null
+   * @throws IllegalStateException if this pipeline has already been started
+   */
+  public synchronized void register(final Stage stage, final OperationHandler handler) {
+    checkNotNull(stage);
+    checkNotNull(handler);
+    checkState(this.disruptor == null, "pipeline already started");
+    this.handlers.get(stage).add(handler);
+  }
+
+  /**
+   * Starts a consumer thread for each stage with registered handlers, returning once every stage
+   * thread is running
+   *
+   * @throws IllegalStateException if this pipeline has already been started
+   */
+  public synchronized void start() {
+    checkState(this.disruptor == null, "pipeline already started");
+    this.executor = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder().setNameFormat("operation-pipeline-%d").setDaemon(true).build());
+    this.disruptor = new Disruptor<OperationEvent>(new EventFactory<OperationEvent>() {
+      @Override
+      public OperationEvent newInstance() {
+        return new OperationEvent();
+      }
+    }, this.ringSize, this.executor, ProducerType.MULTI, new SleepingWaitStrategy());
+    this.disruptor.handleExceptionsWith(this.exceptionHandler);
+
+    int stages = 0;
+    for (final List<OperationHandler> stageHandlers : this.handlers.values()) {
+      stages += stageHandlers.isEmpty() ? 0 : 1;
+    }
+    // the disruptor only waits for running stages when draining, so stages must be observed to
+    // have started before events are published
+    final CountDownLatch started = new CountDownLatch(stages);
+    final Map<Stage, EventHandlerGroup<OperationEvent>> groups =
+        new EnumMap<Stage, EventHandlerGroup<OperationEvent>>(Stage.class);
+    for (final Stage stage : Stage.values()) {
+      final List<OperationHandler> stageHandlers = this.handlers.get(stage);
+      if (stageHandlers.isEmpty()) {
+        continue;
+      }
+      final StageHandler handler = new StageHandler(stageHandlers, started);
+      final EventHandlerGroup<OperationEvent> dependency =
+          stage.dependency != null ? groups.get(stage.dependency) : null;
+      groups.put(stage, dependency != null ? dependency.then(handler)
+          : this.disruptor.handleEventsWith(handler));
+      _logger.debug("Pipeline stage {} handlers {}", stage, stageHandlers);
+    }
+    final RingBuffer<OperationEvent> ringBuffer = this.disruptor.start();
+    Uninterruptibles.awaitUninterruptibly(started);
+    this.ringBuffer = ringBuffer;
+  }
+
+  /**
+   * Publishes a submitted request
+   *
+   * @param request the in-progress request
+   * @throws IllegalStateException if this pipeline has not been started
+   */
+  public void publish(final Request request) {
+    ringBuffer().publishEvent(TRANSLATOR, request, null);
+  }
+
+  /**
+   * Publishes a completed operation
+   *
+   * @param operation the completed request and its response
+   * @throws IllegalStateException if this pipeline has not been started
+   */
+  public void publish(final Pair<Request, Response> operation) {
+    ringBuffer().publishEvent(TRANSLATOR, operation.getKey(), operation);
+  }
+
+  private RingBuffer<OperationEvent> ringBuffer() {
+    final RingBuffer<OperationEvent> ringBuffer = this.ringBuffer;
+    checkState(ringBuffer != null, "pipeline not started");
+    return ringBuffer;
+  }
+
+  /**
+   * Waits until every published event has been processed by all stages, then stops the stage
+   * threads. Calling this method on a pipeline which was never started has no effect
+   */
+  public synchronized void shutdown() {
+    if (this.disruptor != null && !this.executor.isShutdown()) {
+      this.disruptor.shutdown();
+      this.executor.shutdown();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("OperationPipeline [ringSize=%s, handlers=%s]", this.ringSize,
+        this.handlers);
+  }
+
+  static class OperationEvent {
+    Request request;
+    Pair<Request, Response> operation;
+  }
+
+  private static class StageHandler implements EventHandler<OperationEvent>, LifecycleAware {
+    private final OperationHandler[] handlers;
+    private final CountDownLatch started;
+
+    public StageHandler(final List<OperationHandler> handlers, final CountDownLatch started) {
+      this.handlers = handlers.toArray(new OperationHandler[handlers.size()]);
+      this.started = started;
+    }
+
+    @Override
+    public void onStart() {
+      this.started.countDown();
+    }
+
+    @Override
+    public void onShutdown() {}
+
+    @Override
+    public void onEvent(final OperationEvent event, final long sequence,
+        final boolean endOfBatch) {
+      if (event.operation == null) {
+        for (final OperationHandler handler : this.handlers) {
+          handler.onRequest(event.request);
+        }
+      } else {
+        for (final OperationHandler handler : this.handlers) {
+          handler.onOperation(event.operation);
+        }
+      }
+    }
+  }
+}
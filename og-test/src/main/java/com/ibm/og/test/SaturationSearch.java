@@ -0,0 +1,458 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibm.og.api.Operation;
+import com.ibm.og.scheduling.AdjustableScheduler;
+import com.ibm.og.statistic.Counter;
+import com.ibm.og.statistic.Latency;
+import com.ibm.og.statistic.Statistics;
+import com.ibm.og.util.TestState;
+
+/**
+ * A controller which searches for the highest load a target sustains under a latency objective.
+ * Once a test is running, the load level of a scheduler is held for a step, after which the step is
+ * judged sustainable if the configured latency percentile and the server error rate (status codes
+ * of 500 and above) stayed within their limits. The level grows by a constant factor until a step
+ * is not sustainable, and then bisects between the highest sustainable and lowest unsustainable
+ * levels until they are within a configured precision. The scheduler is then held at the highest
+ * sustainable level for the remainder of the test.
+ *
+ * @since 1.7.0
+ */
+public class SaturationSearch {
+  private static final Logger _logger = LoggerFactory.getLogger(SaturationSearch.class);
+  private static final int MIN_SERVER_ERROR = 500;
+  private final Statistics stats;
+  private final AdjustableScheduler scheduler;
+  private final double initialLevel;
+  private final double maxLevel;
+  private final double growth;
+  private final double precision;
+  private final boolean integral;
+  private final long stepNanos;
+  private final double percentile;
+  private final double latencyObjective;
+  private final double maxErrorRate;
+  private final List<Point> curve;
+  private ScheduledExecutorService executor;
+  private Snapshot previous;
+  private double level;
+  private double highestSustainable;
+  private double lowestUnsustainable;
+  private Point operatingPoint;
+  private boolean converged;
+
+  private SaturationSearch(final Builder builder) {
+    this.stats = checkNotNull(builder.stats);
+    this.scheduler = checkNotNull(builder.scheduler);
+    checkArgument(builder.initialLevel > 0.0, "initial level must be > 0.0 [%s]",
+        builder.initialLevel);
+    this.initialLevel = builder.initialLevel;
+    checkArgument(builder.maxLevel >= builder.initialLevel,
+        "max level must be >= initial level [%s, %s]", builder.maxLevel, builder.initialLevel);
+    this.maxLevel = builder.maxLevel;
+    checkArgument(builder.growth > 1.0, "growth must be > 1.0 [%s]", builder.growth);
+    this.growth = builder.growth;
+    checkArgument(builder.precision > 0.0 && builder.precision < 1.0,
+        "precision must be in range (0.0, 1.0) [%s]", builder.precision);
+    this.precision = builder.precision;
+    this.integral = builder.integral;
+    checkNotNull(builder.stepUnit);
+    this.stepNanos = (long) (builder.step * builder.stepUnit.toNanos(1));
+    checkArgument(this.stepNanos >= TimeUnit.MILLISECONDS.toNanos(1),
+        "step must be at least 1 millisecond [%s %s]", builder.step, builder.stepUnit);
+    checkArgument(builder.percentile > 0.0 && builder.percentile <= 100.0,
+        "percentile must be in range (0.0, 100.0] [%s]", builder.percentile);
+    this.percentile = builder.percentile;
+    checkNotNull(builder.latencyUnit);
+    checkArgument(builder.latencyObjective > 0.0, "latency objective must be > 0.0 [%s]",
+        builder.latencyObjective);
+    this.latencyObjective = builder.latencyObjective * builder.latencyUnit.toNanos(1)
+        / Statistics.LATENCY_UNIT.toNanos(1);
+    checkArgument(builder.maxErrorRate >= 0.0 && builder.maxErrorRate <= 1.0,
+        "max error rate must be in range [0.0, 1.0] [%s]", builder.maxErrorRate);
+    this.maxErrorRate = builder.maxErrorRate;
+    this.curve = Lists.newArrayList();
+    this.level = this.initialLevel;
+  }
+
+  /**
+   * Starts searching when a test transitions to running, and stops when it is stopping
+   *
+   * @param state the state that the test has transitioned to
+   */
+  @Subscribe
+  public void update(final TestState state) {
+    checkNotNull(state);
+    if (state == TestState.RUNNING) {
+      start();
+    } else if (state == TestState.STOPPING) {
+      shutdown();
+    }
+  }
+
+  /**
+   * Starts the search at the initial level. Has no effect if the search has already started
+   */
+  public synchronized void start() {
+    if (this.executor != null) {
+      return;
+    }
+    this.scheduler.setLevel(this.level);
+    this.previous = new Snapshot(this.stats);
+    this.executor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("saturation-search").setDaemon(true).build());
+    this.executor.scheduleAtFixedRate(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          scheduledStep();
+        } catch (final Exception e) {
+          // an exception would cancel all future steps
+          _logger.error("Exception during saturation search step", e);
+        }
+      }
+    }, this.stepNanos, this.stepNanos, TimeUnit.NANOSECONDS);
+    _logger.info("Starting saturation search at level {}, with steps of {} ms", this.level,
+        TimeUnit.NANOSECONDS.toMillis(this.stepNanos));
+  }
+
+  /**
+   * Stops the search. A step in progress is discarded
+   */
+  public synchronized void shutdown() {
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+    }
+  }
+
+  private synchronized void scheduledStep() {
+    if (!this.converged && !this.executor.isShutdown()) {
+      step();
+    }
+  }
+
+  /**
+   * Judges the step which just finished and moves to the next level
+   *
+   * @return the measurements of the step which just finished
+   */
+  synchronized Point step() {
+    final Snapshot current = new Snapshot(this.stats);
+    final Point point = current.since(this.previous, this.level);
+    this.previous = current;
+    this.curve.add(point);
+    _logger.info("Saturation search step {}", point);
+
+    if (point.sustainable) {
+      this.highestSustainable = this.level;
+      this.operatingPoint = point;
+    } else {
+      this.lowestUnsustainable = this.level;
+    }
+
+    double next;
+    if (this.lowestUnsustainable == 0.0) {
+      next = Math.min(this.level * this.growth, this.maxLevel);
+    } else if (this.lowestUnsustainable - this.highestSustainable
+        <= this.precision * this.lowestUnsustainable) {
+      next = this.level;
+    } else {
+      next = (this.highestSustainable + this.lowestUnsustainable) / 2;
+    }
+    if (this.integral) {
+      next = Math.round(next);
+    }
+
+    if (next == this.level || next == this.highestSustainable || next < 1.0) {
+      converge();
+    } else {
+      this.level = next;
+      this.scheduler.setLevel(this.level);
+    }
+    return point;
+  }
+
+  private void converge() {
+    this.converged = true;
+    if (this.operatingPoint != null) {
+      this.level = this.highestSustainable;
+      _logger.info("Saturation search converged on level {} {}", this.level, this.operatingPoint);
+    } else {
+      // nothing was sustainable; hold the lowest level tried
+      _logger.warn("Saturation search found no sustainable level, holding level {}", this.level);
+    }
+    this.scheduler.setLevel(this.level);
+  }
+
+  /**
+   * @return the measurements of every step so far, and the chosen operating point
+   */
+  public synchronized Result getResult() {
+    final double latencyObjective = this.latencyObjective * Statistics.LATENCY_UNIT.toNanos(1)
+        / TimeUnit.MILLISECONDS.toNanos(1);
+    return new Result(this.percentile, latencyObjective, this.maxErrorRate, this.curve,
+        this.operatingPoint, this.converged);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "SaturationSearch [initialLevel=%s, maxLevel=%s, growth=%s, precision=%s, stepNanos=%s, "
+            + "percentile=%s, latencyObjective=%s, maxErrorRate=%s]",
+        this.initialLevel, this.maxLevel, this.growth, this.precision, this.stepNanos,
+        this.percentile, this.latencyObjective, this.maxErrorRate);
+  }
+
+  /**
+   * The measurements of a single step of the search
+   */
+  public static class Point {
+    /** the load level held during the step */
+    public final double level;
+    /** completed operations per second */
+    public final double opsPerSecond;
+    /** the latency percentile, in milliseconds, or null if no operations completed */
+    public final Double latency;
+    /** the fraction of operations which completed with a server error */
+    public final double errorRate;
+    /** true if the latency objective and error rate limit were met */
+    public final boolean sustainable;
+
+    Point(final double level, final double opsPerSecond, final Double latency,
+        final double errorRate, final boolean sustainable) {
+      this.level = level;
+      this.opsPerSecond = opsPerSecond;
+      this.latency = latency;
+      this.errorRate = errorRate;
+      this.sustainable = sustainable;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "[level=%s, opsPerSecond=%.3f, latency=%s ms, errorRate=%.4f, sustainable=%s]",
+          this.level, this.opsPerSecond, this.latency, this.errorRate, this.sustainable);
+    }
+  }
+
+  /**
+   * The outcome of a search: its objectives, the throughput/latency curve and the operating point
+   */
+  public static class Result {
+    /** the latency percentile which was judged */
+    public final double percentile;
+    /** the latency objective, in milliseconds */
+    public final double latencyObjective;
+    /** the server error rate limit */
+    public final double maxErrorRate;
+    /** the measurements of each step, in order */
+    public final List<Point> curve;
+    /** the highest sustainable step, or null if no step was sustainable */
+    public final Point operatingPoint;
+    /** true if the search has finished */
+    public final boolean converged;
+
+    Result(final double percentile, final double latencyObjective, final double maxErrorRate,
+        final List<Point> curve, final Point operatingPoint, final boolean converged) {
+      this.percentile = percentile;
+      this.latencyObjective = latencyObjective;
+      this.maxErrorRate = maxErrorRate;
+      this.curve = ImmutableList.copyOf(curve);
+      this.operatingPoint = operatingPoint;
+      this.converged = converged;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("Result [operatingPoint=%s, converged=%s, steps=%s]",
+          this.operatingPoint, this.converged, this.curve.size());
+    }
+  }
+
+  // cumulative statistics at a point in time
+  private class Snapshot {
+    private final long nanos;
+    private final long operations;
+    private final long errors;
+    private final Histogram latency;
+
+    public Snapshot(final Statistics stats) {
+      this.nanos = System.nanoTime();
+      this.operations = stats.get(Operation.ALL, Counter.OPERATIONS);
+      long errors = 0;
+      for (final Map.Entry<Integer, Long> sc : stats.statusCodes(Operation.ALL).entrySet()) {
+        if (sc.getKey() >= MIN_SERVER_ERROR) {
+          errors += sc.getValue();
+        }
+      }
+      this.errors = errors;
+      this.latency = stats.latency(Operation.ALL, Latency.TOTAL);
+    }
+
+    public Point since(final Snapshot previous, final double level) {
+      final double seconds = (double) (this.nanos - previous.nanos) / TimeUnit.SECONDS.toNanos(1);
+      final long operations = this.operations - previous.operations;
+      final double opsPerSecond = seconds > 0.0 ? operations / seconds : 0.0;
+      final double errorRate =
+          operations > 0 ? (double) (this.errors - previous.errors) / operations : 0.0;
+
+      final Histogram histogram = this.latency.copy();
+      histogram.subtract(previous.latency);
+      Double latency = null;
+      boolean sustainable = false;
+      if (histogram.getTotalCount() > 0) {
+        final long value = histogram.getValueAtPercentile(SaturationSearch.this.percentile);
+        latency = (double) value * Statistics.LATENCY_UNIT.toNanos(1)
+            / TimeUnit.MILLISECONDS.toNanos(1);
+        sustainable = value <= SaturationSearch.this.latencyObjective
+            && errorRate <= SaturationSearch.this.maxErrorRate;
+      }
+      return new Point(level, opsPerSecond, latency, errorRate, sustainable);
+    }
+  }
+
+  /**
+   * A builder of saturation search instances
+   */
+  public static class Builder {
+    private final Statistics stats;
+    private final AdjustableScheduler scheduler;
+    private final double initialLevel;
+    private double maxLevel;
+    private double growth;
+    private double precision;
+    private boolean integral;
+    private double step;
+    private TimeUnit stepUnit;
+    private double percentile;
+    private double latencyObjective;
+    private TimeUnit latencyUnit;
+    private double maxErrorRate;
+
+    /**
+     * Constructs a builder
+     *
+     * @param stats the statistics to measure each step with
+     * @param scheduler the scheduler whose level is searched
+     * @param initialLevel the level of the first step
+     * @param latencyObjective the latency which the configured percentile must not exceed
+     * @param latencyUnit the unit of latencyObjective
+     */
+    public Builder(final Statistics stats, final AdjustableScheduler scheduler,
+        final double initialLevel, final double latencyObjective, final TimeUnit latencyUnit) {
+      this.stats = stats;
+      this.scheduler = scheduler;
+      this.initialLevel = initialLevel;
+      this.latencyObjective = latencyObjective;
+      this.latencyUnit = latencyUnit;
+      this.maxLevel = Double.MAX_VALUE;
+      this.growth = 2.0;
+      this.precision = 0.05;
+      this.integral = false;
+      this.step = 30.0;
+      this.stepUnit = TimeUnit.SECONDS;
+      this.percentile = 99.0;
+      this.maxErrorRate = 0.01;
+    }
+
+    /**
+     * @param maxLevel the highest level to try
+     * @return this builder
+     */
+    public Builder withMaxLevel(final double maxLevel) {
+      this.maxLevel = maxLevel;
+      return this;
+    }
+
+    /**
+     * @param growth the factor the level grows by while every step is sustainable
+     * @return this builder
+     */
+    public Builder withGrowth(final double growth) {
+      this.growth = growth;
+      return this;
+    }
+
+    /**
+     * @param precision the gap between the highest sustainable and lowest unsustainable level, as
+     *        a fraction of the latter, at which the search stops
+     * @return this builder
+     */
+    public Builder withPrecision(final double precision) {
+      this.precision = precision;
+      return this;
+    }
+
+    /**
+     * Configures the search to only try whole levels, such as a number of concurrent requests
+     *
+     * @return this builder
+     */
+    public Builder withIntegralLevels() {
+      this.integral = true;
+      return this;
+    }
+
+    /**
+     * @param step the duration each level is held for
+     * @param unit the unit of step
+     * @return this builder
+     */
+    public Builder withStep(final double step, final TimeUnit unit) {
+      this.step = step;
+      this.stepUnit = unit;
+      return this;
+    }
+
+    /**
+     * @param percentile the latency percentile judged against the latency objective
+     * @return this builder
+     */
+    public Builder withPercentile(final double percentile) {
+      this.percentile = percentile;
+      return this;
+    }
+
+    /**
+     * @param maxErrorRate the highest fraction of server errors a sustainable step may have
+     * @return this builder
+     */
+    public Builder withMaxErrorRate(final double maxErrorRate) {
+      this.maxErrorRate = maxErrorRate;
+      return this;
+    }
+
+    /**
+     * Creates a saturation search instance
+     *
+     * @return a new saturation search instance
+     * @throws NullPointerException if stats, scheduler or a unit is null
+     * @throws IllegalArgumentException if a configured value is out of range
+     */
+    public SaturationSearch build() {
+      return new SaturationSearch(this);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.og.api.Body;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.util.Context;
+import com.ibm.og.util.RequestContext;
+
+/**
+ * A request which carries the start time intended for it by an open loop scheduler in its context
+ *
+ * @since 1.7.0
+ */
+class ScheduledRequest implements Request {
+  private final Request request;
+  private final Map<String, String> context;
+
+  /**
+   * Constructs an instance
+   *
+   * @param request the request to wrap
+   * @param intendedStart the intended start time of the request, from {@link System#nanoTime()}
+   * @throws NullPointerException if request is null
+   */
+  ScheduledRequest(final Request request, final long intendedStart) {
+    this.request = checkNotNull(request);
+    this.context = new RequestContext(request.getContext())
+        .putLong(Context.X_OG_INTENDED_START, intendedStart).freeze();
+  }
+
+  @Override
+  public Method getMethod() {
+    return this.request.getMethod();
+  }
+
+  @Override
+  public Operation getOperation() {
+    return this.request.getOperation();
+  }
+
+  @Override
+  public URI getUri() {
+    return this.request.getUri();
+  }
+
+  @Override
+  public Map<String, List<String>> getQueryParameters() {
+    return this.request.getQueryParameters();
+  }
+
+  @Override
+  public Map<String, String> headers() {
+    return this.request.headers();
+  }
+
+  @Override
+  public Body getBody() {
+    return this.request.getBody();
+  }
+
+  @Override
+  public Map<String, String> getContext() {
+    return this.context;
+  }
+
+  @Override
+  public String toString() {
+    return this.request.toString();
+  }
+}
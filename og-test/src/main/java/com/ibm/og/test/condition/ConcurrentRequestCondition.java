@@ -12,7 +12,6 @@ import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
-import com.google.common.eventbus.Subscribe;
 
 /**
  * A test condition which is triggered when a threshold number of concurrent requests is met
@@ -26,7 +25,11 @@ public class ConcurrentRequestCondition extends CounterCondition {
     super(operation, Counter.ACTIVE_OPERATIONS, thresholdValue, test, stats, failureCondition);
   }
 
-  @Subscribe
+  /**
+   * Triggers a check of this condition
+   * 
+   * @param request an in-progress request
+   */
   public void update(final Request request) {
     if (isTriggered()) {
       if (this.failureCondition) {
@@ -37,12 +40,16 @@ public class ConcurrentRequestCondition extends CounterCondition {
     }
   }
 
-  @Subscribe
   @Override
   public void update(final Pair<Request, Response> operation) {
     // prevent parent class implementation from being invoked
   }
 
+  @Override
+  public void onRequest(final Request request) {
+    update(request);
+  }
+
 
   @Override
   public String toString() {
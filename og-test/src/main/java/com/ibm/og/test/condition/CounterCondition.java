@@ -16,16 +16,16 @@ import com.ibm.og.api.Response;
 import com.ibm.og.statistic.Counter;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
+import com.ibm.og.test.OperationHandler;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
-import com.google.common.eventbus.Subscribe;
 
 /**
  * A test condition which is triggered when a counter reaches a threshold value
  * 
  * @since 1.0
  */
-public class CounterCondition implements TestCondition {
+public class CounterCondition implements TestCondition, OperationHandler {
   private static final Logger _logger = LoggerFactory.getLogger(CounterCondition.class);
   protected final Operation operation;
   private final Counter counter;
@@ -61,7 +61,6 @@ public class CounterCondition implements TestCondition {
    * 
    * @param operation a completed request
    */
-  @Subscribe
   public void update(final Pair<Request, Response> operation) {
     if (isTriggered()) {
       if (this.failureCondition) {
@@ -72,6 +71,14 @@ public class CounterCondition implements TestCondition {
     }
   }
 
+  @Override
+  public void onRequest(final Request request) {}
+
+  @Override
+  public void onOperation(final Pair<Request, Response> operation) {
+    update(operation);
+  }
+
   @Override
   public boolean isTriggered() {
     final long currentValue = this.stats.get(this.operation, this.counter);
@@ -16,16 +16,16 @@ import com.ibm.og.api.Response;
 import com.ibm.og.http.HttpUtil;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
+import com.ibm.og.test.OperationHandler;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
-import com.google.common.eventbus.Subscribe;
 
 /**
  * A test condition which is triggered when a status code counter reaches a threshold value
  * 
  * @since 1.0
  */
-public class StatusCodeCondition implements TestCondition {
+public class StatusCodeCondition implements TestCondition, OperationHandler {
   private static final Logger _logger = LoggerFactory.getLogger(StatusCodeCondition.class);
   private final Operation operation;
   private final int statusCode;
@@ -64,7 +64,6 @@ public class StatusCodeCondition implements TestCondition {
    * 
    * @param operation a completed request
    */
-  @Subscribe
   public void update(final Pair<Request, Response> operation) {
     if (isTriggered()) {
       if (this.failureCondition) {
@@ -75,6 +74,14 @@ public class StatusCodeCondition implements TestCondition {
     }
   }
 
+  @Override
+  public void onRequest(final Request request) {}
+
+  @Override
+  public void onOperation(final Pair<Request, Response> operation) {
+    update(operation);
+  }
+
   @Override
   public boolean isTriggered() {
     final long currentValue = this.stats.getStatusCode(this.operation, this.statusCode);
@@ -6,8 +6,10 @@
 package com.ibm.og.test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -24,6 +26,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 
 import com.ibm.og.api.Client;
 import com.ibm.og.api.Method;
@@ -33,12 +36,13 @@ import com.ibm.og.api.Response;
 import com.ibm.og.http.HttpRequest;
 import com.ibm.og.http.HttpResponse;
 import com.ibm.og.scheduling.ConcurrentRequestScheduler;
+import com.ibm.og.scheduling.OpenLoopScheduler;
 import com.ibm.og.scheduling.Scheduler;
 import com.ibm.og.statistic.Counter;
 import com.ibm.og.statistic.Statistics;
-import com.ibm.og.test.condition.TestCondition;
 import com.ibm.og.util.Context;
 import com.ibm.og.util.Pair;
+import com.ibm.og.util.TestState;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 import com.google.common.util.concurrent.SettableFuture;
@@ -57,6 +61,7 @@ public class LoadTestTest {
   private Scheduler scheduler;
   private LoadTestSubscriberExceptionHandler handler;
   private EventBus eventBus;
+  private OperationPipeline pipeline;
   private Statistics stats;
   private LoadTest test;
 
@@ -78,16 +83,39 @@ public class LoadTestTest {
     this.scheduler = new ConcurrentRequestScheduler(1, 0.0, TimeUnit.SECONDS);
     this.handler = new LoadTestSubscriberExceptionHandler();
     this.eventBus = new EventBus(this.handler);
+    this.pipeline = new OperationPipeline(1024, this.handler);
     this.stats = new Statistics();
-    this.test = new LoadTest(this.requestManager, this.client, this.scheduler, this.eventBus, true);
+    this.test = new LoadTest(this.requestManager, this.client, this.scheduler, this.eventBus,
+        this.pipeline, true);
     this.handler.setLoadTest(this.test);
 
-    final TestCondition condition =
+    final CounterCondition condition =
         new CounterCondition(Operation.WRITE, Counter.OPERATIONS, 5, this.test, this.stats, false);
+    final ConcurrentRequestScheduler concurrentScheduler =
+        (ConcurrentRequestScheduler) this.scheduler;
 
-    this.eventBus.register(this.scheduler);
     this.eventBus.register(this.stats);
-    this.eventBus.register(condition);
+    this.pipeline.register(OperationPipeline.Stage.STATISTICS, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {
+        LoadTestTest.this.stats.update(request);
+      }
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        LoadTestTest.this.stats.update(operation);
+      }
+    });
+    this.pipeline.register(OperationPipeline.Stage.CONDITIONS, condition);
+    this.pipeline.register(OperationPipeline.Stage.SCHEDULER, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        concurrentScheduler.complete(operation);
+      }
+    });
   }
 
   @DataProvider
@@ -96,17 +124,27 @@ public class LoadTestTest {
     final Client client = mock(Client.class);
     final Scheduler scheduler = mock(Scheduler.class);
     final EventBus eventBus = mock(EventBus.class);
-    return new Object[][] {{null, client, scheduler, eventBus},
-        {requestSupplier, null, scheduler, eventBus}, {requestSupplier, client, null, eventBus},
-        {requestSupplier, client, scheduler, null}};
+    final OperationPipeline pipeline = mock(OperationPipeline.class);
+    return new Object[][] {{null, client, scheduler, eventBus, pipeline},
+        {requestSupplier, null, scheduler, eventBus, pipeline},
+        {requestSupplier, client, null, eventBus, pipeline},
+        {requestSupplier, client, scheduler, null, pipeline},
+        {requestSupplier, client, scheduler, eventBus, null}};
   }
 
   @Test
   @UseDataProvider("provideInvalidLoadTest")
   public void invalidLoadTest(final RequestManager requestManager, final Client client,
-      final Scheduler scheduler, final EventBus eventBus) {
+      final Scheduler scheduler, final EventBus eventBus, final OperationPipeline pipeline) {
     this.thrown.expect(NullPointerException.class);
-    new LoadTest(requestManager, client, scheduler, eventBus, true);
+    new LoadTest(requestManager, client, scheduler, eventBus, pipeline, true);
+  }
+
+  @Test
+  public void invalidProducers() {
+    this.thrown.expect(IllegalArgumentException.class);
+    new LoadTest(this.requestManager, this.client, this.scheduler, this.eventBus, this.pipeline,
+        true, 0);
   }
 
   @Test
@@ -121,7 +159,21 @@ public class LoadTestTest {
   public void eventBusSubscriberException() {
     this.eventBus.register(new Object() {
       @Subscribe
-      public void consume(final Pair<Request, Response> operation) {
+      public void consume(final TestState state) {
+        throw new RuntimeException();
+      }
+    });
+    assertThat(this.test.call().success, is(false));
+  }
+
+  @Test
+  public void pipelineHandlerException() {
+    this.pipeline.register(OperationPipeline.Stage.OBJECTS, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
         throw new RuntimeException();
       }
     });
@@ -135,4 +187,84 @@ public class LoadTestTest {
     verify(this.client, atLeast(5)).execute(this.request);
     verify(this.client, times(1)).shutdown(true);
   }
+
+  @Test
+  public void openLoopLoadTest() {
+    final SettableFuture<Response> future = SettableFuture.create();
+    future.set(this.response);
+    when(this.client.execute(any(Request.class))).thenReturn(future);
+    final LoadTestSubscriberExceptionHandler handler = new LoadTestSubscriberExceptionHandler();
+    final OperationPipeline pipeline = new OperationPipeline(1024, handler);
+    final LoadTest test = new LoadTest(this.requestManager, this.client,
+        new OpenLoopScheduler(1000.0, TimeUnit.SECONDS, 0.0, TimeUnit.SECONDS),
+        new EventBus(handler), pipeline, true);
+    handler.setLoadTest(test);
+    final Statistics stats = new Statistics();
+    pipeline.register(OperationPipeline.Stage.STATISTICS, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {
+        stats.update(request);
+      }
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        stats.update(operation);
+      }
+    });
+    pipeline.register(OperationPipeline.Stage.CONDITIONS,
+        new CounterCondition(Operation.WRITE, Counter.OPERATIONS, 5, test, stats, false));
+
+    assertThat(test.call().success, is(true));
+    final ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+    verify(this.client, atLeast(5)).execute(requests.capture());
+    long previous = 0;
+    for (final Request request : requests.getAllValues()) {
+      // each request keeps its own context and gains a later intended start
+      assertThat(request.getContext().get(Context.X_OG_REQUEST_ID), is("1"));
+      final long intendedStart =
+          Long.parseLong(request.getContext().get(Context.X_OG_INTENDED_START));
+      assertThat(intendedStart, greaterThan(previous));
+      previous = intendedStart;
+    }
+  }
+
+  @Test
+  public void multipleProducersLoadTest() {
+    final LoadTestSubscriberExceptionHandler handler = new LoadTestSubscriberExceptionHandler();
+    final OperationPipeline pipeline = new OperationPipeline(1024, handler);
+    // four producers share a pool of two permits
+    final ConcurrentRequestScheduler scheduler =
+        new ConcurrentRequestScheduler(2, 0.0, TimeUnit.SECONDS);
+    final LoadTest test = new LoadTest(this.requestManager, this.client, scheduler,
+        new EventBus(handler), pipeline, true, 4);
+    handler.setLoadTest(test);
+    final Statistics stats = new Statistics();
+    pipeline.register(OperationPipeline.Stage.STATISTICS, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {
+        stats.update(request);
+      }
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        stats.update(operation);
+      }
+    });
+    pipeline.register(OperationPipeline.Stage.CONDITIONS,
+        new CounterCondition(Operation.WRITE, Counter.OPERATIONS, 100, test, stats, false));
+    pipeline.register(OperationPipeline.Stage.SCHEDULER, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        scheduler.complete(operation);
+      }
+    });
+
+    assertThat(test.call().success, is(true));
+    assertThat(stats.get(Operation.WRITE, Counter.OPERATIONS), greaterThanOrEqualTo(100L));
+    verify(this.client, atLeast(100)).execute(this.request);
+    verify(this.client, times(1)).shutdown(true);
+  }
 }
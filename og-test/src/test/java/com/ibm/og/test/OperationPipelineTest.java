@@ -0,0 +1,227 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.http.HttpResponse;
+import com.ibm.og.util.Pair;
+import com.lmax.disruptor.ExceptionHandler;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class OperationPipelineTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+  private ExceptionHandler<Object> exceptionHandler;
+  private OperationPipeline pipeline;
+  private Request request;
+  private Pair<Request, Response> operation;
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void before() throws URISyntaxException {
+    this.exceptionHandler = mock(ExceptionHandler.class);
+    this.pipeline = new OperationPipeline(64, this.exceptionHandler);
+    this.request =
+        new HttpRequest.Builder(Method.PUT, new URI("http://127.0.0.1"), Operation.WRITE).build();
+    this.operation =
+        Pair.of(this.request, (Response) new HttpResponse.Builder().withStatusCode(200).build());
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidRingSize() {
+    return new Object[][] {{-1}, {0}, {100}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidRingSize")
+  public void invalidRingSize(final int ringSize) {
+    this.thrown.expect(IllegalArgumentException.class);
+    new OperationPipeline(ringSize, this.exceptionHandler);
+  }
+
+  @Test
+  public void nullExceptionHandler() {
+    this.thrown.expect(NullPointerException.class);
+    new OperationPipeline(64, null);
+  }
+
+  @Test
+  public void nullStage() {
+    this.thrown.expect(NullPointerException.class);
+    this.pipeline.register(null, new CountingHandler());
+  }
+
+  @Test
+  public void nullHandler() {
+    this.thrown.expect(NullPointerException.class);
+    this.pipeline.register(OperationPipeline.Stage.STATISTICS, null);
+  }
+
+  @Test
+  public void registerAfterStart() {
+    this.pipeline.start();
+    this.thrown.expect(IllegalStateException.class);
+    this.pipeline.register(OperationPipeline.Stage.STATISTICS, new CountingHandler());
+  }
+
+  @Test
+  public void startTwice() {
+    this.pipeline.start();
+    this.thrown.expect(IllegalStateException.class);
+    this.pipeline.start();
+  }
+
+  @Test
+  public void publishBeforeStart() {
+    this.thrown.expect(IllegalStateException.class);
+    this.pipeline.publish(this.request);
+  }
+
+  @Test
+  public void shutdownBeforeStart() {
+    this.pipeline.shutdown();
+  }
+
+  @Test
+  public void shutdownDrainsEveryStage() {
+    final CountingHandler[] handlers = new CountingHandler[OperationPipeline.Stage.values().length];
+    for (final OperationPipeline.Stage stage : OperationPipeline.Stage.values()) {
+      handlers[stage.ordinal()] = new CountingHandler();
+      this.pipeline.register(stage, handlers[stage.ordinal()]);
+    }
+    this.pipeline.start();
+    // publish more events than the ring holds to exercise wrapping
+    for (int i = 0; i < 1000; i++) {
+      this.pipeline.publish(this.request);
+      this.pipeline.publish(this.operation);
+    }
+    this.pipeline.shutdown();
+
+    for (final CountingHandler handler : handlers) {
+      assertThat(handler.requests.get(), is(1000L));
+      assertThat(handler.operations.get(), is(1000L));
+    }
+  }
+
+  @Test
+  public void dependentStageObservesDependency() {
+    final CountingHandler statistics = new CountingHandler();
+    final AtomicLong violations = new AtomicLong();
+    this.pipeline.register(OperationPipeline.Stage.STATISTICS, statistics);
+    this.pipeline.register(OperationPipeline.Stage.CONDITIONS, new OperationHandler() {
+      private long operations;
+
+      @Override
+      public void onRequest(final Request request) {}
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {
+        this.operations++;
+        if (statistics.operations.get() < this.operations) {
+          violations.incrementAndGet();
+        }
+      }
+    });
+    this.pipeline.start();
+    for (int i = 0; i < 10000; i++) {
+      this.pipeline.publish(this.operation);
+    }
+    this.pipeline.shutdown();
+
+    assertThat(violations.get(), is(0L));
+  }
+
+  @Test
+  public void concurrentPublishers() throws InterruptedException {
+    final CountingHandler handler = new CountingHandler();
+    this.pipeline.register(OperationPipeline.Stage.SCHEDULER, handler);
+    this.pipeline.start();
+
+    final int publishers = 8;
+    final CountDownLatch finished = new CountDownLatch(publishers);
+    for (int i = 0; i < publishers; i++) {
+      new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            OperationPipelineTest.this.pipeline.publish(OperationPipelineTest.this.operation);
+          }
+          finished.countDown();
+        }
+      }.start();
+    }
+    assertThat(finished.await(10, TimeUnit.SECONDS), is(true));
+    this.pipeline.shutdown();
+
+    assertThat(handler.operations.get(), is(8000L));
+  }
+
+  @Test
+  public void handlerException() {
+    this.pipeline.register(OperationPipeline.Stage.OBJECTS, new OperationHandler() {
+      @Override
+      public void onRequest(final Request request) {
+        throw new RuntimeException();
+      }
+
+      @Override
+      public void onOperation(final Pair<Request, Response> operation) {}
+    });
+    final CountingHandler scheduler = new CountingHandler();
+    this.pipeline.register(OperationPipeline.Stage.SCHEDULER, scheduler);
+    this.pipeline.start();
+    this.pipeline.publish(this.request);
+    this.pipeline.publish(this.operation);
+    this.pipeline.shutdown();
+
+    verify(this.exceptionHandler, timeout(1000)).handleEventException(any(RuntimeException.class),
+        anyLong(), any());
+    // processing continues after an exception
+    assertThat(scheduler.operations.get(), is(1L));
+  }
+
+  private static class CountingHandler implements OperationHandler {
+    final AtomicLong requests = new AtomicLong();
+    final AtomicLong operations = new AtomicLong();
+
+    @Override
+    public void onRequest(final Request request) {
+      this.requests.incrementAndGet();
+    }
+
+    @Override
+    public void onOperation(final Pair<Request, Response> operation) {
+      this.operations.incrementAndGet();
+    }
+  }
+}
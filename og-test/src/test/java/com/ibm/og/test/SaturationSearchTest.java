@@ -0,0 +1,232 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.api.Operation;
+import com.ibm.og.scheduling.AdjustableScheduler;
+import com.ibm.og.statistic.Counter;
+import com.ibm.og.statistic.Latency;
+import com.ibm.og.statistic.Statistics;
+import com.ibm.og.util.TestState;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class SaturationSearchTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+  private Statistics stats;
+  private AdjustableScheduler scheduler;
+  private Histogram latency;
+  private long operations;
+  private long errors;
+  private SaturationSearch search;
+
+  @Before
+  public void before() {
+    this.latency = new Histogram(2);
+    this.operations = 0;
+    this.errors = 0;
+    this.stats = mock(Statistics.class);
+    when(this.stats.get(Operation.ALL, Counter.OPERATIONS)).thenAnswer(new Answer<Long>() {
+      @Override
+      public Long answer(final InvocationOnMock invocation) {
+        return SaturationSearchTest.this.operations;
+      }
+    });
+    when(this.stats.statusCodes(Operation.ALL)).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(final InvocationOnMock invocation) {
+        return ImmutableMap.of(200, SaturationSearchTest.this.operations
+            - SaturationSearchTest.this.errors, 503, SaturationSearchTest.this.errors);
+      }
+    });
+    when(this.stats.latency(Operation.ALL, Latency.TOTAL)).thenAnswer(new Answer<Histogram>() {
+      @Override
+      public Histogram answer(final InvocationOnMock invocation) {
+        return SaturationSearchTest.this.latency.copy();
+      }
+    });
+    this.scheduler = mock(AdjustableScheduler.class);
+  }
+
+  @After
+  public void after() {
+    if (this.search != null) {
+      this.search.shutdown();
+    }
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidSaturationSearch() {
+    return new Object[][] {{0.0, 2.0, 0.05, 99.0, 0.01, 10.0, IllegalArgumentException.class},
+        {1.0, 1.0, 0.05, 99.0, 0.01, 10.0, IllegalArgumentException.class},
+        {1.0, 2.0, 0.0, 99.0, 0.01, 10.0, IllegalArgumentException.class},
+        {1.0, 2.0, 1.0, 99.0, 0.01, 10.0, IllegalArgumentException.class},
+        {1.0, 2.0, 0.05, 0.0, 0.01, 10.0, IllegalArgumentException.class},
+        {1.0, 2.0, 0.05, 101.0, 0.01, 10.0, IllegalArgumentException.class},
+        {1.0, 2.0, 0.05, 99.0, -0.1, 10.0, IllegalArgumentException.class},
+        {1.0, 2.0, 0.05, 99.0, 1.1, 10.0, IllegalArgumentException.class},
+        {1.0, 2.0, 0.05, 99.0, 0.01, 0.0, IllegalArgumentException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidSaturationSearch")
+  public void invalidSaturationSearch(final double initial, final double growth,
+      final double precision, final double percentile, final double maxErrorRate,
+      final double latencyObjective, final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    new SaturationSearch.Builder(this.stats, this.scheduler, initial, latencyObjective,
+        TimeUnit.MILLISECONDS).withGrowth(growth).withPrecision(precision)
+            .withPercentile(percentile).withMaxErrorRate(maxErrorRate).build();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullScheduler() {
+    new SaturationSearch.Builder(this.stats, null, 1.0, 10.0, TimeUnit.MILLISECONDS).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void maxLevelBelowInitialLevel() {
+    new SaturationSearch.Builder(this.stats, this.scheduler, 10.0, 10.0, TimeUnit.MILLISECONDS)
+        .withMaxLevel(5.0).build();
+  }
+
+  @Test
+  public void growThenBisect() {
+    this.search = start(new SaturationSearch.Builder(this.stats, this.scheduler, 1.0, 100.0,
+        TimeUnit.MILLISECONDS).withIntegralLevels());
+    // the target sustains up to 40 concurrent requests
+    final List<Double> levels = Lists.newArrayList();
+    SaturationSearch.Result result = this.search.getResult();
+    while (!result.converged) {
+      final double level = currentLevel();
+      levels.add(level);
+      simulate(100, level <= 40.0 ? 10 : 500, 0);
+      this.search.step();
+      result = this.search.getResult();
+    }
+
+    assertThat(levels, is((List<Double>) Lists.newArrayList(1.0, 2.0, 4.0, 8.0, 16.0, 32.0, 64.0,
+        48.0, 40.0, 44.0, 42.0)));
+    assertThat(result.operatingPoint.level, is(40.0));
+    assertThat(result.operatingPoint.sustainable, is(true));
+    assertThat(result.curve.size(), is(levels.size()));
+    verify(this.scheduler, times(2)).setLevel(40.0);
+  }
+
+  @Test
+  public void errorRateExceeded() {
+    this.search = start(
+        new SaturationSearch.Builder(this.stats, this.scheduler, 10.0, 100.0, TimeUnit.MILLISECONDS)
+            .withMaxErrorRate(0.05));
+    simulate(100, 10, 4);
+    assertThat(this.search.step().sustainable, is(true));
+    simulate(100, 10, 6);
+    final SaturationSearch.Point point = this.search.step();
+    assertThat(point.sustainable, is(false));
+    assertThat(point.errorRate, is(0.06));
+    assertThat(point.latency, closeTo(10.0, 0.1));
+  }
+
+  @Test
+  public void noOperations() {
+    this.search = start(new SaturationSearch.Builder(this.stats, this.scheduler, 10.0, 100.0,
+        TimeUnit.MILLISECONDS));
+    final SaturationSearch.Point point = this.search.step();
+    assertThat(point.sustainable, is(false));
+    assertThat(point.latency, nullValue());
+  }
+
+  @Test
+  public void maxLevel() {
+    this.search = start(
+        new SaturationSearch.Builder(this.stats, this.scheduler, 10.0, 100.0, TimeUnit.MILLISECONDS)
+            .withMaxLevel(30.0));
+    for (int i = 0; i < 3; i++) {
+      simulate(100, 10, 0);
+      this.search.step();
+    }
+    final SaturationSearch.Result result = this.search.getResult();
+    assertThat(result.converged, is(true));
+    assertThat(result.curve.size(), is(3));
+    assertThat(result.operatingPoint.level, is(30.0));
+  }
+
+  @Test
+  public void nothingSustainable() {
+    this.search = start(new SaturationSearch.Builder(this.stats, this.scheduler, 1.0, 100.0,
+        TimeUnit.MILLISECONDS).withIntegralLevels());
+    simulate(100, 500, 0);
+    this.search.step();
+    final SaturationSearch.Result result = this.search.getResult();
+    assertThat(result.converged, is(true));
+    assertThat(result.operatingPoint, nullValue());
+    assertThat(result.curve.get(0), notNullValue());
+  }
+
+  @Test
+  public void stopping() {
+    this.search = new SaturationSearch.Builder(this.stats, this.scheduler, 10.0, 100.0,
+        TimeUnit.MILLISECONDS).withStep(10, TimeUnit.MILLISECONDS).build();
+    this.search.update(TestState.RUNNING);
+    verify(this.scheduler).setLevel(10.0);
+    this.search.update(TestState.STOPPING);
+    final int steps = this.search.getResult().curve.size();
+    simulate(100, 10, 0);
+    Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+    assertThat(this.search.getResult().curve.size(), is(steps));
+  }
+
+  private SaturationSearch start(final SaturationSearch.Builder builder) {
+    // steps are driven by the test rather than the clock
+    final SaturationSearch search = builder.withStep(1, TimeUnit.HOURS).build();
+    search.start();
+    return search;
+  }
+
+  private double currentLevel() {
+    final ArgumentCaptor<Double> level = ArgumentCaptor.forClass(Double.class);
+    verify(this.scheduler, atLeastOnce()).setLevel(level.capture());
+    return level.getValue();
+  }
+
+  private void simulate(final long count, final long latencyMillis, final long errors) {
+    this.operations += count;
+    this.errors += errors;
+    this.latency.recordValueWithCount(
+        Statistics.LATENCY_UNIT.convert(latencyMillis, TimeUnit.MILLISECONDS), count);
+  }
+}
@@ -8,7 +8,11 @@ package com.ibm.og.util;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.commons.math3.distribution.ConstantRealDistribution;
+import org.apache.commons.math3.distribution.ExponentialDistribution;
 import org.apache.commons.math3.distribution.IntegerDistribution;
 import org.apache.commons.math3.distribution.LogNormalDistribution;
 import org.apache.commons.math3.distribution.NormalDistribution;
@@ -113,6 +117,35 @@ public class Distributions {
     return new IntegerDistributionAdapter(new PoissonDistribution(average), s);
   }
 
+  /**
+   * Creates an exponential distribution. Exponentially distributed gaps between events produce a
+   * poisson process, with the bursts and lulls of independent arrivals.
+   * 
+   * @param average the average value generated by this distribution
+   * @return an exponential distribution instance
+   * @throws IllegalArgumentException if average is not positive
+   * @since 1.7.0
+   */
+  public static Distribution exponential(final double average) {
+    checkArgument(average > 0.0, "average must be > 0.0 [%s]", average);
+    final String s = String.format("ExponentialDistribution [average=%s]", average);
+    return new RealDistributionAdapter(new ExponentialDistribution(average), s);
+  }
+
+  /**
+   * Creates a distribution which replays recorded values in order, returning to the first value
+   * after the last. Samples may be drawn concurrently.
+   * 
+   * @param values the values to replay
+   * @return a trace distribution instance
+   * @throws NullPointerException if values is null or contains null elements
+   * @throws IllegalArgumentException if values is empty or contains negative values
+   * @since 1.7.0
+   */
+  public static Distribution trace(final List<Double> values) {
+    return new TraceDistribution(values);
+  }
+
   private static Distribution constant(final double average) {
     checkArgument(average >= 0.0, "average must be >= 0.0 [%s]", average);
     final String s = String.format("ConstantDistribution [average=%s]", average);
@@ -145,6 +178,43 @@ public class Distributions {
     }
   }
 
+  private static class TraceDistribution implements Distribution {
+    private final double[] values;
+    private final double average;
+    private final AtomicLong next;
+
+    public TraceDistribution(final List<Double> values) {
+      checkNotNull(values);
+      checkArgument(!values.isEmpty(), "values must not be empty");
+      this.values = new double[values.size()];
+      double sum = 0.0;
+      for (int i = 0; i < this.values.length; i++) {
+        final double value = checkNotNull(values.get(i));
+        checkArgument(value >= 0.0, "values must be >= 0.0 [%s]", value);
+        this.values[i] = value;
+        sum += value;
+      }
+      this.average = sum / this.values.length;
+      this.next = new AtomicLong();
+    }
+
+    @Override
+    public double getAverage() {
+      return this.average;
+    }
+
+    @Override
+    public double nextSample() {
+      return this.values[(int) (this.next.getAndIncrement() % this.values.length)];
+    }
+
+    @Override
+    public String toString() {
+      return String.format("TraceDistribution [values=%s, average=%s]", this.values.length,
+          this.average);
+    }
+  }
+
   // adapt apache's IntegerDistribution interface to og's Distribution interface
   private static class IntegerDistributionAdapter implements Distribution {
     private final IntegerDistribution d;
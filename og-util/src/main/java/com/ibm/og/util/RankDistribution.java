@@ -0,0 +1,24 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util;
+
+/**
+ * An object that selects a rank among a population of ranked members, such as the members of an
+ * object set ordered by when they were written. Implementations sample in constant time for any
+ * population size, so the population may change between calls.
+ *
+ * @since 1.7.0
+ */
+public interface RankDistribution {
+  /**
+   * Selects a rank
+   *
+   * @param n the size of the population
+   * @return a rank in the range {@code [0, n)}
+   * @throws IllegalArgumentException if n is not positive
+   */
+  long nextRank(long n);
+}
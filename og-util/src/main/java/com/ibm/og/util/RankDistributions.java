@@ -0,0 +1,224 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A utility class for creating rank distribution instances. All instances sample from
+ * {@link ThreadLocalRandom} and may be shared between threads.
+ *
+ * @since 1.7.0
+ */
+public class RankDistributions {
+  private static final RankDistribution UNIFORM = new RankDistribution() {
+    @Override
+    public long nextRank(final long n) {
+      checkPopulation(n);
+      return ThreadLocalRandom.current().nextLong(n);
+    }
+
+    @Override
+    public String toString() {
+      return "UniformRankDistribution []";
+    }
+  };
+
+  private RankDistributions() {}
+
+  /**
+   * Creates a distribution which selects every rank with equal probability
+   *
+   * @return a uniform rank distribution instance
+   */
+  public static RankDistribution uniform() {
+    return UNIFORM;
+  }
+
+  /**
+   * Creates a zipf distribution, which selects rank {@code k} with probability proportional to
+   * {@code 1 / (k + 1)^exponent}. Ranks are sampled by rejection-inversion, which takes a small
+   * expected number of iterations regardless of the population size.
+   *
+   * @param exponent the exponent of this distribution; larger values concentrate selections on
+   *        fewer ranks
+   * @return a zipf rank distribution instance
+   * @throws IllegalArgumentException if exponent is not positive
+   */
+  public static RankDistribution zipf(final double exponent) {
+    checkArgument(exponent > 0.0, "exponent must be > 0.0 [%s]", exponent);
+    return new ZipfDistribution(exponent);
+  }
+
+  /**
+   * Creates a distribution which directs a fixed share of selections to a fixed share of the
+   * population, the lowest ranks, and the remaining selections to the remaining ranks. Within
+   * each share ranks are selected uniformly. The hot share always contains at least one rank.
+   *
+   * @param hotRanks the fraction of ranks which are hot, in the range {@code (0.0, 1.0]}
+   * @param hotSelections the fraction of selections which select a hot rank, in the range
+   *        {@code [0.0, 1.0]}
+   * @return a hot set rank distribution instance
+   * @throws IllegalArgumentException if hotRanks or hotSelections is out of range
+   */
+  public static RankDistribution hotSet(final double hotRanks, final double hotSelections) {
+    checkArgument(hotRanks > 0.0 && hotRanks <= 1.0, "hotRanks must be in range (0.0, 1.0] [%s]",
+        hotRanks);
+    checkArgument(hotSelections >= 0.0 && hotSelections <= 1.0,
+        "hotSelections must be in range [0.0, 1.0] [%s]", hotSelections);
+    return new HotSetDistribution(hotRanks, hotSelections);
+  }
+
+  /**
+   * Creates a distribution which reverses the ranks of another, so that selections concentrate on
+   * the highest ranks rather than the lowest. When ranks are ordered by when members were written,
+   * this biases selections towards the most recently written members.
+   *
+   * @param distribution the distribution to reverse
+   * @return a reversed rank distribution instance
+   * @throws NullPointerException if distribution is null
+   */
+  public static RankDistribution latest(final RankDistribution distribution) {
+    checkNotNull(distribution);
+    return new RankDistribution() {
+      @Override
+      public long nextRank(final long n) {
+        return n - 1 - distribution.nextRank(n);
+      }
+
+      @Override
+      public String toString() {
+        return String.format("LatestRankDistribution [distribution=%s]", distribution);
+      }
+    };
+  }
+
+  private static void checkPopulation(final long n) {
+    checkArgument(n > 0, "n must be > 0 [%s]", n);
+  }
+
+  // rejection-inversion sampling as described by Hormann and Derflinger, "Rejection-inversion to
+  // generate variates from monotone discrete distributions", with ranks shifted to start at zero
+  private static class ZipfDistribution implements RankDistribution {
+    private final double exponent;
+    // the constants for the most recent population size, which rarely changes between calls
+    private volatile Constants constants;
+
+    ZipfDistribution(final double exponent) {
+      this.exponent = exponent;
+      this.constants = new Constants(1);
+    }
+
+    @Override
+    public long nextRank(final long n) {
+      checkPopulation(n);
+      Constants c = this.constants;
+      if (c.n != n) {
+        c = new Constants(n);
+        this.constants = c;
+      }
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      while (true) {
+        final double u = c.hIntegralN + random.nextDouble() * (c.hIntegralX1 - c.hIntegralN);
+        final double x = hIntegralInverse(u);
+        long k = (long) (x + 0.5);
+        if (k < 1) {
+          k = 1;
+        } else if (k > n) {
+          k = n;
+        }
+        if (k - x <= c.s || u >= hIntegral(k + 0.5) - h(k)) {
+          return k - 1;
+        }
+      }
+    }
+
+    // h(x) = 1 / x^exponent, the unnormalized probability of rank x - 1
+    private double h(final double x) {
+      return Math.exp(-this.exponent * Math.log(x));
+    }
+
+    // an antiderivative of h
+    private double hIntegral(final double x) {
+      final double logX = Math.log(x);
+      return helper2((1.0 - this.exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(final double x) {
+      double t = x * (1.0 - this.exponent);
+      if (t < -1.0) {
+        // limit rounding errors near the lower bound
+        t = -1.0;
+      }
+      return Math.exp(helper1(t) * x);
+    }
+
+    // log(1 + x) / x, accurate for x near zero
+    private static double helper1(final double x) {
+      if (Math.abs(x) > 1e-8) {
+        return Math.log1p(x) / x;
+      }
+      return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    // (exp(x) - 1) / x, accurate for x near zero
+    private static double helper2(final double x) {
+      if (Math.abs(x) > 1e-8) {
+        return Math.expm1(x) / x;
+      }
+      return 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+    }
+
+    @Override
+    public String toString() {
+      return String.format("ZipfRankDistribution [exponent=%s]", this.exponent);
+    }
+
+    private class Constants {
+      private final long n;
+      private final double hIntegralX1;
+      private final double hIntegralN;
+      private final double s;
+
+      Constants(final long n) {
+        this.n = n;
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+      }
+    }
+  }
+
+  private static class HotSetDistribution implements RankDistribution {
+    private final double hotRanks;
+    private final double hotSelections;
+
+    HotSetDistribution(final double hotRanks, final double hotSelections) {
+      this.hotRanks = hotRanks;
+      this.hotSelections = hotSelections;
+    }
+
+    @Override
+    public long nextRank(final long n) {
+      checkPopulation(n);
+      final long hot = Math.min(n, Math.max(1, Math.round(n * this.hotRanks)));
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      if (hot == n || random.nextDouble() < this.hotSelections) {
+        return random.nextLong(hot);
+      }
+      return hot + random.nextLong(n - hot);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("HotSetRankDistribution [hotRanks=%s, hotSelections=%s]", this.hotRanks,
+          this.hotSelections);
+    }
+  }
+}
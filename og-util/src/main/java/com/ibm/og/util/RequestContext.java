@@ -0,0 +1,527 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A request context which stores the numeric {@link Context} keys, such as object size, container
+ * suffix and retention, as primitive values rather than strings. Numeric values set through
+ * {@link #putLong(String, long)} are only formatted if the context is read as a string map, and
+ * numeric values put as strings are only parsed if they are read with {@link #getLong(String)} or
+ * one of its variants, so a value which is written and read with the same type never takes a
+ * round trip through its string form. All other keys are stored in a map which is created on first
+ * use.
+ * <p>
+ * This class implements {@code Map<String, String>} so it may be passed to the request functions
+ * and returned from {@link com.ibm.og.api.Message#getContext()} unchanged. The static
+ * {@link #getLong(Map, String, long)} and {@link #putLong(Map, String, long)} methods and their
+ * variants use the typed storage of a {@code RequestContext} and fall back to parsing and
+ * formatting strings for any other map.
+ * <p>
+ * Instances are not thread safe. An instance may be {@link #freeze() frozen} once it has been
+ * populated, after which it may be shared between threads.
+ *
+ * @since 1.7.0
+ */
+public class RequestContext extends AbstractMap<String, String> {
+  // the keys with numeric values, indexed by slot
+  private static final String[] NUMERIC_KEYS = {Context.X_OG_OBJECT_SIZE,
+      Context.X_OG_CONTAINER_SUFFIX, Context.X_OG_LEGAL_HOLD_SUFFIX, Context.X_OG_NUM_LEGAL_HOLDS,
+      Context.X_OG_OBJECT_RETENTION, Context.X_OG_OBJECT_RETENTION_EXT,
+      Context.X_OG_SSE_SOURCE_OBJECT_SIZE, Context.X_OG_SSE_SOURCE_OBJECT_CONTAINER_SUFFIX,
+      Context.X_OG_INTENDED_START};
+  private static final int[] NUMERIC_KEY_HASHES = new int[NUMERIC_KEYS.length];
+
+  static {
+    for (int i = 0; i < NUMERIC_KEYS.length; i++) {
+      NUMERIC_KEY_HASHES[i] = NUMERIC_KEYS[i].hashCode();
+    }
+  }
+
+  private final long[] values;
+  // the string form of each slot; null if the slot has no string form yet, or its value is null
+  private final String[] texts;
+  // bit i is set if slot i is present, and if values[i] holds its value
+  private int present;
+  private int parsed;
+  private Map<String, String> extras;
+  private boolean frozen;
+
+  /**
+   * Constructs an empty instance
+   */
+  public RequestContext() {
+    this.values = new long[NUMERIC_KEYS.length];
+    this.texts = new String[NUMERIC_KEYS.length];
+  }
+
+  /**
+   * Constructs an instance which contains the entries of another map. If the map is a
+   * {@code RequestContext} its numeric values are copied without formatting or parsing. The new
+   * instance is not frozen.
+   *
+   * @param context the map to copy
+   * @throws NullPointerException if context is null or contains a null key
+   */
+  public RequestContext(final Map<String, String> context) {
+    this();
+    putAll(checkNotNull(context));
+  }
+
+  private static int slot(final Object key) {
+    if (!(key instanceof String)) {
+      return -1;
+    }
+    final int hash = key.hashCode();
+    for (int i = 0; i < NUMERIC_KEYS.length; i++) {
+      if (NUMERIC_KEY_HASHES[i] == hash && NUMERIC_KEYS[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int checkNumericSlot(final String key) {
+    final int slot = slot(checkNotNull(key));
+    if (slot < 0) {
+      throw new IllegalArgumentException(String.format("key is not numeric [%s]", key));
+    }
+    return slot;
+  }
+
+  private boolean isPresent(final int slot) {
+    return (this.present & (1 << slot)) != 0;
+  }
+
+  private boolean isParsed(final int slot) {
+    return (this.parsed & (1 << slot)) != 0;
+  }
+
+  private void checkNotFrozen() {
+    if (this.frozen) {
+      throw new UnsupportedOperationException("context is frozen");
+    }
+  }
+
+  /**
+   * Returns the value of a numeric key, or a default value if the key is absent or its value is
+   * null
+   *
+   * @param key a numeric context key
+   * @param defaultValue the value to return if key is absent
+   * @return the value of key, or defaultValue
+   * @throws IllegalArgumentException if key is not one of the numeric context keys
+   * @throws NumberFormatException if the value of key was put as a string which is not a number
+   */
+  public long getLong(final String key, final long defaultValue) {
+    final int slot = checkNumericSlot(key);
+    if (!isPresent(slot)) {
+      return defaultValue;
+    }
+    if (!isParsed(slot)) {
+      final String text = this.texts[slot];
+      if (text == null) {
+        return defaultValue;
+      }
+      final long value = Long.parseLong(text);
+      // a frozen context may be read concurrently, so only an unshared context caches the result
+      if (this.frozen) {
+        return value;
+      }
+      this.values[slot] = value;
+      this.parsed |= 1 << slot;
+    }
+    return this.values[slot];
+  }
+
+  /**
+   * Returns the value of a numeric key
+   *
+   * @param key a numeric context key
+   * @return the value of key
+   * @throws IllegalArgumentException if key is not one of the numeric context keys
+   * @throws NumberFormatException if key is absent, its value is null, or its value was put as a
+   *         string which is not a number
+   */
+  public long getLong(final String key) {
+    final int slot = checkNumericSlot(key);
+    if (!isPresent(slot) || (!isParsed(slot) && this.texts[slot] == null)) {
+      throw new NumberFormatException(String.format("no value for key [%s]", key));
+    }
+    return getLong(key, 0);
+  }
+
+  /**
+   * Returns the value of a numeric key as an int, or a default value if the key is absent or its
+   * value is null
+   *
+   * @param key a numeric context key
+   * @param defaultValue the value to return if key is absent
+   * @return the value of key, or defaultValue
+   * @throws IllegalArgumentException if key is not one of the numeric context keys
+   * @throws NumberFormatException if the value of key is not a number in the range of an int
+   */
+  public int getInt(final String key, final int defaultValue) {
+    return toInt(key, getLong(key, defaultValue));
+  }
+
+  /**
+   * Returns the value of a numeric key as an int
+   *
+   * @param key a numeric context key
+   * @return the value of key
+   * @throws IllegalArgumentException if key is not one of the numeric context keys
+   * @throws NumberFormatException if key is absent, its value is null, or its value is not a
+   *         number in the range of an int
+   */
+  public int getInt(final String key) {
+    return toInt(key, getLong(key));
+  }
+
+  private static int toInt(final String key, final long value) {
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new NumberFormatException(
+          String.format("value of key [%s] is out of range for an int [%s]", key, value));
+    }
+    return (int) value;
+  }
+
+  /**
+   * Sets the value of a numeric key without formatting it
+   *
+   * @param key a numeric context key
+   * @param value the value of key
+   * @return this context
+   * @throws IllegalArgumentException if key is not one of the numeric context keys
+   * @throws UnsupportedOperationException if this context is frozen
+   */
+  public RequestContext putLong(final String key, final long value) {
+    final int slot = checkNumericSlot(key);
+    checkNotFrozen();
+    this.values[slot] = value;
+    this.texts[slot] = null;
+    this.present |= 1 << slot;
+    this.parsed |= 1 << slot;
+    return this;
+  }
+
+  /**
+   * Returns the value of a numeric key of a context map, or a default value if the key is absent.
+   * If context is a {@code RequestContext} the value is read without parsing.
+   *
+   * @param context a request context
+   * @param key a numeric context key
+   * @param defaultValue the value to return if key is absent
+   * @return the value of key, or defaultValue
+   * @throws NumberFormatException if the value of key is not a number
+   */
+  public static long getLong(final Map<String, String> context, final String key,
+      final long defaultValue) {
+    if (context instanceof RequestContext) {
+      return ((RequestContext) context).getLong(key, defaultValue);
+    }
+    final String value = context.get(key);
+    return value != null ? Long.parseLong(value) : defaultValue;
+  }
+
+  /**
+   * Returns the value of a numeric key of a context map. If context is a {@code RequestContext}
+   * the value is read without parsing.
+   *
+   * @param context a request context
+   * @param key a numeric context key
+   * @return the value of key
+   * @throws NumberFormatException if key is absent or its value is not a number
+   */
+  public static long getLong(final Map<String, String> context, final String key) {
+    if (context instanceof RequestContext) {
+      return ((RequestContext) context).getLong(key);
+    }
+    return Long.parseLong(context.get(key));
+  }
+
+  /**
+   * Returns the value of a numeric key of a context map as an int, or a default value if the key
+   * is absent. If context is a {@code RequestContext} the value is read without parsing.
+   *
+   * @param context a request context
+   * @param key a numeric context key
+   * @param defaultValue the value to return if key is absent
+   * @return the value of key, or defaultValue
+   * @throws NumberFormatException if the value of key is not a number in the range of an int
+   */
+  public static int getInt(final Map<String, String> context, final String key,
+      final int defaultValue) {
+    if (context instanceof RequestContext) {
+      return ((RequestContext) context).getInt(key, defaultValue);
+    }
+    final String value = context.get(key);
+    return value != null ? Integer.parseInt(value) : defaultValue;
+  }
+
+  /**
+   * Returns the value of a numeric key of a context map as an int. If context is a
+   * {@code RequestContext} the value is read without parsing.
+   *
+   * @param context a request context
+   * @param key a numeric context key
+   * @return the value of key
+   * @throws NumberFormatException if key is absent or its value is not a number in the range of an
+   *         int
+   */
+  public static int getInt(final Map<String, String> context, final String key) {
+    if (context instanceof RequestContext) {
+      return ((RequestContext) context).getInt(key);
+    }
+    return Integer.parseInt(context.get(key));
+  }
+
+  /**
+   * Sets the value of a numeric key of a context map. If context is a {@code RequestContext} the
+   * value is stored without formatting.
+   *
+   * @param context a request context
+   * @param key a numeric context key
+   * @param value the value of key
+   */
+  public static void putLong(final Map<String, String> context, final String key,
+      final long value) {
+    if (context instanceof RequestContext) {
+      ((RequestContext) context).putLong(key, value);
+    } else {
+      context.put(key, String.valueOf(value));
+    }
+  }
+
+  /**
+   * Prevents further changes to this context. A frozen context may be read concurrently by
+   * multiple threads once it has been safely published; reads only cache the string form of
+   * numeric values, which are immutable.
+   *
+   * @return this context
+   */
+  public RequestContext freeze() {
+    this.frozen = true;
+    return this;
+  }
+
+  /**
+   * Returns whether this context is frozen
+   *
+   * @return true if this context is frozen
+   */
+  public boolean isFrozen() {
+    return this.frozen;
+  }
+
+  @Override
+  public String get(final Object key) {
+    final int slot = slot(key);
+    if (slot < 0) {
+      return this.extras != null ? this.extras.get(key) : null;
+    }
+    if (!isPresent(slot)) {
+      return null;
+    }
+    String text = this.texts[slot];
+    if (text == null && isParsed(slot)) {
+      text = String.valueOf(this.values[slot]);
+      this.texts[slot] = text;
+    }
+    return text;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    final int slot = slot(key);
+    if (slot < 0) {
+      return this.extras != null && this.extras.containsKey(key);
+    }
+    return isPresent(slot);
+  }
+
+  @Override
+  public String put(final String key, final String value) {
+    checkNotNull(key);
+    checkNotFrozen();
+    final int slot = slot(key);
+    if (slot < 0) {
+      if (this.extras == null) {
+        this.extras = new HashMap<String, String>();
+      }
+      return this.extras.put(key, value);
+    }
+    final String previous = get(key);
+    // the value is parsed when it is first read as a number, if ever
+    this.texts[slot] = value;
+    this.present |= 1 << slot;
+    this.parsed &= ~(1 << slot);
+    return previous;
+  }
+
+  @Override
+  public void putAll(final Map<? extends String, ? extends String> m) {
+    if (!(m instanceof RequestContext)) {
+      super.putAll(m);
+      return;
+    }
+    checkNotFrozen();
+    final RequestContext other = (RequestContext) m;
+    for (int i = 0; i < NUMERIC_KEYS.length; i++) {
+      if (other.isPresent(i)) {
+        this.values[i] = other.values[i];
+        this.texts[i] = other.texts[i];
+      }
+    }
+    this.present |= other.present;
+    this.parsed = (this.parsed & ~other.present) | other.parsed;
+    if (other.extras != null && !other.extras.isEmpty()) {
+      if (this.extras == null) {
+        this.extras = new HashMap<String, String>(other.extras);
+      } else {
+        this.extras.putAll(other.extras);
+      }
+    }
+  }
+
+  @Override
+  public String remove(final Object key) {
+    checkNotFrozen();
+    final int slot = slot(key);
+    if (slot < 0) {
+      return this.extras != null ? this.extras.remove(key) : null;
+    }
+    final String previous = get(key);
+    removeSlot(slot);
+    return previous;
+  }
+
+  private void removeSlot(final int slot) {
+    this.texts[slot] = null;
+    this.present &= ~(1 << slot);
+    this.parsed &= ~(1 << slot);
+  }
+
+  @Override
+  public int size() {
+    return Integer.bitCount(this.present) + (this.extras != null ? this.extras.size() : 0);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.present == 0 && (this.extras == null || this.extras.isEmpty());
+  }
+
+  /**
+   * Removes all entries from this context, so that it may be reused
+   *
+   * @throws UnsupportedOperationException if this context is frozen
+   */
+  @Override
+  public void clear() {
+    checkNotFrozen();
+    for (int i = 0; i < NUMERIC_KEYS.length; i++) {
+      this.texts[i] = null;
+    }
+    this.present = 0;
+    this.parsed = 0;
+    if (this.extras != null) {
+      this.extras.clear();
+    }
+  }
+
+  @Override
+  public Set<Map.Entry<String, String>> entrySet() {
+    return new AbstractSet<Map.Entry<String, String>>() {
+      @Override
+      public Iterator<Map.Entry<String, String>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return RequestContext.this.size();
+      }
+    };
+  }
+
+  // iterates over the present numeric slots, then over the extras
+  private class EntryIterator implements Iterator<Map.Entry<String, String>> {
+    private int nextSlot;
+    private int lastSlot;
+    private Iterator<Map.Entry<String, String>> extrasIterator;
+    private boolean removable;
+
+    EntryIterator() {
+      this.nextSlot = advance(0);
+      this.lastSlot = -1;
+    }
+
+    private int advance(int slot) {
+      while (slot < NUMERIC_KEYS.length && !isPresent(slot)) {
+        slot++;
+      }
+      return slot;
+    }
+
+    private Iterator<Map.Entry<String, String>> extrasIterator() {
+      if (this.extrasIterator == null) {
+        final Map<String, String> extras = RequestContext.this.extras;
+        this.extrasIterator = extras != null ? extras.entrySet().iterator()
+            : Collections.<Map.Entry<String, String>>emptySet().iterator();
+      }
+      return this.extrasIterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.nextSlot < NUMERIC_KEYS.length || extrasIterator().hasNext();
+    }
+
+    @Override
+    public Map.Entry<String, String> next() {
+      if (this.nextSlot < NUMERIC_KEYS.length) {
+        final int slot = this.nextSlot;
+        this.nextSlot = advance(slot + 1);
+        this.lastSlot = slot;
+        this.removable = true;
+        final String key = NUMERIC_KEYS[slot];
+        return new SimpleImmutableEntry<String, String>(key, get(key));
+      }
+      if (!extrasIterator().hasNext()) {
+        throw new NoSuchElementException();
+      }
+      this.lastSlot = -1;
+      this.removable = true;
+      final Map.Entry<String, String> entry = this.extrasIterator.next();
+      return new SimpleImmutableEntry<String, String>(entry);
+    }
+
+    @Override
+    public void remove() {
+      if (!this.removable) {
+        throw new IllegalStateException();
+      }
+      checkNotFrozen();
+      if (this.lastSlot >= 0) {
+        removeSlot(this.lastSlot);
+      } else {
+        this.extrasIterator.remove();
+      }
+      this.removable = false;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An event which marks the start of a load profile stage
+ *
+ * @since 1.7.0
+ */
+public class StageMarker {
+  private final int stage;
+  private final String description;
+  private final long timestamp;
+
+  /**
+   * Constructs an instance
+   *
+   * @param stage the index of the stage which started, starting at zero
+   * @param description a description of the stage
+   * @param timestamp the time the stage started, in millis since epoch
+   * @throws IllegalArgumentException if stage or timestamp is negative
+   * @throws NullPointerException if description is null
+   */
+  public StageMarker(final int stage, final String description, final long timestamp) {
+    checkArgument(stage >= 0, "stage must be >= 0 [%s]", stage);
+    this.stage = stage;
+    this.description = checkNotNull(description);
+    checkArgument(timestamp >= 0, "timestamp must be >= 0 [%s]", timestamp);
+    this.timestamp = timestamp;
+  }
+
+  /**
+   * @return the index of the stage which started, starting at zero
+   */
+  public int getStage() {
+    return this.stage;
+  }
+
+  /**
+   * @return a description of the stage
+   */
+  public String getDescription() {
+    return this.description;
+  }
+
+  /**
+   * @return the time the stage started, in millis since epoch
+   */
+  public long getTimestamp() {
+    return this.timestamp;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("StageMarker [stage=%s, description=%s, timestamp=%s]", this.stage,
+        this.description, this.timestamp);
+  }
+}
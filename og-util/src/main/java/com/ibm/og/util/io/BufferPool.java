@@ -0,0 +1,114 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of equally sized heap buffers which are reused rather than allocated per request.
+ * <p>
+ * A thread affine pool first caches one buffer per thread, so a long lived thread acquires and
+ * releases the same buffer without contention. Buffers released by threads which already hold one,
+ * or by any thread of a pool which is not thread affine, are kept in a shared queue of limited
+ * capacity; buffers released beyond that capacity are left to the garbage collector. Pools which
+ * serve short lived threads, such as virtual threads, should not be thread affine, since a buffer
+ * cached by a thread is lost when that thread ends.
+ *
+ * @since 1.7.0
+ */
+public class BufferPool {
+  private final int bufferSize;
+  private final boolean threadAffine;
+  private final int capacity;
+  private final ThreadLocal<ByteBuffer> cached;
+  private final Queue<ByteBuffer> shared;
+  private final AtomicInteger sharedCount;
+
+  /**
+   * Constructs an instance
+   *
+   * @param bufferSize the size of buffers in this pool, in bytes
+   * @param threadAffine whether to cache a buffer per thread
+   * @param capacity the maximum number of released buffers to keep in the shared queue
+   * @throws IllegalArgumentException if bufferSize is negative or zero, or capacity is negative
+   */
+  public BufferPool(final int bufferSize, final boolean threadAffine, final int capacity) {
+    checkArgument(bufferSize > 0, "bufferSize must be > 0 [%s]", bufferSize);
+    checkArgument(capacity >= 0, "capacity must be >= 0 [%s]", capacity);
+    this.bufferSize = bufferSize;
+    this.threadAffine = threadAffine;
+    this.capacity = capacity;
+    this.cached = threadAffine ? new ThreadLocal<ByteBuffer>() : null;
+    this.shared = new ConcurrentLinkedQueue<ByteBuffer>();
+    this.sharedCount = new AtomicInteger();
+  }
+
+  /**
+   * Acquires a cleared buffer from this pool, allocating one if none is available. The caller
+   * owns the buffer until it is passed to {@link #release(ByteBuffer)}.
+   *
+   * @return a buffer of {@link #getBufferSize()} bytes, backed by an accessible array
+   */
+  public ByteBuffer acquire() {
+    ByteBuffer buf = null;
+    if (this.threadAffine) {
+      buf = this.cached.get();
+      if (buf != null) {
+        this.cached.set(null);
+      }
+    }
+    if (buf == null) {
+      buf = this.shared.poll();
+      if (buf != null) {
+        this.sharedCount.decrementAndGet();
+      }
+    }
+    if (buf == null) {
+      buf = ByteBuffer.allocate(this.bufferSize);
+    }
+    buf.clear();
+    return buf;
+  }
+
+  /**
+   * Returns a buffer to this pool. The caller must not use the buffer afterwards.
+   *
+   * @param buf the buffer to return
+   * @throws NullPointerException if buf is null
+   * @throws IllegalArgumentException if buf was not acquired from a pool of this buffer size
+   */
+  public void release(final ByteBuffer buf) {
+    checkNotNull(buf);
+    checkArgument(buf.capacity() == this.bufferSize && buf.hasArray(),
+        "buf must be a heap buffer of %s bytes [%s]", this.bufferSize, buf);
+    if (this.threadAffine && this.cached.get() == null) {
+      this.cached.set(buf);
+    } else if (this.sharedCount.incrementAndGet() <= this.capacity) {
+      this.shared.offer(buf);
+    } else {
+      this.sharedCount.decrementAndGet();
+    }
+  }
+
+  /**
+   * @return the size of buffers in this pool, in bytes
+   */
+  public int getBufferSize() {
+    return this.bufferSize;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("BufferPool [bufferSize=%s, threadAffine=%s, capacity=%s]",
+        this.bufferSize, this.threadAffine, this.capacity);
+  }
+}
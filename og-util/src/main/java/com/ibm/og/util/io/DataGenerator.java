@@ -0,0 +1,136 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.InputStream;
+
+/**
+ * A generator of data with a target compression ratio and dedupe ratio.
+ * <p>
+ * Generated data is a sequence of blocks of {@code blockSize} bytes. Each block starts with
+ * {@code blockSize / compressionRatio} pseudorandom bytes, which are incompressible, followed by
+ * zeroes, which compress to almost nothing. The pseudorandom bytes of a block are determined by a
+ * seed derived from the seed of the stream and the index of the block; a fraction
+ * {@code 1 / dedupeRatio} of blocks are unique, and the remainder are copies of one of a fixed set
+ * of {@value #SHARED_BLOCKS} blocks which are shared by all streams of this generator. Data is
+ * generated as it is read, so streams allocate no buffers.
+ * <p>
+ * The ratios are those seen by a compressor or a fixed block deduplicator operating on blocks of
+ * {@code blockSize} bytes, for data sets which are large compared to the shared blocks.
+ *
+ * @since 1.7.0
+ */
+public final class DataGenerator {
+  /**
+   * The number of distinct duplicate blocks
+   */
+  public static final int SHARED_BLOCKS = 1024;
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final long SHARED_SALT = 0x5DEECE66DL;
+  private final int blockSize;
+  private final double compressionRatio;
+  private final double dedupeRatio;
+  private final int randomLength;
+  private final double uniqueFraction;
+
+  /**
+   * Constructs a generator
+   *
+   * @param blockSize the size of blocks, in bytes
+   * @param compressionRatio the ratio of the size of generated data to its compressed size
+   * @param dedupeRatio the ratio of the number of generated blocks to the number of unique
+   *        generated blocks
+   * @throws IllegalArgumentException if blockSize is negative or zero, or if compressionRatio or
+   *         dedupeRatio is less than 1.0
+   */
+  public DataGenerator(final int blockSize, final double compressionRatio,
+      final double dedupeRatio) {
+    checkArgument(blockSize > 0, "blockSize must be > 0 [%s]", blockSize);
+    checkArgument(compressionRatio >= 1.0, "compressionRatio must be >= 1.0 [%s]",
+        compressionRatio);
+    checkArgument(dedupeRatio >= 1.0, "dedupeRatio must be >= 1.0 [%s]", dedupeRatio);
+    this.blockSize = blockSize;
+    this.compressionRatio = compressionRatio;
+    this.dedupeRatio = dedupeRatio;
+    this.randomLength = (int) Math.round(blockSize / compressionRatio);
+    this.uniqueFraction = 1.0 / dedupeRatio;
+  }
+
+  /**
+   * Creates a stream of generated data
+   *
+   * @param seed the seed which determines the unique blocks of the stream
+   * @param size the length of the stream
+   * @return a stream of generated data
+   * @throws IllegalArgumentException if size is negative
+   */
+  public InputStream create(final long seed, final long size) {
+    return new GeneratedInputStream(this, seed, size);
+  }
+
+  int blockSize() {
+    return this.blockSize;
+  }
+
+  int randomLength() {
+    return this.randomLength;
+  }
+
+  /**
+   * Returns the initial state of the pseudorandom generator of a block, which is never zero
+   */
+  long blockState(final long seed, final long block) {
+    long state = mix(seed + block * GOLDEN_GAMMA);
+    // the top 53 bits of a mixed value are uniformly distributed in [0, 1)
+    if ((state >>> 11) * 0x1.0p-53 >= this.uniqueFraction) {
+      state = mix(SHARED_SALT + ((state & Long.MAX_VALUE) % SHARED_BLOCKS) * GOLDEN_GAMMA);
+    } else {
+      state = mix(state);
+    }
+    return state != 0 ? state : GOLDEN_GAMMA;
+  }
+
+  // the splitmix64 finalizer
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof DataGenerator)) {
+      return false;
+    }
+    final DataGenerator other = (DataGenerator) obj;
+    return this.blockSize == other.blockSize
+        && Double.compare(this.compressionRatio, other.compressionRatio) == 0
+        && Double.compare(this.dedupeRatio, other.dedupeRatio) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + this.blockSize;
+    final long compression = Double.doubleToLongBits(this.compressionRatio);
+    result = prime * result + (int) (compression ^ (compression >>> 32));
+    final long dedupe = Double.doubleToLongBits(this.dedupeRatio);
+    result = prime * result + (int) (dedupe ^ (dedupe >>> 32));
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("DataGenerator [blockSize=%s, compressionRatio=%s, dedupeRatio=%s]",
+        this.blockSize, this.compressionRatio, this.dedupeRatio);
+  }
+}
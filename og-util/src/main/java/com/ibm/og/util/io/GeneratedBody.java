@@ -0,0 +1,21 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import com.ibm.og.api.Body;
+
+/**
+ * A description of a body of {@link com.ibm.og.api.DataType#GENERATED} data, whose content is
+ * determined by its seed, size and generator
+ *
+ * @since 1.7.0
+ */
+public interface GeneratedBody extends Body {
+  /**
+   * @return the generator of this body's data
+   */
+  DataGenerator getDataGenerator();
+}
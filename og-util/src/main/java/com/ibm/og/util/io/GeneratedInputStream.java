@@ -0,0 +1,206 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * An input stream of data generated by a {@link DataGenerator}. The pseudorandom bytes of each
+ * block are produced eight at a time by an xorshift64* generator, seeded per block, so any
+ * position in the stream can be reached by regenerating at most one block.
+ *
+ * @since 1.7.0
+ */
+class GeneratedInputStream extends InputStream {
+  private final DataGenerator generator;
+  private final int blockSize;
+  private final int randomLength;
+  private final long seed;
+  private final long size;
+  private long position;
+  private long markPosition;
+  // state of the pseudorandom generator of the current block
+  private long state;
+  // unread bytes of the last generated word, least significant first
+  private long word;
+  private int wordBytes;
+
+  GeneratedInputStream(final DataGenerator generator, final long seed, final long size) {
+    this.generator = checkNotNull(generator);
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+    this.blockSize = generator.blockSize();
+    this.randomLength = generator.randomLength();
+    this.seed = seed;
+    this.size = size;
+    this.markPosition = 0;
+    seek(0);
+  }
+
+  private long nextWord() {
+    long x = this.state;
+    x ^= x >>> 12;
+    x ^= x << 25;
+    x ^= x >>> 27;
+    this.state = x;
+    return x * 0x2545F4914F6CDD1DL;
+  }
+
+  private void seek(final long position) {
+    this.position = position;
+    startBlock();
+    final int offset = Math.min((int) (position % this.blockSize), this.randomLength);
+    for (int i = 0; i < offset / 8; i++) {
+      nextWord();
+    }
+    final int partial = offset % 8;
+    if (partial > 0) {
+      this.word = nextWord() >>> (8 * partial);
+      this.wordBytes = 8 - partial;
+    }
+  }
+
+  private void startBlock() {
+    this.state = this.generator.blockState(this.seed, this.position / this.blockSize);
+    this.wordBytes = 0;
+  }
+
+  @Override
+  public int read() {
+    if (this.position >= this.size) {
+      return -1;
+    }
+    final int offset = (int) (this.position % this.blockSize);
+    if (offset == 0) {
+      startBlock();
+    }
+    int b = 0;
+    if (offset < this.randomLength) {
+      if (this.wordBytes == 0) {
+        this.word = nextWord();
+        this.wordBytes = 8;
+      }
+      b = (int) this.word & 0xFF;
+      this.word >>>= 8;
+      this.wordBytes--;
+    }
+    this.position++;
+    return b;
+  }
+
+  @Override
+  public int read(final byte[] b) {
+    return read(b, 0, b.length);
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    } else if (len == 0) {
+      return 0;
+    }
+    final long remaining = this.size - this.position;
+    if (remaining <= 0) {
+      return -1;
+    }
+
+    final int toRead = (int) Math.min(len, remaining);
+    int done = 0;
+    while (done < toRead) {
+      final int offset = (int) (this.position % this.blockSize);
+      if (offset == 0) {
+        startBlock();
+      }
+      int chunk = Math.min(toRead - done, this.blockSize - offset);
+      if (offset < this.randomLength) {
+        final int random = Math.min(chunk, this.randomLength - offset);
+        fillRandom(b, off + done, random);
+        done += random;
+        this.position += random;
+        chunk -= random;
+      }
+      if (chunk > 0) {
+        Arrays.fill(b, off + done, off + done + chunk, (byte) 0);
+        done += chunk;
+        this.position += chunk;
+      }
+    }
+    return toRead;
+  }
+
+  private void fillRandom(final byte[] b, int p, int n) {
+    while (n > 0 && this.wordBytes > 0) {
+      b[p++] = (byte) this.word;
+      this.word >>>= 8;
+      this.wordBytes--;
+      n--;
+    }
+    while (n >= 8) {
+      final long w = nextWord();
+      b[p] = (byte) w;
+      b[p + 1] = (byte) (w >>> 8);
+      b[p + 2] = (byte) (w >>> 16);
+      b[p + 3] = (byte) (w >>> 24);
+      b[p + 4] = (byte) (w >>> 32);
+      b[p + 5] = (byte) (w >>> 40);
+      b[p + 6] = (byte) (w >>> 48);
+      b[p + 7] = (byte) (w >>> 56);
+      p += 8;
+      n -= 8;
+    }
+    if (n > 0) {
+      this.word = nextWord();
+      this.wordBytes = 8;
+      while (n > 0) {
+        b[p++] = (byte) this.word;
+        this.word >>>= 8;
+        this.wordBytes--;
+        n--;
+      }
+    }
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    final long skipped = Math.min(n, this.size - this.position);
+    seek(this.position + skipped);
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(this.size - this.position, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    this.markPosition = this.position;
+  }
+
+  @Override
+  public void reset() {
+    seek(this.markPosition);
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("GeneratedInputStream [generator=%s, size=%s, position=%s]",
+        this.generator, this.size, this.position);
+  }
+}
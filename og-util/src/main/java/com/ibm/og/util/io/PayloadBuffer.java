@@ -0,0 +1,84 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A read-only pattern of bytes which payload streams repeat. The pattern is stored twice in a row,
+ * so that any run of up to one pattern length is contiguous regardless of where it starts, and can
+ * be written with a single call. Instances never change once constructed and are shared by all
+ * streams which repeat the same pattern.
+ *
+ * @since 1.7.0
+ */
+final class PayloadBuffer {
+  private final byte[] data;
+  private final int period;
+  private volatile ByteBuffer direct;
+
+  /**
+   * Constructs an instance
+   *
+   * @param pattern the pattern of bytes to repeat; it is copied
+   * @throws NullPointerException if pattern is null
+   * @throws IllegalArgumentException if pattern is empty or longer than half the maximum array size
+   */
+  PayloadBuffer(final byte[] pattern) {
+    checkNotNull(pattern);
+    checkArgument(pattern.length > 0, "pattern length must be > 0 [%s]", pattern.length);
+    checkArgument(pattern.length <= Integer.MAX_VALUE / 2, "pattern length must be <= %s [%s]",
+        Integer.MAX_VALUE / 2, pattern.length);
+    this.period = pattern.length;
+    this.data = new byte[2 * this.period];
+    System.arraycopy(pattern, 0, this.data, 0, this.period);
+    System.arraycopy(pattern, 0, this.data, this.period, this.period);
+  }
+
+  /**
+   * @return the pattern, stored twice in a row; callers must not modify it
+   */
+  byte[] data() {
+    return this.data;
+  }
+
+  /**
+   * @return the length of the pattern
+   */
+  int period() {
+    return this.period;
+  }
+
+  /**
+   * Returns a direct, read-only copy of {@link #data()}, created on first use. Callers must
+   * duplicate the returned buffer before changing its position or limit.
+   *
+   * @return a direct copy of the data of this buffer
+   */
+  ByteBuffer direct() {
+    ByteBuffer direct = this.direct;
+    if (direct == null) {
+      synchronized (this) {
+        direct = this.direct;
+        if (direct == null) {
+          final ByteBuffer copy = ByteBuffer.allocateDirect(this.data.length);
+          copy.put(this.data).flip();
+          direct = copy.asReadOnlyBuffer();
+          this.direct = direct;
+        }
+      }
+    }
+    return direct;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PayloadBuffer [period=%s]", this.period);
+  }
+}
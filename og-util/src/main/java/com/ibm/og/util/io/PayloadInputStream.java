@@ -0,0 +1,197 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream of a fixed size which repeats a shared, read-only pattern of bytes.
+ * <p>
+ * Besides the usual {@code read} methods, which copy from the pattern, this stream can hand its
+ * remaining bytes to a consumer in large blocks directly from the shared pattern, without copying
+ * them to an intermediate buffer first: {@link #writeTo(OutputStream, int)} writes blocks to an
+ * output stream, and {@link #nextBlock(int, boolean)} returns a view of the next block for a
+ * channel to write, optionally from a direct copy of the pattern. Blocks are at most one pattern
+ * length; see {@link Streams#PAYLOAD_LENGTH}.
+ *
+ * @since 1.7.0
+ */
+public class PayloadInputStream extends InputStream {
+  private final PayloadBuffer payload;
+  private final long size;
+  private long position;
+  // the index in the pattern of the byte at position
+  private int offset;
+  private long markPosition;
+  private int markOffset;
+
+  /**
+   * Constructs an instance
+   *
+   * @param payload the pattern to repeat
+   * @param offset the index in the pattern of the first byte of this stream
+   * @param size the length of this stream
+   * @throws NullPointerException if payload is null
+   * @throws IllegalArgumentException if offset is not an index in the pattern, or size is negative
+   */
+  PayloadInputStream(final PayloadBuffer payload, final int offset, final long size) {
+    this.payload = checkNotNull(payload);
+    checkArgument(offset >= 0 && offset < payload.period(), "offset must be in range [0, %s) [%s]",
+        payload.period(), offset);
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+    this.size = size;
+    this.position = 0;
+    this.offset = offset;
+    this.markPosition = 0;
+    this.markOffset = offset;
+  }
+
+  private long remaining() {
+    return this.size - this.position;
+  }
+
+  private void advance(final int amount) {
+    this.position += amount;
+    this.offset = (int) ((this.offset + (long) amount) % this.payload.period());
+  }
+
+  @Override
+  public int read() {
+    if (remaining() <= 0) {
+      return -1;
+    }
+    final int b = this.payload.data()[this.offset] & 0xFF;
+    advance(1);
+    return b;
+  }
+
+  @Override
+  public int read(final byte[] b) {
+    return this.read(b, 0, b.length);
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    } else if (len == 0) {
+      return 0;
+    } else if (remaining() <= 0) {
+      return -1;
+    }
+
+    final int toRead = (int) Math.min(len, remaining());
+    int copied = 0;
+    while (copied < toRead) {
+      final int run = Math.min(this.payload.period(), toRead - copied);
+      System.arraycopy(this.payload.data(), this.offset, b, off + copied, run);
+      advance(run);
+      copied += run;
+    }
+    return toRead;
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    final long skipped = Math.min(n, remaining());
+    this.position += skipped;
+    this.offset = (int) ((this.offset + skipped % this.payload.period()) % this.payload.period());
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(remaining(), Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    this.markPosition = this.position;
+    this.markOffset = this.offset;
+  }
+
+  @Override
+  public void reset() {
+    this.position = this.markPosition;
+    this.offset = this.markOffset;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  /**
+   * Writes the remaining bytes of this stream to an output stream in blocks, directly from the
+   * shared pattern
+   *
+   * @param out the output stream to write to
+   * @param blockSize the maximum number of bytes to write per call to {@code out}; blocks are also
+   *        limited to one pattern length
+   * @return the number of bytes written
+   * @throws NullPointerException if out is null
+   * @throws IllegalArgumentException if blockSize is negative or zero
+   * @throws IOException if out throws an IOException
+   */
+  public long writeTo(final OutputStream out, final int blockSize) throws IOException {
+    checkNotNull(out);
+    checkArgument(blockSize > 0, "blockSize must be > 0 [%s]", blockSize);
+    final int maxBlock = Math.min(blockSize, this.payload.period());
+    long written = 0;
+    while (remaining() > 0) {
+      final int block = (int) Math.min(maxBlock, remaining());
+      out.write(this.payload.data(), this.offset, block);
+      advance(block);
+      written += block;
+    }
+    return written;
+  }
+
+  /**
+   * Returns a read-only view of the next block of this stream and advances past it. The view
+   * refers to the shared pattern rather than a copy of it.
+   *
+   * @param maxLength the maximum length of the block; blocks are also limited to one pattern
+   *        length
+   * @param direct whether to return a view of a direct copy of the pattern, which channels can
+   *        write without first copying it to a temporary direct buffer
+   * @return a view of the next block, or null if this stream has no remaining bytes
+   * @throws IllegalArgumentException if maxLength is negative or zero
+   */
+  public ByteBuffer nextBlock(final int maxLength, final boolean direct) {
+    checkArgument(maxLength > 0, "maxLength must be > 0 [%s]", maxLength);
+    if (remaining() <= 0) {
+      return null;
+    }
+    final int block =
+        (int) Math.min(Math.min(maxLength, this.payload.period()), remaining());
+    final ByteBuffer view;
+    if (direct) {
+      view = this.payload.direct().duplicate();
+      view.limit(this.offset + block).position(this.offset);
+    } else {
+      view = ByteBuffer.wrap(this.payload.data(), this.offset, block).asReadOnlyBuffer();
+    }
+    advance(block);
+    return view;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PayloadInputStream [payload=%s, size=%s, position=%s]", this.payload,
+        this.size, this.position);
+  }
+}
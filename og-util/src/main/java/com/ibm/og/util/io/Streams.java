@@ -5,15 +5,16 @@
 
 package com.ibm.og.util.io;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Random;
 
 import com.ibm.og.api.Body;
 import com.google.common.base.Charsets;
-import com.google.common.io.ByteStreams;
 
 /**
  * A utility class for creating input and output streams
@@ -21,8 +22,11 @@ import com.google.common.io.ByteStreams;
  * @since 1.0
  */
 public class Streams {
-  public static final int REPEAT_LENGTH = 1024;
-  private static final byte[] ZERO_BUF = new byte[REPEAT_LENGTH];
+  /**
+   * The length of the shared patterns which random and zero bodies repeat, and so the largest
+   * block a {@link PayloadInputStream} transfers at once
+   */
+  public static final int PAYLOAD_LENGTH = 1024 * 1024;
   private static final InputStream NONE_INPUTSTREAM = new InputStream() {
     @Override
     public int read() {
@@ -38,14 +42,31 @@ public class Streams {
     public void reset() {}
   };
 
+  // generated on first use rather than when this class is loaded
+  private static class Payloads {
+    private static final PayloadBuffer ZEROES = new PayloadBuffer(new byte[PAYLOAD_LENGTH]);
+    private static final PayloadBuffer RANDOM = createRandomPayload();
+
+    private static PayloadBuffer createRandomPayload() {
+      final byte[] buf = new byte[PAYLOAD_LENGTH];
+      new Random().nextBytes(buf);
+      return new PayloadBuffer(buf);
+    }
+  }
+
   private Streams() {}
 
   /**
    * Creates an input stream from the provided body description. The size of this stream and its
-   * data are determined by the provided body's size and type, respectively.
+   * data are determined by the provided body's size and type, respectively. Random and zero
+   * bodies repeat a pattern of {@link #PAYLOAD_LENGTH} bytes which is generated once and shared by
+   * all streams; a random body starts at an offset into the random pattern derived from its seed.
+   * Generated bodies are produced by their {@link DataGenerator} as they are read.
    * 
    * @param body the description of an body
    * @return an input stream instance
+   * @throws IllegalArgumentException if body is of generated data but is not a
+   *         {@link GeneratedBody}
    */
   public static InputStream create(final Body body) {
     checkNotNull(body);
@@ -53,24 +74,21 @@ public class Streams {
       case NONE:
         return NONE_INPUTSTREAM;
       case ZEROES:
-        return create(ZERO_BUF, body.getSize());
+        return new PayloadInputStream(Payloads.ZEROES, 0, body.getSize());
       case CUSTOM:
-        return create(body.getContent().getBytes(Charsets.UTF_8), body.getSize());
+        return new PayloadInputStream(
+            new PayloadBuffer(body.getContent().getBytes(Charsets.UTF_8)), 0, body.getSize());
+      case GENERATED:
+        checkArgument(body instanceof GeneratedBody, "generated body must be a GeneratedBody [%s]",
+            body);
+        return ((GeneratedBody) body).getDataGenerator().create(body.getRandomSeed(),
+            body.getSize());
       default:
-        return create(createRandomBuffer(body.getRandomSeed()), body.getSize());
+        final int offset = (int) ((body.getRandomSeed() & Long.MAX_VALUE) % PAYLOAD_LENGTH);
+        return new PayloadInputStream(Payloads.RANDOM, offset, body.getSize());
     }
   }
 
-  private static InputStream create(final byte[] buf, final long size) {
-    return ByteStreams.limit(new InfiniteInputStream(buf), size);
-  }
-
-  private static byte[] createRandomBuffer(final long seed) {
-    final byte[] buf = new byte[REPEAT_LENGTH];
-    new Random(seed).nextBytes(buf);
-    return buf;
-  }
-
   /**
    * Creates an input stream which is throttled with a maximum throughput
    * 
@@ -95,4 +113,25 @@ public class Streams {
   public static OutputStream throttle(final OutputStream out, final long bytesPerSecond) {
     return new ThrottledOutputStream(out, bytesPerSecond);
   }
+
+  /**
+   * Reads an input stream to its end, discarding its content
+   * 
+   * @param in the input stream to drain
+   * @param buf the buffer to read into; its content is overwritten
+   * @return the number of bytes read
+   * @throws NullPointerException if in or buf is null
+   * @throws IllegalArgumentException if buf is empty
+   * @throws IOException if in throws an IOException
+   */
+  public static long drain(final InputStream in, final byte[] buf) throws IOException {
+    checkNotNull(in);
+    checkArgument(buf.length > 0, "buf length must be > 0 [%s]", buf.length);
+    long totalBytes = 0;
+    int bytesRead;
+    while ((bytesRead = in.read(buf, 0, buf.length)) > 0) {
+      totalBytes += bytesRead;
+    }
+    return totalBytes;
+  }
 }
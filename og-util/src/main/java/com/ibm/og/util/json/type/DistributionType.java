@@ -6,5 +6,5 @@
 package com.ibm.og.util.json.type;
 
 public enum DistributionType {
-  UNIFORM, NORMAL, LOGNORMAL, POISSON;
+  UNIFORM, NORMAL, LOGNORMAL, POISSON, EXPONENTIAL;
 }
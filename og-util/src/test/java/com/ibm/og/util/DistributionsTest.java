@@ -4,11 +4,16 @@
  */
 package com.ibm.og.util;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
+import com.google.common.collect.ImmutableList;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -69,6 +74,43 @@ public class DistributionsTest {
     validate(Distributions.poisson(10));
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidExponential() {
+    Distributions.exponential(0.0);
+  }
+
+  @Test
+  public void exponential() {
+    final Distribution d = Distributions.exponential(10);
+    validate(d);
+    double sum = 0.0;
+    for (int i = 0; i < 100000; i++) {
+      sum += d.nextSample();
+    }
+    assertThat(sum / 100000, closeTo(10.0, 0.5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emptyTrace() {
+    Distributions.trace(ImmutableList.<Double>of());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeTrace() {
+    Distributions.trace(ImmutableList.of(1.0, -1.0));
+  }
+
+  @Test
+  public void trace() {
+    final Distribution d = Distributions.trace(ImmutableList.of(1.0, 2.0, 6.0));
+    assertThat(d.getAverage(), closeTo(3.0, Math.pow(0.1, 6)));
+    for (int i = 0; i < 2; i++) {
+      assertThat(d.nextSample(), is(1.0));
+      assertThat(d.nextSample(), is(2.0));
+      assertThat(d.nextSample(), is(6.0));
+    }
+  }
+
   private static void validate(final Distribution d) {
     // TODO more thorough validation of each distribution type
     // just validate that nextSample, getAverage, and toString execute without exception
@@ -0,0 +1,142 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+package com.ibm.og.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class RankDistributionsTest {
+  private static final int SAMPLES = 200000;
+
+  @DataProvider
+  public static Object[][] provideInvalidZipf() {
+    return new Object[][] {{0.0}, {-1.0}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidZipf")
+  public void invalidZipf(final double exponent) {
+    RankDistributions.zipf(exponent);
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidHotSet() {
+    return new Object[][] {{0.0, 0.5}, {1.5, 0.5}, {0.5, -0.1}, {0.5, 1.5}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidHotSet")
+  public void invalidHotSet(final double hotRanks, final double hotSelections) {
+    RankDistributions.hotSet(hotRanks, hotSelections);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullLatest() {
+    RankDistributions.latest(null);
+  }
+
+  @DataProvider
+  public static Object[][] provideRankDistributions() {
+    return new Object[][] {{RankDistributions.uniform()}, {RankDistributions.zipf(0.99)},
+        {RankDistributions.zipf(1.0)}, {RankDistributions.zipf(2.5)},
+        {RankDistributions.hotSet(0.2, 0.8)},
+        {RankDistributions.latest(RankDistributions.zipf(0.99))}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideRankDistributions")
+  public void invalidPopulation(final RankDistribution distribution) {
+    distribution.nextRank(0);
+  }
+
+  @Test
+  @UseDataProvider("provideRankDistributions")
+  public void rankRange(final RankDistribution distribution) {
+    for (final long n : new long[] {1, 2, 10, 1000, Long.MAX_VALUE}) {
+      for (int i = 0; i < 1000; i++) {
+        final long rank = distribution.nextRank(n);
+        assertThat(rank, greaterThanOrEqualTo(0L));
+        assertThat(rank, lessThan(n));
+      }
+    }
+  }
+
+  @Test
+  public void zipf() {
+    final int n = 10;
+    final double exponent = 1.0;
+    final long[] counts = sample(RankDistributions.zipf(exponent), n);
+    double total = 0.0;
+    for (int k = 1; k <= n; k++) {
+      total += 1.0 / Math.pow(k, exponent);
+    }
+    for (int k = 1; k <= n; k++) {
+      final double expected = (1.0 / Math.pow(k, exponent)) / total;
+      assertThat((double) counts[k - 1] / SAMPLES, closeTo(expected, 0.01));
+    }
+  }
+
+  @Test
+  public void zipfChangingPopulation() {
+    final RankDistribution zipf = RankDistributions.zipf(1.5);
+    // a population which grows between calls still concentrates selections on the lowest ranks
+    long first = 0;
+    for (int i = 0; i < SAMPLES; i++) {
+      if (zipf.nextRank(1000 + i) == 0) {
+        first++;
+      }
+    }
+    assertThat((double) first / SAMPLES, closeTo(0.383, 0.01));
+  }
+
+  @Test
+  public void hotSet() {
+    final long[] counts = sample(RankDistributions.hotSet(0.2, 0.9), 100);
+    long hot = 0;
+    for (int i = 0; i < 20; i++) {
+      hot += counts[i];
+    }
+    assertThat((double) hot / SAMPLES, closeTo(0.9, 0.01));
+  }
+
+  @Test
+  public void hotSetSmallPopulation() {
+    // the hot set always has a member, and a population of one is always selected
+    final RankDistribution hotSet = RankDistributions.hotSet(0.01, 1.0);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(hotSet.nextRank(10), is(0L));
+      assertThat(hotSet.nextRank(1), is(0L));
+    }
+  }
+
+  @Test
+  public void latest() {
+    final long[] counts = sample(RankDistributions.latest(RankDistributions.zipf(1.0)), 10);
+    final long[] reversed = sample(RankDistributions.zipf(1.0), 10);
+    for (int i = 0; i < 10; i++) {
+      assertThat((double) counts[9 - i] / SAMPLES,
+          closeTo((double) reversed[i] / SAMPLES, 0.01));
+    }
+  }
+
+  private long[] sample(final RankDistribution distribution, final int n) {
+    final long[] counts = new long[n];
+    for (int i = 0; i < SAMPLES; i++) {
+      counts[(int) distribution.nextRank(n)]++;
+    }
+    return counts;
+  }
+}
@@ -0,0 +1,200 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+package com.ibm.og.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+public class RequestContextTest {
+  private RequestContext context;
+
+  @Before
+  public void before() {
+    this.context = new RequestContext();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullCopy() {
+    new RequestContext(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void putLongNonNumericKey() {
+    this.context.putLong(Context.X_OG_OBJECT_NAME, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getLongNonNumericKey() {
+    this.context.getLong(Context.X_OG_OBJECT_NAME, 1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void putNullKey() {
+    this.context.put(null, "value");
+  }
+
+  @Test
+  public void empty() {
+    assertThat(this.context.isEmpty(), is(true));
+    assertThat(this.context.size(), is(0));
+    assertThat(this.context.get(Context.X_OG_OBJECT_SIZE), nullValue());
+    assertThat(this.context.get(Context.X_OG_OBJECT_NAME), nullValue());
+    assertThat(this.context.getLong(Context.X_OG_OBJECT_SIZE, -1), is(-1L));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void getLongAbsent() {
+    this.context.getLong(Context.X_OG_OBJECT_SIZE);
+  }
+
+  @Test
+  public void putLong() {
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, 1024);
+    assertThat(this.context.getLong(Context.X_OG_OBJECT_SIZE), is(1024L));
+    assertThat(this.context.get(Context.X_OG_OBJECT_SIZE), is("1024"));
+    assertThat(this.context.containsKey(Context.X_OG_OBJECT_SIZE), is(true));
+    assertThat(this.context.size(), is(1));
+  }
+
+  @Test
+  public void putString() {
+    this.context.put(Context.X_OG_CONTAINER_SUFFIX, "-1");
+    assertThat(this.context.getInt(Context.X_OG_CONTAINER_SUFFIX), is(-1));
+    // the string form of a value put as a string is preserved
+    this.context.put(Context.X_OG_OBJECT_SIZE, "007");
+    assertThat(this.context.getLong(Context.X_OG_OBJECT_SIZE), is(7L));
+    assertThat(this.context.get(Context.X_OG_OBJECT_SIZE), is("007"));
+  }
+
+  @Test
+  public void putReplacesTypedValue() {
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, 1024);
+    assertThat(this.context.put(Context.X_OG_OBJECT_SIZE, "2048"), is("1024"));
+    assertThat(this.context.getLong(Context.X_OG_OBJECT_SIZE), is(2048L));
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, 4096);
+    assertThat(this.context.get(Context.X_OG_OBJECT_SIZE), is("4096"));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void putStringNotANumber() {
+    this.context.put(Context.X_OG_OBJECT_SIZE, "size");
+    assertThat(this.context.get(Context.X_OG_OBJECT_SIZE), is("size"));
+    this.context.getLong(Context.X_OG_OBJECT_SIZE);
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void getIntOutOfRange() {
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, Long.MAX_VALUE);
+    this.context.getInt(Context.X_OG_OBJECT_SIZE);
+  }
+
+  @Test
+  public void extras() {
+    this.context.put(Context.X_OG_OBJECT_NAME, "object");
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, 1);
+    assertThat(this.context.get(Context.X_OG_OBJECT_NAME), is("object"));
+    assertThat(this.context.size(), is(2));
+    assertThat(this.context.remove(Context.X_OG_OBJECT_NAME), is("object"));
+    assertThat(this.context.remove(Context.X_OG_OBJECT_SIZE), is("1"));
+    assertThat(this.context.isEmpty(), is(true));
+  }
+
+  @Test
+  public void mapEquality() {
+    this.context.put(Context.X_OG_OBJECT_NAME, "object");
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, 1024);
+    this.context.putLong(Context.X_OG_CONTAINER_SUFFIX, -1);
+    final Map<String, String> expected = ImmutableMap.of(Context.X_OG_OBJECT_NAME, "object",
+        Context.X_OG_OBJECT_SIZE, "1024", Context.X_OG_CONTAINER_SUFFIX, "-1");
+    assertThat(this.context.equals(expected), is(true));
+    assertThat(expected.equals(this.context), is(true));
+    assertThat(this.context.hashCode(), is(expected.hashCode()));
+    assertThat(Maps.newHashMap(this.context).equals(expected), is(true));
+  }
+
+  @Test
+  public void iteratorRemove() {
+    this.context.put(Context.X_OG_OBJECT_NAME, "object");
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, 1024);
+    final Iterator<Map.Entry<String, String>> it = this.context.entrySet().iterator();
+    while (it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+    assertThat(this.context.isEmpty(), is(true));
+  }
+
+  @Test
+  public void copy() {
+    this.context.put(Context.X_OG_OBJECT_NAME, "object");
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, 1024);
+    this.context.put(Context.X_OG_OBJECT_RETENTION, "60");
+    final RequestContext copy = new RequestContext(this.context.freeze());
+    assertThat(copy.isFrozen(), is(false));
+    assertThat(copy.equals(this.context), is(true));
+    assertThat(copy.getLong(Context.X_OG_OBJECT_SIZE), is(1024L));
+    assertThat(copy.getLong(Context.X_OG_OBJECT_RETENTION), is(60L));
+    copy.putLong(Context.X_OG_OBJECT_SIZE, 1);
+    assertThat(this.context.getLong(Context.X_OG_OBJECT_SIZE), is(1024L));
+  }
+
+  @Test
+  public void copyPlainMap() {
+    final RequestContext copy =
+        new RequestContext(ImmutableMap.of(Context.X_OG_OBJECT_SIZE, "1024", "key", "value"));
+    assertThat(copy.getLong(Context.X_OG_OBJECT_SIZE), is(1024L));
+    assertThat(copy.get("key"), is("value"));
+  }
+
+  @Test
+  public void clear() {
+    this.context.put(Context.X_OG_OBJECT_NAME, "object");
+    this.context.putLong(Context.X_OG_OBJECT_SIZE, 1024);
+    this.context.clear();
+    assertThat(this.context.isEmpty(), is(true));
+    assertThat(this.context.get(Context.X_OG_OBJECT_SIZE), nullValue());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void frozenPut() {
+    this.context.freeze().put(Context.X_OG_OBJECT_NAME, "object");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void frozenPutLong() {
+    this.context.freeze().putLong(Context.X_OG_OBJECT_SIZE, 1);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void frozenClear() {
+    this.context.freeze().clear();
+  }
+
+  @Test
+  public void staticPlainMap() {
+    final Map<String, String> map = Maps.newHashMap();
+    RequestContext.putLong(map, Context.X_OG_OBJECT_SIZE, 1024);
+    assertThat(map.get(Context.X_OG_OBJECT_SIZE), is("1024"));
+    assertThat(RequestContext.getLong(map, Context.X_OG_OBJECT_SIZE), is(1024L));
+    assertThat(RequestContext.getInt(map, Context.X_OG_CONTAINER_SUFFIX, -1), is(-1));
+  }
+
+  @Test
+  public void staticRequestContext() {
+    RequestContext.putLong(this.context, Context.X_OG_OBJECT_SIZE, 1024);
+    assertThat(RequestContext.getLong(this.context, Context.X_OG_OBJECT_SIZE), is(1024L));
+    assertThat(RequestContext.getInt(this.context, Context.X_OG_CONTAINER_SUFFIX, -1), is(-1));
+  }
+}
@@ -0,0 +1,123 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class BufferPoolTest {
+  @DataProvider
+  public static Object[][] provideInvalidBufferPool() {
+    return new Object[][] {{0, 1}, {-1, 1}, {1, -1}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidBufferPool")
+  public void invalidBufferPool(final int bufferSize, final int capacity) {
+    new BufferPool(bufferSize, true, capacity);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void releaseNull() {
+    new BufferPool(16, true, 1).release(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void releaseWrongSize() {
+    new BufferPool(16, true, 1).release(ByteBuffer.allocate(8));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void releaseDirect() {
+    new BufferPool(16, true, 1).release(ByteBuffer.allocateDirect(16));
+  }
+
+  @DataProvider
+  public static Object[][] provideThreadAffine() {
+    return new Object[][] {{true}, {false}};
+  }
+
+  @Test
+  @UseDataProvider("provideThreadAffine")
+  public void acquire(final boolean threadAffine) {
+    final BufferPool pool = new BufferPool(16, threadAffine, 1);
+    final ByteBuffer buf = pool.acquire();
+    assertThat(buf.capacity(), is(16));
+    assertThat(buf.remaining(), is(16));
+    assertThat(buf.hasArray(), is(true));
+    assertThat(pool.getBufferSize(), is(16));
+  }
+
+  @Test
+  @UseDataProvider("provideThreadAffine")
+  public void reuse(final boolean threadAffine) {
+    final BufferPool pool = new BufferPool(16, threadAffine, 1);
+    final ByteBuffer buf = pool.acquire();
+    buf.put((byte) 1).flip();
+    pool.release(buf);
+    final ByteBuffer reused = pool.acquire();
+    assertThat(reused, sameInstance(buf));
+    // acquired buffers are cleared
+    assertThat(reused.position(), is(0));
+    assertThat(reused.limit(), is(16));
+  }
+
+  @Test
+  public void acquireWhileHeld() {
+    final BufferPool pool = new BufferPool(16, true, 1);
+    final ByteBuffer buf = pool.acquire();
+    assertThat(pool.acquire(), not(sameInstance(buf)));
+  }
+
+  @Test
+  public void sharedAcrossThreads() throws InterruptedException {
+    final BufferPool pool = new BufferPool(16, true, 1);
+    final ByteBuffer cached = pool.acquire();
+    final ByteBuffer shared = pool.acquire();
+    pool.release(cached);
+    // this thread already caches a buffer, so the second goes to the shared queue
+    pool.release(shared);
+
+    final AtomicReference<ByteBuffer> acquired = new AtomicReference<ByteBuffer>();
+    final Thread t = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        acquired.set(pool.acquire());
+      }
+    });
+    t.start();
+    t.join();
+    assertThat(acquired.get(), sameInstance(shared));
+    assertThat(pool.acquire(), sameInstance(cached));
+  }
+
+  @Test
+  public void capacity() {
+    final BufferPool pool = new BufferPool(16, false, 1);
+    final ByteBuffer first = pool.acquire();
+    final ByteBuffer second = pool.acquire();
+    pool.release(first);
+    // discarded, the shared queue is full
+    pool.release(second);
+    assertThat(pool.acquire(), sameInstance(first));
+    final ByteBuffer third = pool.acquire();
+    assertThat(third, not(sameInstance(first)));
+    assertThat(third, not(sameInstance(second)));
+  }
+}
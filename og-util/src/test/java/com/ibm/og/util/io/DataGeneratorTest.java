@@ -0,0 +1,150 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@SuppressWarnings("resource")
+@RunWith(DataProviderRunner.class)
+public class DataGeneratorTest {
+  private static final int BLOCK_SIZE = 4096;
+
+  @DataProvider
+  public static Object[][] provideInvalidGenerator() {
+    return new Object[][] {{0, 1.0, 1.0}, {-1, 1.0, 1.0}, {BLOCK_SIZE, 0.5, 1.0},
+        {BLOCK_SIZE, 1.0, 0.5}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidGenerator")
+  public void invalidGenerator(final int blockSize, final double compressionRatio,
+      final double dedupeRatio) {
+    new DataGenerator(blockSize, compressionRatio, dedupeRatio);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSize() {
+    new DataGenerator(BLOCK_SIZE, 1.0, 1.0).create(1, -1);
+  }
+
+  @Test
+  public void sameSeedSameData() throws IOException {
+    final DataGenerator generator = new DataGenerator(BLOCK_SIZE, 2.0, 2.0);
+    final byte[] first = ByteStreams.toByteArray(generator.create(1, 3 * BLOCK_SIZE + 5));
+    assertThat(first.length, is(3 * BLOCK_SIZE + 5));
+    assertThat(Arrays.equals(first, ByteStreams.toByteArray(generator.create(1, first.length))),
+        is(true));
+    assertThat(Arrays.equals(first, ByteStreams.toByteArray(generator.create(2, first.length))),
+        is(false));
+  }
+
+  @Test
+  public void readsAgree() throws IOException {
+    final DataGenerator generator = new DataGenerator(100, 1.5, 1.0);
+    final int size = 1000;
+    final byte[] expected = ByteStreams.toByteArray(generator.create(3, size));
+
+    // one byte at a time
+    InputStream in = generator.create(3, size);
+    for (int i = 0; i < size; i++) {
+      assertThat(in.read(), is(expected[i] & 0xFF));
+    }
+    assertThat(in.read(), is(-1));
+
+    // odd sized reads, which split generated words and blocks
+    in = generator.create(3, size);
+    final byte[] buf = new byte[size];
+    int off = 0;
+    int bytesRead;
+    while ((bytesRead = in.read(buf, off, Math.min(13, size - off))) > 0) {
+      off += bytesRead;
+    }
+    assertThat(Arrays.equals(buf, expected), is(true));
+  }
+
+  @Test
+  public void skipAndReset() throws IOException {
+    final DataGenerator generator = new DataGenerator(100, 1.5, 1.0);
+    final byte[] expected = ByteStreams.toByteArray(generator.create(3, 1000));
+    final InputStream in = generator.create(3, 1000);
+
+    assertThat(in.skip(13), is(13L));
+    assertThat(in.read(), is(expected[13] & 0xFF));
+    in.mark(Integer.MAX_VALUE);
+    assertThat(in.skip(250), is(250L));
+    assertThat(in.read(), is(expected[264] & 0xFF));
+    in.reset();
+    assertThat(in.read(), is(expected[14] & 0xFF));
+    assertThat(in.skip(10000), is(1000L - 15));
+    assertThat(in.read(), is(-1));
+  }
+
+  @DataProvider
+  public static Object[][] provideCompressionRatio() {
+    return new Object[][] {{1.0}, {2.0}, {4.0}};
+  }
+
+  @Test
+  @UseDataProvider("provideCompressionRatio")
+  public void compressionRatio(final double compressionRatio) throws IOException {
+    final int size = 256 * BLOCK_SIZE;
+    final InputStream in = new DataGenerator(BLOCK_SIZE, compressionRatio, 1.0).create(1, size);
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    final DeflaterOutputStream out = new DeflaterOutputStream(compressed);
+    ByteStreams.copy(in, out);
+    out.close();
+
+    final double actual = (double) size / compressed.size();
+    assertThat(actual, closeTo(compressionRatio, 0.05 * compressionRatio));
+  }
+
+  @DataProvider
+  public static Object[][] provideDedupeRatio() {
+    return new Object[][] {{1.0}, {2.0}, {5.0}};
+  }
+
+  @Test
+  @UseDataProvider("provideDedupeRatio")
+  public void dedupeRatio(final double dedupeRatio) throws IOException {
+    final DataGenerator generator = new DataGenerator(BLOCK_SIZE, 1.0, dedupeRatio);
+    // many blocks relative to the shared blocks, spread over several streams
+    final int blocksPerStream = 4096;
+    final int streams = 10;
+    final Set<HashCode> unique = Sets.newHashSet();
+    final byte[] block = new byte[BLOCK_SIZE];
+    for (int seed = 0; seed < streams; seed++) {
+      final InputStream in = generator.create(seed, (long) blocksPerStream * BLOCK_SIZE);
+      while (ByteStreams.read(in, block, 0, BLOCK_SIZE) == BLOCK_SIZE) {
+        unique.add(Hashing.md5().hashBytes(block));
+      }
+    }
+
+    final double blocks = blocksPerStream * streams;
+    final double expectedUnique = blocks / dedupeRatio
+        + (dedupeRatio > 1.0 ? DataGenerator.SHARED_BLOCKS : 0);
+    assertThat((double) unique.size(), closeTo(expectedUnique, 0.05 * expectedUnique));
+  }
+}
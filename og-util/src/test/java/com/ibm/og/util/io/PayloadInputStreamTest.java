@@ -0,0 +1,206 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@SuppressWarnings("resource")
+@RunWith(DataProviderRunner.class)
+public class PayloadInputStreamTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+  private static final int PERIOD = 5;
+  private static final int SIZE = 12;
+  private byte[] pattern;
+  private PayloadBuffer payload;
+  private PayloadInputStream in;
+
+  @Before
+  public void before() {
+    this.pattern = new byte[PERIOD];
+    for (int i = 0; i < this.pattern.length; i++) {
+      this.pattern[i] = (byte) i;
+    }
+    this.payload = new PayloadBuffer(this.pattern);
+    // starts part way through the pattern
+    this.in = new PayloadInputStream(this.payload, 2, SIZE);
+  }
+
+  private int expected(final int i) {
+    return this.pattern[(2 + i) % PERIOD];
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullPayload() {
+    new PayloadInputStream(null, 0, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emptyPattern() {
+    new PayloadBuffer(new byte[0]);
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidStream() {
+    return new Object[][] {{-1, 1}, {PERIOD, 1}, {0, -1}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidStream")
+  public void invalidStream(final int offset, final long size) {
+    new PayloadInputStream(this.payload, offset, size);
+  }
+
+  @Test
+  public void readOneByteAtATime() {
+    for (int i = 0; i < SIZE; i++) {
+      assertThat(this.in.available(), is(SIZE - i));
+      assertThat(this.in.read(), is(expected(i)));
+    }
+    assertThat(this.in.read(), is(-1));
+    assertThat(this.in.available(), is(0));
+  }
+
+  @Test
+  public void readBuffer() {
+    final byte[] buf = new byte[SIZE + 3];
+    assertThat(this.in.read(buf, 1, buf.length - 1), is(SIZE));
+    for (int i = 0; i < SIZE; i++) {
+      assertThat((int) buf[i + 1], is(expected(i)));
+    }
+    assertThat(this.in.read(buf), is(-1));
+  }
+
+  @Test
+  public void readZeroLength() {
+    assertThat(this.in.read(new byte[1], 0, 0), is(0));
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidRead() {
+    final byte[] buf = new byte[1];
+    return new Object[][] {{null, 0, 1, NullPointerException.class},
+        {buf, -1, 1, IndexOutOfBoundsException.class},
+        {buf, 0, -1, IndexOutOfBoundsException.class},
+        {buf, 1, buf.length, IndexOutOfBoundsException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidRead")
+  public void invalidRead(final byte[] buf, final int off, final int len,
+      final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    this.in.read(buf, off, len);
+  }
+
+  @Test
+  public void skip() {
+    assertThat(this.in.skip(7), is(7L));
+    assertThat(this.in.read(), is(expected(7)));
+    assertThat(this.in.skip(100), is((long) SIZE - 8));
+    assertThat(this.in.read(), is(-1));
+  }
+
+  @Test
+  public void markReset() {
+    this.in.read();
+    this.in.mark(Integer.MAX_VALUE);
+    this.in.skip(8);
+    this.in.reset();
+    assertThat(this.in.read(), is(expected(1)));
+  }
+
+  @Test
+  public void writeTo() throws IOException {
+    final CountingOutputStream out = new CountingOutputStream();
+    assertThat(this.in.writeTo(out, 100), is((long) SIZE));
+    // blocks are limited to one pattern length
+    assertThat(out.writes, is(3));
+    final byte[] written = out.toByteArray();
+    assertThat(written.length, is(SIZE));
+    for (int i = 0; i < SIZE; i++) {
+      assertThat((int) written[i], is(expected(i)));
+    }
+    assertThat(this.in.read(), is(-1));
+  }
+
+  @Test
+  public void writeToBlockSize() throws IOException {
+    final CountingOutputStream out = new CountingOutputStream();
+    this.in.writeTo(out, 2);
+    assertThat(out.writes, is(SIZE / 2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void writeToInvalidBlockSize() throws IOException {
+    this.in.writeTo(new ByteArrayOutputStream(), 0);
+  }
+
+  @DataProvider
+  public static Object[][] provideDirect() {
+    return new Object[][] {{false}, {true}};
+  }
+
+  @Test
+  @UseDataProvider("provideDirect")
+  public void nextBlock(final boolean direct) {
+    int i = 0;
+    ByteBuffer block;
+    while ((block = this.in.nextBlock(4, direct)) != null) {
+      assertThat(block.isReadOnly(), is(true));
+      assertThat(block.isDirect(), is(direct));
+      assertThat(block.remaining() <= 4, is(true));
+      while (block.hasRemaining()) {
+        assertThat((int) block.get(), is(expected(i++)));
+      }
+    }
+    assertThat(i, is(SIZE));
+    assertThat(this.in.nextBlock(4, direct), nullValue());
+  }
+
+  @Test
+  public void directCopyShared() {
+    assertThat(this.payload.direct() == this.payload.direct(), is(true));
+  }
+
+  private static class CountingOutputStream extends OutputStream {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private int writes;
+
+    @Override
+    public void write(final int b) {
+      this.out.write(b);
+      this.writes++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      this.out.write(b, off, len);
+      this.writes++;
+    }
+
+    byte[] toByteArray() {
+      return this.out.toByteArray();
+    }
+  }
+}
@@ -6,6 +6,7 @@
 package com.ibm.og.util.io;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -17,6 +18,7 @@ import java.io.OutputStream;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.io.ByteStreams;
 import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
 
@@ -70,6 +72,50 @@ public class StreamsTest {
     }
   }
 
+  @Test
+  public void createCustom() throws IOException {
+    when(this.body.getDataType()).thenReturn(DataType.CUSTOM);
+    when(this.body.getContent()).thenReturn("ab");
+    when(this.body.getSize()).thenReturn(5L);
+    final InputStream in = Streams.create(this.body);
+    final byte[] buf = new byte[8];
+
+    assertThat(in.read(buf), is(5));
+    assertThat(new String(buf, 0, 5, "UTF-8"), is("ababa"));
+  }
+
+  @Test
+  public void createLargeRandom() throws IOException {
+    // larger than the shared pattern, and starting part way through it
+    final long size = 3L * Streams.PAYLOAD_LENGTH + 7;
+    when(this.body.getDataType()).thenReturn(DataType.RANDOM);
+    when(this.body.getRandomSeed()).thenReturn(Long.MIN_VALUE + 12345);
+    when(this.body.getSize()).thenReturn(size);
+    final InputStream in = Streams.create(this.body);
+
+    assertThat(in, instanceOf(PayloadInputStream.class));
+    assertThat(ByteStreams.copy(in, ByteStreams.nullOutputStream()), is(size));
+  }
+
+  @Test
+  public void createGenerated() throws IOException {
+    final GeneratedBody generated = mock(GeneratedBody.class);
+    when(generated.getDataType()).thenReturn(DataType.GENERATED);
+    when(generated.getRandomSeed()).thenReturn(7L);
+    when(generated.getSize()).thenReturn(10000L);
+    when(generated.getDataGenerator()).thenReturn(new DataGenerator(4096, 2.0, 1.0));
+    final InputStream in = Streams.create(generated);
+
+    assertThat(in, instanceOf(GeneratedInputStream.class));
+    assertThat(ByteStreams.copy(in, ByteStreams.nullOutputStream()), is(10000L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void createGeneratedWithoutGenerator() {
+    when(this.body.getDataType()).thenReturn(DataType.GENERATED);
+    Streams.create(this.body);
+  }
+
   @Test
   public void throttleInputStream() {
     Streams.throttle(mock(InputStream.class), 1);
@@ -79,4 +125,19 @@ public class StreamsTest {
   public void throttleOutputStream() {
     Streams.throttle(mock(OutputStream.class), 1);
   }
+
+  @Test
+  public void drain() throws IOException {
+    when(this.body.getDataType()).thenReturn(DataType.ZEROES);
+    when(this.body.getSize()).thenReturn(10000L);
+    final InputStream in = Streams.create(this.body);
+
+    assertThat(Streams.drain(in, new byte[4096]), is(10000L));
+    assertThat(in.read(), is(-1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void drainEmptyBuffer() throws IOException {
+    Streams.drain(mock(InputStream.class), new byte[0]);
+  }
 }